@@ -37,6 +37,7 @@ import org.jboss.as.controller.client.OperationMessageHandler;
 import org.jboss.as.controller.descriptions.DescriptionProvider;
 import org.jboss.as.controller.persistence.ConfigurationPersistenceException;
 import org.jboss.as.controller.persistence.ConfigurationPersister;
+import org.jboss.as.controller.persistence.XmlConfigurationPersister;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.Resource;
 import org.jboss.dmr.ModelNode;
@@ -326,6 +327,14 @@ public abstract class AbstractControllerService implements Service<ModelControll
             @Override
             public void run() {
                 try {
+                    // the changes may still be written on a background thread
+                    if (configurationPersister instanceof XmlConfigurationPersister) {
+                        try {
+                            ((XmlConfigurationPersister) configurationPersister).flush();
+                        } catch (ConfigurationPersistenceException e) {
+                            // the failed write was logged by the persister
+                        }
+                    }
                     stopAsynchronous(context);
                 } finally {
                     try {
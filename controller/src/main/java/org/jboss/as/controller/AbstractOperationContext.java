@@ -120,6 +120,10 @@ abstract class AbstractOperationContext implements OperationContext {
     private final List<ModelNode> controllerOperations = new ArrayList<ModelNode>(2);
     private boolean auditLogged;
     private final AuditLogger auditLogger;
+    /** The persistence resource the configuration changes were committed to, if any */
+    private ConfigurationPersister.PersistenceResource committedPersistenceResource;
+    /** The response of the operation whose configuration changes were committed */
+    private ModelNode committedResponse;
 
     enum ContextFlag {
         ROLLBACK_ON_FAIL, ALLOW_RESOURCE_SERVICE_RESTART,
@@ -155,6 +159,10 @@ abstract class AbstractOperationContext implements OperationContext {
         return booting;
     }
 
+    ControlledProcessState getProcessState() {
+        return processState;
+    }
+
     @Override
     public void addStep(final OperationStepHandler step, final Stage stage) throws IllegalArgumentException {
         addStep(step, stage, false);
@@ -269,7 +277,21 @@ abstract class AbstractOperationContext implements OperationContext {
      * @return the result action
      */
     ResultAction executeOperation() {
-        return completeStepInternal();
+        final ResultAction result = completeStepInternal();
+        if (committedPersistenceResource instanceof ConfigurationPersister.DeferredPersistenceResource) {
+            // The locks are released by now, so the operations waiting for them can commit changes which are
+            // flushed together with this one
+            try {
+                ((ConfigurationPersister.DeferredPersistenceResource) committedPersistenceResource).awaitCommitted();
+            } catch (ConfigurationPersistenceException e) {
+                // The change is applied but not on the disk; the failure is logged by the persister
+                if (committedResponse != null) {
+                    committedResponse.get(OUTCOME).set(FAILED);
+                    committedResponse.get(FAILURE_DESCRIPTION).set(MESSAGES.failedToPersistConfigurationChange(e.getLocalizedMessage()));
+                }
+            }
+        }
+        return result;
     }
 
     private ResultAction completeStepInternal() {
@@ -564,6 +586,8 @@ abstract class AbstractOperationContext implements OperationContext {
                 persistenceResource.rollback();
             } else {
                 persistenceResource.commit();
+                committedPersistenceResource = persistenceResource;
+                committedResponse = response;
             }
         }
 
@@ -0,0 +1,139 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.operations.validation.LongRangeValidator;
+import org.jboss.as.controller.persistence.ConfigurationPersister;
+import org.jboss.as.controller.persistence.XmlConfigurationPersister;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+
+/**
+ * Reads the metrics of the writes of the configuration file, which are only collected if the changes are coalesced
+ * and written on a background thread, and configures the window the changes are coalesced for.
+ */
+public class ConfigurationWriteMetricsHandler implements OperationStepHandler {
+
+    public static final SimpleAttributeDefinition COALESCE_WINDOW = new SimpleAttributeDefinitionBuilder("configuration-write-coalesce-window", ModelType.LONG, true)
+            .setDefaultValue(new ModelNode(0L))
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .setValidator(new LongRangeValidator(0, Long.MAX_VALUE, true, true))
+            .setAllowExpression(true)
+            .build();
+
+    public static final SimpleAttributeDefinition COALESCED_COMMITS = new SimpleAttributeDefinitionBuilder("configuration-coalesced-commits", ModelType.LONG, true)
+            .setStorageRuntime()
+            .build();
+
+    public static final SimpleAttributeDefinition WRITES = new SimpleAttributeDefinitionBuilder("configuration-writes", ModelType.LONG, true)
+            .setStorageRuntime()
+            .build();
+
+    public static final SimpleAttributeDefinition WRITE_TIME = new SimpleAttributeDefinitionBuilder("configuration-write-time", ModelType.LONG, true)
+            .setMeasurementUnit(MeasurementUnit.NANOSECONDS)
+            .setStorageRuntime()
+            .build();
+
+    public static final SimpleAttributeDefinition MAX_WRITE_TIME = new SimpleAttributeDefinitionBuilder("configuration-max-write-time", ModelType.LONG, true)
+            .setMeasurementUnit(MeasurementUnit.NANOSECONDS)
+            .setStorageRuntime()
+            .build();
+
+    private static final ConfigurationWriteMetricsHandler INSTANCE = new ConfigurationWriteMetricsHandler();
+
+    private ConfigurationWriteMetricsHandler() {
+    }
+
+    public static void registerAttributes(final ManagementResourceRegistration registration) {
+        registration.registerReadWriteAttribute(COALESCE_WINDOW, null, new CoalesceWindowWriteHandler());
+        registration.registerMetric(COALESCED_COMMITS, INSTANCE);
+        registration.registerMetric(WRITES, INSTANCE);
+        registration.registerMetric(WRITE_TIME, INSTANCE);
+        registration.registerMetric(MAX_WRITE_TIME, INSTANCE);
+    }
+
+    @Override
+    public void execute(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+        final XmlConfigurationPersister xmlPersister = getXmlConfigurationPersister(context);
+        if (xmlPersister != null) {
+            final String name = operation.require(NAME).asString();
+            if (COALESCED_COMMITS.getName().equals(name)) {
+                context.getResult().set(xmlPersister.getCoalescedCommitCount());
+            } else if (WRITES.getName().equals(name)) {
+                context.getResult().set(xmlPersister.getWriteCount());
+            } else if (WRITE_TIME.getName().equals(name)) {
+                context.getResult().set(xmlPersister.getWriteTime());
+            } else if (MAX_WRITE_TIME.getName().equals(name)) {
+                context.getResult().set(xmlPersister.getMaxWriteTime());
+            }
+        }
+        context.stepCompleted();
+    }
+
+    private static XmlConfigurationPersister getXmlConfigurationPersister(final OperationContext context) {
+        ConfigurationPersister persister = null;
+        if (context instanceof OperationContextImpl) {
+            persister = ((OperationContextImpl) context).getConfigurationPersister();
+        } else if (context instanceof ReadOnlyContext) {
+            persister = ((ReadOnlyContext) context).getConfigurationPersister();
+        }
+        return persister instanceof XmlConfigurationPersister ? (XmlConfigurationPersister) persister : null;
+    }
+
+    private static class CoalesceWindowWriteHandler extends AbstractWriteAttributeHandler<Void> {
+
+        private CoalesceWindowWriteHandler() {
+            super(COALESCE_WINDOW);
+        }
+
+        @Override
+        protected boolean requiresRuntime(final OperationContext context) {
+            // the persister is also used while booting and in admin-only mode
+            return true;
+        }
+
+        @Override
+        protected boolean applyUpdateToRuntime(final OperationContext context, final ModelNode operation, final String attributeName,
+                                               final ModelNode resolvedValue, final ModelNode currentValue, final HandbackHolder<Void> handbackHolder) {
+            setCoalesceWindow(context, resolvedValue);
+            return false;
+        }
+
+        @Override
+        protected void revertUpdateToRuntime(final OperationContext context, final ModelNode operation, final String attributeName,
+                                             final ModelNode valueToRestore, final ModelNode valueToRevert, final Void handback) {
+            setCoalesceWindow(context, valueToRestore);
+        }
+
+        private static void setCoalesceWindow(final OperationContext context, final ModelNode value) {
+            final XmlConfigurationPersister persister = getXmlConfigurationPersister(context);
+            if (persister != null) {
+                persister.setCoalesceWindow(value.asLong(0));
+            }
+        }
+    }
+}
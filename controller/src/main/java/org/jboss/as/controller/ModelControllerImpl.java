@@ -37,6 +37,7 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.PROCESS_STATE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESPONSE_HEADERS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ROLES;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ROLLBACK_ON_RUNTIME_FAILURE;
 
 import java.io.IOException;
@@ -56,6 +57,9 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.jboss.as.controller.access.Authorizer;
+import org.jboss.as.controller.access.Caller;
+import org.jboss.as.controller.access.Environment;
+import org.jboss.as.controller.access.rbac.StandardRole;
 import org.jboss.as.controller.audit.AuditLogger;
 import org.jboss.as.controller.audit.ManagedAuditLogger;
 import org.jboss.as.controller.client.ModelControllerClient;
@@ -85,6 +89,17 @@ import org.wildfly.security.manager.GetAccessControlContextAction;
  */
 class ModelControllerImpl implements ModelController {
 
+    /** Completes the operations whose responses were taken from the {@link ReadResultCache} */
+    private static final OperationTransaction NO_OP_TRANSACTION = new OperationTransaction() {
+        @Override
+        public void commit() {
+        }
+
+        @Override
+        public void rollback() {
+        }
+    };
+
     private final ServiceRegistry serviceRegistry;
     private final ServiceTarget serviceTarget;
     private final ManagementResourceRegistration rootRegistration;
@@ -107,6 +122,8 @@ class ModelControllerImpl implements ModelController {
     /** Tracks the relationship between domain resources and hosts and server groups */
     private final HostServerGroupTracker hostServerGroupTracker;
 
+    private final ReadResultCache readResultCache = new ReadResultCache();
+
     ModelControllerImpl(final ServiceRegistry serviceRegistry, final ServiceTarget serviceTarget, final ManagementResourceRegistration rootRegistration,
                         final ContainerStateMonitor stateMonitor, final ConfigurationPersister persister,
                         final ProcessType processType, final RunningModeControl runningModeControl,
@@ -183,17 +200,7 @@ class ModelControllerImpl implements ModelController {
             CurrentOperationIdHolder.setCurrentOperationID(null);
         }
 
-        if (!response.hasDefined(RESPONSE_HEADERS) || !response.get(RESPONSE_HEADERS).hasDefined(PROCESS_STATE)) {
-            ControlledProcessState.State state = processState.getState();
-            switch (state) {
-                case RELOAD_REQUIRED:
-                case RESTART_REQUIRED:
-                    response.get(RESPONSE_HEADERS, PROCESS_STATE).set(state.toString());
-                    break;
-                default:
-                    break;
-            }
-        }
+        addProcessStateHeader(response);
         return response;
     }
 
@@ -221,6 +228,21 @@ class ModelControllerImpl implements ModelController {
         if (restartResourceServices) {
             contextFlags.add(OperationContextImpl.ContextFlag.ALLOW_RESOURCE_SERVICE_RESTART);
         }
+        // The responses to the reads using the default prepare step are cached
+        final Caller caller = prepareStep == this.prepareStep && !attemptLock && !bootingFlag.get() ? SecurityActions.getCaller(null) : null;
+        final ModelNode cacheKey = caller != null && isReadResultCacheable(operation, caller) ? readResultCache.createKey(operation, caller) : null;
+        if (cacheKey != null) {
+            final ModelNode cached = readResultCache.get(cacheKey);
+            if (cached != null) {
+                if (control != null) {
+                    control.operationPrepared(NO_OP_TRANSACTION, cached);
+                }
+                addProcessStateHeader(cached);
+                return cached;
+            }
+        }
+        final long cacheGeneration = cacheKey == null ? 0 : readResultCache.getGeneration();
+
         final ModelNode response = new ModelNode();
         // Report the correct operation response, otherwise the preparedResult would only contain
         // the result of the last active step in a composite operation
@@ -238,7 +260,7 @@ class ModelControllerImpl implements ModelController {
                 domainUUID = operation.get(OPERATION_HEADERS, DOMAIN_UUID).asString();
             }
             final OperationContextImpl context = new OperationContextImpl(this, processType, runningModeControl.getRunningMode(),
-                    contextFlags, handler, attachments, model, originalResultTxControl, processState, auditLogger,
+                    contextFlags, handler, attachments, getModelSnapshot(), originalResultTxControl, processState, auditLogger,
                     bootingFlag.get(), operationID, domainUUID, hostServerGroupTracker);
             // Try again if the operation-id is already taken
             if(activeOperations.putIfAbsent(operationID, context) == null) {
@@ -267,6 +289,32 @@ class ModelControllerImpl implements ModelController {
             }
         }
 
+        if (cacheKey != null) {
+            readResultCache.put(cacheKey, response, rootRegistration, cacheGeneration);
+        }
+        addProcessStateHeader(response);
+        return response;
+    }
+
+    /**
+     * Whether the response to the operation may be taken from the {@link ReadResultCache}. A cached response is
+     * returned without an operation context, so without authorizing the operation nor audit logging it. The cache is
+     * therefore only used if read-only operations are not audit logged, and for the callers which are permitted
+     * everything: the callers only mapped to the SuperUser role, which is all of them with the simple access control
+     * provider, and not running the operation as other roles.
+     */
+    private boolean isReadResultCacheable(final ModelNode operation, final Caller caller) {
+        if (auditLogger.isLogReadOnly() && auditLogger.getLoggerStatus() != AuditLogger.Status.DISABLED) {
+            return false;
+        }
+        if (operation.hasDefined(OPERATION_HEADERS) && operation.get(OPERATION_HEADERS).hasDefined(ROLES)) {
+            return false;
+        }
+        final Set<String> roles = authorizer.getCallerRoles(caller, new Environment(processState, processType), null);
+        return roles != null && roles.size() == 1 && roles.contains(StandardRole.SUPERUSER.toString());
+    }
+
+    private void addProcessStateHeader(final ModelNode response) {
         if (!response.hasDefined(RESPONSE_HEADERS) || !response.get(RESPONSE_HEADERS).hasDefined(PROCESS_STATE)) {
             ControlledProcessState.State state = processState.getState();
             switch (state) {
@@ -278,7 +326,6 @@ class ModelControllerImpl implements ModelController {
                     break;
             }
         }
-        return response;
     }
 
     boolean boot(final List<ModelNode> bootList, final OperationMessageHandler handler, final OperationTransactionControl control,
@@ -552,10 +599,10 @@ class ModelControllerImpl implements ModelController {
         };
     }
 
-    ConfigurationPersister.PersistenceResource writeModel(final Resource resource, Set<PathAddress> affectedAddresses) throws ConfigurationPersistenceException {
+    ConfigurationPersister.PersistenceResource writeModel(final Resource resource, final Set<PathAddress> affectedAddresses) throws ConfigurationPersistenceException {
         final ModelNode newModel = Resource.Tools.readModel(resource);
         final ConfigurationPersister.PersistenceResource delegate = persister.store(newModel, affectedAddresses);
-        return new ConfigurationPersister.PersistenceResource() {
+        return new ConfigurationPersister.DeferredPersistenceResource() {
 
             @Override
             public void commit() {
@@ -565,6 +612,12 @@ class ModelControllerImpl implements ModelController {
                     hostServerGroupTracker.invalidate();
                 }
                 model.set(resource);
+                if (hostServerGroupTracker != null) {
+                    // the scoped roles depend on the model, so any write may change the access to any resource
+                    readResultCache.invalidateAll();
+                } else {
+                    readResultCache.invalidate(affectedAddresses);
+                }
                 delegate.commit();
             }
 
@@ -572,9 +625,24 @@ class ModelControllerImpl implements ModelController {
             public void rollback() {
                 delegate.rollback();
             }
+
+            @Override
+            public void awaitCommitted() throws ConfigurationPersistenceException {
+                if (delegate instanceof ConfigurationPersister.DeferredPersistenceResource) {
+                    ((ConfigurationPersister.DeferredPersistenceResource) delegate).awaitCommitted();
+                }
+            }
         };
     }
 
+    /**
+     * Gets the last published version of the model. Nothing modifies a published model, so an operation can read it
+     * as a consistent snapshot without holding the controller lock, while writers publish newer versions.
+     */
+    Resource getModelSnapshot() {
+        return model.getDelegate();
+    }
+
     void acquireLock(Integer permit, final boolean interruptibly, OperationContext context) throws InterruptedException {
         if (interruptibly) {
             //noinspection LockAcquiredButNotSafelyReleased
@@ -625,6 +693,14 @@ class ModelControllerImpl implements ModelController {
         return authorizer;
     }
 
+    ReadResultCache getReadResultCache() {
+        return readResultCache;
+    }
+
+    ConfigurationPersister getConfigurationPersister() {
+        return persister;
+    }
+
     private void logNoHandler(ParsedBootOp parsedOp) {
         ImmutableManagementResourceRegistration child = rootRegistration.getSubModel(parsedOp.address);
         if (child == null) {
@@ -639,6 +715,10 @@ class ModelControllerImpl implements ModelController {
         return auditLogger;
     }
 
+    ExecutorService getExecutorService() {
+        return executorService;
+    }
+
     private class DefaultPrepareStepHandler implements OperationStepHandler {
 
         @Override
@@ -677,6 +757,8 @@ class ModelControllerImpl implements ModelController {
          * TODO handlers with a local variable reference to children of this resource will see the old model.
          */
         void set(Resource resource){
+            // nothing modifies a published model, so the clones of it can share its resources
+            Resource.Tools.freeze(resource);
             modelReference.set(resource);
         }
 
@@ -50,6 +50,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
@@ -427,6 +428,18 @@ final class OperationContextImpl extends AbstractOperationContext {
         }
     }
 
+    /**
+     * Takes the write lock and copies the model the first time a step of this operation writes to the model. The
+     * copy is made from the latest published model, which may be newer than the snapshot read so far.
+     */
+    private void takeWriteLockAndCopyModel() {
+        if (!isModelAffected()) {
+            takeWriteLock();
+            originalModel = modelController.getModelSnapshot();
+            model = originalModel.clone();
+        }
+    }
+
     private void acquireContainerMonitor() {
         if (containerMonitorStep == null) {
             if (currentStage == Stage.DONE) {
@@ -479,10 +492,7 @@ final class OperationContextImpl extends AbstractOperationContext {
         rejectUserDomainServerUpdates();
         checkHostServerGroupTracker(address);
         authorize(false, READ_WRITE_CONFIG);
-        if (!isModelAffected()) {
-            takeWriteLock();
-            model = model.clone();
-        }
+        takeWriteLockAndCopyModel();
         affectsModel.put(address, NULL);
         Resource model = this.model;
         final Iterator<PathElement> i = address.iterator();
@@ -594,10 +604,7 @@ final class OperationContextImpl extends AbstractOperationContext {
         rejectUserDomainServerUpdates();
         checkHostServerGroupTracker(address);
         authorize(false, READ_WRITE_CONFIG);
-        if (!isModelAffected()) {
-            takeWriteLock();
-            model = model.clone();
-        }
+        takeWriteLockAndCopyModel();
         affectsModel.put(address, NULL);
         Resource resource = this.model;
         for (PathElement element : address) {
@@ -638,10 +645,7 @@ final class OperationContextImpl extends AbstractOperationContext {
         rejectUserDomainServerUpdates();
         checkHostServerGroupTracker(absoluteAddress);
         authorizeAdd();
-        if (!isModelAffected()) {
-            takeWriteLock();
-            model = model.clone();
-        }
+        takeWriteLockAndCopyModel();
         affectsModel.put(absoluteAddress, NULL);
         Resource model = this.model;
         final Iterator<PathElement> i = absoluteAddress.iterator();
@@ -692,10 +696,7 @@ final class OperationContextImpl extends AbstractOperationContext {
         rejectUserDomainServerUpdates();
         checkHostServerGroupTracker(address);
         authorize(false, READ_WRITE_CONFIG);
-        if (!isModelAffected()) {
-            takeWriteLock();
-            model = model.clone();
-        }
+        takeWriteLockAndCopyModel();
         affectsModel.put(address, NULL);
         Resource model = this.model;
         final Iterator<PathElement> i = address.iterator();
@@ -756,6 +757,9 @@ final class OperationContextImpl extends AbstractOperationContext {
             if (this.lockStep == step) {
                 modelController.releaseLock(operationId);
                 lockStep = null;
+                if (affectsResourceRegistration) {
+                    modelController.getReadResultCache().invalidateAll();
+                }
             }
             if (this.containerMonitorStep == step) {
                 // Note: If we allow this thread to be interrupted, an op that has been cancelled
@@ -935,6 +939,29 @@ final class OperationContextImpl extends AbstractOperationContext {
         return model;
     }
 
+    /**
+     * Gets the executor for the steps that read the model of this context in parallel, or {@code null} if there is
+     * none.
+     */
+    ExecutorService getExecutorService() {
+        return modelController.getExecutorService();
+    }
+
+    ReadResultCache getReadResultCache() {
+        return modelController.getReadResultCache();
+    }
+
+    ConfigurationPersister getConfigurationPersister() {
+        return modelController.getConfigurationPersister();
+    }
+
+    /**
+     * Creates a context for steps that read the model of this context on another thread.
+     */
+    ParallelReadOperationContext createParallelReadContext() {
+        return new ParallelReadOperationContext(this, modelController, operationId);
+    }
+
 
     @Override
     String getDomainUUID() {
@@ -1607,9 +1634,10 @@ final class OperationContextImpl extends AbstractOperationContext {
 
     private class AuthorizationResponseImpl implements ResourceAuthorization {
 
-        private Map<Action.ActionEffect, AuthorizationResult> resourceResults = new HashMap<Action.ActionEffect, AuthorizationResult>();
-        private Map<String, Map<Action.ActionEffect, AuthorizationResult>> attributeResults = new HashMap<String, Map<Action.ActionEffect, AuthorizationResult>>();
-        private Map<String, AuthorizationResult> operationResults = new HashMap<String, AuthorizationResult>();
+        // concurrent, as the steps of a ParallelReadStepHandler authorize their reads at the same time
+        private Map<Action.ActionEffect, AuthorizationResult> resourceResults = new ConcurrentHashMap<Action.ActionEffect, AuthorizationResult>();
+        private ConcurrentMap<String, Map<Action.ActionEffect, AuthorizationResult>> attributeResults = new ConcurrentHashMap<String, Map<Action.ActionEffect, AuthorizationResult>>();
+        private Map<String, AuthorizationResult> operationResults = new ConcurrentHashMap<String, AuthorizationResult>();
         private final TargetResource targetResource;
         private final Action standardAction;
         private volatile boolean attributesComplete = false;
@@ -1639,8 +1667,11 @@ final class OperationContextImpl extends AbstractOperationContext {
         private void addAttributeResult(String attribute, Action.ActionEffect actionEffect, AuthorizationResult result) {
             Map<Action.ActionEffect, AuthorizationResult> attrResults = attributeResults.get(attribute);
             if (attrResults == null) {
-                attrResults = new HashMap<Action.ActionEffect, AuthorizationResult>();
-                attributeResults.put(attribute, attrResults);
+                attrResults = new ConcurrentHashMap<Action.ActionEffect, AuthorizationResult>();
+                Map<Action.ActionEffect, AuthorizationResult> existing = attributeResults.putIfAbsent(attribute, attrResults);
+                if (existing != null) {
+                    attrResults = existing;
+                }
             }
             attrResults.put(actionEffect, result);
         }
@@ -0,0 +1,91 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller;
+
+import org.jboss.as.controller.audit.AuditLogger;
+import org.jboss.as.controller.registry.ImmutableManagementResourceRegistration;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceTarget;
+
+/**
+ * A read-only {@linkplain OperationContext} for a step a {@link ParallelReadStepHandler} executes on another thread.
+ * Unlike its {@link ReadOnlyContext} base, it reads the model of the primary context by absolute address, as the
+ * primary context is busy with the step that waits for this one. It neither takes locks nor writes audit records,
+ * the primary context does both for the whole operation.
+ */
+final class ParallelReadOperationContext extends ReadOnlyContext {
+
+    private final AbstractOperationContext primaryContext;
+
+    ParallelReadOperationContext(final AbstractOperationContext primaryContext, final ModelControllerImpl controller, final int operationId) {
+        super(primaryContext.getProcessType(), primaryContext.getRunningMode(), null, primaryContext.getProcessState(),
+                primaryContext.isBooting(), primaryContext, controller, operationId, AuditLogger.NO_OP_LOGGER);
+        this.primaryContext = primaryContext;
+    }
+
+    @Override
+    public ImmutableManagementResourceRegistration getResourceRegistration() {
+        return primaryContext.getRootResourceRegistration().getSubModel(activeStep.address);
+    }
+
+    @Override
+    public ServiceTarget getServiceTarget() throws UnsupportedOperationException {
+        throw readOnlyContext();
+    }
+
+    @Override
+    public ModelNode readModel(PathAddress address) {
+        return Resource.Tools.readModel(readResource(address));
+    }
+
+    @Override
+    public Resource readResource(PathAddress address) {
+        return readResource(address, true);
+    }
+
+    @Override
+    public Resource readResource(PathAddress address, boolean recursive) {
+        return primaryContext.readResourceFromRoot(activeStep.address.append(address), recursive);
+    }
+
+    @Override
+    public void acquireControllerLock() {
+        throw readOnlyContext();
+    }
+
+    @Override
+    public boolean isModelAffected() {
+        return false;
+    }
+
+    @Override
+    public boolean isResourceRegistryAffected() {
+        return false;
+    }
+
+    @Override
+    public boolean isRuntimeAffected() {
+        return false;
+    }
+}
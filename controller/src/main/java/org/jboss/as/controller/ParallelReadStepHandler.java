@@ -0,0 +1,177 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller;
+
+import static org.jboss.as.controller.ControllerMessages.MESSAGES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILED;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+
+import java.security.AccessControlContext;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Handler that executes read-only steps in parallel, on at most as many threads as there are processors, and
+ * completes once all of them did. Each step is executed in its own {@link ParallelReadOperationContext}, which
+ * reads the model of the context that executes this handler. The responses of the steps are written to the nodes
+ * passed to {@link #addStep(ModelNode, ModelNode, OperationStepHandler)}, so they can be assembled in order afterwards.
+ * <p/>
+ * The steps read the published model the operation started with, which nothing modifies, so only an operation that
+ * has not modified the model can execute them in parallel.
+ */
+public final class ParallelReadStepHandler implements OperationStepHandler {
+
+    private static final int PARALLELISM = Runtime.getRuntime().availableProcessors();
+
+    private final OperationContextImpl primaryContext;
+    private final Executor executor;
+    private final List<ReadStep> steps = new ArrayList<ReadStep>();
+
+    private ParallelReadStepHandler(final OperationContextImpl primaryContext, final Executor executor) {
+        this.primaryContext = primaryContext;
+        this.executor = executor;
+    }
+
+    /**
+     * Creates a handler for steps of the given context.
+     *
+     * @param context the context of the step that adds this handler
+     * @return the handler, or {@code null} if the context cannot execute steps in parallel
+     */
+    public static ParallelReadStepHandler create(final OperationContext context) {
+        if (context instanceof OperationContextImpl && !context.isBooting() && !context.isModelAffected()) {
+            final OperationContextImpl primaryContext = (OperationContextImpl) context;
+            final Executor executor = primaryContext.getExecutorService();
+            if (executor != null) {
+                return new ParallelReadStepHandler(primaryContext, executor);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Adds a read-only step to execute in parallel with the others. The step is executed in the {@code MODEL} stage of
+     * its own context, along with any steps it adds.
+     *
+     * @param response the response node of the step
+     * @param operation the operation of the step
+     * @param step the handler of the step
+     */
+    public void addStep(final ModelNode response, final ModelNode operation, final OperationStepHandler step) {
+        steps.add(new ReadStep(response, operation, step));
+    }
+
+    @Override
+    public void execute(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+        final Queue<ReadStep> queue = new ConcurrentLinkedQueue<ReadStep>(steps);
+        final Thread controllingThread = Thread.currentThread();
+        final Integer operationId = CurrentOperationIdHolder.getCurrentOperationID();
+        // the workers read as the caller of the operation
+        final AccessControlContext accessControlContext = AccessController.getContext();
+        final int workers = Math.min(steps.size(), PARALLELISM) - 1;
+        final CountDownLatch done = new CountDownLatch(Math.max(workers, 0));
+        for (int i = 0; i < workers; i++) {
+            final Runnable worker = new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        AccessController.doPrivileged(new PrivilegedAction<Void>() {
+                            @Override
+                            public Void run() {
+                                executeSteps(queue, controllingThread, operationId);
+                                return null;
+                            }
+                        }, accessControlContext);
+                    } finally {
+                        done.countDown();
+                    }
+                }
+            };
+            try {
+                executor.execute(worker);
+            } catch (RejectedExecutionException e) {
+                // the steps are executed by the other workers
+                done.countDown();
+            }
+        }
+        // this thread executes steps too, so all of them get executed even if none of the workers runs
+        executeSteps(queue, controllingThread, operationId);
+        try {
+            done.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw MESSAGES.operationCancelledAsynchronously();
+        }
+        context.stepCompleted();
+    }
+
+    private void executeSteps(final Queue<ReadStep> queue, final Thread controllingThread, final Integer operationId) {
+        final boolean worker = Thread.currentThread() != controllingThread;
+        if (worker) {
+            // the primary context is controlled by the thread that waits for this one
+            AbstractOperationContext.controllingThread.set(controllingThread);
+            CurrentOperationIdHolder.setCurrentOperationID(operationId);
+        }
+        try {
+            ReadStep step;
+            while ((step = queue.poll()) != null) {
+                try {
+                    final ParallelReadOperationContext context = primaryContext.createParallelReadContext();
+                    context.addStep(step.response, step.operation, step.handler, OperationContext.Stage.MODEL);
+                    context.executeOperation();
+                } catch (RuntimeException e) {
+                    step.response.get(OUTCOME).set(FAILED);
+                    step.response.get(FAILURE_DESCRIPTION).set(e.toString());
+                }
+            }
+        } finally {
+            if (worker) {
+                AbstractOperationContext.controllingThread.remove();
+                CurrentOperationIdHolder.setCurrentOperationID(null);
+            }
+        }
+    }
+
+    private static final class ReadStep {
+
+        private final ModelNode response;
+        private final ModelNode operation;
+        private final OperationStepHandler handler;
+
+        private ReadStep(final ModelNode response, final ModelNode operation, final OperationStepHandler handler) {
+            this.response = response;
+            this.operation = operation;
+            this.handler = handler;
+        }
+    }
+}
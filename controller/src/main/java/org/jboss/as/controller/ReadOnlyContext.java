@@ -30,6 +30,7 @@ import java.util.Set;
 import org.jboss.as.controller.access.Action;
 import org.jboss.as.controller.access.AuthorizationResult;
 import org.jboss.as.controller.access.ResourceAuthorization;
+import org.jboss.as.controller.audit.AuditLogger;
 import org.jboss.as.controller.client.MessageSeverity;
 import org.jboss.as.controller.persistence.ConfigurationPersistenceException;
 import org.jboss.as.controller.persistence.ConfigurationPersister;
@@ -59,7 +60,13 @@ class ReadOnlyContext extends AbstractOperationContext {
     ReadOnlyContext(final ProcessType processType, final RunningMode runningMode, final ModelController.OperationTransactionControl transactionControl,
                     final ControlledProcessState processState, final boolean booting,
                     final AbstractOperationContext primaryContext, final ModelControllerImpl controller, final int operationId) {
-        super(processType, runningMode, transactionControl, processState, booting, controller.getAuditLogger());
+        this(processType, runningMode, transactionControl, processState, booting, primaryContext, controller, operationId, controller.getAuditLogger());
+    }
+
+    ReadOnlyContext(final ProcessType processType, final RunningMode runningMode, final ModelController.OperationTransactionControl transactionControl,
+                    final ControlledProcessState processState, final boolean booting, final AbstractOperationContext primaryContext,
+                    final ModelControllerImpl controller, final int operationId, final AuditLogger auditLogger) {
+        super(processType, runningMode, transactionControl, processState, booting, auditLogger);
         this.primaryContext = primaryContext;
         this.controller = controller;
         this.operationId = operationId;
@@ -100,6 +107,14 @@ class ReadOnlyContext extends AbstractOperationContext {
         return false;
     }
 
+    ReadResultCache getReadResultCache() {
+        return controller.getReadResultCache();
+    }
+
+    ConfigurationPersister getConfigurationPersister() {
+        return controller.getConfigurationPersister();
+    }
+
     @Override
     public ImmutableManagementResourceRegistration getResourceRegistration() {
         return primaryContext.getResourceRegistration();
@@ -0,0 +1,313 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.jboss.as.controller;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ACCESS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ACCESS_CONTROL;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.AUTHORIZATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CORE_SERVICE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INCLUDE_RUNTIME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MANAGEMENT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.PROXIES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_RESOURCE_DESCRIPTION_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_RESOURCE_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RECURSIVE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RECURSIVE_DEPTH;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jboss.as.controller.access.Caller;
+import org.jboss.as.controller.registry.ImmutableManagementResourceRegistration;
+import org.jboss.dmr.ModelNode;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * Caches the responses to the {@code read-resource-description} operations, and to the {@code read-resource} operations
+ * that don't include the runtime attributes, keyed by the operation and the caller.
+ * <p/>
+ * A response to a {@code read-resource} depends on the model of the target resource and of its children, up to the
+ * depth of the read, so it is invalidated by the model writes to these addresses, or to any of their parents. A
+ * response to a {@code read-resource-description} does not depend on the model, unless it includes the access control
+ * information. The changes to the resource registrations and to the access control configuration invalidate the whole
+ * cache.
+ * <p/>
+ * The responses computed by the operations that ran concurrently with an invalidation are not cached, as they may be
+ * based on the model before the write.
+ * <p/>
+ * A cached response is returned without authorizing nor audit logging the operation, so the controller only uses
+ * it for the callers which are permitted everything, and while read-only operations are not audit logged.
+ */
+final class ReadResultCache {
+
+    static final String MAX_ENTRIES_PROPERTY = "jboss.as.management.read-result-cache-size";
+
+    private static final int UNLIMITED_DEPTH = Integer.MAX_VALUE;
+    // the depth of the responses which don't depend on the model
+    private static final int NO_DEPTH = -1;
+
+    private final Map<ModelNode, Entry> entries = new LinkedHashMap<ModelNode, Entry>(16, 0.75f, true);
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private int maxEntries;
+    private long generation;
+
+    ReadResultCache() {
+        int maxEntries;
+        try {
+            maxEntries = Integer.parseInt(WildFlySecurityManager.getPropertyPrivileged(MAX_ENTRIES_PROPERTY, "0"));
+        } catch (NumberFormatException ignored) {
+            maxEntries = 0;
+        }
+        this.maxEntries = Math.max(0, maxEntries);
+    }
+
+    /**
+     * Creates the key to cache the response to the operation under, if the operation is cacheable.
+     *
+     * @param operation the operation
+     * @param caller the caller executing the operation
+     * @return the key, or {@code null} if the response to the operation is not cached
+     */
+    ModelNode createKey(final ModelNode operation, final Caller caller) {
+        synchronized (this) {
+            if (maxEntries == 0) {
+                return null;
+            }
+        }
+        final String name = operation.get(OP).asString();
+        if (READ_RESOURCE_OPERATION.equals(name)) {
+            if (operation.get(INCLUDE_RUNTIME).asBoolean(false) || operation.get(PROXIES).asBoolean(false)) {
+                return null;
+            }
+        } else if (!READ_RESOURCE_DESCRIPTION_OPERATION.equals(name)) {
+            return null;
+        }
+        final ModelNode key = new ModelNode();
+        key.get(OP).set(operation);
+        if (caller.hasSubject()) {
+            final ModelNode callerKey = key.get(ACCESS);
+            callerKey.get("name").set(caller.getName());
+            final String realm = caller.getRealm();
+            if (realm != null) {
+                callerKey.get("realm").set(realm);
+            }
+            for (String group : new TreeSet<String>(caller.getAssociatedGroups())) {
+                callerKey.get("groups").add(group);
+            }
+            for (String role : new TreeSet<String>(caller.getAssociatedRoles())) {
+                callerKey.get("roles").add(role);
+            }
+        }
+        return key;
+    }
+
+    /**
+     * Gets the generation of the cache, to pass to {@link #put(ModelNode, ModelNode, ImmutableManagementResourceRegistration, long)}
+     * once the operation completes.
+     */
+    synchronized long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Gets a copy of the cached response.
+     *
+     * @param key the key created for the operation
+     * @return the response, or {@code null} if it is not cached
+     */
+    ModelNode get(final ModelNode key) {
+        final Entry entry;
+        synchronized (this) {
+            entry = entries.get(key);
+        }
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.response.clone();
+    }
+
+    /**
+     * Caches the response to the operation, unless the cache was invalidated since the passed generation, or the
+     * response may depend on something else than the model.
+     *
+     * @param key the key created for the operation
+     * @param response the response
+     * @param rootRegistration the root resource registration
+     * @param generation the generation of the cache before the operation was executed
+     */
+    void put(final ModelNode key, final ModelNode response, final ImmutableManagementResourceRegistration rootRegistration, final long generation) {
+        if (!SUCCESS.equals(response.get(OUTCOME).asString())) {
+            return;
+        }
+        final ModelNode operation = key.get(OP);
+        final PathAddress address = PathAddress.pathAddress(operation.get(OP_ADDR));
+        final boolean description = READ_RESOURCE_DESCRIPTION_OPERATION.equals(operation.get(OP).asString());
+        final int readDepth = operation.get(RECURSIVE_DEPTH).asInt(0) > 0 ? operation.get(RECURSIVE_DEPTH).asInt()
+                : operation.get(RECURSIVE).asBoolean(false) ? UNLIMITED_DEPTH : description ? 0 : 1;
+        final ImmutableManagementResourceRegistration registration = rootRegistration.getSubModel(address);
+        if (registration == null || !isLocal(registration, readDepth, !description)) {
+            return;
+        }
+        // a read-resource includes the names of the children even if it is not recursive
+        final int depth = description && !operation.hasDefined(ACCESS_CONTROL) ? NO_DEPTH : readDepth;
+        final Entry entry = new Entry(address, depth, response.clone());
+        synchronized (this) {
+            if (generation == this.generation && maxEntries > 0) {
+                entries.put(key, entry);
+                if (entries.size() > maxEntries) {
+                    final Iterator<Entry> eldest = entries.values().iterator();
+                    eldest.next();
+                    eldest.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Invalidates the responses which depend on the model at the passed addresses.
+     *
+     * @param affectedAddresses the addresses written by an operation
+     */
+    synchronized void invalidate(final Set<PathAddress> affectedAddresses) {
+        generation++;
+        for (PathAddress affected : affectedAddresses) {
+            if (isAccessControlAddress(affected)) {
+                entries.clear();
+                return;
+            }
+        }
+        for (Iterator<Entry> it = entries.values().iterator(); it.hasNext(); ) {
+            final Entry entry = it.next();
+            for (PathAddress affected : affectedAddresses) {
+                if (entry.dependsOn(affected)) {
+                    it.remove();
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Invalidates all cached responses.
+     */
+    synchronized void invalidateAll() {
+        generation++;
+        entries.clear();
+    }
+
+    synchronized int getMaxEntries() {
+        return maxEntries;
+    }
+
+    synchronized void setMaxEntries(final int maxEntries) {
+        this.maxEntries = maxEntries;
+        generation++;
+        for (Iterator<Entry> it = entries.values().iterator(); entries.size() > maxEntries; ) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    long getHits() {
+        return hits.get();
+    }
+
+    long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Checks that no remote resources, nor, for a {@code read-resource}, runtime resources can be reached from the
+     * passed registration within the depth of the read, as the responses of these are not based on the model.
+     */
+    private static boolean isLocal(final ImmutableManagementResourceRegistration registration, final int depth, final boolean model) {
+        if (registration.isRemote() || (model && registration.isRuntimeOnly())) {
+            return false;
+        }
+        if (depth > 0) {
+            for (PathElement child : registration.getChildAddresses(PathAddress.EMPTY_ADDRESS)) {
+                final ImmutableManagementResourceRegistration childRegistration = registration.getSubModel(PathAddress.pathAddress(child));
+                if (childRegistration != null && !childRegistration.isAlias() && !isLocal(childRegistration, depth - 1, model)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean isAccessControlAddress(final PathAddress address) {
+        for (int i = 0; i < address.size() - 1; i++) {
+            final PathElement element = address.getElement(i);
+            final PathElement next = address.getElement(i + 1);
+            if (CORE_SERVICE.equals(element.getKey()) && MANAGEMENT.equals(element.getValue())
+                    && ACCESS.equals(next.getKey()) && AUTHORIZATION.equals(next.getValue())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class Entry {
+
+        private final PathAddress address;
+        private final int depth;
+        private final ModelNode response;
+
+        private Entry(final PathAddress address, final int depth, final ModelNode response) {
+            this.address = address;
+            this.depth = depth;
+            this.response = response;
+        }
+
+        /**
+         * Whether the write to the passed address may change the response, that is whether it is a parent of the read
+         * resource, the read resource itself, or one of its children up to the depth of the read.
+         */
+        private boolean dependsOn(final PathAddress affected) {
+            if (depth == NO_DEPTH) {
+                return false;
+            }
+            final int common = Math.min(affected.size(), address.size());
+            for (int i = 0; i < common; i++) {
+                final PathElement affectedElement = affected.getElement(i);
+                final PathElement element = address.getElement(i);
+                if (!affectedElement.equals(element) && !(element.isWildcard() && element.getKey().equals(affectedElement.getKey()))) {
+                    return false;
+                }
+            }
+            return affected.size() - address.size() <= depth;
+        }
+    }
+}
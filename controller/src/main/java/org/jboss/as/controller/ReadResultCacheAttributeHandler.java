@@ -0,0 +1,109 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.jboss.as.controller;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.VALUE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.WRITE_ATTRIBUTE_OPERATION;
+
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+
+/**
+ * Reads and tunes the cache of the responses to the read operations of the {@link ModelController}. The tuning is
+ * not persisted, the initial size of the cache is taken from the
+ * {@code jboss.as.management.read-result-cache-size} system property, and defaults to {@code 0}, which disables the
+ * cache.
+ */
+public class ReadResultCacheAttributeHandler implements OperationStepHandler {
+
+    public static final SimpleAttributeDefinition MAX_ENTRIES = new SimpleAttributeDefinitionBuilder("read-result-cache-max-entries", ModelType.INT, true)
+            .setValidator(new IntRangeValidator(0, true))
+            .setStorageRuntime()
+            .build();
+
+    public static final SimpleAttributeDefinition HITS = new SimpleAttributeDefinitionBuilder("read-result-cache-hits", ModelType.LONG, true)
+            .setStorageRuntime()
+            .build();
+
+    public static final SimpleAttributeDefinition MISSES = new SimpleAttributeDefinitionBuilder("read-result-cache-misses", ModelType.LONG, true)
+            .setStorageRuntime()
+            .build();
+
+    private static final ReadResultCacheAttributeHandler INSTANCE = new ReadResultCacheAttributeHandler();
+
+    private ReadResultCacheAttributeHandler() {
+    }
+
+    public static void registerAttributes(final ManagementResourceRegistration registration) {
+        registration.registerReadWriteAttribute(MAX_ENTRIES, INSTANCE, INSTANCE);
+        registration.registerMetric(HITS, INSTANCE);
+        registration.registerMetric(MISSES, INSTANCE);
+    }
+
+    @Override
+    public void execute(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+        final ReadResultCache cache = getReadResultCache(context);
+        if (WRITE_ATTRIBUTE_OPERATION.equals(operation.require(OP).asString())) {
+            final ModelNode value = operation.get(VALUE);
+            MAX_ENTRIES.getValidator().validateParameter(VALUE, value);
+            final int maxEntries = value.asInt(0);
+            context.addStep(new OperationStepHandler() {
+                @Override
+                public void execute(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+                    final int previous = cache.getMaxEntries();
+                    cache.setMaxEntries(maxEntries);
+                    context.completeStep(new OperationContext.RollbackHandler() {
+                        @Override
+                        public void handleRollback(final OperationContext context, final ModelNode operation) {
+                            cache.setMaxEntries(previous);
+                        }
+                    });
+                }
+            }, OperationContext.Stage.RUNTIME);
+        } else if (cache != null) {
+            final String name = operation.require(NAME).asString();
+            if (MAX_ENTRIES.getName().equals(name)) {
+                context.getResult().set(cache.getMaxEntries());
+            } else if (HITS.getName().equals(name)) {
+                context.getResult().set(cache.getHits());
+            } else if (MISSES.getName().equals(name)) {
+                context.getResult().set(cache.getMisses());
+            }
+        }
+        context.stepCompleted();
+    }
+
+    private static ReadResultCache getReadResultCache(final OperationContext context) {
+        if (context instanceof OperationContextImpl) {
+            return ((OperationContextImpl) context).getReadResultCache();
+        } else if (context instanceof ReadOnlyContext) {
+            return ((ReadOnlyContext) context).getReadResultCache();
+        }
+        return null;
+    }
+}
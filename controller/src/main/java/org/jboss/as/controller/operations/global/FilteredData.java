@@ -37,7 +37,8 @@ import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.Property;
 
 /**
- * Collection point for information about data filtered from a :read-resource[-description] call.
+ * Collection point for information about data filtered from a :read-resource[-description] call. Synchronized, as
+ * the reads of child resources may be executed in parallel.
  *
  * @author Brian Stansberry (c) 2013 Red Hat Inc.
  */
@@ -50,7 +51,7 @@ class FilteredData {
         this.baseAddressLength = baseAddress.size();
     }
 
-    void addReadRestrictedAttribute(PathAddress fullAddress, String attribute) {
+    synchronized void addReadRestrictedAttribute(PathAddress fullAddress, String attribute) {
         ResourceData rd = getResourceData(fullAddress);
         if (rd.attributes == null) {
             rd.attributes = new HashSet<String>();
@@ -58,7 +59,7 @@ class FilteredData {
         rd.attributes.add(attribute);
     }
 
-    void addReadRestrictedResource(PathAddress fullAddress) {
+    synchronized void addReadRestrictedResource(PathAddress fullAddress) {
         assert fullAddress.size() > 0 : "cannot filter root resource";
         ResourceData rd = getResourceData(fullAddress.subAddress(0, fullAddress.size() - 1));
         if (rd.children == null) {
@@ -68,7 +69,7 @@ class FilteredData {
 
     }
 
-    void addAccessRestrictedResource(PathAddress fullAddress) {
+    synchronized void addAccessRestrictedResource(PathAddress fullAddress) {
         assert fullAddress.size() > 0 : "cannot filter root resource";
         ResourceData rd = getResourceData(fullAddress.subAddress(0, fullAddress.size() - 1));
         if (rd.childTypes == null) {
@@ -78,11 +79,11 @@ class FilteredData {
 
     }
 
-    boolean hasFilteredData() {
+    synchronized boolean hasFilteredData() {
         return map != null;
     }
 
-    boolean isFilteredResource(PathAddress parent, PathElement child) {
+    synchronized boolean isFilteredResource(PathAddress parent, PathElement child) {
         boolean result = false;
         ResourceData rd = map == null ? null : map.get(parent);
         if (rd != null) {
@@ -92,7 +93,7 @@ class FilteredData {
         return result;
     }
 
-    boolean isAddressFiltered(PathAddress parent, PathElement child) {
+    synchronized boolean isAddressFiltered(PathAddress parent, PathElement child) {
         boolean result = false;
         ResourceData rd = map == null ? null : map.get(parent);
         if (rd != null) {
@@ -101,7 +102,7 @@ class FilteredData {
         return result;
     }
 
-    ModelNode toModelNode() {
+    synchronized ModelNode toModelNode() {
         ModelNode result = null;
         if (map != null) {
             result = new ModelNode();
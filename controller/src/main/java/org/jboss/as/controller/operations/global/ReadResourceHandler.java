@@ -53,6 +53,7 @@ import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationDefinition;
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.ParallelReadStepHandler;
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.SimpleAttributeDefinition;
@@ -207,6 +208,9 @@ public class ReadResourceHandler extends GlobalOperationHandlers.AbstractMultiTa
 
         final Map<String, Set<String>> childrenByType = registry != null ? GlobalOperationHandlers.getChildAddresses(context, address, registry, resource, null) : Collections.<String, Set<String>>emptyMap();
 
+        // Reading the runtime attributes of a subtree can take long, so read the child subtrees in parallel if possible
+        final ParallelReadStepHandler parallelReads = recursive && queryRuntime && !attributesOnly ? ParallelReadStepHandler.create(context) : null;
+
         if (!attributesOnly) {
             // Next, process child resources
             for (Map.Entry<String, Set<String>> entry : childrenByType.entrySet()) {
@@ -257,7 +261,11 @@ public class ReadResourceHandler extends GlobalOperationHandlers.AbstractMultiTa
                             }
                             OperationStepHandler rrHandler = new ReadResourceHandler(localFilteredData, overrideHandler);
 
-                            context.addStep(rrRsp, rrOp, rrHandler, OperationContext.Stage.MODEL, true);
+                            if (parallelReads != null) {
+                                parallelReads.addStep(rrRsp, rrOp, rrHandler);
+                            } else {
+                                context.addStep(rrRsp, rrOp, rrHandler, OperationContext.Stage.MODEL, true);
+                            }
                         }
                     } else {
                         // Non-recursive. Just output the names of the children
@@ -281,6 +289,10 @@ public class ReadResourceHandler extends GlobalOperationHandlers.AbstractMultiTa
             }
         }
 
+        if (parallelReads != null && !childResources.isEmpty()) {
+            context.addStep(parallelReads, OperationContext.Stage.MODEL, true);
+        }
+
         // Handle registered attributes
         final Set<String> attributeNames = registry != null ? registry.getAttributeNames(PathAddress.EMPTY_ADDRESS) : Collections.<String>emptySet();
         for (final String attributeName : attributeNames) {
@@ -49,8 +49,10 @@ public enum Attribute {
     BASE_DN("base-dn"),
     BASE_ROLE("base-role"),
     BOOT_TIME("boot-time"),
+    CHUNKED_CONTENT("chunked-content"),
     CODE("code"),
     COMPACT("compact"),
+    CONFIGURATION_WRITE_COALESCE_WINDOW("configuration-write-coalesce-window"),
     CONNECTION("connection"),
     CONNECTOR("connector"),
     CONSOLE_ENABLED("console-enabled"),
@@ -59,10 +59,24 @@ public abstract class AbstractFilePersistenceResource implements ConfigurationPe
         doCommit(marshalled);
     }
 
+    /**
+     * Writes the change like {@link #commit()}, but fails instead of logging the failure.
+     *
+     * @throws ConfigurationPersistenceException if the change could not be written
+     */
+    void commitOrFail() throws ConfigurationPersistenceException {
+        if (marshalled == null) {
+            throw MESSAGES.rollbackAlreadyInvoked();
+        }
+        write(marshalled);
+    }
+
     @Override
     public void rollback() {
         marshalled = null;
     }
 
     protected abstract void doCommit(ExposedByteArrayOutputStream marshalled);
+
+    protected abstract void write(ExposedByteArrayOutputStream marshalled) throws ConfigurationPersistenceException;
 }
@@ -77,11 +77,17 @@ public class BackupXmlConfigurationPersister extends XmlConfigurationPersister {
                 }
             };
         }
+        return super.store(model, affectedAddresses);
+    }
+
+    @Override
+    AbstractFilePersistenceResource createPersistenceResource(final ModelNode model) throws ConfigurationPersistenceException {
         return new ConfigurationFilePersistenceResource(model, configurationFile, this);
     }
 
     @Override
     public String snapshot() throws ConfigurationPersistenceException {
+        flush();
         return configurationFile.snapshot();
     }
 
@@ -0,0 +1,196 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.jboss.as.controller.persistence;
+
+import static org.jboss.as.controller.ControllerLogger.ROOT_LOGGER;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.EXTENSION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.Charset;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.List;
+
+import org.jboss.as.controller.Extension;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.jboss.modules.Module;
+import org.jboss.modules.ModuleIdentifier;
+import org.jboss.modules.ModuleLoadException;
+import org.xnio.IoUtils;
+
+/**
+ * A cache of the operations parsed from a configuration file, kept in the binary format of {@link ModelNode}.
+ * <p/>
+ * The cache is only used if it was written for the same contents of the configuration file, and the extension
+ * modules the configuration refers to provide their extensions from the same resources, so that the parsers would
+ * produce the same operations. Any problem with reading or writing the cache just makes the configuration to be parsed.
+ */
+final class BootOperationCache {
+
+    private static final int MAGIC = 0x4a424f43;
+    private static final int VERSION = 1;
+    private static final String EXTENSION_SERVICE = "META-INF/services/" + Extension.class.getName();
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final File file;
+
+    BootOperationCache(final File file) {
+        this.file = file;
+    }
+
+    /**
+     * Reads the operations cached for the configuration.
+     *
+     * @param configuration the contents of the configuration file
+     * @return the operations, or {@code null} if there are none cached for the configuration
+     */
+    List<ModelNode> read(final byte[] configuration) {
+        if (!file.exists()) {
+            return null;
+        }
+        try {
+            final DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+            try {
+                if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+                    return null;
+                }
+                final byte[] configurationDigest = readDigest(input);
+                final byte[] extensionsDigest = readDigest(input);
+                if (!Arrays.equals(configurationDigest, digest(configuration))) {
+                    return null;
+                }
+                final ModelNode operations = new ModelNode();
+                operations.readExternal(input);
+                if (operations.getType() != ModelType.LIST) {
+                    return null;
+                }
+                final List<ModelNode> result = operations.asList();
+                if (!Arrays.equals(extensionsDigest, extensionsDigest(result))) {
+                    return null;
+                }
+                ROOT_LOGGER.debugf("Using the operations cached in %s", file);
+                return result;
+            } finally {
+                IoUtils.safeClose(input);
+            }
+        } catch (Exception e) {
+            ROOT_LOGGER.debugf(e, "Cannot read the cached operations from %s", file);
+            return null;
+        }
+    }
+
+    /**
+     * Caches the operations parsed from the configuration.
+     *
+     * @param configuration the contents of the configuration file
+     * @param operations the operations
+     */
+    void write(final byte[] configuration, final List<ModelNode> operations) {
+        final File tempFile = FilePersistenceUtils.createTempFile(file);
+        try {
+            final ModelNode list = new ModelNode().setEmptyList();
+            for (ModelNode operation : operations) {
+                list.add(operation);
+            }
+            file.getParentFile().mkdirs();
+            final DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)));
+            try {
+                output.writeInt(MAGIC);
+                output.writeInt(VERSION);
+                writeDigest(output, digest(configuration));
+                writeDigest(output, extensionsDigest(operations));
+                list.writeExternal(output);
+                output.close();
+            } finally {
+                IoUtils.safeClose(output);
+            }
+            FilePersistenceUtils.moveTempFileToMain(tempFile, file);
+        } catch (Exception e) {
+            ROOT_LOGGER.debugf(e, "Cannot cache the operations in %s", file);
+            tempFile.delete();
+        }
+    }
+
+    private static byte[] readDigest(final DataInputStream input) throws IOException {
+        final byte[] digest = new byte[input.readUnsignedByte()];
+        input.readFully(digest);
+        return digest;
+    }
+
+    private static void writeDigest(final DataOutputStream output, final byte[] digest) throws IOException {
+        output.writeByte(digest.length);
+        output.write(digest);
+    }
+
+    private static byte[] digest(final byte[] content) throws GeneralSecurityException {
+        return MessageDigest.getInstance("SHA-1").digest(content);
+    }
+
+    /**
+     * Digests the names of the extension modules added by the operations, and the location and modification time of
+     * the extension services these modules provide.
+     */
+    private static byte[] extensionsDigest(final List<ModelNode> operations) throws GeneralSecurityException, IOException, ModuleLoadException {
+        final MessageDigest digest = MessageDigest.getInstance("SHA-1");
+        for (ModelNode operation : operations) {
+            final PathAddress address = PathAddress.pathAddress(operation.get(OP_ADDR));
+            if (address.size() != 1) {
+                continue;
+            }
+            final PathElement element = address.getElement(0);
+            if (!EXTENSION.equals(element.getKey())) {
+                continue;
+            }
+            digest.update(element.getValue().getBytes(UTF_8));
+            final Module module = Module.getBootModuleLoader().loadModule(ModuleIdentifier.fromString(element.getValue()));
+            final Enumeration<URL> services = module.getClassLoader().getResources(EXTENSION_SERVICE);
+            while (services.hasMoreElements()) {
+                final URL service = services.nextElement();
+                digest.update(service.toString().getBytes(UTF_8));
+                final URLConnection connection = service.openConnection();
+                connection.setUseCaches(false);
+                final long lastModified = connection.getLastModified();
+                for (int shift = 0; shift < Long.SIZE; shift += Byte.SIZE) {
+                    digest.update((byte) (lastModified >>> shift));
+                }
+            }
+        }
+        return digest.digest();
+    }
+}
@@ -0,0 +1,256 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.jboss.as.controller.persistence;
+
+import static java.security.AccessController.doPrivileged;
+import static org.jboss.as.controller.ControllerMessages.MESSAGES;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.threads.JBossThreadFactory;
+import org.wildfly.security.manager.GetAccessControlContextAction;
+
+/**
+ * Writes the models committed to an {@link XmlConfigurationPersister} on a background thread, so that the
+ * changes committed within a window are coalesced into a single write of the latest model.
+ * <p/>
+ * The thread is started by the first commit after the writer became idle, and exits once it has written all
+ * committed changes. A commit returns at once, and the committing operation then waits in
+ * {@link ConfigurationPersister.DeferredPersistenceResource#awaitCommitted()} until a write including its change is
+ * synced to the disk. {@link #flush()} waits until every change committed before it was called is written, without
+ * waiting for the window to elapse.
+ */
+final class CoalescingConfigurationWriter {
+
+    private static final ThreadFactory THREAD_FACTORY = new JBossThreadFactory(new ThreadGroup("Configuration writer"),
+            Boolean.TRUE, null, "%G - %t", null, null, doPrivileged(GetAccessControlContextAction.getInstance()));
+
+    private final XmlConfigurationPersister persister;
+    // the coalescing window in nanoseconds, 0 if the changes are not coalesced
+    private volatile long window;
+    // the latest committed model which has not been written yet
+    private ModelNode pending;
+    // the number of committed models, the number of those whose write completed, and the number of those which
+    // are on the disk, which is lower if the last write failed
+    private long committed;
+    private long completed;
+    private long written;
+    // the failure of the last write, if it failed
+    private ConfigurationPersistenceException failure;
+    private boolean flushRequested;
+    private Thread thread;
+    // the metrics
+    private long writes;
+    private long writeTime;
+    private long maxWriteTime;
+
+    /**
+     * @param persister the persister writing the models
+     */
+    CoalescingConfigurationWriter(final XmlConfigurationPersister persister) {
+        this.persister = persister;
+    }
+
+    /**
+     * Sets the time the changes are coalesced for after a change is committed. Setting it to {@code 0} waits until
+     * the changes committed so far are written.
+     *
+     * @param window the time in milliseconds
+     */
+    void setWindow(final long window) {
+        this.window = TimeUnit.MILLISECONDS.toNanos(window);
+        if (window == 0) {
+            try {
+                flush();
+            } catch (ConfigurationPersistenceException ignored) {
+                // already reported to the operations which committed the changes, and logged
+            }
+        }
+    }
+
+    boolean isCoalescing() {
+        return window > 0;
+    }
+
+    ConfigurationPersister.PersistenceResource store(final ModelNode model) {
+        return new ConfigurationPersister.DeferredPersistenceResource() {
+            private long sequence;
+
+            @Override
+            public void commit() {
+                sequence = CoalescingConfigurationWriter.this.commit(model);
+            }
+
+            @Override
+            public void rollback() {
+            }
+
+            @Override
+            public void awaitCommitted() throws ConfigurationPersistenceException {
+                awaitWrite(sequence);
+            }
+        };
+    }
+
+    /**
+     * @return the sequence number of the committed change
+     */
+    synchronized long commit(final ModelNode model) {
+        pending = model;
+        committed++;
+        if (thread == null) {
+            thread = THREAD_FACTORY.newThread(new Runnable() {
+                @Override
+                public void run() {
+                    writeCommitted();
+                }
+            });
+            thread.start();
+        }
+        return committed;
+    }
+
+    /**
+     * Waits until the write of the change with the passed sequence number completed.
+     *
+     * @throws ConfigurationPersistenceException if the write failed, so the change is not on the disk. The failure is
+     *                                           logged by the persister, and the change is on the disk once a later
+     *                                           change is written
+     */
+    private synchronized void awaitWrite(final long sequence) throws ConfigurationPersistenceException {
+        boolean interrupted = false;
+        while (completed < sequence) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (written < sequence) {
+            throw failure != null ? failure : MESSAGES.failedToStoreConfiguration(null);
+        }
+    }
+
+    /**
+     * Waits until all changes committed so far are written to the file and synced to the disk.
+     *
+     * @throws ConfigurationPersistenceException if the last write failed, so the latest changes are not on the disk
+     */
+    synchronized void flush() throws ConfigurationPersistenceException {
+        final long target = committed;
+        if (completed < target) {
+            flushRequested = true;
+            notifyAll();
+        }
+        awaitWrite(target);
+    }
+
+    synchronized long getCommitCount() {
+        return committed;
+    }
+
+    synchronized long getWriteCount() {
+        return writes;
+    }
+
+    synchronized long getWriteTime() {
+        return writeTime;
+    }
+
+    synchronized long getMaxWriteTime() {
+        return maxWriteTime;
+    }
+
+    private void writeCommitted() {
+        try {
+            writeCommittedModels();
+        } finally {
+            synchronized (this) {
+                // also if the thread dies, so that the next commit starts a new one
+                if (thread == Thread.currentThread()) {
+                    thread = null;
+                }
+            }
+        }
+    }
+
+    private void writeCommittedModels() {
+        for (;;) {
+            final ModelNode model;
+            final long sequence;
+            synchronized (this) {
+                if (pending == null) {
+                    thread = null;
+                    return;
+                }
+                // give the operations following this one the chance to commit, unless someone waits for the write
+                final long deadline = System.nanoTime() + window;
+                long remaining;
+                while (!flushRequested && (remaining = deadline - System.nanoTime()) > 0) {
+                    try {
+                        TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                    } catch (InterruptedException e) {
+                        break;
+                    }
+                }
+                model = pending;
+                sequence = committed;
+                pending = null;
+                flushRequested = false;
+            }
+            final long start = System.nanoTime();
+            ConfigurationPersistenceException failure = null;
+            boolean success = false;
+            try {
+                persister.write(model);
+                success = true;
+            } catch (ConfigurationPersistenceException e) {
+                failure = e;
+            } catch (Throwable t) {
+                // record it like any failed write, so that the waiting operations learn about it
+                failure = MESSAGES.failedToStoreConfiguration(t);
+            } finally {
+                final long time = System.nanoTime() - start;
+                synchronized (this) {
+                    completed = sequence;
+                    if (success) {
+                        written = sequence;
+                        this.failure = null;
+                    } else {
+                        this.failure = failure;
+                    }
+                    writes++;
+                    writeTime += time;
+                    maxWriteTime = Math.max(maxWriteTime, time);
+                    notifyAll();
+                }
+            }
+        }
+    }
+}
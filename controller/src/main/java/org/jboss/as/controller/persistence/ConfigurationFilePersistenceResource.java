@@ -23,6 +23,7 @@
 package org.jboss.as.controller.persistence;
 
 import static org.jboss.as.controller.ControllerLogger.MGMT_OP_LOGGER;
+import static org.jboss.as.controller.ControllerMessages.MESSAGES;
 
 import java.io.File;
 
@@ -49,13 +50,21 @@ public class ConfigurationFilePersistenceResource extends AbstractFilePersistenc
 
     @Override
     public void doCommit(ExposedByteArrayOutputStream marshalled) {
+        try {
+            write(marshalled);
+        } catch (ConfigurationPersistenceException e) {
+            MGMT_OP_LOGGER.failedToStoreConfiguration(e, fileName.getName());
+        }
+    }
+
+    @Override
+    protected void write(ExposedByteArrayOutputStream marshalled) throws ConfigurationPersistenceException {
         final File tempFileName = FilePersistenceUtils.createTempFile(fileName);
         try {
             try {
                 FilePersistenceUtils.writeToTempFile(marshalled, tempFileName);
             } catch (Exception e) {
-                MGMT_OP_LOGGER.failedToStoreConfiguration(e, fileName.getName());
-                return;
+                throw MESSAGES.failedToStoreConfiguration(e);
             }
             try {
                 configurationFile.backup();
@@ -63,8 +72,6 @@ public class ConfigurationFilePersistenceResource extends AbstractFilePersistenc
                 configurationFile.commitTempFile(tempFileName);
             }
             configurationFile.fileWritten();
-        } catch (ConfigurationPersistenceException e) {
-           MGMT_OP_LOGGER.errorf(e, e.toString());
         } finally {
             if (tempFileName.exists() && !tempFileName.delete()) {
                 MGMT_OP_LOGGER.cannotDeleteTempFile(tempFileName.getName());
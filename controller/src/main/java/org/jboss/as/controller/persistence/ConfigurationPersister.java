@@ -54,6 +54,21 @@ public interface ConfigurationPersister {
         void rollback();
     }
 
+    /**
+     * A {@link PersistenceResource} whose {@link #commit()} returns before the stored model is flushed to permanent
+     * storage, so that it can be flushed together with the models committed after it.
+     */
+    interface DeferredPersistenceResource extends PersistenceResource {
+
+        /**
+         * Waits until the committed model is flushed to permanent storage. Must be called after {@link #commit()},
+         * and is best called once the caller no longer blocks other callers from committing.
+         *
+         * @throws ConfigurationPersistenceException if the model could not be flushed to permanent storage
+         */
+        void awaitCommitted() throws ConfigurationPersistenceException;
+    }
+
     /**
      * Persist the given configuration model.
      *
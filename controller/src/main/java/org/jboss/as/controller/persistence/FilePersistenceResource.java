@@ -23,6 +23,7 @@
 package org.jboss.as.controller.persistence;
 
 import static org.jboss.as.controller.ControllerLogger.MGMT_OP_LOGGER;
+import static org.jboss.as.controller.ControllerMessages.MESSAGES;
 
 import java.io.File;
 
@@ -46,12 +47,23 @@ public class FilePersistenceResource extends AbstractFilePersistenceResource {
 
     @Override
     protected void doCommit(ExposedByteArrayOutputStream marshalled) {
+        try {
+            write(marshalled);
+        } catch (ConfigurationPersistenceException e) {
+            MGMT_OP_LOGGER.failedToStoreConfiguration(e, fileName.getName());
+        }
+    }
+
+    @Override
+    protected void write(ExposedByteArrayOutputStream marshalled) throws ConfigurationPersistenceException {
         final File tempFileName = FilePersistenceUtils.createTempFile(fileName);
         try {
-            FilePersistenceUtils.writeToTempFile(marshalled, tempFileName);
+            try {
+                FilePersistenceUtils.writeToTempFile(marshalled, tempFileName);
+            } catch (Exception e) {
+                throw MESSAGES.failedToStoreConfiguration(e);
+            }
             FilePersistenceUtils.moveTempFileToMain(tempFileName, fileName);
-        } catch (Exception e) {
-            MGMT_OP_LOGGER.failedToStoreConfiguration(e, fileName.getName());
         } finally {
             if (tempFileName.exists() && !tempFileName.delete()) {
                 MGMT_OP_LOGGER.cannotDeleteTempFile(tempFileName.getName());
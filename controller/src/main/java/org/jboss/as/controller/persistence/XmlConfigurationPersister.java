@@ -22,13 +22,18 @@
 
 package org.jboss.as.controller.persistence;
 
+import static org.jboss.as.controller.ControllerLogger.MGMT_OP_LOGGER;
 import static org.jboss.as.controller.ControllerLogger.ROOT_LOGGER;
 import static org.jboss.as.controller.ControllerMessages.MESSAGES;
 
 import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.Closeable;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -44,6 +49,7 @@ import org.jboss.dmr.ModelNode;
 import org.jboss.staxmapper.XMLElementReader;
 import org.jboss.staxmapper.XMLElementWriter;
 import org.jboss.staxmapper.XMLMapper;
+import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  * A configuration persister which uses an XML file for backing storage.
@@ -52,10 +58,17 @@ import org.jboss.staxmapper.XMLMapper;
  */
 public class XmlConfigurationPersister extends AbstractConfigurationPersister {
 
+    /**
+     * Whether the operations parsed from the configuration file are cached, see {@link #setBootCacheFile(File)}.
+     */
+    private static final String BOOT_CACHE_PROPERTY = "jboss.config.boot-cache";
+
     private final File fileName;
     private final QName rootElement;
     private final XMLElementReader<List<ModelNode>> rootParser;
     private final Map<QName, XMLElementReader<List<ModelNode>>> additionalParsers;
+    private final CoalescingConfigurationWriter writer;
+    private volatile BootOperationCache bootCache;
 
     /**
      * Construct a new instance.
@@ -71,6 +84,7 @@ public class XmlConfigurationPersister extends AbstractConfigurationPersister {
         this.rootElement = rootElement;
         this.rootParser = rootParser;
         additionalParsers = new HashMap<QName, XMLElementReader<List<ModelNode>>>();
+        writer = new CoalescingConfigurationWriter(this);
     }
 
     public void registerAdditionalRootElement(final QName anotherRoot, final XMLElementReader<List<ModelNode>> parser){
@@ -82,12 +96,141 @@ public class XmlConfigurationPersister extends AbstractConfigurationPersister {
     /** {@inheritDoc} */
     @Override
     public PersistenceResource store(final ModelNode model, Set<PathAddress> affectedAddresses) throws ConfigurationPersistenceException {
+        if (writer.isCoalescing()) {
+            // the model is marshalled and written once the changes following this one are coalesced with it
+            return writer.store(model);
+        }
+        return createPersistenceResource(model);
+    }
+
+    /**
+     * Creates the resource which writes the passed model to the file on commit.
+     *
+     * @param model the model
+     * @return the persistence resource
+     * @throws ConfigurationPersistenceException if the model could not be marshalled
+     */
+    AbstractFilePersistenceResource createPersistenceResource(final ModelNode model) throws ConfigurationPersistenceException {
         return new FilePersistenceResource(model, fileName, this);
     }
 
+    /**
+     * Writes the model coalesced by the background writer.
+     *
+     * @throws ConfigurationPersistenceException if the model could not be written, which is logged
+     */
+    void write(final ModelNode model) throws ConfigurationPersistenceException {
+        try {
+            createPersistenceResource(model).commitOrFail();
+        } catch (ConfigurationPersistenceException e) {
+            MGMT_OP_LOGGER.failedToStoreConfiguration(e, fileName.getName());
+            throw e;
+        } catch (RuntimeException e) {
+            MGMT_OP_LOGGER.failedToStoreConfiguration(e, fileName.getName());
+            throw MESSAGES.failedToStoreConfiguration(e);
+        }
+    }
+
+    /**
+     * Sets the time in milliseconds the committed changes are coalesced for before the configuration is written on a
+     * background thread. If {@code 0}, which is the default, the configuration is written as the changes are
+     * committed, and the changes still pending when it is set to {@code 0} are written before this method returns.
+     *
+     * @param window the time in milliseconds, not negative
+     */
+    public void setCoalesceWindow(final long window) {
+        writer.setWindow(window);
+    }
+
+    /**
+     * Waits until all committed changes are written to the file and synced to the disk. Returns immediately unless
+     * the changes are coalesced and written on a background thread.
+     *
+     * @throws ConfigurationPersistenceException if the last write failed, so the latest changes are not on the disk
+     */
+    public void flush() throws ConfigurationPersistenceException {
+        writer.flush();
+    }
+
+    /**
+     * Gets the number of committed changes which have been written on the background thread, or {@code 0} if the
+     * changes are written as they are committed.
+     */
+    public long getCoalescedCommitCount() {
+        return writer.getCommitCount();
+    }
+
+    /**
+     * Gets the number of writes done by the background thread.
+     */
+    public long getWriteCount() {
+        return writer.getWriteCount();
+    }
+
+    /**
+     * Gets the total time in nanoseconds the background thread spent marshalling and writing the configuration.
+     */
+    public long getWriteTime() {
+        return writer.getWriteTime();
+    }
+
+    /**
+     * Gets the longest time in nanoseconds a single write of the background thread took.
+     */
+    public long getMaxWriteTime() {
+        return writer.getMaxWriteTime();
+    }
+
+    /**
+     * Sets the file to cache the operations parsed from the configuration file in, so that the following loads of the
+     * unchanged configuration don't need to parse it. The cache is only used if the {@code jboss.config.boot-cache}
+     * system property is {@code true}.
+     *
+     * @param cacheFile the cache file
+     */
+    public void setBootCacheFile(final File cacheFile) {
+        if (Boolean.parseBoolean(WildFlySecurityManager.getPropertyPrivileged(BOOT_CACHE_PROPERTY, "false"))) {
+            bootCache = new BootOperationCache(cacheFile);
+        }
+    }
+
     /** {@inheritDoc} */
     @Override
     public List<ModelNode> load() throws ConfigurationPersistenceException {
+        final BootOperationCache bootCache = this.bootCache;
+        if (bootCache == null) {
+            try {
+                final FileInputStream fis = new FileInputStream(fileName);
+                try {
+                    return parse(fis);
+                } finally {
+                    safeClose(fis);
+                }
+            } catch (Exception e) {
+                throw MESSAGES.failedToParseConfiguration(e);
+            }
+        }
+        final byte[] configuration;
+        try {
+            configuration = readFile(fileName);
+        } catch (Exception e) {
+            throw MESSAGES.failedToParseConfiguration(e);
+        }
+        final List<ModelNode> cached = bootCache.read(configuration);
+        if (cached != null) {
+            return cached;
+        }
+        final List<ModelNode> updates;
+        try {
+            updates = parse(new ByteArrayInputStream(configuration));
+        } catch (Exception e) {
+            throw MESSAGES.failedToParseConfiguration(e);
+        }
+        bootCache.write(configuration, updates);
+        return updates;
+    }
+
+    private List<ModelNode> parse(final InputStream stream) throws Exception {
         final XMLMapper mapper = XMLMapper.Factory.create();
         mapper.registerRootElement(rootElement, rootParser);
         synchronized (additionalParsers) {
@@ -96,22 +239,27 @@ public class XmlConfigurationPersister extends AbstractConfigurationPersister {
             }
         }
         final List<ModelNode> updates = new ArrayList<ModelNode>();
+        BufferedInputStream input = new BufferedInputStream(stream);
+        XMLStreamReader streamReader = XMLInputFactory.newInstance().createXMLStreamReader(input);
+        mapper.parseDocument(updates, streamReader);
+        streamReader.close();
+        input.close();
+        return updates;
+    }
+
+    private static byte[] readFile(final File file) throws IOException {
+        final FileInputStream fis = new FileInputStream(file);
         try {
-            final FileInputStream fis = new FileInputStream(fileName);
-            try {
-                BufferedInputStream input = new BufferedInputStream(fis);
-                XMLStreamReader streamReader = XMLInputFactory.newInstance().createXMLStreamReader(input);
-                mapper.parseDocument(updates, streamReader);
-                streamReader.close();
-                input.close();
-                fis.close();
-            } finally {
-                safeClose(fis);
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream((int) file.length());
+            final byte[] buffer = new byte[8192];
+            int read;
+            while ((read = fis.read(buffer)) != -1) {
+                bytes.write(buffer, 0, read);
             }
-        } catch (Exception e) {
-            throw MESSAGES.failedToParseConfiguration(e);
+            return bytes.toByteArray();
+        } finally {
+            safeClose(fis);
         }
-        return updates;
     }
 
     private static void safeClose(final Closeable closeable) {
@@ -128,6 +276,7 @@ public class XmlConfigurationPersister extends AbstractConfigurationPersister {
 
     @Override
     public String snapshot() throws ConfigurationPersistenceException {
+        flush();
         return "";
     }
 }
@@ -22,9 +22,17 @@
 
 package org.jboss.as.controller.registry;
 
+import static org.jboss.as.controller.ControllerMessages.MESSAGES;
+
+import org.jboss.as.controller.PathElement;
 import org.jboss.dmr.ModelNode;
 
 import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Standard {@link Resource} implementation.
@@ -32,6 +40,11 @@ import java.util.ConcurrentModificationException;
  * <p>Concurrency note: if a thread needs to modify a BasicResource, it must use the clone() method to obtain its
  * own copy of the resource. That instance cannot be made visible to other threads until all writes are complete.</p>
  *
+ * <p>Copies share their children: {@link #clone()} only copies the model of this resource, and a child is copied the
+ * first time it is accessed through the copy. So an update to a clone of the whole model only copies the resources
+ * on the path to the updated one. Once a model is published with {@link Resource.Tools#freeze(Resource)} its resources
+ * are not modified anymore, and are shared by the copies instead of copied along with them.</p>
+ *
  * @author Emanuel Muckenhuber
  */
 class BasicResource extends AbstractModelResource implements Resource {
@@ -39,6 +52,9 @@ class BasicResource extends AbstractModelResource implements Resource {
     /** The local model. */
     private final ModelNode model = new ModelNode();
 
+    /** Whether this resource is part of a published model, and so never copied on access. */
+    private volatile boolean frozen;
+
     protected BasicResource() {
     }
 
@@ -56,10 +72,22 @@ class BasicResource extends AbstractModelResource implements Resource {
     public boolean isModelDefined() {
         return model.isDefined();
     }
+
+    @Override
+    protected ResourceProvider getOrCreateProvider(final String type) {
+        final ResourceProvider provider = getProvider(type);
+        if (provider != null) {
+            return provider;
+        }
+        final ResourceProvider newProvider = new CopyOnWriteResourceProvider(this);
+        registerResourceProvider(type, newProvider);
+        return newProvider;
+    }
+
     @SuppressWarnings({"CloneDoesntCallSuperClone"})
     @Override
     public Resource clone() {
-        final Resource clone = new BasicResource();
+        final BasicResource clone = new BasicResource();
         for (;;) {
             try {
                 clone.writeModel(model);
@@ -69,11 +97,167 @@ class BasicResource extends AbstractModelResource implements Resource {
             }
         }
         for(final String childType : getChildTypes()) {
-            for(final ResourceEntry child : getChildren(childType)) {
-                clone.registerChild(child.getPathElement(), child.clone());
+            final ResourceProvider provider = getProvider(childType);
+            if (provider instanceof CopyOnWriteResourceProvider) {
+                clone.registerResourceProvider(childType, ((CopyOnWriteResourceProvider) provider).copy(clone));
+            } else {
+                for(final ResourceEntry child : getChildren(childType)) {
+                    clone.registerChild(child.getPathElement(), child.clone());
+                }
             }
         }
         return clone;
     }
 
+    /**
+     * Marks this resource and its children as published.
+     */
+    void freeze() {
+        for(final String childType : getChildTypes()) {
+            final ResourceProvider provider = getProvider(childType);
+            if (provider instanceof CopyOnWriteResourceProvider) {
+                ((CopyOnWriteResourceProvider) provider).freeze();
+            }
+        }
+        frozen = true;
+    }
+
+    /**
+     * Gets the children of a type without copying any shared ones, for reading only.
+     */
+    Set<ResourceEntry> readChildren(final String childType) {
+        final ResourceProvider provider = getProvider(childType);
+        if (!(provider instanceof CopyOnWriteResourceProvider)) {
+            return getChildren(childType);
+        }
+        final CopyOnWriteResourceProvider copyOnWriteProvider = (CopyOnWriteResourceProvider) provider;
+        final Set<ResourceEntry> children = new LinkedHashSet<ResourceEntry>();
+        for (final Map.Entry<String, Resource> child : copyOnWriteProvider.peek().entrySet()) {
+            final String name = child.getKey();
+            children.add(new DelegateResource(child.getValue()) {
+                @Override
+                public String getName() {
+                    return name;
+                }
+
+                @Override
+                public PathElement getPathElement() {
+                    return PathElement.pathElement(childType, name);
+                }
+            });
+        }
+        return children;
+    }
+
+    /**
+     * Holds the children of a type. A child shared with another copy of the model is copied the first time it is
+     * accessed, unless the model is published.
+     */
+    static class CopyOnWriteResourceProvider implements ResourceProvider {
+
+        private final BasicResource parent;
+        private final Map<String, Resource> children;
+        /** The names of the children which are shared with other copies of the model. */
+        private final Set<String> shared;
+
+        CopyOnWriteResourceProvider(final BasicResource parent) {
+            this(parent, new LinkedHashMap<String, Resource>(), new HashSet<String>());
+        }
+
+        private CopyOnWriteResourceProvider(final BasicResource parent, final Map<String, Resource> children, final Set<String> shared) {
+            this.parent = parent;
+            this.children = children;
+            this.shared = shared;
+        }
+
+        @Override
+        public Set<String> children() {
+            synchronized (children) {
+                return new LinkedHashSet<String>(children.keySet());
+            }
+        }
+
+        @Override
+        public boolean has(String name) {
+            synchronized (children) {
+                return children.get(name) != null;
+            }
+        }
+
+        @Override
+        public Resource get(String name) {
+            synchronized (children) {
+                Resource resource = children.get(name);
+                if (resource != null && !parent.frozen && shared.remove(name)) {
+                    resource = resource.clone();
+                    children.put(name, resource);
+                }
+                return resource;
+            }
+        }
+
+        @Override
+        public boolean hasChildren() {
+            return ! children().isEmpty();
+        }
+
+        @Override
+        public void register(String name, Resource resource) {
+            synchronized (children) {
+                if (children.containsKey(name)) {
+                    throw MESSAGES.duplicateResource(name);
+                }
+                children.put(name, resource);
+            }
+        }
+
+        @Override
+        public Resource remove(String name) {
+            synchronized (children) {
+                final Resource resource = children.remove(name);
+                // the caller may still modify what it removed
+                return resource != null && shared.remove(name) ? resource.clone() : resource;
+            }
+        }
+
+        /**
+         * @return The children, as they are, for reading only
+         */
+        Map<String, Resource> peek() {
+            synchronized (children) {
+                return new LinkedHashMap<String, Resource>(children);
+            }
+        }
+
+        /**
+         * Creates the provider for a copy of the parent. The shared children are shared with the copy as well, the
+         * others may still be modified, so they are cloned.
+         */
+        CopyOnWriteResourceProvider copy(final BasicResource parent) {
+            synchronized (children) {
+                final Map<String, Resource> copy = new LinkedHashMap<String, Resource>(children);
+                final Set<String> copyShared = new HashSet<String>(shared);
+                for (final Map.Entry<String, Resource> child : copy.entrySet()) {
+                    if (!shared.contains(child.getKey())) {
+                        child.setValue(child.getValue().clone());
+                    }
+                }
+                return new CopyOnWriteResourceProvider(parent, copy, copyShared);
+            }
+        }
+
+        /**
+         * Freezes the children which are not shared yet. The shared ones were published before.
+         */
+        void freeze() {
+            synchronized (children) {
+                for (final Map.Entry<String, Resource> child : children.entrySet()) {
+                    if (shared.add(child.getKey()) && child.getValue() instanceof BasicResource) {
+                        ((BasicResource) child.getValue()).freeze();
+                    }
+                }
+            }
+        }
+    }
+
 }
@@ -249,7 +249,7 @@ public interface Resource extends Cloneable {
                 final int newLevel = level == -1 ? -1 : level - 1;
                 for(final String childType : resource.getChildTypes()) {
                     model.get(childType).setEmptyObject();
-                    for(final ResourceEntry entry : resource.getChildren(childType)) {
+                    for(final ResourceEntry entry : readChildren(resource, childType)) {
                         if(filter.accepts(address.append(entry.getPathElement()), resource)) {
                             model.get(childType, entry.getName()).set(readModel(entry, newLevel));
                         }
@@ -278,6 +278,33 @@ public interface Resource extends Cloneable {
             return r;
         }
 
+        /**
+         * Gets the children of a resource for reading only, without copying the ones a {@link Factory#create() basic
+         * resource} shares with other copies of the model.
+         */
+        private static Set<ResourceEntry> readChildren(final Resource resource, final String childType) {
+            Resource target = resource;
+            while (target instanceof AbstractModelResource.DelegateResource) {
+                target = ((AbstractModelResource.DelegateResource) target).delegate;
+            }
+            if (target instanceof BasicResource) {
+                return ((BasicResource) target).readChildren(childType);
+            }
+            return resource.getChildren(childType);
+        }
+
+        /**
+         * Marks a model as published. The resources created by the {@link Factory} are not modified after that, which
+         * lets the clones of the model share them instead of copying them.
+         *
+         * @param resource the root of the model
+         */
+        public static void freeze(final Resource resource) {
+            if (resource instanceof BasicResource) {
+                ((BasicResource) resource).freeze();
+            }
+        }
+
     }
 
     /**
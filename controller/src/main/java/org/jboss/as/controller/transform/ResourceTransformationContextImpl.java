@@ -248,9 +248,40 @@ class ResourceTransformationContextImpl implements ResourceTransformationContext
         });
         final ResourceTransformer transformer = resolveTransformer(entry, childAddress);
         final ResourceTransformationContext childContext = new ResourceTransformationContextImpl(root, currentAddress, childAddress, originalModel, skipRuntimeIgnoreCheck);
+        if (current.size() == 0 && read.size() == 0 && currentAddress.size() == 1 && transformer != ResourceTransformer.DISCARD
+                && originalModel.target instanceof TransformationTargetImpl) {
+            // a child of the root, its transformation only depends on its subtree and on the target
+            final TransformationTargetImpl target = (TransformationTargetImpl) originalModel.target;
+            final TransformedResourceCache cache = target.getResourceCache();
+            final TransformedResourceCache.Key key = cache.createKey(target.getResourceCacheKey(), element, child);
+            if (key != null) {
+                final Resource cached = cache.get(key);
+                if (cached != null) {
+                    addTransformedRecursiveResourceFromRoot(currentAddress, childAddress, cached);
+                    return;
+                }
+                final int messages = logger.getMessageCount();
+                final int children = countChildren(root);
+                transformer.transformResource(childContext, currentAddress, child);
+                // only cache the plain results, a transformer which logged warnings or added other root children runs again
+                final Resource transformed = root.getChild(currentAddress.getLastElement());
+                if (transformed != null && logger.getMessageCount() == messages && countChildren(root) == children + 1) {
+                    cache.put(key, transformed);
+                }
+                return;
+            }
+        }
         transformer.transformResource(childContext, currentAddress, child);
     }
 
+    private static int countChildren(final Resource resource) {
+        int count = 0;
+        for (final String type : resource.getChildTypes()) {
+            count += resource.getChildren(type).size();
+        }
+        return count;
+    }
+
     @Override
     public TransformationTarget getTarget() {
         return originalModel.target;
@@ -26,6 +26,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 import org.jboss.as.controller.ModelVersion;
 import org.jboss.as.controller.PathAddress;
@@ -168,6 +169,29 @@ public class TransformationTargetImpl implements TransformationTarget {
         return version.getMajor() >= 1 && version.getMinor() >= 4;
     }
 
+    TransformedResourceCache getResourceCache() {
+        return transformerRegistry.getResourceCache();
+    }
+
+    /**
+     * Gets the key of this target in the {@link TransformedResourceCache}. The targets with the same type, management
+     * version and subsystem versions transform the resources the same way.
+     *
+     * @return the key
+     */
+    String getResourceCacheKey() {
+        final Map<String, ModelVersion> subsystems;
+        synchronized (subsystemVersions) {
+            subsystems = new TreeMap<String, ModelVersion>(subsystemVersions);
+        }
+        final StringBuilder builder = new StringBuilder();
+        builder.append(type).append(':').append(version);
+        for (Map.Entry<String, ModelVersion> subsystem : subsystems.entrySet()) {
+            builder.append(',').append(subsystem.getKey()).append('=').append(subsystem.getValue());
+        }
+        return builder.toString();
+    }
+
     private boolean ignoreResourceTransformation(TransformationContext context, PathAddress address) {
         if (transformationExclusion != null && transformationExclusion.isResourceTransformationIgnored(address)) {
             return true;
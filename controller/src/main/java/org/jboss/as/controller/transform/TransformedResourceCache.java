@@ -0,0 +1,196 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.transform;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.registry.Resource;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * Caches the transformed children of the root resource, keyed by the transformation target, the address of the child
+ * and a digest of its model.
+ * <p/>
+ * The domain controller transforms the whole domain model for every legacy slave which registers or re-syncs, and
+ * for most of them the model and the target versions are the same. The transformation of a root child, e.g. a
+ * {@code profile}, only depends on the versions of the target and on the child's own subtree, so a slave with the same
+ * versions gets a copy of the already transformed subtree, and only the subtrees which changed since the last
+ * transformation are transformed again.
+ * <p/>
+ * Cached resources are never handed out, only their clones, so they are not modified once cached. The cache is
+ * cleared when new transformers are registered.
+ */
+final class TransformedResourceCache {
+
+    static final String MAX_ENTRIES_PROPERTY = "jboss.as.domain.transformed-resource-cache-size";
+
+    private static final int DEFAULT_MAX_ENTRIES = 128;
+
+    private final Map<Key, Resource> entries = new LinkedHashMap<Key, Resource>(16, 0.75f, true);
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final int maxEntries;
+
+    TransformedResourceCache() {
+        int maxEntries;
+        try {
+            maxEntries = Integer.parseInt(WildFlySecurityManager.getPropertyPrivileged(MAX_ENTRIES_PROPERTY, String.valueOf(DEFAULT_MAX_ENTRIES)));
+        } catch (NumberFormatException ignored) {
+            maxEntries = DEFAULT_MAX_ENTRIES;
+        }
+        this.maxEntries = Math.max(0, maxEntries);
+    }
+
+    /**
+     * Creates the key to cache the transformed child under.
+     *
+     * @param target the key of the transformation target
+     * @param element the address of the child in the original model
+     * @param resource the original child
+     * @return the key, or {@code null} if the cache is disabled
+     */
+    Key createKey(final String target, final PathElement element, final Resource resource) {
+        if (maxEntries == 0) {
+            return null;
+        }
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        final DataOutputStream out = new DataOutputStream(new DigestOutputStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+        }, digest));
+        try {
+            Resource.Tools.readModel(resource).writeExternal(out);
+            out.flush();
+        } catch (IOException e) {
+            // not thrown by the streams above
+            throw new IllegalStateException(e);
+        }
+        return new Key(target, element, digest.digest());
+    }
+
+    /**
+     * Gets a copy of the cached transformed child.
+     *
+     * @param key the key
+     * @return a copy of the transformed child, or {@code null} if it is not cached
+     */
+    Resource get(final Key key) {
+        final Resource cached;
+        synchronized (this) {
+            cached = entries.get(key);
+        }
+        if (cached == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return cached.clone();
+    }
+
+    /**
+     * Caches a copy of the transformed child.
+     *
+     * @param key the key
+     * @param transformed the transformed child
+     */
+    void put(final Key key, final Resource transformed) {
+        final Resource copy = transformed.clone();
+        synchronized (this) {
+            entries.put(key, copy);
+            if (entries.size() > maxEntries) {
+                final Iterator<Key> eldest = entries.keySet().iterator();
+                eldest.next();
+                eldest.remove();
+            }
+        }
+    }
+
+    synchronized void clear() {
+        entries.clear();
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    long getHits() {
+        return hits.get();
+    }
+
+    long getMisses() {
+        return misses.get();
+    }
+
+    static final class Key {
+
+        private final String target;
+        private final PathElement element;
+        private final byte[] digest;
+        private final int hashCode;
+
+        private Key(final String target, final PathElement element, final byte[] digest) {
+            this.target = target;
+            this.element = element;
+            this.digest = digest;
+            this.hashCode = 31 * (31 * target.hashCode() + element.hashCode()) + Arrays.hashCode(digest);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) o;
+            return target.equals(other.target) && element.equals(other.element) && Arrays.equals(digest, other.digest);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
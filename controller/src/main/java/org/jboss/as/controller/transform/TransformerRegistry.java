@@ -67,6 +67,7 @@ public final class TransformerRegistry {
 
     private final GlobalTransformerRegistry domain = new GlobalTransformerRegistry();
     private final GlobalTransformerRegistry subsystem = new GlobalTransformerRegistry();
+    private final TransformedResourceCache resourceCache = new TransformedResourceCache();
 
     TransformerRegistry(final ExtensionRegistry extensionRegistry) {
         this.extensionRegistry = extensionRegistry;
@@ -80,6 +81,10 @@ public final class TransformerRegistry {
         return extensionRegistry;
     }
 
+    TransformedResourceCache getResourceCache() {
+        return resourceCache;
+    }
+
     /**
      * Register a subsystem transformer.
      *
@@ -102,6 +107,7 @@ public final class TransformerRegistry {
      * @return the sub registry
      */
     public TransformersSubRegistration registerSubsystemTransformers(final String name, final ModelVersionRange range, final ResourceTransformer subsystemTransformer, final OperationTransformer operationTransformer) {
+        resourceCache.clear();
         final PathAddress subsystemAddress = PathAddress.EMPTY_ADDRESS.append(PathElement.pathElement(SUBSYSTEM, name));
         for(final ModelVersion version : range.getVersions()) {
             subsystem.createChildRegistry(subsystemAddress, version, subsystemTransformer, operationTransformer);
@@ -116,6 +122,7 @@ public final class TransformerRegistry {
      * @return the sub registry
      */
     public TransformersSubRegistration getDomainRegistration(final ModelVersionRange range) {
+        resourceCache.clear();
         final PathAddress address = PathAddress.EMPTY_ADDRESS;
         return new TransformersSubRegistrationImpl(range, domain, address);
     }
@@ -127,6 +134,7 @@ public final class TransformerRegistry {
      * @return the sub registry
      */
     public TransformersSubRegistration getHostRegistration(final ModelVersionRange range) {
+        resourceCache.clear();
         final PathAddress address = PathAddress.EMPTY_ADDRESS.append(HOST);
         return new TransformersSubRegistrationImpl(range, domain, address);
     }
@@ -138,6 +146,7 @@ public final class TransformerRegistry {
      * @return the sub registry
      */
     public TransformersSubRegistration getServerRegistration(final ModelVersionRange range) {
+        resourceCache.clear();
         final PathAddress address = PathAddress.EMPTY_ADDRESS.append(HOST, SERVER);
         return new TransformersSubRegistrationImpl(range, domain, address);
     }
@@ -239,6 +239,13 @@ public class TransformersLogger {
         });
     }
 
+    /**
+     * @return the number of messages logged so far
+     */
+    int getMessageCount() {
+        return messageQueue.size();
+    }
+
     /**
      * flushes log queue, this actually writes combined log message into system log
      */
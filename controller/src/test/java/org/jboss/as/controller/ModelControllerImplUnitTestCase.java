@@ -94,6 +94,7 @@ public class ModelControllerImplUnitTestCase {
     private ServiceContainer container;
     private ModelController controller;
     private AtomicBoolean sharedState;
+    private SnapshotReadHandler snapshotReadHandler;
 
     public static void toggleRuntimeState(AtomicBoolean state) {
         boolean runtimeVal = false;
@@ -111,6 +112,7 @@ public class ModelControllerImplUnitTestCase {
         ServiceBuilder<ModelController> builder = target.addService(ServiceName.of("ModelController"), svc);
         builder.install();
         sharedState = svc.getSharedState();
+        snapshotReadHandler = svc.snapshotReadHandler;
         svc.awaitStartup(30, TimeUnit.SECONDS);
         controller = svc.getValue();
         ModelNode setup = Util.getEmptyOperation("setup", new ModelNode());
@@ -574,6 +576,33 @@ public class ModelControllerImplUnitTestCase {
         assertEquals(FAILED, result.get(OUTCOME).asString());
     }
 
+    @Test
+    public void testReadOnlyOperationReadsSnapshot() throws Exception {
+        final ModelNode[] result = new ModelNode[1];
+        final Thread reader = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                result[0] = controller.execute(Util.getEmptyOperation("read-snapshot", new ModelNode()), null, null, null);
+            }
+        });
+        reader.start();
+        assertTrue(snapshotReadHandler.read.await(10, TimeUnit.SECONDS));
+
+        // the reader does not hold the controller lock, so the write completes while it is still running
+        ModelNode write = controller.execute(getOperation("good", "attr1", 5), null, null, null);
+        assertEquals(SUCCESS, write.get(OUTCOME).asString());
+        snapshotReadHandler.written.countDown();
+        reader.join(10000);
+
+        assertEquals(SUCCESS, result[0].get(OUTCOME).asString());
+        // both reads see the model as it was when the operation started
+        assertEquals(1, result[0].get(RESULT, 0).asInt());
+        assertEquals(1, result[0].get(RESULT, 1).asInt());
+
+        write = controller.execute(getOperation("good", "attr1", 1), null, null, null);
+        assertEquals(5, write.get(RESULT).asInt());
+    }
+
     public static ModelNode getOperation(String opName, String attr, int val) {
         return getOperation(opName, attr, val, null, false);
     }
@@ -606,6 +635,8 @@ public class ModelControllerImplUnitTestCase {
 
     static class ModelControllerService extends TestModelControllerService {
 
+        final SnapshotReadHandler snapshotReadHandler = new SnapshotReadHandler();
+
         @Override
         protected void initModel(Resource rootResource, ManagementResourceRegistration rootRegistration) {
 
@@ -626,6 +657,7 @@ public class ModelControllerImplUnitTestCase {
             rootRegistration.registerOperationHandler("dependent-service", new ModelControllerImplUnitTestCase.DependentServiceHandler(), ModelControllerImplUnitTestCase.DESC_PROVIDER, false);
             rootRegistration.registerOperationHandler("remove-dependent-service", new ModelControllerImplUnitTestCase.RemoveDependentServiceHandler(), ModelControllerImplUnitTestCase.DESC_PROVIDER, false);
             rootRegistration.registerOperationHandler("read-wildcards", new ModelControllerImplUnitTestCase.WildcardReadHandler(), ModelControllerImplUnitTestCase.DESC_PROVIDER, true);
+            rootRegistration.registerOperationHandler("read-snapshot", snapshotReadHandler, ModelControllerImplUnitTestCase.DESC_PROVIDER, true);
 
             GlobalOperationHandlers.registerGlobalOperations(rootRegistration, processType);
             SimpleResourceDefinition childResource = new SimpleResourceDefinition(
@@ -1090,6 +1122,30 @@ public class ModelControllerImplUnitTestCase {
 
     }
 
+    /**
+     * Reads attr1 twice, and waits for a write to the model in between
+     */
+    static final class SnapshotReadHandler implements OperationStepHandler {
+
+        final CountDownLatch read = new CountDownLatch(1);
+        final CountDownLatch written = new CountDownLatch(1);
+
+        @Override
+        public void execute(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+            context.getResult().add(context.readResource(PathAddress.EMPTY_ADDRESS).getModel().get("attr1"));
+            read.countDown();
+            try {
+                written.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new OperationFailedException(new ModelNode().set("interrupted"));
+            }
+            context.getResult().add(context.readResource(PathAddress.EMPTY_ADDRESS).getModel().get("attr1"));
+            context.stepCompleted();
+        }
+
+    }
+
     public static final DescriptionProvider DESC_PROVIDER = new DescriptionProvider() {
         @Override
         public ModelNode getModelDescription(Locale locale) {
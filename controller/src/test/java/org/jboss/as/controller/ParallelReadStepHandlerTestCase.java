@@ -0,0 +1,101 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INCLUDE_RUNTIME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_RESOURCE_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RECURSIVE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceBuilder;
+import org.jboss.msc.service.ServiceContainer;
+import org.jboss.msc.service.ServiceName;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests a recursive read-resource with runtime attributes, which reads the child resources with a
+ * {@link ParallelReadStepHandler} when the controller has an executor.
+ */
+public class ParallelReadStepHandlerTestCase {
+
+    private ServiceContainer container;
+    private ExecutorService executor;
+    private ModelController serialController;
+    private ModelController parallelController;
+
+    @Before
+    public void setupControllers() throws InterruptedException {
+        container = ServiceContainer.Factory.create("test");
+        executor = Executors.newCachedThreadPool();
+        serialController = startController("serial", null);
+        parallelController = startController("parallel", executor);
+    }
+
+    @After
+    public void shutdownServiceContainer() throws InterruptedException {
+        if (container != null) {
+            container.shutdown();
+            container.awaitTermination(5, TimeUnit.SECONDS);
+            container = null;
+        }
+        executor.shutdown();
+    }
+
+    @Test
+    public void testRecursiveReadResource() {
+        final ModelNode operation = Util.createEmptyOperation(READ_RESOURCE_OPERATION, PathAddress.EMPTY_ADDRESS);
+        operation.get(RECURSIVE).set(true);
+        operation.get(INCLUDE_RUNTIME).set(true);
+
+        final ModelNode serial = serialController.execute(operation, null, null, null);
+        final ModelNode parallel = parallelController.execute(operation, null, null, null);
+        assertEquals(SUCCESS, parallel.get(OUTCOME).asString());
+        assertEquals(serial.get(RESULT), parallel.get(RESULT));
+        assertEquals(1, parallel.get(RESULT, "child", "one", "attribute1").asInt());
+        assertEquals(2, parallel.get(RESULT, "child", "two", "attribute2").asInt());
+    }
+
+    private ModelController startController(final String name, final ExecutorService executor) throws InterruptedException {
+        final ModelControllerImplUnitTestCase.ModelControllerService svc = new ModelControllerImplUnitTestCase.ModelControllerService();
+        if (executor != null) {
+            svc.getExecutorServiceInjector().inject(executor);
+        }
+        final ServiceBuilder<ModelController> builder = container.subTarget().addService(ServiceName.of("ModelController", name), svc);
+        builder.install();
+        svc.awaitStartup(30, TimeUnit.SECONDS);
+        final ModelController controller = svc.getValue();
+        controller.execute(Util.getEmptyOperation("setup", new ModelNode()), null, null, null);
+        return controller;
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.jboss.as.controller;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_RESOURCE_DESCRIPTION_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_RESOURCE_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INCLUDE_RUNTIME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.VALUE;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.access.management.DelegatingConfigurableAuthorizer;
+import org.jboss.as.controller.access.management.WritableAuthorizerConfiguration;
+import org.jboss.as.controller.access.rbac.StandardRBACAuthorizer;
+import org.jboss.as.controller.access.rbac.StandardRoleMapper;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceBuilder;
+import org.jboss.msc.service.ServiceContainer;
+import org.jboss.msc.service.ServiceName;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the caching of the responses to the read operations by the {@link ReadResultCache} of a controller.
+ */
+public class ReadResultCacheTestCase {
+
+    private static final PathAddress CHILD_ONE = PathAddress.pathAddress(PathElement.pathElement("child", "one"));
+    private static final PathAddress CHILD_TWO = PathAddress.pathAddress(PathElement.pathElement("child", "two"));
+
+    private ServiceContainer container;
+    private ModelController controller;
+    private ReadResultCache cache;
+
+    @Before
+    public void setupController() throws InterruptedException {
+        System.setProperty(ReadResultCache.MAX_ENTRIES_PROPERTY, "10");
+        container = ServiceContainer.Factory.create("test");
+        final ModelControllerImplUnitTestCase.ModelControllerService svc = new ModelControllerImplUnitTestCase.ModelControllerService();
+        final ServiceBuilder<ModelController> builder = container.subTarget().addService(ServiceName.of("ModelController"), svc);
+        builder.install();
+        svc.awaitStartup(30, TimeUnit.SECONDS);
+        controller = svc.getValue();
+        controller.execute(Util.getEmptyOperation("setup", new ModelNode()), null, null, null);
+        cache = ((ModelControllerImpl) controller).getReadResultCache();
+    }
+
+    @After
+    public void shutdownServiceContainer() throws InterruptedException {
+        System.clearProperty(ReadResultCache.MAX_ENTRIES_PROPERTY);
+        if (container != null) {
+            container.shutdown();
+            container.awaitTermination(5, TimeUnit.SECONDS);
+            container = null;
+        }
+    }
+
+    @Test
+    public void testCachedRead() {
+        final ModelNode first = execute(readResource(CHILD_ONE));
+        final ModelNode second = execute(readResource(CHILD_ONE));
+        assertEquals(first, second);
+        assertEquals(1, second.get(RESULT, "attribute1").asInt());
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.getHits());
+
+        // the cached response is not shared with the callers
+        second.get(RESULT, "attribute1").set(42);
+        assertEquals(1, execute(readResource(CHILD_ONE)).get(RESULT, "attribute1").asInt());
+        assertEquals(2, cache.getHits());
+    }
+
+    @Test
+    public void testRuntimeReadIsNotCached() {
+        final ModelNode operation = readResource(CHILD_ONE);
+        operation.get(INCLUDE_RUNTIME).set(true);
+        execute(operation);
+        execute(operation);
+        assertEquals(0, cache.getHits());
+        assertEquals(0, cache.getMisses());
+    }
+
+    @Test
+    public void testInvalidation() {
+        execute(readResource(CHILD_ONE));
+        execute(readResource(CHILD_TWO));
+        execute(readResource(PathAddress.EMPTY_ADDRESS));
+        execute(Util.createEmptyOperation(READ_RESOURCE_DESCRIPTION_OPERATION, CHILD_ONE));
+        assertEquals(4, cache.getMisses());
+
+        // a write to a child invalidates the reads of the child and of its parent
+        cache.invalidate(Collections.singleton(CHILD_TWO));
+        execute(readResource(CHILD_ONE));
+        execute(readResource(CHILD_TWO));
+        execute(readResource(PathAddress.EMPTY_ADDRESS));
+        assertEquals(1, cache.getHits());
+        assertEquals(6, cache.getMisses());
+
+        // a write to the parent invalidates the reads of its children, but not the descriptions
+        final ModelNode write = Util.getEmptyOperation("good", new ModelNode());
+        write.get(NAME).set("attr1");
+        write.get(VALUE).set(5);
+        execute(write);
+        assertEquals(5, execute(readResource(PathAddress.EMPTY_ADDRESS)).get(RESULT, "attr1").asInt());
+        execute(readResource(CHILD_ONE));
+        execute(Util.createEmptyOperation(READ_RESOURCE_DESCRIPTION_OPERATION, CHILD_ONE));
+        assertEquals(2, cache.getHits());
+        assertEquals(8, cache.getMisses());
+
+        cache.invalidateAll();
+        execute(Util.createEmptyOperation(READ_RESOURCE_DESCRIPTION_OPERATION, CHILD_ONE));
+        assertEquals(9, cache.getMisses());
+    }
+
+    @Test
+    public void testMaxEntries() {
+        cache.setMaxEntries(1);
+        execute(readResource(CHILD_ONE));
+        execute(readResource(CHILD_TWO));
+        execute(readResource(CHILD_ONE));
+        assertEquals(0, cache.getHits());
+        assertEquals(3, cache.getMisses());
+
+        cache.setMaxEntries(0);
+        execute(readResource(CHILD_ONE));
+        execute(readResource(CHILD_ONE));
+        assertEquals(0, cache.getHits());
+        assertEquals(3, cache.getMisses());
+    }
+
+    @Test
+    public void testRbacReadIsNotCached() {
+        // with the rbac provider, the anonymous caller is not a SuperUser, so its reads must be authorized
+        final DelegatingConfigurableAuthorizer authorizer = (DelegatingConfigurableAuthorizer) ((ModelControllerImpl) controller).getAuthorizer();
+        final WritableAuthorizerConfiguration configuration = authorizer.getWritableAuthorizerConfiguration();
+        authorizer.setDelegate(StandardRBACAuthorizer.create(configuration, new StandardRoleMapper(configuration)));
+        controller.execute(readResource(CHILD_ONE), null, null, null);
+        controller.execute(readResource(CHILD_ONE), null, null, null);
+        assertEquals(0, cache.getHits());
+        assertEquals(0, cache.getMisses());
+    }
+
+    private ModelNode execute(final ModelNode operation) {
+        final ModelNode response = controller.execute(operation, null, null, null);
+        assertEquals(response.toString(), SUCCESS, response.get(OUTCOME).asString());
+        return response;
+    }
+
+    private static ModelNode readResource(final PathAddress address) {
+        return Util.createEmptyOperation(READ_RESOURCE_OPERATION, address);
+    }
+}
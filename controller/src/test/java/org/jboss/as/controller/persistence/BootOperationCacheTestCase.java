@@ -0,0 +1,179 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.jboss.as.controller.persistence;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.staxmapper.XMLElementReader;
+import org.jboss.staxmapper.XMLExtendedStreamReader;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the caching of the operations parsed by an {@link XmlConfigurationPersister}.
+ */
+public class BootOperationCacheTestCase {
+
+    static final QName ROOT = new QName("urn:test:boot-cache", "config");
+
+    private File configuration;
+    private File cache;
+    private final ItemParser parser = new ItemParser();
+
+    @Before
+    public void createFiles() throws IOException {
+        File tgt = new File("target");
+        if (!tgt.exists()) {
+            Assert.fail("target/ does not exist");
+        }
+        configuration = new File(tgt, "boot-cache-test.xml");
+        cache = new File(new File(tgt, "boot-cache"), "boot-cache-test.xml");
+        cache.delete();
+        System.setProperty("jboss.config.boot-cache", "true");
+    }
+
+    @After
+    public void deleteFiles() {
+        System.clearProperty("jboss.config.boot-cache");
+        configuration.delete();
+        cache.delete();
+    }
+
+    @Test
+    public void testCachedOperations() throws Exception {
+        writeConfiguration(configuration, 10);
+        final List<ModelNode> parsed = createPersister().load();
+        Assert.assertEquals(1, parser.parsed.get());
+        Assert.assertTrue(cache.exists());
+
+        final List<ModelNode> cached = createPersister().load();
+        Assert.assertEquals(1, parser.parsed.get());
+        Assert.assertEquals(parsed, cached);
+    }
+
+    @Test
+    public void testChangedConfiguration() throws Exception {
+        writeConfiguration(configuration, 10);
+        createPersister().load();
+        writeConfiguration(configuration, 11);
+        final List<ModelNode> operations = createPersister().load();
+        Assert.assertEquals(2, parser.parsed.get());
+        Assert.assertEquals(11, operations.size());
+    }
+
+    @Test
+    public void testCorruptedCache() throws Exception {
+        writeConfiguration(configuration, 10);
+        createPersister().load();
+        final OutputStream output = new FileOutputStream(cache, true);
+        try {
+            output.write(new byte[]{1, 2, 3});
+        } finally {
+            output.close();
+        }
+        // the extra bytes are ignored, but a truncated cache is not used
+        Assert.assertEquals(10, createPersister().load().size());
+        Assert.assertEquals(1, parser.parsed.get());
+        final byte[] truncated = new byte[(int) cache.length() / 2];
+        final InputStream input = new FileInputStream(cache);
+        try {
+            Assert.assertEquals(truncated.length, input.read(truncated));
+        } finally {
+            input.close();
+        }
+        final OutputStream rewrite = new FileOutputStream(cache);
+        try {
+            rewrite.write(truncated);
+        } finally {
+            rewrite.close();
+        }
+        Assert.assertEquals(10, createPersister().load().size());
+        Assert.assertEquals(2, parser.parsed.get());
+    }
+
+    @Test
+    public void testCacheDisabled() throws Exception {
+        System.clearProperty("jboss.config.boot-cache");
+        writeConfiguration(configuration, 10);
+        createPersister().load();
+        createPersister().load();
+        Assert.assertEquals(2, parser.parsed.get());
+        Assert.assertFalse(cache.exists());
+    }
+
+    private XmlConfigurationPersister createPersister() {
+        final XmlConfigurationPersister persister = new XmlConfigurationPersister(configuration, ROOT, parser, null);
+        persister.setBootCacheFile(cache);
+        return persister;
+    }
+
+    static void writeConfiguration(final File file, final int items) throws IOException {
+        final StringBuilder xml = new StringBuilder("<config xmlns=\"").append(ROOT.getNamespaceURI()).append("\">\n");
+        for (int i = 0; i < items; i++) {
+            xml.append("    <item name=\"item").append(i).append("\" value=\"").append(i).append("\"/>\n");
+        }
+        xml.append("</config>\n");
+        final OutputStream output = new FileOutputStream(file);
+        try {
+            output.write(xml.toString().getBytes("UTF-8"));
+        } finally {
+            output.close();
+        }
+    }
+
+    /**
+     * Parses an add operation for each item.
+     */
+    static class ItemParser implements XMLElementReader<List<ModelNode>> {
+
+        final AtomicInteger parsed = new AtomicInteger();
+
+        @Override
+        public void readElement(final XMLExtendedStreamReader reader, final List<ModelNode> operations) throws XMLStreamException {
+            parsed.incrementAndGet();
+            while (reader.nextTag() != XMLStreamConstants.END_ELEMENT) {
+                final ModelNode operation = new ModelNode();
+                operation.get("operation").set("add");
+                operation.get("address").add("item", reader.getAttributeValue(null, "name"));
+                operation.get("value").set(Integer.parseInt(reader.getAttributeValue(null, "value")));
+                operations.add(operation);
+                reader.nextTag();
+            }
+        }
+    }
+}
@@ -0,0 +1,230 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.jboss.as.controller.persistence;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.dmr.ModelNode;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the coalescing of the writes of an {@link XmlConfigurationPersister}.
+ */
+public class CoalescingConfigurationWriterTestCase {
+
+    private File file;
+
+    @Before
+    public void createFile() throws IOException {
+        File tgt = new File("target");
+        if (!tgt.exists()) {
+            Assert.fail("target/ does not exist");
+        }
+        file = new File(tgt, "coalescing-test.xml");
+        file.delete();
+    }
+
+    @After
+    public void deleteFile() {
+        file.delete();
+    }
+
+    @Test
+    public void testCoalescedWrites() throws Exception {
+        final TestPersister persister = new TestPersister(file);
+        persister.setCoalesceWindow(200);
+        for (int i = 0; i < 100; i++) {
+            store(persister, i);
+        }
+        persister.flush();
+        Assert.assertEquals("99", readFile());
+        Assert.assertEquals(100, persister.getCoalescedCommitCount());
+        Assert.assertTrue(persister.getWriteCount() >= 1);
+        Assert.assertTrue(persister.getWriteCount() < 100);
+        Assert.assertEquals(persister.getWriteCount(), persister.marshalled.get());
+        Assert.assertTrue(persister.getMaxWriteTime() > 0);
+        Assert.assertTrue(persister.getWriteTime() >= persister.getMaxWriteTime());
+
+        // a flush without pending changes returns at once
+        persister.flush();
+        store(persister, 100);
+        persister.flush();
+        Assert.assertEquals("100", readFile());
+    }
+
+    @Test
+    public void testCommitIsDurable() throws Exception {
+        final TestPersister persister = new TestPersister(file);
+        persister.setCoalesceWindow(200);
+        final ConfigurationPersister.PersistenceResource resource = persister.store(new ModelNode(1), Collections.<PathAddress>emptySet());
+        resource.commit();
+        ((ConfigurationPersister.DeferredPersistenceResource) resource).awaitCommitted();
+        Assert.assertEquals("1", readFile());
+        Assert.assertEquals(1, persister.getWriteCount());
+    }
+
+    @Test
+    public void testFailedWrite() throws Exception {
+        final TestPersister persister = new TestPersister(file);
+        persister.setCoalesceWindow(200);
+        store(persister, 1);
+        persister.flush();
+
+        persister.failing = true;
+        store(persister, 2);
+        try {
+            persister.flush();
+            Assert.fail("The failed write was not reported");
+        } catch (ConfigurationPersistenceException expected) {
+            // expected
+        }
+        Assert.assertEquals("1", readFile());
+
+        // the next write includes the change whose write failed
+        persister.failing = false;
+        store(persister, 3);
+        persister.flush();
+        Assert.assertEquals("3", readFile());
+    }
+
+    @Test
+    public void testCommitReportsFailedWrite() throws Exception {
+        final TestPersister persister = new TestPersister(file);
+        persister.setCoalesceWindow(200);
+        persister.failing = true;
+        final ConfigurationPersister.PersistenceResource resource = persister.store(new ModelNode(1), Collections.<PathAddress>emptySet());
+        resource.commit();
+        try {
+            ((ConfigurationPersister.DeferredPersistenceResource) resource).awaitCommitted();
+            Assert.fail("The failed write was not reported");
+        } catch (ConfigurationPersistenceException expected) {
+            // expected
+        }
+        Assert.assertFalse(file.exists());
+    }
+
+    @Test
+    public void testWriterSurvivesUnexpectedFailure() throws Exception {
+        final TestPersister persister = new TestPersister(file);
+        persister.setCoalesceWindow(200);
+        persister.crashing = true;
+        final ConfigurationPersister.PersistenceResource resource = persister.store(new ModelNode(1), Collections.<PathAddress>emptySet());
+        resource.commit();
+        try {
+            ((ConfigurationPersister.DeferredPersistenceResource) resource).awaitCommitted();
+            Assert.fail("The failed write was not reported");
+        } catch (ConfigurationPersistenceException expected) {
+            // expected
+        }
+
+        // the next commit is written
+        persister.crashing = false;
+        store(persister, 2);
+        persister.flush();
+        Assert.assertEquals("2", readFile());
+    }
+
+    @Test
+    public void testRolledBackChangeIsNotWritten() throws Exception {
+        final TestPersister persister = new TestPersister(file);
+        persister.setCoalesceWindow(200);
+        store(persister, 1);
+        persister.store(new ModelNode(2), Collections.<PathAddress>emptySet()).rollback();
+        persister.flush();
+        Assert.assertEquals("1", readFile());
+    }
+
+    @Test
+    public void testDisablingWritesPendingChanges() throws Exception {
+        final TestPersister persister = new TestPersister(file);
+        persister.setCoalesceWindow(60000);
+        store(persister, 1);
+        persister.setCoalesceWindow(0);
+        Assert.assertEquals("1", readFile());
+
+        // the following changes are written as they are committed
+        store(persister, 2);
+        Assert.assertEquals("2", readFile());
+        Assert.assertEquals(1, persister.getWriteCount());
+    }
+
+    @Test
+    public void testSynchronousWrites() throws Exception {
+        final TestPersister persister = new TestPersister(file);
+        store(persister, 1);
+        Assert.assertEquals("1", readFile());
+        Assert.assertEquals(0, persister.getWriteCount());
+        Assert.assertEquals(0, persister.getCoalescedCommitCount());
+    }
+
+    private static void store(final XmlConfigurationPersister persister, final int value) throws ConfigurationPersistenceException {
+        persister.store(new ModelNode(value), Collections.<PathAddress>emptySet()).commit();
+    }
+
+    private String readFile() throws IOException {
+        final BufferedReader reader = new BufferedReader(new FileReader(file));
+        try {
+            return reader.readLine();
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static class TestPersister extends XmlConfigurationPersister {
+
+        private final AtomicInteger marshalled = new AtomicInteger();
+        private volatile boolean failing;
+        private volatile boolean crashing;
+
+        TestPersister(final File file) {
+            super(file, null, null, null);
+        }
+
+        @Override
+        public void marshallAsXml(final ModelNode model, final OutputStream output) throws ConfigurationPersistenceException {
+            if (failing) {
+                throw new ConfigurationPersistenceException("Failing to marshal " + model);
+            }
+            if (crashing) {
+                throw new AssertionError("Crashing while marshalling " + model);
+            }
+            marshalled.incrementAndGet();
+            try {
+                output.write(model.asString().getBytes("UTF-8"));
+            } catch (IOException e) {
+                throw new ConfigurationPersistenceException(e);
+            }
+        }
+    }
+}
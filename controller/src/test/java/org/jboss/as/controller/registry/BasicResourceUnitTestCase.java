@@ -0,0 +1,153 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.registry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.dmr.ModelNode;
+import org.junit.Test;
+
+/**
+ * Tests the copy on write cloning of the {@link Resource}s created by the {@link Resource.Factory}.
+ */
+public class BasicResourceUnitTestCase {
+
+    private static final PathElement SUBSYSTEM_A = PathElement.pathElement("subsystem", "a");
+    private static final PathElement SUBSYSTEM_B = PathElement.pathElement("subsystem", "b");
+    private static final PathElement CHILD_1 = PathElement.pathElement("child", "1");
+    private static final PathElement CHILD_2 = PathElement.pathElement("child", "2");
+
+    @Test
+    public void testCloneIsIndependent() {
+        final Resource original = createModel();
+        final Resource clone = original.clone();
+        clone.requireChild(SUBSYSTEM_A).requireChild(CHILD_1).getModel().get("value").set("changed");
+        clone.requireChild(SUBSYSTEM_B).registerChild(CHILD_2, Resource.Factory.create());
+        clone.requireChild(SUBSYSTEM_A).removeChild(CHILD_2);
+        clone.getModel().get("root").set("changed");
+
+        assertEquals("a1", original.requireChild(SUBSYSTEM_A).requireChild(CHILD_1).getModel().get("value").asString());
+        assertFalse(original.requireChild(SUBSYSTEM_B).hasChild(CHILD_2));
+        assertTrue(original.requireChild(SUBSYSTEM_A).hasChild(CHILD_2));
+        assertEquals("root", original.getModel().get("root").asString());
+
+        assertEquals("changed", clone.requireChild(SUBSYSTEM_A).requireChild(CHILD_1).getModel().get("value").asString());
+        assertTrue(clone.requireChild(SUBSYSTEM_B).hasChild(CHILD_2));
+        assertFalse(clone.requireChild(SUBSYSTEM_A).hasChild(CHILD_2));
+    }
+
+    @Test
+    public void testOriginalChangesAfterClone() {
+        final Resource original = createModel();
+        final Resource child = original.requireChild(SUBSYSTEM_A).requireChild(CHILD_1);
+        final Resource clone = original.clone();
+        // a model which is not published yet may still be modified through the resources obtained before the clone
+        child.getModel().get("value").set("changed");
+        original.requireChild(SUBSYSTEM_B).registerChild(CHILD_2, Resource.Factory.create());
+
+        assertEquals("a1", clone.requireChild(SUBSYSTEM_A).requireChild(CHILD_1).getModel().get("value").asString());
+        assertFalse(clone.requireChild(SUBSYSTEM_B).hasChild(CHILD_2));
+    }
+
+    @Test
+    public void testFrozenModelIsShared() {
+        final Resource published = createModel();
+        Resource.Tools.freeze(published);
+        final Resource child = published.requireChild(SUBSYSTEM_A);
+        // reading a published model does not copy anything
+        assertSame(child, published.requireChild(SUBSYSTEM_A));
+
+        final Resource update = published.clone();
+        assertEquals(Resource.Tools.readModel(published), Resource.Tools.readModel(update));
+        final Resource updated = update.requireChild(SUBSYSTEM_A);
+        assertNotSame(child, updated);
+        // the copy is kept for the following changes
+        assertSame(updated, update.requireChild(SUBSYSTEM_A));
+        updated.requireChild(CHILD_1).getModel().get("value").set("changed");
+        assertEquals("a1", published.requireChild(SUBSYSTEM_A).requireChild(CHILD_1).getModel().get("value").asString());
+
+        // a snapshot taken while the model is updated keeps the changes made so far
+        final Resource snapshot = update.clone();
+        updated.requireChild(CHILD_1).getModel().get("value").set("changed again");
+        assertEquals("changed", snapshot.requireChild(SUBSYSTEM_A).requireChild(CHILD_1).getModel().get("value").asString());
+
+        Resource.Tools.freeze(update);
+        final Resource next = update.clone();
+        next.requireChild(SUBSYSTEM_B).requireChild(CHILD_1).getModel().get("value").set("changed");
+        assertEquals("changed again", next.requireChild(SUBSYSTEM_A).requireChild(CHILD_1).getModel().get("value").asString());
+        assertEquals("b1", update.requireChild(SUBSYSTEM_B).requireChild(CHILD_1).getModel().get("value").asString());
+    }
+
+    @Test
+    public void testRemovedChildIsIndependent() {
+        final Resource published = createModel();
+        Resource.Tools.freeze(published);
+        final Resource update = published.clone();
+        final Resource removed = update.removeChild(SUBSYSTEM_A);
+        removed.requireChild(CHILD_1).getModel().get("value").set("changed");
+        assertNull(update.getChild(SUBSYSTEM_A));
+        assertEquals("a1", published.navigate(PathAddress.pathAddress(SUBSYSTEM_A, CHILD_1)).getModel().get("value").asString());
+    }
+
+    @Test
+    public void testReadModel() {
+        final Resource original = createModel();
+        final ModelNode expected = Resource.Tools.readModel(original);
+        assertEquals("a1", expected.get("subsystem", "a", "child", "1", "value").asString());
+        assertEquals("b1", expected.get("subsystem", "b", "child", "1", "value").asString());
+        Resource.Tools.freeze(original);
+        final Resource clone = original.clone();
+        assertEquals(expected, Resource.Tools.readModel(clone));
+        // reading the model did not copy the shared resources
+        for (final Resource.ResourceEntry entry : ((BasicResource) clone).readChildren("subsystem")) {
+            assertSame(original.getChild(entry.getPathElement()), ((AbstractModelResource.DelegateResource) entry).delegate);
+        }
+    }
+
+    private static Resource createModel() {
+        final Resource root = Resource.Factory.create();
+        root.getModel().get("root").set("root");
+        for (final PathElement subsystem : new PathElement[]{SUBSYSTEM_A, SUBSYSTEM_B}) {
+            final Resource resource = Resource.Factory.create();
+            resource.getModel().get("name").set(subsystem.getValue());
+            root.registerChild(subsystem, resource);
+        }
+        final Resource a = root.requireChild(SUBSYSTEM_A);
+        for (final PathElement child : new PathElement[]{CHILD_1, CHILD_2}) {
+            final Resource resource = Resource.Factory.create();
+            resource.getModel().get("value").set("a" + child.getValue());
+            a.registerChild(child, resource);
+        }
+        final Resource b1 = Resource.Factory.create();
+        b1.getModel().get("value").set("b1");
+        root.requireChild(SUBSYSTEM_B).registerChild(CHILD_1, b1);
+        return root;
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.transform;
+
+import java.util.Collections;
+
+import org.jboss.as.controller.ExpressionResolver;
+import org.jboss.as.controller.ModelVersion;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.ProcessType;
+import org.jboss.as.controller.RunningMode;
+import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.descriptions.NonResolvingResourceDescriptionResolver;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.controller.registry.Resource;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the memoization of the transformed root children by {@link TransformedResourceCache}.
+ */
+public class TransformedResourceCacheTestCase {
+
+    private static final PathElement PROFILE_A = PathElement.pathElement("profile", "a");
+    private static final PathElement PROFILE_B = PathElement.pathElement("profile", "b");
+    private static final PathElement CHILD = PathElement.pathElement("child", "one");
+
+    private Resource resourceRoot;
+    private TransformerRegistry registry;
+    private ManagementResourceRegistration resourceRegistration;
+    private int invocations;
+
+    @Before
+    public void setUp() {
+        resourceRoot = Resource.Factory.create();
+        registry = TransformerRegistry.Factory.create(null);
+        resourceRegistration = ManagementResourceRegistration.Factory.create(new SimpleResourceDefinition(PathElement.pathElement("test"), new NonResolvingResourceDescriptionResolver()));
+        invocations = 0;
+
+        for (PathElement element : new PathElement[] {PROFILE_A, PROFILE_B}) {
+            final Resource profile = Resource.Factory.create();
+            profile.getModel().get("value").set(element.getValue());
+            final Resource child = Resource.Factory.create();
+            child.getModel().get("attribute").set(1);
+            profile.registerChild(CHILD, child);
+            resourceRoot.registerChild(element, profile);
+        }
+
+        final TransformersSubRegistration reg = registry.getServerRegistration(ModelVersion.create(1));
+        final TransformersSubRegistration profileReg = reg.registerSubResource(PathElement.pathElement("profile"), new ResourceTransformer() {
+            @Override
+            public void transformResource(ResourceTransformationContext context, PathAddress address, Resource resource) throws OperationFailedException {
+                invocations++;
+                final Resource transformed = context.createResource(PathAddress.EMPTY_ADDRESS);
+                transformed.getModel().get("legacy-value").set(resource.getModel().get("value"));
+                if (resource.getModel().hasDefined("warn")) {
+                    context.getLogger().logWarning("warn");
+                }
+                context.processChildren(resource);
+            }
+        });
+        profileReg.registerSubResource(PathElement.pathElement("child"));
+    }
+
+    @Test
+    public void testCachedTransformation() throws Exception {
+        final Resource first = transformResource();
+        Assert.assertEquals(2, invocations);
+        final Resource second = transformResource();
+        Assert.assertEquals(2, invocations);
+        Assert.assertEquals(2, registry.getResourceCache().getHits());
+        Assert.assertEquals(Resource.Tools.readModel(first), Resource.Tools.readModel(second));
+        Assert.assertEquals("a", second.getChild(PROFILE_A).getModel().get("legacy-value").asString());
+        Assert.assertEquals(1, second.getChild(PROFILE_A).getChild(CHILD).getModel().get("attribute").asInt());
+
+        // the copies handed out are independent of the cached ones
+        second.getChild(PROFILE_A).getChild(CHILD).getModel().get("attribute").set(2);
+        final Resource third = transformResource();
+        Assert.assertEquals(1, third.getChild(PROFILE_A).getChild(CHILD).getModel().get("attribute").asInt());
+    }
+
+    @Test
+    public void testChangedSubtree() throws Exception {
+        transformResource();
+        Assert.assertEquals(2, invocations);
+        resourceRoot.getChild(PROFILE_B).getChild(CHILD).getModel().get("attribute").set(5);
+        final Resource transformed = transformResource();
+        // only the changed profile is transformed again
+        Assert.assertEquals(3, invocations);
+        Assert.assertEquals(5, transformed.getChild(PROFILE_B).getChild(CHILD).getModel().get("attribute").asInt());
+        Assert.assertEquals(1, transformed.getChild(PROFILE_A).getChild(CHILD).getModel().get("attribute").asInt());
+    }
+
+    @Test
+    public void testWarningsAreNotCached() throws Exception {
+        resourceRoot.getChild(PROFILE_A).getModel().get("warn").set(true);
+        transformResource();
+        transformResource();
+        // the warnings are logged on every transformation
+        Assert.assertEquals(3, invocations);
+    }
+
+    @Test
+    public void testRegistrationClearsCache() throws Exception {
+        transformResource();
+        Assert.assertEquals(2, registry.getResourceCache().size());
+        registry.getServerRegistration(ModelVersion.create(1));
+        Assert.assertEquals(0, registry.getResourceCache().size());
+        transformResource();
+        Assert.assertEquals(4, invocations);
+    }
+
+    private Resource transformResource() throws OperationFailedException {
+        final TransformationTarget target = TransformationTargetImpl.create(registry, ModelVersion.create(1), Collections.<PathAddress, ModelVersion>emptyMap(), null, TransformationTarget.TransformationTargetType.SERVER, null);
+        final ResourceTransformationContext context = Transformers.Factory.create(target, resourceRoot, resourceRegistration, ExpressionResolver.TEST_RESOLVER, RunningMode.NORMAL, ProcessType.STANDALONE_SERVER);
+        return Transformers.Factory.create(target).transformResource(context, resourceRoot);
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.jboss.as.repository;
+
+/**
+ * A {@link ContentRepository} which can store the added content in chunks shared with the other content. The content
+ * stored in chunks is reassembled for the readers of {@link #getContent(byte[])}, which release it once they no
+ * longer read it.
+ */
+public interface ChunkedContentRepository extends ContentRepository {
+
+    /**
+     * Releases the content read with {@link #getContent(byte[])} once it is no longer read, so that the repository can
+     * drop the copy of the content it made for the read.
+     *
+     * @param hash the hash. Cannot be {@code null}
+     */
+    void releaseContent(byte[] hash);
+
+    /**
+     * Sets whether the content added to the repository is stored in chunks shared with the other content. The content
+     * already in the repository is kept as it is stored, and stays readable. The repository does not keep the setting
+     * across restarts.
+     *
+     * @param chunked {@code true} to store the added content in chunks
+     */
+    void setChunkedContent(boolean chunked);
+}
@@ -0,0 +1,559 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.repository;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Stores content as a manifest of chunks, so that the versions of an archive share the chunks they have in common.
+ * <p/>
+ * The content is split at the positions where a rolling hash of the last bytes matches a pattern, so an insertion or
+ * a removal only changes the chunks around it, and the rest of the content is split into the same chunks as before.
+ * The content is hashed and split in a single pass over the stream it is read from. A chunk is stored under its
+ * SHA-1 in {@code chunks/}, and the manifest of the content, the list of the hashes of its chunks, under the SHA-1 of
+ * the content in {@code manifests/}.
+ * <p/>
+ * The readers of a content expect a single file, so the content is reassembled by copying the chunk files when it
+ * is read. The reassembled copy is transient: it is kept in {@code reassembled/} while the content is
+ * read, and deleted once the last reader released it, when the content is removed, or when the repository is
+ * opened again.
+ */
+final class ChunkedContentStore {
+
+    static final String CHUNKS = "chunks";
+    static final String MANIFESTS = "manifests";
+    static final String REASSEMBLED = "reassembled";
+    static final String CONTENT = "content";
+
+    static final int MIN_CHUNK_SIZE = 16 * 1024;
+    static final int MAX_CHUNK_SIZE = 256 * 1024;
+    // the 16 high bits of the rolling hash are zero every 64KB on average
+    private static final long BOUNDARY_MASK = 0xFFFFL << 48;
+    // random values for the bytes, the seed is fixed so the content is always split at the same positions
+    private static final long[] GEAR = new long[256];
+    private static final int HASH_LENGTH = 20;
+    // the content is stored with the read lock, so that the chunks it references are not removed as unused. It is shared
+    // by the stores, as the content and the deployment file repositories of a host have the same root
+    private static final ReadWriteLock LOCK = new ReentrantReadWriteLock();
+    // the number of readers of each reassembled content file, guarded by itself and taken after LOCK
+    private static final Map<File, Integer> READERS = new HashMap<File, Integer>();
+
+    static {
+        final Random random = new Random(0x5DEECE66DL);
+        for (int i = 0; i < GEAR.length; i++) {
+            GEAR[i] = random.nextLong();
+        }
+    }
+
+    private final File repoRoot;
+    private final File chunksRoot;
+    private final File manifestsRoot;
+    private final File reassembledRoot;
+
+    ChunkedContentStore(final File repoRoot) {
+        this.repoRoot = repoRoot;
+        this.chunksRoot = new File(repoRoot, CHUNKS);
+        this.manifestsRoot = new File(repoRoot, MANIFESTS);
+        this.reassembledRoot = new File(repoRoot, REASSEMBLED);
+    }
+
+    /**
+     * Stores the content read from the stream.
+     *
+     * @param stream the stream to read the content from
+     * @return the SHA-1 of the content
+     * @throws IOException if the stream cannot be read or the chunks cannot be written
+     */
+    byte[] store(final InputStream stream) throws IOException {
+        final MessageDigest contentDigest = createDigest();
+        final MessageDigest chunkDigest = createDigest();
+        final List<byte[]> chunkHashes = new ArrayList<byte[]>();
+        final byte[] chunk = new byte[MAX_CHUNK_SIZE];
+        final byte[] bytes = new byte[8192];
+        int newChunks = 0;
+        LOCK.readLock().lock();
+        try {
+            final InputStream in = new BufferedInputStream(stream);
+            int length = 0;
+            long hash = 0;
+            int read;
+            while ((read = in.read(bytes)) > -1) {
+                contentDigest.update(bytes, 0, read);
+                for (int i = 0; i < read; i++) {
+                    final byte b = bytes[i];
+                    chunk[length++] = b;
+                    hash = (hash << 1) + GEAR[b & 0xff];
+                    if (length == MAX_CHUNK_SIZE || (length >= MIN_CHUNK_SIZE && (hash & BOUNDARY_MASK) == 0)) {
+                        if (storeChunk(chunk, length, chunkDigest, chunkHashes)) {
+                            newChunks++;
+                        }
+                        length = 0;
+                        hash = 0;
+                    }
+                }
+            }
+            if (length > 0) {
+                if (storeChunk(chunk, length, chunkDigest, chunkHashes)) {
+                    newChunks++;
+                }
+            }
+            final byte[] contentHash = contentDigest.digest();
+            final File manifest = getManifestFile(contentHash);
+            if (!manifest.exists()) {
+                final ByteBuffer buffer = ByteBuffer.allocate(chunkHashes.size() * HASH_LENGTH);
+                for (byte[] chunkHash : chunkHashes) {
+                    buffer.put(chunkHash);
+                }
+                write(buffer.array(), buffer.capacity(), manifest);
+            }
+            DeploymentRepositoryLogger.ROOT_LOGGER.debugf("Content %s is stored in %d chunks, %d of them new",
+                    HashUtil.bytesToHexString(contentHash), chunkHashes.size(), newChunks);
+            return contentHash;
+        } finally {
+            LOCK.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets whether the store has the manifest of the content.
+     */
+    boolean hasContent(final byte[] hash) {
+        return getManifestFile(hash).exists();
+    }
+
+    /**
+     * Gets the manifest file of the content.
+     */
+    File getManifestFile(final byte[] hash) {
+        return getFile(manifestsRoot, hash);
+    }
+
+    /**
+     * Reassembles the content from its chunks for a reader, unless it is reassembled already. The reader must
+     * {@link #release(byte[]) release} the content once it no longer reads it.
+     *
+     * @param hash the SHA-1 of the content
+     * @return the reassembled content file, or {@code null} if the content is not stored in chunks
+     */
+    File acquire(final byte[] hash) {
+        if (getContentFile(repoRoot, hash).exists()) {
+            return null;
+        }
+        // the chunks are read with the read lock, so that they are not removed as unused meanwhile
+        LOCK.readLock().lock();
+        try {
+            final File manifest = getManifestFile(hash);
+            if (!manifest.exists()) {
+                return null;
+            }
+            final File content = getContentFile(reassembledRoot, hash);
+            synchronized (READERS) {
+                final Integer readers = READERS.get(content);
+                if (readers == null && !content.exists()) {
+                    try {
+                        reassemble(hash, manifest, content);
+                    } catch (IOException e) {
+                        throw DeploymentRepositoryMessages.MESSAGES.cannotReassembleContent(e, HashUtil.bytesToHexString(hash));
+                    }
+                }
+                READERS.put(content, readers == null ? 1 : readers + 1);
+            }
+            return content;
+        } finally {
+            LOCK.readLock().unlock();
+        }
+    }
+
+    /**
+     * Releases the content acquired by a reader, and deletes its reassembled copy once it has no readers left.
+     *
+     * @param hash the SHA-1 of the content
+     */
+    void release(final byte[] hash) {
+        final File content = getContentFile(reassembledRoot, hash);
+        synchronized (READERS) {
+            final Integer readers = READERS.get(content);
+            if (readers == null) {
+                return;
+            }
+            if (readers > 1) {
+                READERS.put(content, readers - 1);
+                return;
+            }
+            READERS.remove(content);
+            deleteReassembled(content);
+        }
+    }
+
+    /**
+     * Deletes the copies of the content reassembled before, which are left over if the process stopped while
+     * the content was read.
+     */
+    void clearReassembled() {
+        LOCK.writeLock().lock();
+        try {
+            synchronized (READERS) {
+                final Iterator<File> iterator = READERS.keySet().iterator();
+                while (iterator.hasNext()) {
+                    if (iterator.next().getPath().startsWith(reassembledRoot.getPath())) {
+                        iterator.remove();
+                    }
+                }
+                deleteRecursively(reassembledRoot);
+            }
+        } finally {
+            LOCK.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the manifest of the content, and the chunks that no other content is made of.
+     *
+     * @param hash the SHA-1 of the content
+     */
+    void remove(final byte[] hash) {
+        final File manifest = getManifestFile(hash);
+        if (!manifest.exists()) {
+            return;
+        }
+        LOCK.writeLock().lock();
+        try {
+            final Set<String> chunks;
+            try {
+                chunks = readManifest(manifest);
+            } catch (IOException e) {
+                // the chunks are left in place, as they cannot be told apart from the chunks of other content
+                DeploymentRepositoryLogger.ROOT_LOGGER.debugf(e, "Cannot read the manifest %s", manifest);
+                deleteFile(manifest);
+                return;
+            }
+            deleteFile(manifest);
+            deleteIfEmpty(manifest.getParentFile());
+            final File content = getContentFile(reassembledRoot, hash);
+            synchronized (READERS) {
+                READERS.remove(content);
+                deleteReassembled(content);
+            }
+            final File[] manifestDirs = manifestsRoot.listFiles();
+            if (manifestDirs != null) {
+                for (File manifestDir : manifestDirs) {
+                    final File[] manifests = manifestDir.listFiles();
+                    if (manifests == null) {
+                        continue;
+                    }
+                    for (File other : manifests) {
+                        try {
+                            chunks.removeAll(readManifest(other));
+                        } catch (IOException e) {
+                            // the chunks of the content may be in use, keep them all
+                            DeploymentRepositoryLogger.ROOT_LOGGER.debugf(e, "Cannot read the manifest %s", other);
+                            return;
+                        }
+                    }
+                }
+            }
+            for (String chunk : chunks) {
+                final File chunkFile = getFile(chunksRoot, HashUtil.hexStringToByteArray(chunk));
+                deleteFile(chunkFile);
+                deleteIfEmpty(chunkFile.getParentFile());
+            }
+            DeploymentRepositoryLogger.ROOT_LOGGER.debugf("Removed %d chunks of content %s", chunks.size(), HashUtil.bytesToHexString(hash));
+        } finally {
+            LOCK.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the content stored in chunks in place of the {@code content} file of the passed hash directory, for the
+     * readers which send the files of a hash directory rather than read them as a file.
+     *
+     * @param hashDir the hash directory of the content in the repository
+     * @return the content, or {@code null} if the content of the hash directory is not stored in chunks
+     */
+    static ChunkedContent getChunkedContent(final File hashDir) {
+        final File partA = hashDir.getParentFile();
+        final File repoRoot = partA == null ? null : partA.getParentFile();
+        if (repoRoot == null || partA.getName().length() != 2 || hashDir.getName().length() != HASH_LENGTH * 2 - 2) {
+            return null;
+        }
+        final File manifest = new File(new File(new File(repoRoot, MANIFESTS), partA.getName()), hashDir.getName());
+        return manifest.exists() ? new ChunkedContent(new ChunkedContentStore(repoRoot), manifest) : null;
+    }
+
+    static File getContentFile(final File repoRoot, final byte[] hash) {
+        return new File(getFile(repoRoot, hash), CONTENT);
+    }
+
+    private boolean storeChunk(final byte[] chunk, final int length, final MessageDigest chunkDigest, final List<byte[]> chunkHashes) throws IOException {
+        chunkDigest.reset();
+        chunkDigest.update(chunk, 0, length);
+        final byte[] chunkHash = chunkDigest.digest();
+        chunkHashes.add(chunkHash);
+        final File chunkFile = getFile(chunksRoot, chunkHash);
+        if (chunkFile.exists()) {
+            return false;
+        }
+        write(chunk, length, chunkFile);
+        return true;
+    }
+
+    private void reassemble(final byte[] hash, final File manifest, final File content) throws IOException {
+        final MessageDigest digest = createDigest();
+        final File dir = content.getParentFile();
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw DeploymentRepositoryMessages.MESSAGES.cannotCreateDirectory(dir.getAbsolutePath());
+        }
+        final File tmp = File.createTempFile(CONTENT, "tmp", dir);
+        try {
+            final InputStream in = openStream(manifest);
+            FileOutputStream fos = null;
+            try {
+                fos = new FileOutputStream(tmp);
+                final byte[] bytes = new byte[8192];
+                int read;
+                while ((read = in.read(bytes)) > -1) {
+                    digest.update(bytes, 0, read);
+                    fos.write(bytes, 0, read);
+                }
+                fos.flush();
+                fos.getFD().sync();
+            } finally {
+                safeClose(fos);
+                safeClose(in);
+            }
+            if (!Arrays.equals(hash, digest.digest())) {
+                throw DeploymentRepositoryMessages.MESSAGES.reassembledContentHashMismatch(HashUtil.bytesToHexString(hash));
+            }
+            if (!tmp.renameTo(content) && !content.exists()) {
+                throw DeploymentRepositoryMessages.MESSAGES.cannotCreateFile(content.getAbsolutePath());
+            }
+        } finally {
+            if (tmp.exists() && !tmp.delete()) {
+                DeploymentRepositoryLogger.ROOT_LOGGER.cannotDeleteTempFile(tmp.getName());
+                tmp.deleteOnExit();
+            }
+        }
+    }
+
+    /**
+     * Opens a stream of the content of the manifest, read from its chunks one after the other.
+     */
+    private InputStream openStream(final File manifest) throws IOException {
+        final Iterator<byte[]> chunkHashes = readChunkHashes(manifest).iterator();
+        return new InputStream() {
+            private InputStream chunk;
+
+            @Override
+            public int read() throws IOException {
+                final byte[] b = new byte[1];
+                return read(b, 0, 1) == -1 ? -1 : b[0] & 0xff;
+            }
+
+            @Override
+            public int read(final byte[] b, final int off, final int len) throws IOException {
+                if (len == 0) {
+                    return 0;
+                }
+                for (;;) {
+                    if (chunk == null) {
+                        if (!chunkHashes.hasNext()) {
+                            return -1;
+                        }
+                        chunk = new FileInputStream(getFile(chunksRoot, chunkHashes.next()));
+                    }
+                    final int read = chunk.read(b, off, len);
+                    if (read > -1) {
+                        return read;
+                    }
+                    chunk.close();
+                    chunk = null;
+                }
+            }
+
+            @Override
+            public void close() throws IOException {
+                if (chunk != null) {
+                    chunk.close();
+                    chunk = null;
+                }
+            }
+        };
+    }
+
+    private static List<byte[]> readChunkHashes(final File manifest) throws IOException {
+        final int count = (int) (manifest.length() / HASH_LENGTH);
+        final List<byte[]> chunkHashes = new ArrayList<byte[]>(count);
+        final DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(manifest)));
+        try {
+            for (int i = 0; i < count; i++) {
+                final byte[] chunkHash = new byte[HASH_LENGTH];
+                in.readFully(chunkHash);
+                chunkHashes.add(chunkHash);
+            }
+        } finally {
+            safeClose(in);
+        }
+        return chunkHashes;
+    }
+
+    private static Set<String> readManifest(final File manifest) throws IOException {
+        final Set<String> chunks = new HashSet<String>();
+        for (byte[] chunkHash : readChunkHashes(manifest)) {
+            chunks.add(HashUtil.bytesToHexString(chunkHash));
+        }
+        return chunks;
+    }
+
+    /**
+     * Writes the file through a temporary file in the same directory, so that it is either complete or missing.
+     */
+    private static void write(final byte[] bytes, final int length, final File file) throws IOException {
+        final File dir = file.getParentFile();
+        if (!dir.exists() && !dir.mkdirs() && !dir.exists()) {
+            throw DeploymentRepositoryMessages.MESSAGES.cannotCreateDirectory(dir.getAbsolutePath());
+        }
+        final File tmp = File.createTempFile("tmp", null, dir);
+        FileOutputStream fos = new FileOutputStream(tmp);
+        try {
+            fos.write(bytes, 0, length);
+            fos.flush();
+            fos.getFD().sync();
+            fos.close();
+            fos = null;
+            // the same chunk may have been written concurrently
+            if (!tmp.renameTo(file) && !file.exists()) {
+                throw DeploymentRepositoryMessages.MESSAGES.cannotCreateFile(file.getAbsolutePath());
+            }
+        } finally {
+            safeClose(fos);
+            if (tmp.exists() && !tmp.delete()) {
+                DeploymentRepositoryLogger.ROOT_LOGGER.cannotDeleteTempFile(tmp.getName());
+                tmp.deleteOnExit();
+            }
+        }
+    }
+
+    private static File getFile(final File root, final byte[] hash) {
+        final String sha1 = HashUtil.bytesToHexString(hash);
+        return new File(new File(root, sha1.substring(0, 2)), sha1.substring(2));
+    }
+
+    private static void deleteFile(final File file) {
+        if (file.exists() && !file.delete()) {
+            DeploymentRepositoryLogger.ROOT_LOGGER.cannotDeleteTempFile(file.getName());
+            file.deleteOnExit();
+        }
+    }
+
+    private static void deleteReassembled(final File content) {
+        deleteFile(content);
+        final File dir = content.getParentFile();
+        deleteIfEmpty(dir);
+        deleteIfEmpty(dir.getParentFile());
+    }
+
+    private static void deleteRecursively(final File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteRecursively(child);
+            }
+        }
+        deleteFile(file);
+    }
+
+    private static void deleteIfEmpty(final File dir) {
+        final String[] children = dir.list();
+        if (children != null && children.length == 0) {
+            dir.delete();
+        }
+    }
+
+    private static void safeClose(final Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (Exception ignore) {
+                //
+            }
+        }
+    }
+
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw DeploymentRepositoryMessages.MESSAGES.cannotObtainSha1(e, MessageDigest.class.getSimpleName());
+        }
+    }
+
+    /**
+     * A content read from its chunks without reassembling it. Reading it fails if the content is removed meanwhile.
+     */
+    static final class ChunkedContent {
+
+        private final ChunkedContentStore store;
+        private final File manifest;
+
+        private ChunkedContent(final ChunkedContentStore store, final File manifest) {
+            this.store = store;
+            this.manifest = manifest;
+        }
+
+        /**
+         * Gets the length of the content, the sum of the lengths of its chunks.
+         */
+        long getLength() throws IOException {
+            long length = 0;
+            for (byte[] chunkHash : readChunkHashes(manifest)) {
+                length += getFile(store.chunksRoot, chunkHash).length();
+            }
+            return length;
+        }
+
+        InputStream openStream() throws IOException {
+            return store.openStream(manifest);
+        }
+    }
+}
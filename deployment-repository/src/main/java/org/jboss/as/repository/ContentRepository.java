@@ -126,12 +126,18 @@ public interface ContentRepository {
 
         /**
          * Default implementation of {@link ContentRepository}.
+         * <p/>
+         * With {@link #setChunkedContent(boolean) chunked content} enabled, the added content is stored in chunks shared
+         * with the other content, and reassembled while it is read. See {@link ChunkedContentStore}.
          * @author John Bailey
          */
-        private static class ContentRepositoryImpl implements ContentRepository, Service<ContentRepository> {
+        private static class ContentRepositoryImpl implements ChunkedContentRepository, Service<ContentRepository> {
 
             protected static final String CONTENT = "content";
             private final File repoRoot;
+            // the content stored in chunks is read even if it is no longer added in chunks
+            private final ChunkedContentStore chunkedContentStore;
+            private volatile boolean chunked;
             protected final MessageDigest messageDigest;
             private final Map<String, Set<Object>> deploymentHashReferences = new HashMap<String, Set<Object>>();
 
@@ -150,6 +156,8 @@ public interface ContentRepository {
                     throw DeploymentRepositoryMessages.MESSAGES.cannotCreateDirectory(repoRoot.getAbsolutePath());
                 }
                 this.repoRoot = repoRoot;
+                this.chunkedContentStore = new ChunkedContentStore(repoRoot);
+                this.chunkedContentStore.clearReassembled();
 
                 try {
                     this.messageDigest = MessageDigest.getInstance("SHA-1");
@@ -160,6 +168,11 @@ public interface ContentRepository {
 
             @Override
             public byte[] addContent(InputStream stream) throws IOException {
+                if (chunked) {
+                    final byte[] sha1Bytes = chunkedContentStore.store(stream);
+                    DeploymentRepositoryLogger.ROOT_LOGGER.contentAdded(chunkedContentStore.getManifestFile(sha1Bytes).getAbsolutePath());
+                    return sha1Bytes;
+                }
                 byte[] sha1Bytes;
                 File tmp = File.createTempFile(CONTENT, "tmp", repoRoot);
                 FileOutputStream fos = new FileOutputStream(tmp);
@@ -216,9 +229,20 @@ public interface ContentRepository {
             public VirtualFile getContent(byte[] hash) {
                 if (hash == null)
                     throw DeploymentRepositoryMessages.MESSAGES.nullVar("hash");
+                final File reassembled = chunkedContentStore.acquire(hash);
+                if (reassembled != null) {
+                    return VFS.getChild(reassembled.toURI());
+                }
                 return VFS.getChild(getDeploymentContentFile(hash, true).toURI());
             }
 
+            @Override
+            public void releaseContent(byte[] hash) {
+                if (hash == null)
+                    throw DeploymentRepositoryMessages.MESSAGES.nullVar("hash");
+                chunkedContentStore.release(hash);
+            }
+
             @Override
             public boolean syncContent(final byte[] hash) {
                 return hasContent(hash);
@@ -226,7 +250,7 @@ public interface ContentRepository {
 
             @Override
             public boolean hasContent(byte[] hash) {
-                return getDeploymentContentFile(hash).exists();
+                return getDeploymentContentFile(hash).exists() || chunkedContentStore.hasContent(hash);
             }
 
             protected File getRepoRoot() {
@@ -341,26 +365,36 @@ public interface ContentRepository {
                     }
                 }
 
-                File file = getDeploymentContentFile(hash, true);
-                if(!file.delete()) {
-                    DeploymentRepositoryLogger.ROOT_LOGGER.cannotDeleteTempFile(file.getName());
-                    file.deleteOnExit();
-                }
-                File parent = file.getParentFile();
-                if (!parent.delete()) {
-                    DeploymentRepositoryLogger.ROOT_LOGGER.cannotDeleteTempFile(parent.getName());
-                    parent.deleteOnExit();
-                }
-                parent = parent.getParentFile();
-                if (parent.list().length == 0) {
+                File file = getDeploymentContentFile(hash);
+                // the content stored in chunks has no hash directory
+                if (file.exists() || !chunkedContentStore.hasContent(hash)) {
+                    file = getDeploymentContentFile(hash, true);
+                    if(!file.delete()) {
+                        DeploymentRepositoryLogger.ROOT_LOGGER.cannotDeleteTempFile(file.getName());
+                        file.deleteOnExit();
+                    }
+                    File parent = file.getParentFile();
                     if (!parent.delete()) {
                         DeploymentRepositoryLogger.ROOT_LOGGER.cannotDeleteTempFile(parent.getName());
                         parent.deleteOnExit();
                     }
+                    parent = parent.getParentFile();
+                    if (parent.list().length == 0) {
+                        if (!parent.delete()) {
+                            DeploymentRepositoryLogger.ROOT_LOGGER.cannotDeleteTempFile(parent.getName());
+                            parent.deleteOnExit();
+                        }
+                    }
                 }
+                chunkedContentStore.remove(hash);
                 DeploymentRepositoryLogger.ROOT_LOGGER.contentRemoved(file.getAbsolutePath());
             }
 
+            @Override
+            public void setChunkedContent(boolean chunked) {
+                this.chunked = chunked;
+            }
+
             protected static void safeClose(final Closeable closeable) {
                 if(closeable != null) {
                     try {
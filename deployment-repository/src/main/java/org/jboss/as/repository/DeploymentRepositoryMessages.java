@@ -90,4 +90,37 @@ interface DeploymentRepositoryMessages {
      */
     @Message(id = 14924, value = "%s is null")
     IllegalArgumentException nullVar(String name);
+
+    /**
+     * Creates an exception indicating the content, represented by the {@code hash} parameter, could not be reassembled
+     * from its chunks.
+     *
+     * @param cause the cause of the error.
+     * @param hash  the hash of the content.
+     *
+     * @return an {@link IllegalStateException} for the error.
+     */
+    @Message(id = 14925, value = "Cannot reassemble content %s from its chunks")
+    IllegalStateException cannotReassembleContent(@Cause Throwable cause, String hash);
+
+    /**
+     * Creates an exception indicating the content reassembled from its chunks does not have the expected hash,
+     * represented by the {@code hash} parameter.
+     *
+     * @param hash the hash of the content.
+     *
+     * @return an {@link IllegalStateException} for the error.
+     */
+    @Message(id = 14926, value = "The content reassembled from the chunks of content %s has a different hash")
+    IllegalStateException reassembledContentHashMismatch(String hash);
+
+    /**
+     * Creates an exception indicating a failure to create the file represented by the {@code path} parameter.
+     *
+     * @param path the path name.
+     *
+     * @return an {@link IllegalStateException} for the error.
+     */
+    @Message(id = 14927, value = "Cannot create file %s")
+    IllegalStateException cannotCreateFile(String path);
 }
@@ -53,13 +53,18 @@ public class LocalDeploymentFileRepository implements DeploymentFileRepository {
 
     @Override
     public void deleteDeployment(byte[] deploymentHash) {
-        File deployment = getDeploymentRoot(deploymentHash);
-        if (deployment != deploymentRoot) {
+        if (deploymentHash == null || deploymentHash.length == 0) {
+            return;
+        }
+        String hex = HashUtil.bytesToHexString(deploymentHash);
+        File deployment = new File(new File(deploymentRoot, hex.substring(0,2)), hex.substring(2));
+        if (deployment.exists()) {
             deleteRecursively(deployment);
             if (deployment.getParentFile().list().length == 0) {
                 deployment.getParentFile().delete();
             }
         }
+        new ChunkedContentStore(deploymentRoot).remove(deploymentHash);
     }
 
     private void deleteRecursively(File file) {
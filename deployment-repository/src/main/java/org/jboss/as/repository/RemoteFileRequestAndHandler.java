@@ -155,7 +155,12 @@ public abstract class RemoteFileRequestAndHandler {
 
     private void writeResponse(final File localPath, final FlushableDataOutput output) throws IOException {
         output.writeByte(protocol.paramNumFiles());
-        if (localPath == null || !localPath.exists()) {
+        final ChunkedContentStore.ChunkedContent chunkedContent = localPath == null || localPath.exists() ? null : ChunkedContentStore.getChunkedContent(localPath);
+        if (chunkedContent != null) {
+            // the content is sent as the content file of the hash directory, read from its chunks
+            output.writeInt(1);
+            writeFile(ChunkedContentStore.CONTENT, chunkedContent.getLength(), chunkedContent.openStream(), output);
+        } else if (localPath == null || !localPath.exists()) {
             output.writeInt(-1);
         } else if (localPath.isFile()) {
             output.writeInt(1);
@@ -190,25 +195,25 @@ public abstract class RemoteFileRequestAndHandler {
     }
 
     private void writeFile(final File localPath, final File file, final FlushableDataOutput output) throws IOException {
-        output.writeByte(protocol.fileStart());
-        output.writeByte(protocol.paramFilePath());
-        output.writeUTF(getRelativePath(localPath, file));
-        output.writeByte(protocol.paramFileSize());
-        output.writeLong(file.length());
-        InputStream inputStream = null;
+        writeFile(getRelativePath(localPath, file), file.length(), new FileInputStream(file), output);
+    }
+
+    private void writeFile(final String relativePath, final long length, final InputStream inputStream, final FlushableDataOutput output) throws IOException {
         try {
-            inputStream = new FileInputStream(file);
+            output.writeByte(protocol.fileStart());
+            output.writeByte(protocol.paramFilePath());
+            output.writeUTF(relativePath);
+            output.writeByte(protocol.paramFileSize());
+            output.writeLong(length);
             byte[] buffer = new byte[8192];
             int len;
             while ((len = inputStream.read(buffer)) != -1) {
                 output.write(buffer, 0, len);
             }
         } finally {
-            if (inputStream != null) {
-                try {
-                    inputStream.close();
-                } catch (IOException ignored) {
-                }
+            try {
+                inputStream.close();
+            } catch (IOException ignored) {
             }
         }
         output.writeByte(protocol.fileEnd());
@@ -0,0 +1,196 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.repository;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests {@link ChunkedContentStore}
+ */
+public class ChunkedContentStoreTestCase {
+
+    private File directory;
+
+    @Before
+    public void createDirectory() throws IOException {
+        directory = File.createTempFile("content-repository", "");
+        directory.delete();
+        directory.mkdirs();
+    }
+
+    @After
+    public void deleteDirectory() {
+        delete(directory);
+    }
+
+    @Test
+    public void testStoreAndReassemble() throws Exception {
+        final ChunkedContentStore store = new ChunkedContentStore(directory);
+        final byte[] content = createContent(1, 3 * 1024 * 1024);
+        final byte[] hash = store.store(new ByteArrayInputStream(content));
+        assertArrayEquals(MessageDigest.getInstance("SHA-1").digest(content), hash);
+        assertTrue(store.hasContent(hash));
+        assertFalse(ChunkedContentStore.getContentFile(directory, hash).exists());
+        // the chunks are not smaller than the minimum, except the last one
+        assertTrue(countFiles(new File(directory, ChunkedContentStore.CHUNKS)) <= content.length / ChunkedContentStore.MIN_CHUNK_SIZE + 1);
+
+        final File file = store.acquire(hash);
+        assertEquals(ChunkedContentStore.getContentFile(new File(directory, ChunkedContentStore.REASSEMBLED), hash), file);
+        assertArrayEquals(content, read(file));
+        assertNull(store.acquire(MessageDigest.getInstance("SHA-1").digest(new byte[1])));
+    }
+
+    @Test
+    public void testReassembledCopyIsTransient() throws Exception {
+        final ChunkedContentStore store = new ChunkedContentStore(directory);
+        final byte[] content = createContent(1, 1024 * 1024);
+        final byte[] hash = store.store(new ByteArrayInputStream(content));
+        final File reassembled = new File(directory, ChunkedContentStore.REASSEMBLED);
+
+        // the copy is kept while any reader reads it
+        final File file = store.acquire(hash);
+        assertEquals(file, store.acquire(hash));
+        store.release(hash);
+        assertArrayEquals(content, read(file));
+        store.release(hash);
+        assertFalse(file.exists());
+        assertEquals(0, countFiles(reassembled));
+
+        // the copy is dropped with the content, and when the repository is opened again
+        store.acquire(hash);
+        new ChunkedContentStore(directory).clearReassembled();
+        assertFalse(reassembled.exists());
+        store.acquire(hash);
+        store.remove(hash);
+        assertEquals(0, countFiles(reassembled));
+    }
+
+    @Test
+    public void testSharedChunks() throws Exception {
+        final ChunkedContentStore store = new ChunkedContentStore(directory);
+        final byte[] content = createContent(1, 3 * 1024 * 1024);
+        // a new version of the content with a few bytes inserted in the middle
+        final byte[] changed = new byte[content.length + 100];
+        System.arraycopy(content, 0, changed, 0, content.length / 2);
+        System.arraycopy(createContent(2, 100), 0, changed, content.length / 2, 100);
+        System.arraycopy(content, content.length / 2, changed, content.length / 2 + 100, content.length - content.length / 2);
+
+        final File chunks = new File(directory, ChunkedContentStore.CHUNKS);
+        final byte[] hash = store.store(new ByteArrayInputStream(content));
+        final int contentChunks = countFiles(chunks);
+        final byte[] changedHash = store.store(new ByteArrayInputStream(changed));
+        // the insertion changes the chunk it falls into, and possibly the next one
+        assertTrue(countFiles(chunks) <= contentChunks + 2);
+        assertArrayEquals(changed, read(store.acquire(changedHash)));
+        store.release(changedHash);
+
+        // the chunks of the changed content are kept
+        store.remove(hash);
+        assertFalse(store.hasContent(hash));
+        assertTrue(countFiles(chunks) <= contentChunks);
+        assertArrayEquals(changed, read(store.acquire(changedHash)));
+
+        store.remove(changedHash);
+        assertEquals(0, countFiles(chunks));
+    }
+
+    @Test
+    public void testReadFromChunks() throws Exception {
+        final ChunkedContentStore store = new ChunkedContentStore(directory);
+        final byte[] content = createContent(1, 1024 * 1024);
+        final byte[] hash = store.store(new ByteArrayInputStream(content));
+
+        // the content is read from the chunks in place of the content file of its hash directory
+        final File hashDir = ChunkedContentStore.getContentFile(directory, hash).getParentFile();
+        final ChunkedContentStore.ChunkedContent chunked = ChunkedContentStore.getChunkedContent(hashDir);
+        assertEquals(content.length, chunked.getLength());
+        assertArrayEquals(content, read(chunked.openStream()));
+        assertFalse(new File(directory, ChunkedContentStore.REASSEMBLED).exists());
+
+        store.remove(hash);
+        assertNull(ChunkedContentStore.getChunkedContent(hashDir));
+    }
+
+    private static byte[] createContent(final long seed, final int length) {
+        final byte[] content = new byte[length];
+        new Random(seed).nextBytes(content);
+        return content;
+    }
+
+    private static byte[] read(final File file) throws IOException {
+        return read(new FileInputStream(file));
+    }
+
+    private static byte[] read(final InputStream in) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            final byte[] bytes = new byte[8192];
+            int read;
+            while ((read = in.read(bytes)) > -1) {
+                out.write(bytes, 0, read);
+            }
+        } finally {
+            in.close();
+        }
+        return out.toByteArray();
+    }
+
+    private static int countFiles(final File file) {
+        final File[] children = file.listFiles();
+        if (children == null) {
+            return file.exists() ? 1 : 0;
+        }
+        int count = 0;
+        for (File child : children) {
+            count += countFiles(child);
+        }
+        return count;
+    }
+
+    private static void delete(final File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
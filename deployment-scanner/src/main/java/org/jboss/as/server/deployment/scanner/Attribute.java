@@ -41,6 +41,7 @@ enum Attribute {
     AUTO_DEPLOY_EXPLODED(CommonAttributes.AUTO_DEPLOY_EXPLODED),
     AUTO_DEPLOY_XML(CommonAttributes.AUTO_DEPLOY_XML),
     DEPLOYMENT_TIMEOUT(CommonAttributes.DEPLOYMENT_TIMEOUT),
+    WATCH_ENABLED(CommonAttributes.WATCH_ENABLED),
     ;
 
     private final String name;
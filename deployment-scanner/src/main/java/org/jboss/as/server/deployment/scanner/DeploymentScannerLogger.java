@@ -247,4 +247,15 @@ public interface DeploymentScannerLogger extends BasicLogger {
     @Message(id = 15018, value = "Deployment %s was previously deployed by this scanner but has been removed from the " +
             "server deployment list by another management tool. Marker file %s is being added to record this fact.")
     void scannerDeploymentRemovedButNotByScanner(String deploymentName, File marker);
+
+    /**
+     * Logs a warning message indicating the deployment directory cannot be watched for changes, so it is polled.
+     *
+     * @param cause          the cause of the error.
+     * @param deploymentPath the deployment path.
+     * @param scanInterval   the scan interval in milliseconds.
+     */
+    @LogMessage(level = WARN)
+    @Message(id = 15019, value = "Cannot watch deployment directory %s for changes, it will be scanned every %d ms instead")
+    void cannotWatchDeploymentDirectory(@Cause Throwable cause, String deploymentPath, long scanInterval);
 }
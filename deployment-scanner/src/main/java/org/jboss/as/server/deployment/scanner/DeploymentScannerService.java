@@ -59,6 +59,7 @@ public class DeploymentScannerService implements Service<DeploymentScanner> {
     private boolean autoDeployExploded;
     private boolean autoDeployXml;
     private Long deploymentTimeout;
+    private boolean watchEnabled;
     private final String relativeTo;
     private final String path;
 
@@ -86,16 +87,17 @@ public class DeploymentScannerService implements Service<DeploymentScanner> {
      * @param scanInterval      the scan interval
      * @param scanEnabled       scan enabled
      * @param deploymentTimeout the deployment timeout
+     * @param watchEnabled      watch the path for changes
      * @param bootTimeService   the deployment scanner used in the boot time scan
      * @return
      */
     public static ServiceController<DeploymentScanner> addService(final ServiceTarget serviceTarget, final String name, final String relativeTo, final String path,
                                                                   final Integer scanInterval, TimeUnit unit, final Boolean autoDeployZip,
                                                                   final Boolean autoDeployExploded, final Boolean autoDeployXml, final Boolean scanEnabled, final Long deploymentTimeout,
-                                                                  final List<ServiceController<?>> newControllers, final FileSystemDeploymentService bootTimeService, final ScheduledExecutorService scheduledExecutorService,
+                                                                  final Boolean watchEnabled, final List<ServiceController<?>> newControllers, final FileSystemDeploymentService bootTimeService, final ScheduledExecutorService scheduledExecutorService,
                                                                   final ServiceListener<Object>... listeners) {
         final DeploymentScannerService service = new DeploymentScannerService(relativeTo, path, scanInterval, unit, autoDeployZip,
-                autoDeployExploded, autoDeployXml, scanEnabled, deploymentTimeout, bootTimeService);
+                autoDeployExploded, autoDeployXml, scanEnabled, deploymentTimeout, watchEnabled, bootTimeService);
         final ServiceName serviceName = getServiceName(name);
 
         ServiceBuilder<DeploymentScanner> builder = serviceTarget.addService(serviceName, service)
@@ -113,7 +115,7 @@ public class DeploymentScannerService implements Service<DeploymentScanner> {
 
     DeploymentScannerService(final String relativeTo, final String path, final Integer interval, final TimeUnit unit, final Boolean autoDeployZipped,
                              final Boolean autoDeployExploded, final Boolean autoDeployXml, final Boolean enabled, final Long deploymentTimeout,
-                             final FileSystemDeploymentService bootTimeService) {
+                             final Boolean watchEnabled, final FileSystemDeploymentService bootTimeService) {
         this.relativeTo = relativeTo;
         this.path = path;
         this.interval = interval == null ? DEFAULT_INTERVAL : interval.longValue();
@@ -123,6 +125,7 @@ public class DeploymentScannerService implements Service<DeploymentScanner> {
         this.autoDeployXml = autoDeployXml == null ? true : autoDeployXml.booleanValue();
         this.enabled = enabled == null ? true : enabled.booleanValue();
         this.deploymentTimeout = deploymentTimeout;
+        this.watchEnabled = watchEnabled == null ? false : watchEnabled.booleanValue();
         this.scanner = bootTimeService;
     }
 
@@ -158,6 +161,7 @@ public class DeploymentScannerService implements Service<DeploymentScanner> {
                 scanner.setAutoDeployExplodedContent(autoDeployExploded);
                 scanner.setAutoDeployZippedContent(autoDeployZipped);
                 scanner.setAutoDeployXMLContent(autoDeployXml);
+                scanner.setWatchEnabled(watchEnabled);
                 if (deploymentTimeout != null) {
                     scanner.setDeploymentTimeout(deploymentTimeout);
                 }
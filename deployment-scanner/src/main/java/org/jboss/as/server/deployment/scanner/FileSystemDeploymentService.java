@@ -27,6 +27,11 @@ import java.io.File;
 import java.io.FileFilter;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -38,6 +43,7 @@ import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.regex.Pattern;
@@ -104,6 +110,23 @@ class FileSystemDeploymentService implements DeploymentScanner {
      */
     static final long DEFAULT_DEPLOYMENT_TIMEOUT = 600;
 
+    /**
+     * Period a watched directory must not change before it is scanned, so that content being written is not scanned
+     * on every write
+     */
+    static final long WATCH_QUIET_PERIOD = 500;
+
+    /**
+     * Period at which the changes to a watched directory are collected
+     */
+    static final long WATCH_POLL_INTERVAL = 100;
+
+    /**
+     * Min interval of the full scans of a watched directory, which catch the changes made through other management
+     * clients, and the file system changes the platform did not report
+     */
+    static final long WATCH_SCAN_INTERVAL = 60000;
+
     private File deploymentDir;
     private long scanInterval = 0;
     private volatile boolean scanEnabled = false;
@@ -112,6 +135,8 @@ class FileSystemDeploymentService implements DeploymentScanner {
     private ScheduledFuture<?> scanTask;
     private ScheduledFuture<?> rescanIncompleteTask;
     private ScheduledFuture<?> rescanUndeployTask;
+    private ScheduledFuture<?> watchTask;
+    private WatchService watchService;
     private final Lock scanLock = new ReentrantLock();
 
     private final Map<String, DeploymentMarker> deployed = new HashMap<String, DeploymentMarker>();
@@ -134,6 +159,11 @@ class FileSystemDeploymentService implements DeploymentScanner {
 
     private volatile long deploymentTimeout = DEFAULT_DEPLOYMENT_TIMEOUT;
 
+    private volatile boolean watchEnabled;
+    private volatile boolean watching;
+    private volatile long scanLatency = -1;
+    private final AtomicLong eventsProcessed = new AtomicLong();
+
     private final String relativeTo;
     private final String relativePath;
 
@@ -142,7 +172,9 @@ class FileSystemDeploymentService implements DeploymentScanner {
         @Override
         public void run() {
             try {
+                final long start = System.currentTimeMillis();
                 scan(false, deploymentOperations, false);
+                scanLatency = System.currentTimeMillis() - start;
             } catch (Exception e) {
                 ROOT_LOGGER.scanException(e, deploymentDir.getAbsolutePath());
             }
@@ -151,6 +183,69 @@ class FileSystemDeploymentService implements DeploymentScanner {
 
     private final DeploymentScanRunnable scanRunnable = new DeploymentScanRunnable();
 
+    /**
+     * Collects the changes to the watched directories, and scans them once they have not changed for the quiet period.
+     */
+    private class DeploymentWatchRunnable implements Runnable {
+
+        private final WatchService watchService;
+        // the times of the first and the last changes which have not been scanned yet, accessed by a single thread
+        private long firstChange;
+        private long lastChange;
+
+        private DeploymentWatchRunnable(final WatchService watchService) {
+            this.watchService = watchService;
+        }
+
+        @Override
+        public void run() {
+            try {
+                boolean created = false;
+                WatchKey key;
+                while ((key = watchService.poll()) != null) {
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        eventsProcessed.incrementAndGet();
+                        if (isScannerMarker(event)) {
+                            continue;
+                        }
+                        created |= event.kind() == StandardWatchEventKinds.ENTRY_CREATE;
+                        lastChange = System.currentTimeMillis();
+                        if (firstChange == 0) {
+                            firstChange = lastChange;
+                        }
+                    }
+                    key.reset();
+                }
+                if (created) {
+                    // the new directories are watched too
+                    registerDirectories(watchService, deploymentDir);
+                }
+                if (firstChange != 0 && System.currentTimeMillis() - lastChange >= WATCH_QUIET_PERIOD) {
+                    final long firstChange = this.firstChange;
+                    this.firstChange = 0;
+                    scan(false, deploymentOperations, false);
+                    scanLatency = System.currentTimeMillis() - firstChange;
+                }
+            } catch (ClosedWatchServiceException ignored) {
+                // the scanner was stopped
+            } catch (Exception e) {
+                ROOT_LOGGER.scanException(e, deploymentDir.getAbsolutePath());
+            }
+        }
+
+        /**
+         * Whether the event is about a marker the scanner puts down while it processes a deployment, the changes to
+         * which do not need a scan.
+         */
+        private boolean isScannerMarker(final WatchEvent<?> event) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                return false;
+            }
+            final String fileName = event.context().toString();
+            return fileName.endsWith(DEPLOYING) || fileName.endsWith(UNDEPLOYING) || fileName.endsWith(PENDING);
+        }
+    }
+
     FileSystemDeploymentService(final String relativeTo, final File deploymentDir, final File relativeToDir,
                                 final DeploymentOperations.Factory deploymentOperationsFactory, final ScheduledExecutorService scheduledExecutor)
             throws OperationFailedException {
@@ -220,6 +315,20 @@ class FileSystemDeploymentService implements DeploymentScanner {
         return autoDeployXml;
     }
 
+    @Override
+    public boolean isWatchEnabled() {
+        return watchEnabled;
+    }
+
+    @Override
+    public synchronized void setWatchEnabled(boolean watchEnabled) {
+        if (watchEnabled != this.watchEnabled) {
+            cancelScan();
+            this.watchEnabled = watchEnabled;
+            startScan();
+        }
+    }
+
     @Override
     public boolean isEnabled() {
         return scanEnabled;
@@ -290,6 +399,32 @@ class FileSystemDeploymentService implements DeploymentScanner {
         this.maxNoProgress = max;
     }
 
+    /**
+     * Whether the deployment directory is watched for changes, rather than polled.
+     */
+    boolean isWatching() {
+        return watching;
+    }
+
+    /**
+     * Gets the time between the detection of a change to the deployment directory, which is the start of the scan if
+     * the directory is polled, and the end of the scan which processed it.
+     *
+     * @return the latency of the last scan in milliseconds, or {@code -1} if the directory was not scanned yet
+     */
+    long getScanLatency() {
+        return scanLatency;
+    }
+
+    /**
+     * Gets the number of file system events processed, if the deployment directory is watched.
+     *
+     * @return the number of events
+     */
+    long getEventsProcessed() {
+        return eventsProcessed.get();
+    }
+
     private void establishDeployedContentList(File dir, final DeploymentOperations deploymentOperations) {
         final Set<String> deploymentNames = deploymentOperations.getDeploymentsStatus().keySet();
         final File[] children = dir.listFiles();
@@ -390,7 +525,7 @@ class FileSystemDeploymentService implements DeploymentScanner {
                 // Deal with any incomplete or non-scannable auto-deploy content
                 ScanStatus status = handleAutoDeployFailures(scanContext);
                 if (status != ScanStatus.PROCEED) {
-                    if (status == ScanStatus.RETRY && scanInterval > 1000) {
+                    if (status == ScanStatus.RETRY && (scanInterval > 1000 || watching)) {
                         // in finally block, schedule a non-repeating task to try again more quickly
                         scheduleRescan = true;
                     }
@@ -913,7 +1048,9 @@ class FileSystemDeploymentService implements DeploymentScanner {
 
     private synchronized void startScan() {
         if (scanEnabled) {
-            if (scanInterval > 0) {
+            if (scanInterval > 0 && watchEnabled && startWatching()) {
+                scanTask = scheduledExecutor.scheduleWithFixedDelay(scanRunnable, 0, Math.max(scanInterval, WATCH_SCAN_INTERVAL), TimeUnit.MILLISECONDS);
+            } else if (scanInterval > 0) {
                 scanTask = scheduledExecutor.scheduleWithFixedDelay(scanRunnable, 0, scanInterval, TimeUnit.MILLISECONDS);
             } else {
                 scanTask = scheduledExecutor.schedule(scanRunnable, scanInterval, TimeUnit.MILLISECONDS);
@@ -937,6 +1074,60 @@ class FileSystemDeploymentService implements DeploymentScanner {
             scanTask.cancel(false);
             scanTask = null;
         }
+        if (watchTask != null) {
+            watchTask.cancel(false);
+            watchTask = null;
+        }
+        if (watchService != null) {
+            safeClose(watchService);
+            watchService = null;
+            watching = false;
+        }
+    }
+
+    /**
+     * Starts watching the deployment directory. Invoke with the object monitor held.
+     *
+     * @return {@code false} if the platform cannot watch it, in which case it is polled
+     */
+    private boolean startWatching() {
+        try {
+            watchService = deploymentDir.toPath().getFileSystem().newWatchService();
+            registerDirectories(watchService, deploymentDir);
+            watchTask = scheduledExecutor.scheduleWithFixedDelay(new DeploymentWatchRunnable(watchService), WATCH_POLL_INTERVAL, WATCH_POLL_INTERVAL, TimeUnit.MILLISECONDS);
+            watching = true;
+            return true;
+        } catch (IOException e) {
+            ROOT_LOGGER.cannotWatchDeploymentDirectory(e, deploymentDir.getAbsolutePath(), scanInterval);
+        } catch (UnsupportedOperationException e) {
+            ROOT_LOGGER.cannotWatchDeploymentDirectory(e, deploymentDir.getAbsolutePath(), scanInterval);
+        }
+        safeClose(watchService);
+        watchService = null;
+        return false;
+    }
+
+    /**
+     * Watches the directory, and the directories in it which {@link #scanDirectory(File, String, ScanContext)} scans.
+     */
+    private void registerDirectories(final WatchService watchService, final File directory) throws IOException {
+        directory.toPath().register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_DELETE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+        final File[] children = directory.listFiles(filter);
+        if (children == null) {
+            return;
+        }
+        for (File child : children) {
+            final String fileName = child.getName();
+            if (child.isDirectory() && !isEEArchive(fileName) && !WEB_INF.equalsIgnoreCase(fileName) && !META_INF.equalsIgnoreCase(fileName)) {
+                try {
+                    registerDirectories(watchService, child);
+                } catch (IOException e) {
+                    // removed since it was listed, the full scans still cover it otherwise
+                    ROOT_LOGGER.debugf(e, "Cannot watch directory %s", child.getAbsolutePath());
+                }
+            }
+        }
     }
 
     private ModelNode getCompositeUpdate(final List<ModelNode> updates) {
@@ -126,6 +126,22 @@ public interface DeploymentScanner {
      */
     void setAutoDeployXMLContent(boolean autoDeployXML);
 
+    /**
+     * Gets whether a periodic scanner watches the deployment directory for changes, and scans it as soon as they
+     * stop, rather than on every scan interval.
+     *
+     * @return true if the deployment directory is watched
+     */
+    boolean isWatchEnabled();
+
+    /**
+     * Sets whether a periodic scanner watches the deployment directory for changes, and scans it as soon as they
+     * stop, rather than on every scan interval. The directory is polled if the platform cannot watch it.
+     *
+     * @param watchEnabled true if the deployment directory is watched
+     */
+    void setWatchEnabled(boolean watchEnabled);
+
     /**
      * Set the timeout used for deployments.
      *
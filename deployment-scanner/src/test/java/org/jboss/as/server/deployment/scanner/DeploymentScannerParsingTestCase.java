@@ -2,8 +2,14 @@ package org.jboss.as.server.deployment.scanner;
 
 
 import java.io.IOException;
+import java.util.List;
+
+import javax.xml.stream.XMLStreamException;
 
 import org.jboss.as.subsystem.test.AbstractSubsystemBaseTest;
+import org.jboss.dmr.ModelNode;
+import org.junit.Assert;
+import org.junit.Test;
 
 /**
  * @author Tomaz Cerar
@@ -12,21 +18,39 @@ import org.jboss.as.subsystem.test.AbstractSubsystemBaseTest;
 
 public class DeploymentScannerParsingTestCase extends AbstractSubsystemBaseTest {
     private static final String SUBSYSTEM_XML =
-            "<subsystem xmlns=\"urn:jboss:domain:deployment-scanner:1.1\">\n" +
+            "<subsystem xmlns=\"urn:jboss:domain:deployment-scanner:1.2\">\n" +
             "    <deployment-scanner name=\"myScanner\" path=\"deployments_${custom.system.property:test}\" " +
                    "relative-to=\"jboss.server.base.dir\" scan-enabled=\"false\" scan-interval=\"5000\" " +
-                   "auto-deploy-xml=\"true\" deployment-timeout=\"60\"/>\n" +
+                   "auto-deploy-xml=\"true\" deployment-timeout=\"60\" watch-enabled=\"true\"/>\n" +
             "    <deployment-scanner path=\"deployments\"  relative-to=\"jboss.server.base.dir\" " +
                    "scan-enabled=\"false\" scan-interval=\"5000\" " +
                    "auto-deploy-xml=\"true\" deployment-timeout=\"30\"/>\n" +
             "</subsystem>";
 
+    private static final String SUBSYSTEM_XML_1_1 =
+            "<subsystem xmlns=\"urn:jboss:domain:deployment-scanner:1.1\">\n" +
+            "    <deployment-scanner name=\"myScanner\" path=\"deployments\" " +
+                   "relative-to=\"jboss.server.base.dir\" scan-enabled=\"false\" scan-interval=\"5000\" " +
+                   "auto-deploy-xml=\"true\" deployment-timeout=\"60\"/>\n" +
+            "</subsystem>";
 
     public DeploymentScannerParsingTestCase() {
         super(DeploymentScannerExtension.SUBSYSTEM_NAME, new DeploymentScannerExtension());
         System.setProperty("custom.system.property","prop");
     }
 
+    @Test
+    public void testParseSubsystem_1_1() throws Exception {
+        final List<ModelNode> operations = parse(SUBSYSTEM_XML_1_1);
+        Assert.assertEquals(2, operations.size());
+        Assert.assertFalse(operations.get(1).hasDefined(CommonAttributes.WATCH_ENABLED));
+    }
+
+    @Test(expected = XMLStreamException.class)
+    public void testWatchEnabledNotIn_1_1() throws Exception {
+        parse(SUBSYSTEM_XML_1_1.replace("deployment-timeout=\"60\"", "deployment-timeout=\"60\" watch-enabled=\"true\""));
+    }
+
     /**
      * Get the subsystem xml as string.
      *
@@ -7,6 +7,7 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.nio.file.WatchService;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -38,6 +39,7 @@ import org.jboss.threads.AsyncFutureTask;
 import org.junit.After;
 import org.junit.AfterClass;
 import org.junit.Assert;
+import org.junit.Assume;
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -1484,6 +1486,55 @@ public class FileSystemDeploymentServiceUnitTestCase {
         Assert.assertEquals(0, sc.deployed.size());
     }
 
+    @Test
+    public void testWatchedDeploy() throws Exception {
+        // the JDK's fallback implementation only polls the directory every few seconds
+        WatchService probe = tmpDir.toPath().getFileSystem().newWatchService();
+        try {
+            Assume.assumeFalse(probe.getClass().getName().equals("sun.nio.fs.PollingWatchService"));
+        } finally {
+            probe.close();
+        }
+        MockServerController sc = new MockServerController();
+        FileSystemDeploymentService testee = new FileSystemDeploymentService(null, tmpDir, null, sc, executor);
+        testee.setWatchEnabled(true);
+        testee.setScanInterval(5000);
+        testee.startScanner(new DefaultDeploymentOperations(sc));
+        try {
+            Assume.assumeTrue(testee.isWatching());
+            Runnable watch = executor.periodicTasks.get(FileSystemDeploymentService.WATCH_POLL_INTERVAL);
+            Assert.assertNotNull(watch);
+
+            // nothing changed, so nothing is scanned
+            int requests = sc.requests.size();
+            watch.run();
+            Assert.assertEquals(requests, sc.requests.size());
+            Assert.assertEquals(-1, testee.getScanLatency());
+
+            File war = createFile("foo.war");
+            File dodeploy = createFile("foo.war" + FileSystemDeploymentService.DO_DEPLOY);
+            File deployed = new File(tmpDir, "foo.war" + FileSystemDeploymentService.DEPLOYED);
+            sc.addCompositeSuccessResponse(1);
+            for (int i = 0; i < 200 && testee.getEventsProcessed() < 2; i++) {
+                Thread.sleep(50);
+                watch.run();
+            }
+            assertTrue(testee.getEventsProcessed() >= 2);
+            // the directory is scanned once it has not changed for the quiet period, which a late event restarts
+            for (int i = 0; i < 3 && !deployed.exists(); i++) {
+                Thread.sleep(FileSystemDeploymentService.WATCH_QUIET_PERIOD + 100);
+                watch.run();
+            }
+            assertTrue(war.exists());
+            assertFalse(dodeploy.exists());
+            assertTrue(deployed.exists());
+            assertTrue(testee.getScanLatency() >= 0);
+        } finally {
+            testee.setWatchEnabled(false);
+            Assert.assertFalse(testee.isWatching());
+        }
+    }
+
     @Test
     public void testArchivePatterns() throws Exception {
         Pattern pattern = FileSystemDeploymentService.ARCHIVE_PATTERN;
@@ -1816,6 +1867,7 @@ public class FileSystemDeploymentServiceUnitTestCase {
     private static class DiscardTaskExecutor extends ScheduledThreadPoolExecutor {
 
         private final List<Runnable> tasks = new ArrayList<Runnable>();
+        private final Map<Long, Runnable> periodicTasks = new HashMap<Long, Runnable>();
         private DiscardTaskExecutor() {
             super(0);
         }
@@ -1831,8 +1883,15 @@ public class FileSystemDeploymentServiceUnitTestCase {
             return new CallOnGetFuture<T>(tCallable);
         }
 
+        @Override
+        public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
+            periodicTasks.put(unit.toMillis(delay), command);
+            return null;
+        }
+
         void clear() {
             tasks.clear();
+            periodicTasks.clear();
         }
     }
 
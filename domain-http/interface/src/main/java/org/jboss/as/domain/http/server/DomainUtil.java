@@ -23,16 +23,18 @@ package org.jboss.as.domain.http.server;
 
 import static io.undertow.util.Headers.HOST;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
-import static org.jboss.as.domain.http.server.HttpServerLogger.ROOT_LOGGER;
 
 import java.io.BufferedOutputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
 
 import io.undertow.server.HttpServerExchange;
 import io.undertow.util.HeaderMap;
+import io.undertow.util.HeaderValues;
 import io.undertow.util.Headers;
 import org.jboss.dmr.ModelNode;
 import org.xnio.IoUtils;
@@ -45,6 +47,10 @@ import org.xnio.streams.ChannelOutputStream;
  */
 public class DomainUtil {
 
+    private static final String GZIP = "gzip";
+    private static final Pattern ZERO_QUALITY = Pattern.compile("q=0(\\.0*)?");
+    private static final int BUFFER_SIZE = 8192;
+
     public static void writeResponse(final HttpServerExchange exchange, final int status, ModelNode response,
             OperationParameter operationParameter) {
 
@@ -60,51 +66,59 @@ public class DomainUtil {
             // For GET request the response is purley the model nodes result. The outcome
             // is not send as part of the response but expressed with the HTTP status code.
             response = response.get(RESULT);
-            try {
-                int length = getResponseLength(response, operationParameter);
-                responseHeaders.put(Headers.CONTENT_LENGTH, length);
-            } catch (IOException e) {
-                ROOT_LOGGER.errorf(e, "Unable to get length for '%s'", operationParameter);
-            }
         }
 
+        // The response is not serialized up front to get its length, it is streamed to the channel with the chunked
+        // transfer encoding, so the memory used does not depend on the size of the response.
+        final boolean gzip = acceptsGzip(exchange.getRequestHeaders());
+        responseHeaders.put(Headers.VARY, Headers.ACCEPT_ENCODING_STRING);
         OutputStream out = new ChannelOutputStream(exchange.getResponseChannel());
-        PrintWriter print = new PrintWriter(out);
         try {
             try {
+                if (gzip) {
+                    responseHeaders.put(Headers.CONTENT_ENCODING, GZIP);
+                    out = new GZIPOutputStream(out, BUFFER_SIZE);
+                } else {
+                    out = new BufferedOutputStream(out, BUFFER_SIZE);
+                }
                 if (operationParameter.isEncode()) {
                     response.writeBase64(out);
                 } else {
+                    PrintWriter print = new PrintWriter(new OutputStreamWriter(out, Common.UTF_8));
                     response.writeJSONString(print, !operationParameter.isPretty());
+                    print.flush();
                 }
+                // finishes the compressed stream and ends the response
+                out.close();
             } finally {
-                print.flush();
-                try {
-                    out.flush();
-                } finally {
-                    IoUtils.safeClose(print);
-                    IoUtils.safeClose(out);
-                }
+                IoUtils.safeClose(out);
             }
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
     }
 
-    private static int getResponseLength(final ModelNode modelNode, final OperationParameter operationParameter) throws IOException {
-        int length;
-        if (operationParameter.isEncode()) {
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            BufferedOutputStream out = new BufferedOutputStream(baos);
-            modelNode.writeBase64(out);
-            out.flush();
-            length = baos.size();
-            IoUtils.safeClose(out, baos);
-        } else {
-            String json = modelNode.toJSONString(!operationParameter.isPretty());
-            length = json.length();
+    /**
+     * Checks whether the {@code Accept-Encoding} request headers allow the gzip content encoding.
+     *
+     * @param requestHeaders the request headers
+     * @return {@code true} if the response can be compressed
+     */
+    static boolean acceptsGzip(final HeaderMap requestHeaders) {
+        final HeaderValues values = requestHeaders.get(Headers.ACCEPT_ENCODING);
+        if (values == null) {
+            return false;
+        }
+        for (String value : values) {
+            for (String encoding : value.split(",")) {
+                final String[] parameters = encoding.split(";");
+                if (GZIP.equalsIgnoreCase(parameters[0].trim())) {
+                    // a zero quality value means the encoding is not acceptable
+                    return parameters.length < 2 || !ZERO_QUALITY.matcher(parameters[1].trim()).matches();
+                }
+            }
         }
-        return length;
+        return false;
     }
 
     public static void writeCacheHeaders(final HttpServerExchange exchange, final int status, final OperationParameter operationParameter) {
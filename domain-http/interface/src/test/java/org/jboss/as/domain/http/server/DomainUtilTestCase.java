@@ -0,0 +1,53 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.domain.http.server;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import io.undertow.util.HeaderMap;
+import io.undertow.util.Headers;
+import org.junit.Test;
+
+/**
+ * Tests the negotiation of the content encoding by {@link DomainUtil}.
+ */
+public class DomainUtilTestCase {
+
+    @Test
+    public void testAcceptsGzip() {
+        assertFalse(DomainUtil.acceptsGzip(new HeaderMap()));
+        assertTrue(acceptsGzip("gzip"));
+        assertTrue(acceptsGzip("deflate, GZIP"));
+        assertTrue(acceptsGzip("deflate;q=1.0, gzip;q=0.5"));
+        assertFalse(acceptsGzip("deflate"));
+        assertFalse(acceptsGzip("identity, gzip;q=0"));
+        assertFalse(acceptsGzip("gzip; q=0.0"));
+        assertFalse(acceptsGzip("x-gzip"));
+    }
+
+    private static boolean acceptsGzip(final String acceptEncoding) {
+        final HeaderMap headers = new HeaderMap();
+        headers.add(Headers.ACCEPT_ENCODING, acceptEncoding);
+        return DomainUtil.acceptsGzip(headers);
+    }
+}
@@ -30,7 +30,9 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
+import org.jboss.as.controller.ConfigurationWriteMetricsHandler;
 import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.ReadResultCacheAttributeHandler;
 import org.jboss.as.controller.ResourceDefinition;
 import org.jboss.as.controller.SimpleResourceDefinition;
 import org.jboss.as.controller.access.management.AccessConstraintUtilizationRegistry;
@@ -84,6 +86,16 @@ public class CoreManagementResourceDefinition extends SimpleResourceDefinition {
         this.environmentReader = environmentReader;
     }
 
+    @Override
+    public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+        if (environment != Environment.DOMAIN) {
+            ReadResultCacheAttributeHandler.registerAttributes(resourceRegistration);
+        }
+        if (environment == Environment.STANDALONE_SERVER) {
+            ConfigurationWriteMetricsHandler.registerAttributes(resourceRegistration);
+        }
+    }
+
     @Override
     public void registerChildren(ManagementResourceRegistration resourceRegistration) {
         // TODO Currently these trickle through from the host controller definition - may need to consider how this merges with the domain.xml
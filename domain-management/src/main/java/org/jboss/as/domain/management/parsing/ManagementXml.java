@@ -100,6 +100,7 @@ import java.util.TreeSet;
 
 import javax.xml.stream.XMLStreamException;
 
+import org.jboss.as.controller.ConfigurationWriteMetricsHandler;
 import org.jboss.as.controller.ListAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
@@ -156,6 +157,20 @@ public class ManagementXml {
     /** Handles config-file specific aspects of parsing and marshalling {@code <management>} elements */
     public abstract static class Delegate {
 
+        /**
+         * Parse the attributes of the {@link Element#MANAGEMENT} element.
+         * <p>This default implementation requires that there are no attributes; override to support.</p>
+         *
+         * @param reader the xml reader
+         * @param address the address of the management resource
+         * @param expectedNs the expected namespace for any children
+         * @param operationsList list to which any operations should be added
+         * @throws XMLStreamException
+         */
+        protected void parseManagementAttributes(XMLExtendedStreamReader reader, ModelNode address, Namespace expectedNs, List<ModelNode> operationsList) throws XMLStreamException {
+            requireNoAttributes(reader);
+        }
+
         /**
          * Parse {@link Element#SECURITY_REALMS} content.
          * <p>This default implementation does standard parsing; override to disable.</p>
@@ -335,6 +350,7 @@ public class ManagementXml {
         int managementInterfacesCount = 0;
 
         final ModelNode managementAddress = address.clone().add(CORE_SERVICE, MANAGEMENT);
+        delegate.parseManagementAttributes(reader, managementAddress, expectedNs, list);
         while (reader.hasNext() && reader.nextTag() != END_ELEMENT) {
             requireNamespace(reader, expectedNs);
             final Element element = Element.forName(reader.getLocalName());
@@ -2732,14 +2748,16 @@ public class ManagementXml {
         boolean hasProvider = accessAuthorizationDefined && accessAuthorization.hasDefined(AccessAuthorizationResourceDefinition.PROVIDER.getName());
         boolean hasCombinationPolicy = accessAuthorizationDefined && accessAuthorization.hasDefined(AccessAuthorizationResourceDefinition.PERMISSION_COMBINATION_POLICY.getName());
         ModelNode auditLog = management.hasDefined(ACCESS) ? management.get(ACCESS, AUDIT) : new ModelNode();
+        boolean hasCoalesceWindow = management.hasDefined(ConfigurationWriteMetricsHandler.COALESCE_WINDOW.getName());
 
         if (!hasSecurityRealm && !hasConnection && !hasInterface && !hasServerGroupRoles
               && !hasHostRoles && !hasRoleMapping && configuredAccessConstraints.size() == 0
-                && !hasProvider && !hasCombinationPolicy && !auditLog.isDefined()) {
+                && !hasProvider && !hasCombinationPolicy && !auditLog.isDefined() && !hasCoalesceWindow) {
             return;
         }
 
         writer.writeStartElement(Element.MANAGEMENT.getLocalName());
+        ConfigurationWriteMetricsHandler.COALESCE_WINDOW.marshallAsAttribute(management, writer);
         if (hasSecurityRealm) {
             writeSecurityRealm(writer, management);
         }
@@ -585,6 +585,30 @@ public interface EjbLogger extends BasicLogger {
     @Message(id = 14265, value = "Error during transaction recovery")
     void errorDuringTransactionRecovery(@Cause Throwable cause);
 
+    @LogMessage(level = ERROR)
+    @Message(id = 14266, value = "Failed to dispatch expired timeout %s")
+    void failedToDispatchTimeout(Runnable task, @Cause Throwable cause);
+
+    @LogMessage(level = WARN)
+    @Message(id = 14267, value = "Timer journal file %s is truncated or corrupt at offset %d, ignoring the rest of it")
+    void corruptTimerJournal(File file, long offset);
+
+    @LogMessage(level = ERROR)
+    @Message(id = 14268, value = "Failed to compact the timer journal in %s")
+    void failToCompactTimerJournal(File directory, @Cause Throwable cause);
+
+    @LogMessage(level = WARN)
+    @Message(id = 14269, value = "Failed to poll the timer database for timers due on node %s")
+    void failToPollTimers(String nodeName, @Cause Throwable cause);
+
+    @LogMessage(level = ERROR)
+    @Message(id = 14270, value = "Exception processing pipelined message with header 0x%s on channel %s")
+    void exceptionOnPipelinedMessage(@Cause Throwable cause, String header, Channel channel);
+
+    @LogMessage(level = WARN)
+    @Message(id = 14271, value = "Failed to release the leases of node %s on the timers of %s, they will be taken over once the leases expire")
+    void failToReleaseTimerLeases(String nodeName, String timedObjectId, @Cause Throwable cause);
+
 
 
     // Don't add message ids greater that 14299!!! If you need more first check what EjbMessages is
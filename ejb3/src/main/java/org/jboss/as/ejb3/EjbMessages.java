@@ -2488,6 +2488,18 @@ public interface EjbMessages {
     @Message(id = 14588, value = "CMP Entity Beans are not supported")
     DeploymentUnitProcessingException cmpEntityBeansAreNotSupported();
 
+    @Message(id = 14589, value = "The minimum pool size %d exceeds the maximum pool size %d")
+    IllegalArgumentException minPoolSizeExceedsMaxPoolSize(int minPoolSize, int maxPoolSize);
+
+    @Message(id = 14590, value = "The compressed message stream of the channel is corrupt")
+    IOException corruptCompressedMessageStream(@Cause Throwable cause);
+
+    @Message(id = 14591, value = "The message stream is closed")
+    IOException messageStreamClosed();
+
+    @Message(id = 14592, value = "The poll interval %d of the timer data store %s must be lower than its lease time %d")
+    IllegalArgumentException pollIntervalNotLowerThanLeaseTime(long pollInterval, String name, long leaseTime);
+
     // STOP!!! Don't add message ids greater that 14599!!! If you need more first check what EjbLogger is
     // using and take more (lower) numbers from the available range for this module. If the range for the module is
     // all used, go to https://community.jboss.org/docs/DOC-16810 and allocate another block for this subsystem
@@ -175,6 +175,7 @@ public class SimpleBackingCacheEntryStore<K extends Serializable, V extends Cach
             if (holder != null) {
                 this.remove(holder.timestamp);
             }
+            store.remove(id);
         }
         return entry;
     }
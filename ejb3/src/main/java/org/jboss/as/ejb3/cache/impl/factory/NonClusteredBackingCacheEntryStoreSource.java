@@ -34,6 +34,7 @@ import org.jboss.as.ejb3.cache.spi.BackingCacheEntryStore;
 import org.jboss.as.ejb3.cache.spi.SerializationGroup;
 import org.jboss.as.ejb3.cache.spi.SerializationGroupMember;
 import org.jboss.as.ejb3.cache.spi.impl.AbstractBackingCacheEntryStoreSource;
+import org.jboss.as.ejb3.cache.spi.impl.DeltaFilePersistentObjectStore;
 import org.jboss.as.ejb3.cache.spi.impl.FilePersistentObjectStore;
 import org.jboss.as.ejb3.component.stateful.StatefulTimeoutInfo;
 import org.jboss.as.server.ServerEnvironment;
@@ -69,11 +70,13 @@ public class NonClusteredBackingCacheEntryStoreSource<K extends Serializable, V
     private String groupDirectoryName = DEFAULT_GROUP_DIRECTORY_NAME;
     private String relativeToRef = DEFAULT_RELATIVE_TO;
     private int subdirectoryCount = DEFAULT_SUBDIRECTORY_COUNT;
+    private boolean deltaPassivation;
     private volatile PathManager.Callback.Handle callbackHandle;
 
     @Override
     public <E extends SerializationGroup<K, V, G>> BackingCacheEntryStore<G, Cacheable<G>, E> createGroupIntegratedObjectStore(IdentifierFactory<G> identifierFactory, PassivationManager<G, E> passivationManager, StatefulTimeoutInfo timeout) {
-        FilePersistentObjectStore<G, E> objectStore = new FilePersistentObjectStore<G, E>(passivationManager, this.getStoragePath(null, this.groupDirectoryName), subdirectoryCount);
+        String path = this.getStoragePath(null, this.groupDirectoryName);
+        FilePersistentObjectStore<G, E> objectStore = this.deltaPassivation ? new DeltaFilePersistentObjectStore<G, E>(passivationManager, path, subdirectoryCount) : new FilePersistentObjectStore<G, E>(passivationManager, path, subdirectoryCount);
 
         SimpleBackingCacheEntryStore<G, Cacheable<G>, E> store = new SimpleBackingCacheEntryStore<G, Cacheable<G>, E>(identifierFactory, objectStore, this.environment.getValue(), timeout, this);
 
@@ -82,7 +85,8 @@ public class NonClusteredBackingCacheEntryStoreSource<K extends Serializable, V
 
     @Override
     public <E extends SerializationGroupMember<K, V, G>> BackingCacheEntryStore<K, V, E> createIntegratedObjectStore(String beanName, IdentifierFactory<K> identifierFactory, PassivationManager<K, E> passivationManager, StatefulTimeoutInfo timeout) {
-        FilePersistentObjectStore<K, E> objectStore = new FilePersistentObjectStore<K, E>(passivationManager, this.getStoragePath(beanName, this.sessionDirectoryName), subdirectoryCount);
+        String path = this.getStoragePath(beanName, this.sessionDirectoryName);
+        FilePersistentObjectStore<K, E> objectStore = this.deltaPassivation ? new DeltaFilePersistentObjectStore<K, E>(passivationManager, path, subdirectoryCount) : new FilePersistentObjectStore<K, E>(passivationManager, path, subdirectoryCount);
 
         SimpleBackingCacheEntryStore<K, V, E> store = new SimpleBackingCacheEntryStore<K, V, E>(identifierFactory, objectStore, this.environment.getValue(), timeout, this);
 
@@ -149,6 +153,23 @@ public class NonClusteredBackingCacheEntryStoreSource<K extends Serializable, V
         this.subdirectoryCount = subdirectoryCount;
     }
 
+    /**
+     * Gets whether a passivated object is stored as the changes since it was last stored, rather than as a whole.
+     * Default is <code>false</code>.
+     *
+     * @see DeltaFilePersistentObjectStore
+     */
+    public boolean isDeltaPassivation() {
+        return deltaPassivation;
+    }
+
+    /**
+     * Sets whether a passivated object is stored as the changes since it was last stored, rather than as a whole.
+     */
+    public void setDeltaPassivation(boolean deltaPassivation) {
+        this.deltaPassivation = deltaPassivation;
+    }
+
     public String getRelativeTo() {
         return this.relativeToRef;
     }
@@ -45,6 +45,13 @@ public interface PersistentObjectStore<K, V extends Identifiable<K>> {
      */
     void store(V obj);
 
+    /**
+     * Remove anything kept in storage for the object, once the object is removed from the cache.
+     *
+     * @param key the object identifier
+     */
+    void remove(K key);
+
     /**
      * Perform any initialization work.
      */
@@ -0,0 +1,155 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.cache.spi.impl;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * Describes the changes between two serialized images of an object as the fixed size blocks that differ.
+ * <p/>
+ * The previous image is only known by the SHA-1 digests of its blocks, so it does not have to be kept in memory. A
+ * delta record holds the length of the new image, the index and contents of each changed block, and the CRC-32 of the
+ * whole new image, and turns the previous image into the new one when applied to it.
+ */
+final class BlockDelta {
+
+    static final int BLOCK_SIZE = 1024;
+
+    private BlockDelta() {
+    }
+
+    /**
+     * Digests each block of an image. The last block may be shorter than {@link #BLOCK_SIZE}.
+     *
+     * @param image  The image
+     * @param length The length of the image
+     * @return The digests of the blocks
+     */
+    static byte[][] digest(final byte[] image, final int length) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        final byte[][] digests = new byte[(length + BLOCK_SIZE - 1) / BLOCK_SIZE][];
+        for (int block = 0; block < digests.length; block++) {
+            final int start = block * BLOCK_SIZE;
+            digest.update(image, start, Math.min(BLOCK_SIZE, length - start));
+            digests[block] = digest.digest();
+        }
+        return digests;
+    }
+
+    /**
+     * @param previous The block digests of the previous image
+     * @param current  The block digests of the new image
+     * @return The indexes of the blocks of the new image which differ from the previous image
+     */
+    static int[] changedBlocks(final byte[][] previous, final byte[][] current) {
+        final int[] changed = new int[current.length];
+        int count = 0;
+        for (int block = 0; block < current.length; block++) {
+            if (block >= previous.length || !Arrays.equals(previous[block], current[block])) {
+                changed[count++] = block;
+            }
+        }
+        return Arrays.copyOf(changed, count);
+    }
+
+    /**
+     * @return The number of bytes {@link #write} writes for the passed blocks
+     */
+    static long size(final int length, final int[] blocks) {
+        long size = 12;
+        for (final int block : blocks) {
+            size += 4 + Math.min(BLOCK_SIZE, length - block * BLOCK_SIZE);
+        }
+        return size;
+    }
+
+    /**
+     * Writes a delta record
+     *
+     * @param output The output to write to
+     * @param image  The new image
+     * @param length The length of the new image
+     * @param blocks The blocks of the new image which changed, as returned by {@link #changedBlocks}
+     * @throws IOException If the record could not be written
+     */
+    static void write(final DataOutput output, final byte[] image, final int length, final int[] blocks) throws IOException {
+        output.writeInt(length);
+        output.writeInt(blocks.length);
+        for (final int block : blocks) {
+            final int start = block * BLOCK_SIZE;
+            output.writeInt(block);
+            output.write(image, start, Math.min(BLOCK_SIZE, length - start));
+        }
+        output.writeInt(checksum(image, length));
+    }
+
+    /**
+     * Reads a delta record and applies it to an image
+     *
+     * @param input The input to read the record from
+     * @param image The image the record applies to, which is left as it is
+     * @return The new image
+     * @throws java.io.EOFException If the input ends before the record does
+     * @throws StreamCorruptedException If the new image does not match the checksum of the record
+     * @throws IOException If the record could not be read
+     */
+    static byte[] apply(final DataInput input, final byte[] image) throws IOException {
+        final int length = input.readInt();
+        final int count = input.readInt();
+        final long blocks = ((long) length + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        if (length < 0 || count < 0 || count > blocks) {
+            throw new StreamCorruptedException();
+        }
+        final byte[] result = Arrays.copyOf(image, length);
+        for (int i = 0; i < count; i++) {
+            final int block = input.readInt();
+            if (block < 0 || block >= blocks) {
+                throw new StreamCorruptedException();
+            }
+            final int start = block * BLOCK_SIZE;
+            input.readFully(result, start, Math.min(BLOCK_SIZE, length - start));
+        }
+        if (input.readInt() != checksum(result, length)) {
+            throw new StreamCorruptedException();
+        }
+        return result;
+    }
+
+    private static int checksum(final byte[] image, final int length) {
+        final CRC32 crc = new CRC32();
+        crc.update(image, 0, length);
+        return (int) crc.getValue();
+    }
+}
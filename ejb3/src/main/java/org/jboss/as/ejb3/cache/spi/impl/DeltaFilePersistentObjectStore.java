@@ -0,0 +1,266 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.cache.spi.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.as.ejb3.EjbMessages;
+import org.jboss.as.ejb3.cache.Cacheable;
+import org.jboss.as.ejb3.cache.PassivationManager;
+import org.jboss.logging.Logger;
+import org.jboss.marshalling.Marshaller;
+import org.jboss.marshalling.Marshalling;
+import org.jboss.marshalling.MarshallingConfiguration;
+import org.jboss.marshalling.SimpleDataInput;
+import org.jboss.marshalling.SimpleDataOutput;
+import org.jboss.marshalling.Unmarshaller;
+
+/**
+ * Stores objects in a directory via serialization, writing only the parts of the serialized state which changed
+ * since the object was last stored.
+ * <p/>
+ * The first time an object is stored, its serialized image is written to a snapshot file, in the same format as
+ * {@link FilePersistentObjectStore} uses. The snapshot is kept when the object is loaded, and when it is stored again,
+ * only the {@link BlockDelta blocks} of the image which differ from what is on disk are appended to a delta file. A new
+ * snapshot replaces the delta file once it holds {@link #MAX_DELTAS} records, or more bytes than half of the image, so
+ * loading an object never has to replay a long chain of deltas. Each delta record holds the checksum of the image it
+ * produces, which is verified when the object is loaded, and a last record left incomplete by a crash is ignored. The
+ * files of an object are deleted once it is {@link #remove(Serializable) removed}.
+ *
+ * @param <K> the type of the object identifier
+ * @param <V> the type of the stored object
+ */
+public class DeltaFilePersistentObjectStore<K extends Serializable, V extends Cacheable<K>> extends FilePersistentObjectStore<K, V> {
+    private static final Logger log = Logger.getLogger(DeltaFilePersistentObjectStore.class);
+
+    static final int MAX_DELTAS = 16;
+
+    private final Map<K, Snapshot> snapshots = new ConcurrentHashMap<K, Snapshot>();
+    private final AtomicInteger counter = new AtomicInteger(0);
+
+    public DeltaFilePersistentObjectStore(PassivationManager<K, V> passivationManager, String directoryName, int subDirectoryCount) {
+        super(passivationManager, directoryName, subDirectoryCount);
+    }
+
+    protected File getDeltaFile(K key) {
+        File file = getFile(key);
+        return new File(file.getParentFile(), String.valueOf(key) + ".delta");
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V load(K key) {
+        File file = getFile(key);
+        if (!file.exists())
+            return null;
+
+        log.tracef("Loading state from %s", file);
+        try {
+            byte[] image = this.readImage(key, file);
+            SimpleDataInput input = new SimpleDataInput(Marshalling.createByteInput(new ByteArrayInputStream(image)));
+            int version = input.readInt();
+            if (!this.snapshots.containsKey(key)) {
+                // left behind by a previous run of this store, the next store will replace it
+                this.snapshots.put(key, new Snapshot(version, BlockDelta.digest(image, image.length), MAX_DELTAS, 0));
+            }
+            MarshallingConfiguration config = this.passivationManager.getMarshallingConfiguration(version);
+            Unmarshaller unmarshaller = this.marshallerFactory.createUnmarshaller(config);
+            unmarshaller.start(input);
+            try {
+                V value = (V) unmarshaller.readObject();
+                unmarshaller.finish();
+                counter.decrementAndGet();
+                return value;
+            } finally {
+                unmarshaller.close();
+            }
+        } catch (Exception e) {
+            throw EjbMessages.MESSAGES.activationFailed(e, key);
+        }
+    }
+
+    private byte[] readImage(K key, File file) throws IOException {
+        FileInputStream inputStream = FISAction.open(file);
+        byte[] image;
+        try {
+            image = new byte[(int) file.length()];
+            new DataInputStream(inputStream).readFully(image);
+        } finally {
+            safeClose(inputStream);
+        }
+        File deltaFile = getDeltaFile(key);
+        if (deltaFile.exists()) {
+            DataInputStream input = new DataInputStream(FISAction.open(deltaFile));
+            try {
+                while (input.available() > 0) {
+                    try {
+                        image = BlockDelta.apply(input, image);
+                    } catch (EOFException e) {
+                        // the last record was not completely written, the image before it is the last one stored.
+                        // Forget the snapshot so that the next store does not append after the incomplete record.
+                        log.tracef("Discarding the incomplete last record of %s", deltaFile);
+                        this.snapshots.remove(key);
+                        break;
+                    }
+                }
+            } finally {
+                safeClose(input);
+            }
+        }
+        return image;
+    }
+
+    @Override
+    public void store(V obj) {
+        K key = obj.getId();
+        try {
+            ExposedByteArrayOutputStream bytes = new ExposedByteArrayOutputStream();
+            SimpleDataOutput output = new SimpleDataOutput(Marshalling.createByteOutput(bytes));
+            int version = this.passivationManager.getCurrentMarshallingVersion();
+            output.writeInt(version);
+            MarshallingConfiguration config = this.passivationManager.getMarshallingConfiguration(version);
+            Marshaller marshaller = this.marshallerFactory.createMarshaller(config);
+            marshaller.start(output);
+            try {
+                marshaller.writeObject(obj);
+                marshaller.finish();
+            } finally {
+                marshaller.close();
+            }
+            byte[] image = bytes.getBuffer();
+            int length = bytes.size();
+            byte[][] digests = BlockDelta.digest(image, length);
+
+            Snapshot snapshot = this.snapshots.get(key);
+            if (snapshot != null && snapshot.version == version && snapshot.deltas < MAX_DELTAS) {
+                int[] blocks = BlockDelta.changedBlocks(snapshot.digests, digests);
+                long size = BlockDelta.size(length, blocks);
+                if (snapshot.deltaBytes + size <= length / 2) {
+                    this.writeDelta(key, image, length, blocks);
+                    this.snapshots.put(key, new Snapshot(version, digests, snapshot.deltas + 1, snapshot.deltaBytes + size));
+                    counter.incrementAndGet();
+                    return;
+                }
+            }
+            this.writeSnapshot(key, image, length);
+            this.snapshots.put(key, new Snapshot(version, digests, 0, 0));
+            counter.incrementAndGet();
+        } catch (IOException e) {
+            // whatever is on disk is no longer known, so the next attempt writes a new snapshot
+            this.snapshots.remove(key);
+            throw EjbMessages.MESSAGES.passivationFailed(e, key);
+        }
+    }
+
+    private void writeSnapshot(K key, byte[] image, int length) throws IOException {
+        // the deltas of the previous snapshot go first, they must never be applied to the new one
+        File deltaFile = getDeltaFile(key);
+        if (deltaFile.exists() && !DeleteFileAction.delete(deltaFile)) {
+            throw EjbMessages.MESSAGES.passivationFailed(null, key);
+        }
+        File file = getFile(key);
+        log.tracef("Storing state to %s", file);
+        FileOutputStream outputStream = FOSAction.open(file);
+        try {
+            outputStream.write(image, 0, length);
+        } finally {
+            safeClose(outputStream);
+        }
+    }
+
+    private void writeDelta(K key, byte[] image, int length, int[] blocks) throws IOException {
+        File deltaFile = getDeltaFile(key);
+        log.tracef("Storing %d changed blocks of state to %s", blocks.length, deltaFile);
+        FileOutputStream outputStream = FOSAction.open(deltaFile, true);
+        try {
+            DataOutputStream output = new DataOutputStream(outputStream);
+            BlockDelta.write(output, image, length, blocks);
+            output.flush();
+        } finally {
+            safeClose(outputStream);
+        }
+    }
+
+    @Override
+    public void remove(K key) {
+        this.snapshots.remove(key);
+        File deltaFile = getDeltaFile(key);
+        if (deltaFile.exists()) {
+            DeleteFileAction.delete(deltaFile);
+        }
+        File file = getFile(key);
+        if (file.exists()) {
+            DeleteFileAction.delete(file);
+        }
+    }
+
+    @Override
+    public void stop() {
+        super.stop();
+        this.snapshots.clear();
+    }
+
+    @Override
+    public int getStoreSize() {
+        return counter.get();
+    }
+
+    /**
+     * What is known of the image on disk: the snapshot with the deltas written since
+     */
+    private static final class Snapshot {
+        final int version;
+        final byte[][] digests;
+        final int deltas;
+        final long deltaBytes;
+
+        Snapshot(int version, byte[][] digests, int deltas, long deltaBytes) {
+            this.version = version;
+            this.digests = digests;
+            this.deltas = deltas;
+            this.deltaBytes = deltaBytes;
+        }
+    }
+
+    private static final class ExposedByteArrayOutputStream extends ByteArrayOutputStream {
+        ExposedByteArrayOutputStream() {
+            super(8192);
+        }
+
+        byte[] getBuffer() {
+            return this.buf;
+        }
+    }
+}
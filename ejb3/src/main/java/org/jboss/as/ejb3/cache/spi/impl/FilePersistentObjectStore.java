@@ -57,14 +57,14 @@ import org.jboss.marshalling.Unmarshaller;
 public class FilePersistentObjectStore<K extends Serializable, V extends Cacheable<K>> implements PersistentObjectStore<K, V> {
     private static final Logger log = Logger.getLogger(FilePersistentObjectStore.class);
 
-    private final MarshallerFactory marshallerFactory = Marshalling.getMarshallerFactory("river", MarshallerFactory.class.getClassLoader());
-    private final PassivationManager<K, V> passivationManager;
+    final MarshallerFactory marshallerFactory = Marshalling.getMarshallerFactory("river", MarshallerFactory.class.getClassLoader());
+    final PassivationManager<K, V> passivationManager;
     private final int subdirectoryCount;
     private final File baseDirectory;
     private File[] storageDirectories;
     private final AtomicInteger counter = new AtomicInteger(0);
 
-    private static class DeleteFileAction implements PrivilegedAction<Boolean> {
+    static class DeleteFileAction implements PrivilegedAction<Boolean> {
         File file;
 
         DeleteFileAction(File file) {
@@ -87,7 +87,7 @@ public class FilePersistentObjectStore<K extends Serializable, V extends Cacheab
         }
     }
 
-    private static class FISAction implements PrivilegedExceptionAction<FileInputStream> {
+    static class FISAction implements PrivilegedExceptionAction<FileInputStream> {
         File file;
 
         FISAction(File file) {
@@ -112,21 +112,27 @@ public class FilePersistentObjectStore<K extends Serializable, V extends Cacheab
         }
     }
 
-    private static class FOSAction implements PrivilegedExceptionAction<FileOutputStream> {
+    static class FOSAction implements PrivilegedExceptionAction<FileOutputStream> {
         File file;
+        boolean append;
 
-        FOSAction(File file) {
+        FOSAction(File file, boolean append) {
             this.file = file;
+            this.append = append;
         }
 
         @Override
         public FileOutputStream run() throws FileNotFoundException {
-            FileOutputStream fis = new FileOutputStream(file);
+            FileOutputStream fis = new FileOutputStream(file, append);
             return fis;
         }
 
         static FileOutputStream open(File file) throws FileNotFoundException {
-            FOSAction action = new FOSAction(file);
+            return open(file, false);
+        }
+
+        static FileOutputStream open(File file, boolean append) throws FileNotFoundException {
+            FOSAction action = new FOSAction(file, append);
             FileOutputStream fos = null;
             try {
                 fos = AccessController.doPrivileged(action);
@@ -284,6 +290,16 @@ public class FilePersistentObjectStore<K extends Serializable, V extends Cacheab
         }
     }
 
+    @Override
+    public void remove(K key) {
+        File file = getFile(key);
+        if (file.exists()) {
+            if (DeleteFileAction.delete(file)) {
+                counter.decrementAndGet();
+            }
+        }
+    }
+
     protected static void safeClose(final Closeable closeable) {
         if (closeable != null) {
             try {
@@ -29,10 +29,17 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.concurrent.atomic.AtomicReference;
+
+import org.jboss.as.ejb3.component.invocationmetrics.jdk8backported.LongAdder;
 
 /**
+ * The invocation statistics of a component.
+ * <p/>
+ * The totals are kept in striped counters and the latencies are counted in {@link LatencyHistogram}s, so finishing
+ * an invocation neither allocates nor retries on contention.
+ *
  * @author <a href="mailto:cdewolf@redhat.com">Carlo de Wolf</a>
  */
 public class InvocationMetrics {
@@ -40,17 +47,29 @@ public class InvocationMetrics {
         final long invocations;
         final long executionTime;
         final long waitTime;
-
-        private Values(final long invocations, final long waitTime, final long executionTime) {
-            this.invocations = invocations;
-            this.executionTime = executionTime;
-            this.waitTime = waitTime;
+        private final LatencyHistogram executionTimes;
+        private final LatencyHistogram waitTimes;
+
+        private Values(final Metrics metrics) {
+            this.invocations = metrics.invocations.sum();
+            this.executionTime = TimeUnit.NANOSECONDS.toMillis(metrics.executionTime.sum());
+            this.waitTime = TimeUnit.NANOSECONDS.toMillis(metrics.waitTime.sum());
+            this.executionTimes = metrics.executionTimes;
+            this.waitTimes = metrics.waitTimes;
         }
 
         public long getExecutionTime() {
             return executionTime;
         }
 
+        /**
+         * @param percentile the percentile, between 0 and 100
+         * @return the execution time in milliseconds which the given percentage of the invocations did not exceed
+         */
+        public double getExecutionTimePercentile(final double percentile) {
+            return toMillis(executionTimes.getValueAtPercentile(percentile));
+        }
+
         public long getInvocations() {
             return invocations;
         }
@@ -58,40 +77,68 @@ public class InvocationMetrics {
         public long getWaitTime() {
             return waitTime;
         }
+
+        /**
+         * @param percentile the percentile, between 0 and 100
+         * @return the wait time in milliseconds which the given percentage of the invocations did not exceed
+         */
+        public double getWaitTimePercentile(final double percentile) {
+            return toMillis(waitTimes.getValueAtPercentile(percentile));
+        }
+    }
+
+    private static final class Metrics {
+        final LongAdder invocations = new LongAdder();
+        /**
+         * In nanoseconds.
+         */
+        final LongAdder executionTime = new LongAdder();
+        /**
+         * In nanoseconds.
+         */
+        final LongAdder waitTime = new LongAdder();
+        final LatencyHistogram executionTimes = new LatencyHistogram();
+        final LatencyHistogram waitTimes = new LatencyHistogram();
+
+        void record(final long invocationWaitTime, final long invocationExecutionTime) {
+            invocations.increment();
+            waitTime.add(invocationWaitTime);
+            executionTime.add(invocationExecutionTime);
+            waitTimes.record(TimeUnit.NANOSECONDS.toMicros(invocationWaitTime));
+            executionTimes.record(TimeUnit.NANOSECONDS.toMicros(invocationExecutionTime));
+        }
     }
 
-    private final AtomicReference<Values> values = new AtomicReference<Values>(new Values(0, 0, 0));
+    private final Metrics values = new Metrics();
     private final AtomicLong concurrent = new AtomicLong(0);
     private final AtomicLong peakConcurrent = new AtomicLong(0);
 
-    private final ConcurrentMap<String, AtomicReference<Values>> methods = new ConcurrentHashMap<String, AtomicReference<Values>>();
+    private final ConcurrentMap<String, Metrics> methods = new ConcurrentHashMap<String, Metrics>();
 
+    /**
+     * @param method                  the invoked method
+     * @param invocationWaitTime      the wait time in nanoseconds
+     * @param invocationExecutionTime the execution time in nanoseconds
+     */
     void finishInvocation(final Method method, final long invocationWaitTime, final long invocationExecutionTime) {
         concurrent.decrementAndGet();
-        for(;;) {
-            final Values oldv = values.get();
-            final Values newv = new Values(oldv.invocations + 1, oldv.waitTime + invocationWaitTime, oldv.executionTime + invocationExecutionTime);
-            if (values.compareAndSet(oldv, newv))
-                break;
-        }
-        final AtomicReference<Values> methodValues = ref(methods, method.getName());
-        for (;;) {
-            final Values oldv = methodValues.get();
-            final Values newv = new Values(oldv.invocations + 1, oldv.waitTime + invocationWaitTime, oldv.executionTime + invocationExecutionTime);
-            if (methodValues.compareAndSet(oldv, newv))
-                break;
-        }
+        values.record(invocationWaitTime, invocationExecutionTime);
+        metrics(methods, method.getName()).record(invocationWaitTime, invocationExecutionTime);
     }
 
-    private static AtomicReference<Values> ref(final ConcurrentMap<String, AtomicReference<Values>> map, final String key) {
-        AtomicReference<Values> ref = map.get(key);
-        if (ref == null) {
-            ref = new AtomicReference<Values>(new Values(0, 0, 0));
-            final AtomicReference<Values> prevRef = map.putIfAbsent(key, ref);
-            if (prevRef != null)
-                ref = prevRef;
+    private static Metrics metrics(final ConcurrentMap<String, Metrics> map, final String key) {
+        Metrics metrics = map.get(key);
+        if (metrics == null) {
+            metrics = new Metrics();
+            final Metrics prevMetrics = map.putIfAbsent(key, metrics);
+            if (prevMetrics != null)
+                metrics = prevMetrics;
         }
-        return ref;
+        return metrics;
+    }
+
+    private static double toMillis(final long micros) {
+        return micros / 1000.0;
     }
 
     public long getConcurrent() {
@@ -99,11 +146,19 @@ public class InvocationMetrics {
     }
 
     public long getExecutionTime() {
-        return values.get().executionTime;
+        return TimeUnit.NANOSECONDS.toMillis(values.executionTime.sum());
+    }
+
+    /**
+     * @param percentile the percentile, between 0 and 100
+     * @return the execution time in milliseconds which the given percentage of the invocations did not exceed
+     */
+    public double getExecutionTimePercentile(final double percentile) {
+        return toMillis(values.executionTimes.getValueAtPercentile(percentile));
     }
 
     public long getInvocations() {
-        return values.get().invocations;
+        return values.invocations.sum();
     }
 
     public Map<String, Values> getMethods() {
@@ -113,7 +168,7 @@ public class InvocationMetrics {
                 return new AbstractSet<Entry<String, Values>>() {
                     @Override
                     public Iterator<Entry<String, Values>> iterator() {
-                        final Iterator<Entry<String, AtomicReference<Values>>> delegate = methods.entrySet().iterator();
+                        final Iterator<Entry<String, Metrics>> delegate = methods.entrySet().iterator();
                         return new Iterator<Entry<String, Values>>() {
                             @Override
                             public boolean hasNext() {
@@ -122,7 +177,7 @@ public class InvocationMetrics {
 
                             @Override
                             public Entry<String, Values> next() {
-                                final Entry<String, AtomicReference<Values>> next = delegate.next();
+                                final Entry<String, Metrics> next = delegate.next();
                                 return new Entry<String, Values>() {
                                     @Override
                                     public String getKey() {
@@ -131,7 +186,7 @@ public class InvocationMetrics {
 
                                     @Override
                                     public Values getValue() {
-                                        return next.getValue().get();
+                                        return new Values(next.getValue());
                                     }
 
                                     @Override
@@ -162,7 +217,15 @@ public class InvocationMetrics {
     }
 
     public long getWaitTime() {
-        return values.get().waitTime;
+        return TimeUnit.NANOSECONDS.toMillis(values.waitTime.sum());
+    }
+
+    /**
+     * @param percentile the percentile, between 0 and 100
+     * @return the wait time in milliseconds which the given percentage of the invocations did not exceed
+     */
+    public double getWaitTimePercentile(final double percentile) {
+        return toMillis(values.waitTimes.getValueAtPercentile(percentile));
     }
 
     void startInvocation() {
@@ -21,6 +21,8 @@
  */
 package org.jboss.as.ejb3.component.invocationmetrics;
 
+import java.util.concurrent.TimeUnit;
+
 import org.jboss.as.ejb3.component.interceptors.AbstractEJBInterceptor;
 import org.jboss.invocation.ImmediateInterceptorFactory;
 import org.jboss.invocation.InterceptorContext;
@@ -39,7 +41,28 @@ public class WaitTimeInterceptor extends AbstractEJBInterceptor {
 
     @Override
     public Object processInvocation(final InterceptorContext context) throws Exception {
-        context.putPrivateData(START_WAIT_TIME, System.currentTimeMillis());
+        context.putPrivateData(START_WAIT_TIME, System.nanoTime());
         return context.proceed();
     }
+
+    /**
+     * Returns the time that passed since the invocation entered the view.
+     *
+     * @param context the interceptor context of the invocation
+     * @return the wait time in milliseconds, or 0 if the invocation did not pass this interceptor
+     */
+    public static long getWaitTime(final InterceptorContext context) {
+        return TimeUnit.NANOSECONDS.toMillis(getWaitTimeNanos(context));
+    }
+
+    /**
+     * Returns the time that passed since the invocation entered the view.
+     *
+     * @param context the interceptor context of the invocation
+     * @return the wait time in nanoseconds, or 0 if the invocation did not pass this interceptor
+     */
+    public static long getWaitTimeNanos(final InterceptorContext context) {
+        final Long startWaitTime = (Long) context.getPrivateData(START_WAIT_TIME);
+        return startWaitTime != null ? System.nanoTime() - startWaitTime : 0L;
+    }
 }
@@ -0,0 +1,122 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.component.pool;
+
+import static java.security.AccessController.doPrivileged;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.ejb3.pool.Pool;
+import org.jboss.as.ejb3.pool.StatelessObjectFactory;
+import org.jboss.as.ejb3.pool.adaptive.AdaptivePool;
+import org.jboss.threads.JBossThreadFactory;
+import org.wildfly.security.manager.GetAccessControlContextAction;
+
+/**
+ * Configuration of an {@link AdaptivePool}. While started it owns the thread which evicts idle instances from all the
+ * pools created from this configuration.
+ */
+public class AdaptivePoolConfig extends StrictMaxPoolConfig {
+
+    public static final int DEFAULT_MIN_POOL_SIZE = 1;
+
+    public static final long DEFAULT_IDLE_TIMEOUT = 5;
+
+    public static final TimeUnit DEFAULT_IDLE_TIMEOUT_UNIT = TimeUnit.MINUTES;
+
+    private volatile int minPoolSize;
+
+    private volatile long idleTimeout;
+
+    private volatile TimeUnit idleTimeoutUnit;
+
+    private volatile ScheduledExecutorService executor;
+
+    public AdaptivePoolConfig(final String poolName, int minSize, int maxSize, long timeout, TimeUnit timeUnit, long idleTimeout, TimeUnit idleTimeoutUnit) {
+        super(poolName, maxSize, timeout, timeUnit);
+        this.minPoolSize = minSize;
+        this.idleTimeout = idleTimeout;
+        this.idleTimeoutUnit = idleTimeoutUnit;
+    }
+
+    @Override
+    public <T> Pool<T> createPool(final StatelessObjectFactory<T> statelessObjectFactory) {
+        return new AdaptivePool<T>(statelessObjectFactory, this.minPoolSize, getMaxPoolSize(), getTimeout(), getTimeoutUnit(),
+                this.idleTimeout, this.idleTimeoutUnit, this.executor);
+    }
+
+    @Override
+    public void start() {
+        final JBossThreadFactory threadFactory = new JBossThreadFactory(new ThreadGroup("EJB pool " + this.poolName + " eviction"),
+                Boolean.TRUE, null, "%G - %t", null, null, doPrivileged(GetAccessControlContextAction.getInstance()));
+        this.executor = Executors.newSingleThreadScheduledExecutor(threadFactory);
+    }
+
+    @Override
+    public void stop() {
+        final ScheduledExecutorService executor = this.executor;
+        if (executor != null) {
+            this.executor = null;
+            executor.shutdownNow();
+        }
+    }
+
+    public int getMinPoolSize() {
+        return minPoolSize;
+    }
+
+    public void setMinPoolSize(int minPoolSize) {
+        this.minPoolSize = minPoolSize;
+    }
+
+    public long getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    public void setIdleTimeout(long idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    public TimeUnit getIdleTimeoutUnit() {
+        return idleTimeoutUnit;
+    }
+
+    public void setIdleTimeoutUnit(TimeUnit idleTimeoutUnit) {
+        this.idleTimeoutUnit = idleTimeoutUnit;
+    }
+
+    @Override
+    public String toString() {
+        return "AdaptivePoolConfig{" +
+                "name=" + this.poolName +
+                ", minPoolSize=" + minPoolSize +
+                ", maxPoolSize=" + getMaxPoolSize() +
+                ", timeoutUnit=" + getTimeoutUnit() +
+                ", timeout=" + getTimeout() +
+                ", idleTimeout=" + idleTimeout +
+                ", idleTimeoutUnit=" + idleTimeoutUnit +
+                '}';
+    }
+}
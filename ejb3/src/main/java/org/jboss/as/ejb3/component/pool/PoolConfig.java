@@ -44,4 +44,17 @@ public abstract class PoolConfig {
     }
 
     public abstract <T> Pool<T> createPool(final StatelessObjectFactory<T> statelessObjectFactory);
+
+    /**
+     * Called when the {@link PoolConfigService} holding this config starts. Configs that need resources shared by
+     * their pools can acquire them here.
+     */
+    public void start() {
+    }
+
+    /**
+     * Called when the {@link PoolConfigService} holding this config stops.
+     */
+    public void stop() {
+    }
 }
@@ -53,12 +53,12 @@ public class PoolConfigService implements Service<PoolConfig> {
 
     @Override
     public void start(StartContext context) throws StartException {
-
+        this.poolConfig.start();
     }
 
     @Override
     public void stop(StopContext context) {
-
+        this.poolConfig.stop();
     }
 
     @Override
@@ -29,6 +29,9 @@ import javax.ejb.ConcurrentAccessTimeoutException;
 import org.jboss.as.ee.component.ComponentInstance;
 import org.jboss.as.ejb3.component.interceptors.AbstractEJBInterceptor;
 import org.jboss.as.ejb3.component.EJBComponent;
+import org.jboss.as.ejb3.component.invocationmetrics.WaitTimeInterceptor;
+import org.jboss.as.ejb3.pool.Pool;
+import org.jboss.as.ejb3.pool.adaptive.AdaptivePool;
 import org.jboss.invocation.InterceptorContext;
 
 /**
@@ -44,7 +47,12 @@ public class PooledInstanceInterceptor extends AbstractEJBInterceptor {
     @Override
     public Object processInvocation(InterceptorContext context) throws Exception {
         PooledComponent<ComponentInstance> component = (PooledComponent<ComponentInstance>) getComponent(context, EJBComponent.class);
-        ComponentInstance instance = component.getPool().get();
+        final Pool<ComponentInstance> pool = component.getPool();
+        ComponentInstance instance = pool.get();
+        if (pool instanceof AdaptivePool) {
+            // let the pool size itself according to how long invocations had to wait for an instance
+            ((AdaptivePool<ComponentInstance>) pool).recordWaitTime(WaitTimeInterceptor.getWaitTime(context));
+        }
         context.putPrivateData(ComponentInstance.class, instance);
         boolean discarded = false;
         try {
@@ -0,0 +1,366 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.pool.adaptive;
+
+import static org.jboss.as.ejb3.EjbLogger.ROOT_LOGGER;
+import static org.jboss.as.ejb3.EjbMessages.MESSAGES;
+
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.as.ejb3.pool.AbstractPool;
+import org.jboss.as.ejb3.pool.StatelessObjectFactory;
+
+/**
+ * A pool whose capacity adapts to the load, between a minimum and a maximum size.
+ * <p/>
+ * The pool starts with a capacity of {@code minSize} instances. Whenever callers had to wait for an instance and the
+ * smoothed {@link #recordWaitTime(long) wait time} of invocations reaches the grow threshold, the capacity is raised
+ * towards {@code maxSize}. Instances which have been idle for longer than the idle timeout are destroyed by a
+ * periodic eviction task, which also lowers the capacity again to the peak usage seen since the previous run, but
+ * never below {@code minSize}.
+ * <p/>
+ * The maximum size can be changed at runtime through {@link #setMaxSize(int)}.
+ */
+public class AdaptivePool<T> extends AbstractPool<T> {
+
+    /**
+     * The smoothed wait time, in milliseconds, at which the capacity of a contended pool is raised.
+     */
+    static final long GROW_WAIT_TIME_THRESHOLD = 1;
+
+    /**
+     * The wait time moving average is kept as a fixed point number with this many fractional bits.
+     */
+    private static final int WAIT_TIME_SHIFT = 8;
+
+    private final ResizableSemaphore semaphore = new ResizableSemaphore(0);
+    private final int minSize;
+    private volatile int maxSize;
+    /**
+     * The current capacity, {@code minSize <= capacity <= maxSize}. All changes to it and the matching permit changes
+     * are made while holding the lock of the semaphore.
+     */
+    private volatile int capacity;
+
+    private final long timeout;
+    private final TimeUnit timeUnit;
+    private final long idleTimeoutMillis;
+    private final ScheduledExecutorService executor;
+    private volatile ScheduledFuture<?> evictionTask;
+
+    /**
+     * The idle instances, most recently released first.
+     */
+    private final ConcurrentLinkedDeque<Entry<T>> pool = new ConcurrentLinkedDeque<Entry<T>>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+    private final AtomicInteger inUse = new AtomicInteger();
+    private final AtomicInteger peakInUse = new AtomicInteger();
+
+    /**
+     * Exponential moving average (alpha = 1/8) of the recorded wait times, see {@link #WAIT_TIME_SHIFT}.
+     */
+    private volatile long averageWaitTime;
+    /**
+     * Set when a caller found no free permit since the last capacity increase or eviction run.
+     */
+    private final AtomicBoolean contended = new AtomicBoolean();
+
+    /**
+     * @param factory         the instance factory
+     * @param minSize         the minimum capacity, also the number of instances kept when idle
+     * @param maxSize         the maximum capacity
+     * @param timeout         the time to wait for an instance
+     * @param timeUnit        the unit of {@code timeout}
+     * @param idleTimeout     the time after which an idle instance can be evicted
+     * @param idleTimeoutUnit the unit of {@code idleTimeout}
+     * @param executor        the executor running the eviction task, or {@code null} to evict on release only
+     */
+    public AdaptivePool(StatelessObjectFactory<T> factory, int minSize, int maxSize, long timeout, TimeUnit timeUnit,
+                        long idleTimeout, TimeUnit idleTimeoutUnit, ScheduledExecutorService executor) {
+        super(factory);
+        if (minSize > maxSize) {
+            throw MESSAGES.minPoolSizeExceedsMaxPoolSize(minSize, maxSize);
+        }
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.timeout = timeout;
+        this.timeUnit = timeUnit;
+        this.idleTimeoutMillis = idleTimeoutUnit.toMillis(idleTimeout);
+        this.executor = executor;
+        // always allow at least one instance, the pool would never grow otherwise
+        this.capacity = Math.max(minSize, 1);
+        this.semaphore.release(capacity);
+    }
+
+    public void discard(T ctx) {
+        if (ROOT_LOGGER.isTraceEnabled()) {
+            ROOT_LOGGER.tracef("Discard instance %s#%s", this, ctx);
+        }
+
+        inUse.decrementAndGet();
+        semaphore.release();
+
+        // Let the super do any other remove stuff
+        super.doRemove(ctx);
+    }
+
+    public int getCurrentSize() {
+        return getCreateCount() - getRemoveCount();
+    }
+
+    public int getAvailableCount() {
+        // negative while the pool is shrinking and more instances are in use than the new capacity allows
+        return Math.max(0, semaphore.availablePermits());
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int getMinSize() {
+        return minSize;
+    }
+
+    /**
+     * Returns the number of instances which may currently be in use at the same time.
+     *
+     * @return the current capacity
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void setMaxSize(int maxSize) {
+        if (maxSize < minSize) {
+            throw MESSAGES.minPoolSizeExceedsMaxPoolSize(minSize, maxSize);
+        }
+        synchronized (semaphore) {
+            this.maxSize = maxSize;
+            if (capacity > maxSize) {
+                resize(maxSize);
+            }
+        }
+    }
+
+    /**
+     * Get an instance without identity.
+     * Can be used by finders,create-methods, and activation
+     *
+     * @return Context /w instance
+     */
+    public T get() {
+        if (!semaphore.tryAcquire()) {
+            contended.set(true);
+            try {
+                boolean acquired = semaphore.tryAcquire(timeout, timeUnit);
+                if (!acquired)
+                    throw MESSAGES.failedToAcquirePermit(timeout, timeUnit);
+            } catch (InterruptedException e) {
+                throw MESSAGES.acquireSemaphoreInterrupted();
+            }
+        }
+        final int current = inUse.incrementAndGet();
+        int peak;
+        while ((peak = peakInUse.get()) < current && !peakInUse.compareAndSet(peak, current)) {
+        }
+
+        final Entry<T> entry = pool.pollFirst();
+        if (entry != null) {
+            idleCount.decrementAndGet();
+            return entry.instance;
+        }
+
+        T bean = null;
+        try {
+            // Pool is empty, create an instance
+            bean = create();
+        } finally {
+            if (bean == null) {
+                inUse.decrementAndGet();
+                semaphore.release();
+            }
+        }
+        return bean;
+    }
+
+    /**
+     * Return an instance after invocation.
+     *
+     * @param obj the instance
+     */
+    public void release(T obj) {
+        if (ROOT_LOGGER.isTraceEnabled()) {
+            ROOT_LOGGER.tracef("%s/%s Free instance: %s", idleCount.get(), capacity, this);
+        }
+
+        final long now = System.currentTimeMillis();
+        if (idleCount.incrementAndGet() <= capacity) {
+            pool.offerFirst(new Entry<T>(obj, now));
+        } else {
+            idleCount.decrementAndGet();
+            destroy(obj);
+        }
+        inUse.decrementAndGet();
+        semaphore.release();
+        if (executor == null) {
+            evictIdle(now);
+        }
+    }
+
+    @Override
+    @Deprecated
+    public void remove(T ctx) {
+        if (ROOT_LOGGER.isTraceEnabled()) {
+            ROOT_LOGGER.tracef("Removing instance: %s#%s", this, ctx);
+        }
+
+        inUse.decrementAndGet();
+        semaphore.release();
+        // let the super do the other remove stuff
+        super.doRemove(ctx);
+    }
+
+    /**
+     * Feeds the time an invocation had to wait before it got hold of an instance into the sizing policy.
+     *
+     * @param waitTime the wait time in milliseconds
+     */
+    public void recordWaitTime(final long waitTime) {
+        final long average = averageWaitTime;
+        final long updated = average + (((waitTime << WAIT_TIME_SHIFT) - average) >> 3);
+        averageWaitTime = updated;
+        if (contended.get() && updated >= GROW_WAIT_TIME_THRESHOLD << WAIT_TIME_SHIFT && capacity < maxSize) {
+            synchronized (semaphore) {
+                final int current = capacity;
+                if (current < maxSize && contended.compareAndSet(true, false)) {
+                    // grow fast, by a quarter of the current capacity
+                    resize(Math.min(maxSize, current + Math.max(1, current >> 2)));
+                }
+            }
+        }
+    }
+
+    public void start() {
+        if (executor != null && idleTimeoutMillis > 0) {
+            evictionTask = executor.scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    evictIdle(System.currentTimeMillis());
+                    shrink();
+                }
+            }, idleTimeoutMillis, idleTimeoutMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public void stop() {
+        final ScheduledFuture<?> task = evictionTask;
+        if (task != null) {
+            task.cancel(false);
+            evictionTask = null;
+        }
+        Entry<T> entry;
+        while ((entry = pool.pollFirst()) != null) {
+            idleCount.decrementAndGet();
+            destroy(entry.instance);
+        }
+    }
+
+    /**
+     * Destroys the instances that have been idle for longer than the idle timeout, keeping at least
+     * {@code minSize} instances.
+     *
+     * @param now the current time in milliseconds
+     */
+    void evictIdle(final long now) {
+        Entry<T> oldest;
+        while ((oldest = pool.peekLast()) != null && now - oldest.lastUsed >= idleTimeoutMillis && getCurrentSize() > minSize) {
+            if (pool.removeLastOccurrence(oldest)) {
+                idleCount.decrementAndGet();
+                destroy(oldest.instance);
+            }
+        }
+    }
+
+    /**
+     * Lowers the capacity to the peak usage since the previous call, if nobody had to wait in the meantime. The
+     * contention is cleared, so that a pool which stopped growing, at its maximum size or because the waits were short,
+     * still shrinks once the contention is over.
+     */
+    void shrink() {
+        final int peak = peakInUse.getAndSet(inUse.get());
+        if (contended.getAndSet(false)) {
+            return;
+        }
+        synchronized (semaphore) {
+            final int target = Math.max(Math.max(minSize, 1), peak);
+            if (target < capacity) {
+                resize(target);
+            }
+        }
+    }
+
+    /**
+     * Must be called while holding the lock of the semaphore.
+     */
+    private void resize(final int newCapacity) {
+        final int delta = newCapacity - capacity;
+        if (delta > 0) {
+            semaphore.release(delta);
+        } else if (delta < 0) {
+            // may drive the available permits negative until instances in use come back
+            semaphore.reducePermits(-delta);
+        }
+        capacity = newCapacity;
+        if (ROOT_LOGGER.isDebugEnabled()) {
+            ROOT_LOGGER.debugf("Resized pool %s to %d instances", this, newCapacity);
+        }
+    }
+
+    private static final class Entry<T> {
+        final T instance;
+        final long lastUsed;
+
+        Entry(final T instance, final long lastUsed) {
+            this.instance = instance;
+            this.lastUsed = lastUsed;
+        }
+    }
+
+    private static final class ResizableSemaphore extends Semaphore {
+        private static final long serialVersionUID = 1L;
+
+        ResizableSemaphore(final int permits) {
+            super(permits, false);
+        }
+
+        @Override
+        protected void reducePermits(final int reduction) {
+            super.reducePermits(reduction);
+        }
+    }
+}
@@ -0,0 +1,237 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.pool.striped;
+
+import static org.jboss.as.ejb3.EjbLogger.ROOT_LOGGER;
+import static org.jboss.as.ejb3.EjbMessages.MESSAGES;
+
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.as.ejb3.pool.AbstractPool;
+import org.jboss.as.ejb3.pool.StatelessObjectFactory;
+
+/**
+ * A pool with a maximum size which keeps its idle instances in a number of lock-free stripes.
+ * <p/>
+ * Unlike {@link org.jboss.as.ejb3.pool.strictmax.StrictMaxPool} there is no single monitor guarding the idle
+ * instances. Each thread is mapped onto a "home" stripe which it releases instances into and takes instances from
+ * first (LIFO, so that recently used and therefore cache-hot instances are reused). If the home stripe is empty the
+ * other stripes are scanned and an instance is stolen from their cold end before a new instance is created.
+ * <p/>
+ * The number of instances in use is bounded by a non-fair semaphore, so an uncontended acquisition is a single CAS.
+ */
+public class StripedPool<T> extends AbstractPool<T> {
+
+    /**
+     * Bounds the number of instances which may be in use at the same time.
+     */
+    private final Semaphore semaphore;
+    /**
+     * The maximum number of instances allowed in the pool
+     */
+    private final int maxSize;
+    /**
+     * The time to wait for the semaphore.
+     */
+    private final long timeout;
+    private final TimeUnit timeUnit;
+    /**
+     * The idle instances, one deque per stripe. The length is always a power of two.
+     */
+    private final ConcurrentLinkedDeque<T>[] stripes;
+    private final int mask;
+    /**
+     * The number of idle instances over all stripes.
+     */
+    private final AtomicInteger idleCount = new AtomicInteger();
+
+    public StripedPool(StatelessObjectFactory<T> factory, int maxSize, long timeout, TimeUnit timeUnit) {
+        this(factory, maxSize, timeout, timeUnit, Runtime.getRuntime().availableProcessors());
+    }
+
+    @SuppressWarnings("unchecked")
+    public StripedPool(StatelessObjectFactory<T> factory, int maxSize, long timeout, TimeUnit timeUnit, int stripeCount) {
+        super(factory);
+        this.maxSize = maxSize;
+        this.semaphore = new Semaphore(maxSize, false);
+        this.timeout = timeout;
+        this.timeUnit = timeUnit;
+        // no point in having more stripes than instances
+        int n = 1;
+        while (n < stripeCount && n < maxSize) {
+            n <<= 1;
+        }
+        this.stripes = new ConcurrentLinkedDeque[n];
+        for (int i = 0; i < n; i++) {
+            stripes[i] = new ConcurrentLinkedDeque<T>();
+        }
+        this.mask = n - 1;
+    }
+
+    public void discard(T ctx) {
+        if (ROOT_LOGGER.isTraceEnabled()) {
+            ROOT_LOGGER.tracef("Discard instance %s#%s", this, ctx);
+        }
+
+        semaphore.release();
+
+        // Let the super do any other remove stuff
+        super.doRemove(ctx);
+    }
+
+    public int getCurrentSize() {
+        return getCreateCount() - getRemoveCount();
+    }
+
+    public int getAvailableCount() {
+        return semaphore.availablePermits();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(int maxSize) {
+        throw MESSAGES.methodNotImplemented();
+    }
+
+    /**
+     * Returns the number of stripes the idle instances are spread over.
+     *
+     * @return the stripe count
+     */
+    public int getStripeCount() {
+        return stripes.length;
+    }
+
+    /**
+     * Get an instance without identity.
+     * Can be used by finders,create-methods, and activation
+     *
+     * @return Context /w instance
+     */
+    public T get() {
+        // try the fast path first, only fall back to a timed wait if there is no permit left
+        if (!semaphore.tryAcquire()) {
+            try {
+                boolean acquired = semaphore.tryAcquire(timeout, timeUnit);
+                if (!acquired)
+                    throw MESSAGES.failedToAcquirePermit(timeout, timeUnit);
+            } catch (InterruptedException e) {
+                throw MESSAGES.acquireSemaphoreInterrupted();
+            }
+        }
+
+        final T pooled = poll();
+        if (pooled != null) {
+            return pooled;
+        }
+
+        T bean = null;
+        try {
+            // Pool is empty, create an instance
+            bean = create();
+        } finally {
+            if (bean == null) {
+                semaphore.release();
+            }
+        }
+        return bean;
+    }
+
+    /**
+     * Return an instance after invocation.
+     * <p/>
+     * Called in 2 cases:
+     * a) Done with finder method
+     * b) Just removed
+     *
+     * @param obj
+     */
+    public void release(T obj) {
+        if (ROOT_LOGGER.isTraceEnabled()) {
+            ROOT_LOGGER.tracef("%s/%s Free instance: %s", idleCount.get(), maxSize, this);
+        }
+
+        if (idleCount.incrementAndGet() <= maxSize) {
+            stripes[homeStripe()].offerFirst(obj);
+        } else {
+            idleCount.decrementAndGet();
+            destroy(obj);
+        }
+        semaphore.release();
+    }
+
+    @Override
+    @Deprecated
+    public void remove(T ctx) {
+        if (ROOT_LOGGER.isTraceEnabled()) {
+            ROOT_LOGGER.tracef("Removing instance: %s#%s", this, ctx);
+        }
+
+        semaphore.release();
+        // let the super do the other remove stuff
+        super.doRemove(ctx);
+    }
+
+    public void start() {
+    }
+
+    public void stop() {
+        for (ConcurrentLinkedDeque<T> stripe : stripes) {
+            T obj;
+            while ((obj = stripe.pollFirst()) != null) {
+                idleCount.decrementAndGet();
+                destroy(obj);
+            }
+        }
+    }
+
+    /**
+     * Takes an idle instance from the home stripe, or steals one from the other stripes.
+     *
+     * @return an idle instance or {@code null} if there are none
+     */
+    private T poll() {
+        final int home = homeStripe();
+        T obj = stripes[home].pollFirst();
+        if (obj == null) {
+            for (int i = 1; i <= mask && obj == null; i++) {
+                obj = stripes[(home + i) & mask].pollLast();
+            }
+        }
+        if (obj != null) {
+            idleCount.decrementAndGet();
+        }
+        return obj;
+    }
+
+    private int homeStripe() {
+        // spread the thread ids, pool threads tend to have consecutive ids
+        final long id = Thread.currentThread().getId();
+        final int h = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+}
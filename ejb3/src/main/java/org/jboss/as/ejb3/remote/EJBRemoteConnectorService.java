@@ -26,6 +26,7 @@ import org.jboss.as.ejb3.EjbMessages;
 import org.jboss.as.ejb3.deployment.DeploymentRepository;
 import org.jboss.as.ejb3.remote.protocol.versionone.ChannelAssociation;
 import org.jboss.as.ejb3.remote.protocol.versionone.VersionOneProtocolChannelReceiver;
+import org.jboss.as.ejb3.remote.protocol.versionthree.VersionThreeProtocolChannelReceiver;
 import org.jboss.as.ejb3.remote.protocol.versiontwo.VersionTwoProtocolChannelReceiver;
 import org.jboss.as.network.ClientMapping;
 import org.jboss.as.remoting.RemotingConnectorBindingInfoService;
@@ -50,8 +51,11 @@ import org.jboss.remoting3.MessageOutputStream;
 import org.jboss.remoting3.OpenListener;
 import org.jboss.remoting3.Registration;
 import org.jboss.remoting3.ServiceRegistrationException;
+import org.xnio.BufferAllocator;
+import org.xnio.ByteBufferSlicePool;
 import org.xnio.IoUtils;
 import org.xnio.OptionMap;
+import org.xnio.Pool;
 
 import javax.transaction.TransactionManager;
 import javax.transaction.TransactionSynchronizationRegistry;
@@ -59,6 +63,7 @@ import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -74,6 +79,10 @@ public class EJBRemoteConnectorService implements Service<EJBRemoteConnectorServ
 
     public static final ServiceName SERVICE_NAME = ServiceName.JBOSS.append("ejb3", "connector");
 
+    // the size of the buffers which version three of the protocol reads the pipelined requests into
+    private static final int REQUEST_BUFFER_SIZE = 8192;
+    private static final int REQUEST_BUFFERS_PER_SLICE = 64;
+
     private final InjectedValue<Endpoint> endpointValue = new InjectedValue<Endpoint>();
     private final InjectedValue<ExecutorService> executorService = new InjectedValue<ExecutorService>();
     private final InjectedValue<DeploymentRepository> deploymentRepositoryInjectedValue = new InjectedValue<DeploymentRepository>();
@@ -84,6 +93,7 @@ public class EJBRemoteConnectorService implements Service<EJBRemoteConnectorServ
     private final InjectedValue<TransactionSynchronizationRegistry> txSyncRegistry = new InjectedValue<TransactionSynchronizationRegistry>();
     private final InjectedValue<RemotingConnectorBindingInfoService.RemotingConnectorInfo> remotingConnectorInfoInjectedValue = new InjectedValue<>();
     private volatile Registration registration;
+    private volatile Pool<ByteBuffer> requestBufferPool;
     private final byte serverProtocolVersion;
     private final String[] supportedMarshallingStrategies;
     private final OptionMap channelCreationOptions;
@@ -104,6 +114,7 @@ public class EJBRemoteConnectorService implements Service<EJBRemoteConnectorServ
         // get the remoting server (which allows remoting connector to connect to it) service
         final ServiceContainer serviceContainer = context.getController().getServiceContainer();
 
+        this.requestBufferPool = new ByteBufferSlicePool(BufferAllocator.BYTE_BUFFER_ALLOCATOR, REQUEST_BUFFER_SIZE, REQUEST_BUFFERS_PER_SLICE * REQUEST_BUFFER_SIZE);
         // Register a EJB channel open listener
         final OpenListener channelOpenListener = new ChannelOpenListener(serviceContainer);
         try {
@@ -276,6 +287,13 @@ public class EJBRemoteConnectorService implements Service<EJBRemoteConnectorServ
                         // trigger the receiving
                         versionTwoProtocolHandler.startReceiving();
                         break;
+                    case 0x03:
+                        final VersionThreeProtocolChannelReceiver versionThreeProtocolHandler = new VersionThreeProtocolChannelReceiver(this.channelAssociation, deploymentRepository,
+                                EJBRemoteConnectorService.this.ejbRemoteTransactionsRepositoryInjectedValue.getValue(), clientMappingRegistryCollector,
+                                marshallerFactory, executorService.getValue(), asyncInvocationCancelStatus, EJBRemoteConnectorService.this.requestBufferPool);
+                        // trigger the receiving
+                        versionThreeProtocolHandler.startReceiving();
+                        break;
 
                     default:
                         throw EjbMessages.MESSAGES.ejbRemoteServiceCannotHandleClientVersion(version);
@@ -190,6 +190,19 @@ public class VersionOneProtocolChannelReceiver implements Channel.Receiver, Depl
     protected void processMessage(final Channel channel, final InputStream inputStream) throws IOException {
         // read the first byte to see what type of a message it is
         final int header = inputStream.read();
+        this.processMessage(this.channelAssociation, header, inputStream);
+    }
+
+    /**
+     * Processes a message whose header has already been read from the passed <code>inputStream</code>
+     *
+     * @param channelAssociation The channel association which the message handler writes its responses to
+     * @param header             The message header
+     * @param inputStream        The rest of the message
+     * @throws IOException
+     */
+    protected void processMessage(final ChannelAssociation channelAssociation, final int header, final InputStream inputStream) throws IOException {
+        final Channel channel = channelAssociation.getChannel();
         if (EjbLogger.ROOT_LOGGER.isTraceEnabled()) {
             EjbLogger.ROOT_LOGGER.trace("Got message with header 0x" + Integer.toHexString(header) + " on channel " + channel);
         }
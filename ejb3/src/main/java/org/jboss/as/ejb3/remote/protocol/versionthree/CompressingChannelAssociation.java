@@ -0,0 +1,120 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.jboss.as.ejb3.remote.protocol.versionthree;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.jboss.as.ejb3.EjbMessages;
+import org.jboss.as.ejb3.remote.protocol.versionone.ChannelAssociation;
+import org.jboss.remoting3.MessageOutputStream;
+
+/**
+ * A {@link ChannelAssociation} which writes the messages to the outbound compression stream of the channel. The
+ * message handlers of stream compressed requests write their responses to it, so a client which compresses its
+ * requests to a view gets the responses of the view compressed too.
+ * <p/>
+ * The messages are buffered until they are released, and then deflated and written out in one go.
+ */
+class CompressingChannelAssociation extends ChannelAssociation {
+
+    private static final byte HEADER_STREAM_COMPRESSED_MESSAGE = 0x1C;
+
+    private final ChannelAssociation channelAssociation;
+    private final StreamCompressionContext compressionContext;
+
+    CompressingChannelAssociation(final ChannelAssociation channelAssociation, final StreamCompressionContext compressionContext) {
+        super(channelAssociation.getChannel());
+        this.channelAssociation = channelAssociation;
+        this.compressionContext = compressionContext;
+    }
+
+    @Override
+    public MessageOutputStream acquireChannelMessageOutputStream() throws Exception {
+        return new BufferingMessageOutputStream();
+    }
+
+    @Override
+    public void releaseChannelMessageOutputStream(final MessageOutputStream messageOutputStream) throws IOException {
+        messageOutputStream.close();
+    }
+
+    private class BufferingMessageOutputStream extends MessageOutputStream {
+
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private boolean closed;
+
+        @Override
+        public void write(final int b) throws IOException {
+            this.checkOpen();
+            this.buffer.write(b);
+        }
+
+        @Override
+        public void write(final byte[] bytes, final int offset, final int length) throws IOException {
+            this.checkOpen();
+            this.buffer.write(bytes, offset, length);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            // the message is only written out once it is complete
+        }
+
+        @Override
+        public MessageOutputStream cancel() {
+            this.closed = true;
+            return this;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (this.closed) {
+                return;
+            }
+            this.closed = true;
+            // the segments have to be written in the order they are deflated
+            synchronized (compressionContext) {
+                final MessageOutputStream messageOutputStream;
+                try {
+                    messageOutputStream = channelAssociation.acquireChannelMessageOutputStream();
+                } catch (Exception e) {
+                    throw EjbMessages.MESSAGES.failedToOpenMessageOutputStream(e);
+                }
+                try {
+                    messageOutputStream.write(HEADER_STREAM_COMPRESSED_MESSAGE);
+                    compressionContext.deflate(this.buffer.toByteArray(), this.buffer.size(), messageOutputStream);
+                } finally {
+                    channelAssociation.releaseChannelMessageOutputStream(messageOutputStream);
+                }
+            }
+        }
+
+        private void checkOpen() throws IOException {
+            if (this.closed) {
+                throw EjbMessages.MESSAGES.messageStreamClosed();
+            }
+        }
+    }
+}
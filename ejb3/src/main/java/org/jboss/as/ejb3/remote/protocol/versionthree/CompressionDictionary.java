@@ -0,0 +1,92 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.jboss.as.ejb3.remote.protocol.versionthree;
+
+import java.nio.charset.Charset;
+
+/**
+ * The preset dictionary of the stream compressed messages of the version three of the EJB remoting protocol. Client
+ * and server prime their compression streams of a channel with it, so even the first messages on a channel compress
+ * well.
+ * <p/>
+ * It holds the class descriptors and the method parameter types which show up in most invocations. Zlib encodes
+ * references to the end of the dictionary in the fewest bits, so the most common entries come last. The dictionary is
+ * part of the protocol and must not change.
+ */
+final class CompressionDictionary {
+
+    private static final String[] ENTRIES = {
+            "java.math.BigDecimal",
+            "java.math.BigInteger",
+            "java.util.Date",
+            "java.util.LinkedHashMap",
+            "java.util.HashSet",
+            "java.util.ArrayList",
+            "java.lang.Boolean",
+            "java.lang.Long",
+            "java.lang.Integer",
+            "java.lang.Number",
+            "[Ljava.lang.Object;",
+            "[Ljava.lang.String;",
+            "boolean",
+            "long",
+            "int",
+            "byte[]",
+            "java.lang.Object",
+            "org.jboss.ejb.client.EntityEJBLocator",
+            "org.jboss.ejb.client.EJBHomeLocator",
+            "org.jboss.ejb.client.ClusterAffinity",
+            "org.jboss.ejb.client.NodeAffinity",
+            "org.jboss.ejb.client.Affinity$NoneAffinity",
+            "org.jboss.ejb.client.Affinity",
+            "org.jboss.ejb.client.UnknownSessionID",
+            "org.jboss.ejb.client.BasicSessionID",
+            "org.jboss.ejb.client.SessionID",
+            "org.jboss.ejb.client.StatefulEJBLocator",
+            "org.jboss.ejb.client.StatelessEJBLocator",
+            "org.jboss.ejb.client.EJBLocator",
+            "java.util.HashMap",
+            "java.lang.String",
+    };
+
+    private static final byte[] DICTIONARY;
+
+    static {
+        final StringBuilder dictionary = new StringBuilder();
+        for (final String entry : ENTRIES) {
+            dictionary.append(entry);
+        }
+        DICTIONARY = dictionary.toString().getBytes(Charset.forName("UTF-8"));
+    }
+
+    private CompressionDictionary() {
+    }
+
+    /**
+     * @return The dictionary. The returned array must not be modified.
+     */
+    static byte[] getBytes() {
+        return DICTIONARY;
+    }
+}
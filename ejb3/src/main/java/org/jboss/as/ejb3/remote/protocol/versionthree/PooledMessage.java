@@ -0,0 +1,149 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.remote.protocol.versionthree;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.xnio.Pool;
+import org.xnio.Pooled;
+
+/**
+ * The contents of a message, read off the channel into buffers of a {@link Pool}, so that the message can be
+ * processed on another thread while the channel receives the next one.
+ * <p/>
+ * The buffers must be heap buffers, the message is read straight into their backing arrays.
+ */
+final class PooledMessage {
+
+    private final List<Pooled<ByteBuffer>> buffers;
+
+    private PooledMessage(final List<Pooled<ByteBuffer>> buffers) {
+        this.buffers = buffers;
+    }
+
+    /**
+     * Reads the rest of the passed <code>inputStream</code>
+     *
+     * @param pool        The pool to take the buffers from
+     * @param inputStream The stream to read
+     * @return The message
+     * @throws IOException If the stream could not be read, in which case no buffers are held
+     */
+    static PooledMessage read(final Pool<ByteBuffer> pool, final InputStream inputStream) throws IOException {
+        final List<Pooled<ByteBuffer>> buffers = new ArrayList<Pooled<ByteBuffer>>(2);
+        try {
+            Pooled<ByteBuffer> pooled = null;
+            for (;;) {
+                if (pooled == null || !pooled.getResource().hasRemaining()) {
+                    pooled = pool.allocate();
+                    buffers.add(pooled);
+                }
+                final ByteBuffer buffer = pooled.getResource();
+                final int read = inputStream.read(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+                if (read == -1) {
+                    break;
+                }
+                buffer.position(buffer.position() + read);
+            }
+            for (final Pooled<ByteBuffer> buffer : buffers) {
+                buffer.getResource().flip();
+            }
+            return new PooledMessage(buffers);
+        } catch (IOException e) {
+            free(buffers);
+            throw e;
+        } catch (RuntimeException e) {
+            free(buffers);
+            throw e;
+        }
+    }
+
+    /**
+     * Returns a stream over the contents of this message. The stream can be read once, and not after {@link #free()}
+     */
+    InputStream getInputStream() {
+        return new BufferInputStream();
+    }
+
+    /**
+     * Returns the buffers of this message to their pool
+     */
+    void free() {
+        free(this.buffers);
+    }
+
+    private static void free(final List<Pooled<ByteBuffer>> buffers) {
+        for (final Pooled<ByteBuffer> buffer : buffers) {
+            buffer.free();
+        }
+    }
+
+    private class BufferInputStream extends InputStream {
+
+        private int current;
+
+        @Override
+        public int read() throws IOException {
+            final ByteBuffer buffer = this.nextBuffer();
+            return buffer == null ? -1 : buffer.get() & 0xff;
+        }
+
+        @Override
+        public int read(final byte[] bytes, final int offset, final int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            final ByteBuffer buffer = this.nextBuffer();
+            if (buffer == null) {
+                return -1;
+            }
+            final int read = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, read);
+            return read;
+        }
+
+        @Override
+        public int available() throws IOException {
+            int available = 0;
+            for (int i = this.current; i < buffers.size(); i++) {
+                available += buffers.get(i).getResource().remaining();
+            }
+            return available;
+        }
+
+        private ByteBuffer nextBuffer() {
+            while (this.current < buffers.size()) {
+                final ByteBuffer buffer = buffers.get(this.current).getResource();
+                if (buffer.hasRemaining()) {
+                    return buffer;
+                }
+                this.current++;
+            }
+            return null;
+        }
+    }
+}
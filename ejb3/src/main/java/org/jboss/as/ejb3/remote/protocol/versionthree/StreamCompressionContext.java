@@ -0,0 +1,143 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.jboss.as.ejb3.remote.protocol.versionthree;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.jboss.as.ejb3.EjbMessages;
+import org.xnio.Pool;
+
+/**
+ * The compression streams of a channel. Each stream compressed message carries the next segment of one of the two
+ * zlib streams, which both start with the {@link CompressionDictionary}, so a message can refer back to the contents
+ * of the previous ones.
+ * <p/>
+ * The segments of the inbound stream have to be inflated in the order they were received, and the segments of the
+ * outbound stream have to be written in the order they were deflated.
+ */
+final class StreamCompressionContext {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Inflater inflater = new Inflater();
+    private final Deflater deflater = new Deflater();
+    private final byte[] inflaterInput = new byte[BUFFER_SIZE];
+    private final byte[] deflaterOutput = new byte[BUFFER_SIZE];
+    private boolean closed;
+
+    StreamCompressionContext() {
+        this.deflater.setDictionary(CompressionDictionary.getBytes());
+    }
+
+    /**
+     * Inflates the next segment of the inbound stream into buffers of the passed <code>pool</code>. Must only be
+     * called by the thread which receives the messages of the channel.
+     *
+     * @param pool    The pool to take the buffers from
+     * @param segment The segment, up to the end of the message
+     * @return The inflated message
+     * @throws IOException If the segment could not be read or is corrupt, in which case the inbound stream can't be
+     *                     continued
+     */
+    PooledMessage inflate(final Pool<ByteBuffer> pool, final InputStream segment) throws IOException {
+        return PooledMessage.read(pool, new InputStream() {
+            @Override
+            public int read() throws IOException {
+                final byte[] b = new byte[1];
+                return this.read(b, 0, 1) == -1 ? -1 : b[0] & 0xff;
+            }
+
+            @Override
+            public int read(final byte[] bytes, final int offset, final int length) throws IOException {
+                return StreamCompressionContext.this.inflate(segment, bytes, offset, length);
+            }
+        });
+    }
+
+    private int inflate(final InputStream segment, final byte[] bytes, final int offset, final int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        try {
+            for (;;) {
+                final int inflated = this.inflater.inflate(bytes, offset, length);
+                if (inflated > 0) {
+                    return inflated;
+                }
+                if (this.inflater.needsDictionary()) {
+                    this.inflater.setDictionary(CompressionDictionary.getBytes());
+                } else if (this.inflater.needsInput()) {
+                    final int read = segment.read(this.inflaterInput);
+                    if (read == -1) {
+                        // the segment ends with a flush, so everything it holds has been inflated
+                        return -1;
+                    }
+                    this.inflater.setInput(this.inflaterInput, 0, read);
+                } else {
+                    // the client ended its stream, which it never does
+                    throw EjbMessages.MESSAGES.corruptCompressedMessageStream(null);
+                }
+            }
+        } catch (DataFormatException e) {
+            throw EjbMessages.MESSAGES.corruptCompressedMessageStream(e);
+        }
+    }
+
+    /**
+     * Deflates the passed bytes into the next segment of the outbound stream, and flushes it so that the segment can be
+     * inflated on its own. The caller must hold the lock of this context until the segment is written.
+     *
+     * @param bytes  The bytes to deflate
+     * @param length The number of bytes to deflate
+     * @param output The stream of the message to write the segment to
+     * @throws IOException If the segment could not be written
+     */
+    void deflate(final byte[] bytes, final int length, final OutputStream output) throws IOException {
+        assert Thread.holdsLock(this);
+        if (this.closed) {
+            throw EjbMessages.MESSAGES.messageStreamClosed();
+        }
+        this.deflater.setInput(bytes, 0, length);
+        int deflated;
+        do {
+            deflated = this.deflater.deflate(this.deflaterOutput, 0, this.deflaterOutput.length, Deflater.SYNC_FLUSH);
+            output.write(this.deflaterOutput, 0, deflated);
+        } while (deflated == this.deflaterOutput.length);
+    }
+
+    /**
+     * Releases the native resources of the compression streams, once the channel is closed
+     */
+    synchronized void close() {
+        this.closed = true;
+        this.inflater.end();
+        this.deflater.end();
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.remote.protocol.versionthree;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.jboss.as.ejb3.EjbLogger;
+import org.jboss.as.ejb3.deployment.DeploymentRepository;
+import org.jboss.as.ejb3.remote.EJBRemoteTransactionsRepository;
+import org.jboss.as.ejb3.remote.RegistryCollector;
+import org.jboss.as.ejb3.remote.RemoteAsyncInvocationCancelStatusService;
+import org.jboss.as.ejb3.remote.protocol.versionone.ChannelAssociation;
+import org.jboss.as.ejb3.remote.protocol.versiontwo.VersionTwoProtocolChannelReceiver;
+import org.jboss.as.network.ClientMapping;
+import org.jboss.marshalling.MarshallerFactory;
+import org.jboss.remoting3.Channel;
+import org.jboss.remoting3.CloseHandler;
+import org.jboss.remoting3.MessageInputStream;
+import org.xnio.IoUtils;
+import org.xnio.Pool;
+
+/**
+ * Handles the version three of the EJB remoting protocol, which adds pipelining and stream compression to the
+ * version two.
+ * <p/>
+ * The version one and two receivers unmarshal a method invocation or session open request on the channel thread,
+ * before they receive the next message. This receiver only reads such a request into pooled buffers, enrolls for the
+ * next message and leaves the unmarshalling to the executor, so a client can pipeline its requests. The responses are
+ * written as the requests complete, the client matches them to its requests by their invocation id. The other
+ * messages are still processed on the channel thread, in the order they were received.
+ * <p/>
+ * A stream compressed message holds the next segment of the compression stream from the client, which carries a
+ * complete message. Unlike the compressed messages of the version two, the compression stream lasts as long as the
+ * channel and starts with a preset dictionary, so small and repetitive messages compress well. The responses to stream
+ * compressed messages are written to the compression stream to the client.
+ */
+public class VersionThreeProtocolChannelReceiver extends VersionTwoProtocolChannelReceiver {
+
+    private static final byte HEADER_SESSION_OPEN_REQUEST = 0x01;
+    private static final byte HEADER_INVOCATION_REQUEST = 0x03;
+    private static final byte HEADER_STREAM_COMPRESSED_MESSAGE = 0x1C;
+
+    private final Pool<ByteBuffer> bufferPool;
+    // created once the client sends the first stream compressed message
+    private volatile StreamCompressionContext compressionContext;
+    private volatile ChannelAssociation compressingChannelAssociation;
+
+    public VersionThreeProtocolChannelReceiver(final ChannelAssociation channelAssociation, final DeploymentRepository deploymentRepository,
+                                               final EJBRemoteTransactionsRepository transactionsRepository, final RegistryCollector<String, List<ClientMapping>> clientMappingRegistryCollector,
+                                               final MarshallerFactory marshallerFactory, final ExecutorService executorService, final RemoteAsyncInvocationCancelStatusService asyncInvocationCancelStatusService,
+                                               final Pool<ByteBuffer> bufferPool) {
+        super(channelAssociation, deploymentRepository, transactionsRepository, clientMappingRegistryCollector, marshallerFactory, executorService, asyncInvocationCancelStatusService);
+        this.bufferPool = bufferPool;
+    }
+
+    @Override
+    public void startReceiving() {
+        this.channelAssociation.getChannel().addCloseHandler(new CloseHandler<Channel>() {
+            @Override
+            public void handleClose(final Channel closed, final IOException exception) {
+                final StreamCompressionContext compressionContext = VersionThreeProtocolChannelReceiver.this.compressionContext;
+                if (compressionContext != null) {
+                    compressionContext.close();
+                }
+            }
+        });
+        super.startReceiving();
+    }
+
+    @Override
+    public void handleMessage(final Channel channel, final MessageInputStream messageInputStream) {
+        PooledMessage message = null;
+        try {
+            // read the first byte to see what type of a message it is
+            int header = messageInputStream.read();
+            ChannelAssociation channelAssociation = this.channelAssociation;
+            InputStream inputStream = messageInputStream;
+            if (header == HEADER_STREAM_COMPRESSED_MESSAGE) {
+                // the segments continue each other, so they are inflated right here, in the order they were received
+                message = this.getCompressionContext().inflate(this.bufferPool, messageInputStream);
+                inputStream = message.getInputStream();
+                header = inputStream.read();
+                channelAssociation = this.compressingChannelAssociation;
+            }
+            if (header != HEADER_INVOCATION_REQUEST && header != HEADER_SESSION_OPEN_REQUEST) {
+                this.processMessage(channelAssociation, header, inputStream);
+                // enroll for next message (whenever it's available)
+                channel.receiveMessage(this);
+                return;
+            }
+            if (message == null) {
+                message = PooledMessage.read(this.bufferPool, messageInputStream);
+                inputStream = message.getInputStream();
+            }
+            // the request is in the buffers, so the next message can be received while it is being processed
+            channel.receiveMessage(this);
+            this.pipeline(channelAssociation, header, inputStream, message);
+            message = null;
+        } catch (Throwable e) {
+            // log it
+            EjbLogger.ROOT_LOGGER.exceptionOnChannel(e, channel, messageInputStream);
+            // no more messages can be sent or received on this channel
+            IoUtils.safeClose(channel);
+        } finally {
+            if (message != null) {
+                message.free();
+            }
+            IoUtils.safeClose(messageInputStream);
+        }
+    }
+
+    private void pipeline(final ChannelAssociation channelAssociation, final int header, final InputStream inputStream, final PooledMessage message) {
+        final Runnable task = new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    VersionThreeProtocolChannelReceiver.this.processMessage(channelAssociation, header, inputStream);
+                } catch (Throwable e) {
+                    EjbLogger.ROOT_LOGGER.exceptionOnPipelinedMessage(e, Integer.toHexString(header), channelAssociation.getChannel());
+                    // no more messages can be sent or received on this channel
+                    IoUtils.safeClose(channelAssociation.getChannel());
+                } finally {
+                    message.free();
+                }
+            }
+        };
+        try {
+            this.executorService.execute(task);
+        } catch (RejectedExecutionException e) {
+            // the executor is saturated, so this request is processed on the channel thread, like in version two
+            task.run();
+        }
+    }
+
+    private StreamCompressionContext getCompressionContext() {
+        // only the channel thread creates it
+        StreamCompressionContext compressionContext = this.compressionContext;
+        if (compressionContext == null) {
+            compressionContext = new StreamCompressionContext();
+            this.compressingChannelAssociation = new CompressingChannelAssociation(this.channelAssociation, compressionContext);
+            this.compressionContext = compressionContext;
+        }
+        return compressionContext;
+    }
+}
@@ -2,6 +2,7 @@ package org.jboss.as.ejb3.remote.protocol.versiontwo;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.zip.Inflater;
 import java.util.zip.InflaterInputStream;
 
 import org.jboss.as.ejb3.EjbLogger;
@@ -15,6 +16,9 @@ import org.jboss.as.ejb3.remote.protocol.versionone.ChannelAssociation;
  */
 class CompressedMessageRequestHandler extends AbstractMessageHandler {
 
+    // every compressed message is a zlib stream of its own, but the inflaters can be reused
+    private static final InflaterPool inflaterPool = new InflaterPool(Runtime.getRuntime().availableProcessors() * 4);
+
     private VersionTwoProtocolChannelReceiver ejbProtocolHandler;
 
     CompressedMessageRequestHandler(final VersionTwoProtocolChannelReceiver ejbProtocolHandler) {
@@ -25,8 +29,13 @@ class CompressedMessageRequestHandler extends AbstractMessageHandler {
     public void processMessage(final ChannelAssociation channelAssociation, final InputStream inputStream) throws IOException {
         EjbLogger.EJB3_INVOCATION_LOGGER.trace("Received a compressed message stream");
         // use a inflater inputstream to inflate the contents
-        final InputStream inflaterInputStream = new InflaterInputStream(inputStream);
-        // let the EJB protocol handler process the stream
-        this.ejbProtocolHandler.processMessage(channelAssociation.getChannel(), inflaterInputStream);
+        final Inflater inflater = inflaterPool.take();
+        try {
+            final InputStream inflaterInputStream = new InflaterInputStream(inputStream, inflater);
+            // let the EJB protocol handler process the stream
+            this.ejbProtocolHandler.processMessage(channelAssociation.getChannel(), inflaterInputStream);
+        } finally {
+            inflaterPool.release(inflater);
+        }
     }
 }
@@ -0,0 +1,55 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.remote.protocol.versiontwo;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.Inflater;
+
+/**
+ * A bounded pool of {@link Inflater}s, which saves the allocation of the native zlib stream and of its window for
+ * every compressed message.
+ */
+final class InflaterPool {
+
+    private final BlockingQueue<Inflater> inflaters;
+
+    InflaterPool(final int size) {
+        this.inflaters = new ArrayBlockingQueue<Inflater>(size);
+    }
+
+    Inflater take() {
+        final Inflater inflater = this.inflaters.poll();
+        return inflater == null ? new Inflater() : inflater;
+    }
+
+    /**
+     * Returns the passed <code>inflater</code> to the pool, or releases its native resources if the pool is full
+     */
+    void release(final Inflater inflater) {
+        inflater.reset();
+        if (!this.inflaters.offer(inflater)) {
+            inflater.end();
+        }
+    }
+}
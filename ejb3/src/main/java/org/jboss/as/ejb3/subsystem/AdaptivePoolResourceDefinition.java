@@ -0,0 +1,103 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.subsystem;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.ServiceRemoveStepHandler;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
+import org.jboss.as.controller.operations.validation.LongRangeValidator;
+import org.jboss.as.controller.operations.validation.TimeUnitValidator;
+import org.jboss.as.controller.registry.AttributeAccess;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.controller.registry.OperationEntry;
+import org.jboss.as.ejb3.component.pool.AdaptivePoolConfig;
+import org.jboss.as.ejb3.component.pool.PoolConfigService;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+
+/**
+ * {@link org.jboss.as.controller.ResourceDefinition} for the adaptive-bean-instance-pool resource. Besides the
+ * attributes of a {@link StrictMaxPoolResourceDefinition strict-max-bean-instance-pool} it has a minimum size and an
+ * idle timeout.
+ */
+public class AdaptivePoolResourceDefinition extends SimpleResourceDefinition {
+
+    public static final AdaptivePoolResourceDefinition INSTANCE = new AdaptivePoolResourceDefinition();
+
+    public static final SimpleAttributeDefinition MIN_POOL_SIZE =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.MIN_POOL_SIZE, ModelType.INT, true)
+                    .setDefaultValue(new ModelNode().set(AdaptivePoolConfig.DEFAULT_MIN_POOL_SIZE))
+                    .setAllowExpression(true)
+                    .setValidator(new IntRangeValidator(0, Integer.MAX_VALUE, true, true))
+                    .setFlags(AttributeAccess.Flag.RESTART_NONE)
+                    .build();
+    public static final SimpleAttributeDefinition IDLE_TIMEOUT =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.IDLE_TIMEOUT, ModelType.LONG, true)
+                    .setXmlName(EJB3SubsystemXMLAttribute.IDLE_TIMEOUT.getLocalName())
+                    .setDefaultValue(new ModelNode().set(AdaptivePoolConfig.DEFAULT_IDLE_TIMEOUT))
+                    .setAllowExpression(true)
+                    .setValidator(new LongRangeValidator(1, Integer.MAX_VALUE, true, true))
+                    .setFlags(AttributeAccess.Flag.RESTART_NONE)
+                    .build();
+    public static final SimpleAttributeDefinition IDLE_TIMEOUT_UNIT =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.IDLE_TIMEOUT_UNIT, ModelType.STRING, true)
+                    .setXmlName(EJB3SubsystemXMLAttribute.IDLE_TIMEOUT_UNIT.getLocalName())
+                    .setValidator(new TimeUnitValidator(true, true))
+                    .setDefaultValue(new ModelNode().set(AdaptivePoolConfig.DEFAULT_IDLE_TIMEOUT_UNIT.name()))
+                    .setFlags(AttributeAccess.Flag.RESTART_NONE)
+                    .setAllowExpression(true)
+                    .build();
+
+    public static final Map<String, AttributeDefinition> ATTRIBUTES ;
+
+    static {
+        Map<String, AttributeDefinition> map = new LinkedHashMap<String, AttributeDefinition>();
+        map.put(MIN_POOL_SIZE.getName(), MIN_POOL_SIZE);
+        map.putAll(StrictMaxPoolResourceDefinition.ATTRIBUTES);
+        map.put(IDLE_TIMEOUT.getName(), IDLE_TIMEOUT);
+        map.put(IDLE_TIMEOUT_UNIT.getName(), IDLE_TIMEOUT_UNIT);
+
+        ATTRIBUTES = Collections.unmodifiableMap(map);
+    }
+
+    private AdaptivePoolResourceDefinition() {
+        super(EJB3SubsystemModel.ADAPTIVE_BEAN_INSTANCE_POOL_PATH,
+                EJB3Extension.getResourceDescriptionResolver(EJB3SubsystemModel.ADAPTIVE_BEAN_INSTANCE_POOL),
+                AdaptivePoolAdd.INSTANCE, new ServiceRemoveStepHandler(PoolConfigService.EJB_POOL_CONFIG_BASE_SERVICE_NAME, AdaptivePoolAdd.INSTANCE),
+                OperationEntry.Flag.RESTART_NONE, OperationEntry.Flag.RESTART_RESOURCE_SERVICES);
+    }
+
+    @Override
+    public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+        for (AttributeDefinition attr : ATTRIBUTES.values()) {
+            resourceRegistration.registerReadWriteAttribute(attr, null, AdaptivePoolWriteHandler.INSTANCE);
+        }
+    }
+}
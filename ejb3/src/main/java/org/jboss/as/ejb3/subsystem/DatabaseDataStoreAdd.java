@@ -24,17 +24,23 @@ package org.jboss.as.ejb3.subsystem;
 
 import java.util.List;
 
+import javax.transaction.TransactionSynchronizationRegistry;
+
 import org.jboss.as.controller.AbstractAddStepHandler;
 import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.ServiceVerificationHandler;
+import org.jboss.as.ejb3.EjbMessages;
 import org.jboss.as.ejb3.timerservice.persistence.TimerPersistence;
 import org.jboss.as.ejb3.timerservice.persistence.database.DatabaseTimerPersistence;
 import org.jboss.as.naming.ManagedReferenceFactory;
 import org.jboss.as.naming.deployment.ContextNames;
+import org.jboss.as.server.ServerEnvironment;
+import org.jboss.as.server.ServerEnvironmentService;
 import org.jboss.as.server.Services;
+import org.jboss.as.txn.service.TransactionSynchronizationRegistryService;
 import org.jboss.dmr.ModelNode;
 import org.jboss.modules.ModuleLoader;
 import org.jboss.msc.service.ServiceBuilder;
@@ -80,11 +86,17 @@ public class DatabaseDataStoreAdd extends AbstractAddStepHandler {
             database = null;
         }
         final String partition = DatabaseDataStoreResourceDefinition.PARTITION.resolveModelAttribute(context, model).asString();
-
+        final boolean clustered = DatabaseDataStoreResourceDefinition.CLUSTERED.resolveModelAttribute(context, model).asBoolean();
+        final long pollInterval = DatabaseDataStoreResourceDefinition.POLL_INTERVAL.resolveModelAttribute(context, model).asLong();
+        final long leaseTime = DatabaseDataStoreResourceDefinition.LEASE_TIME.resolveModelAttribute(context, model).asLong();
 
         final String name = PathAddress.pathAddress(operation.get(OP_ADDR)).getLastElement().getValue();
+        if (pollInterval >= leaseTime) {
+            // the leases would expire before they are renewed
+            throw new OperationFailedException(new ModelNode().set(EjbMessages.MESSAGES.pollIntervalNotLowerThanLeaseTime(pollInterval, name, leaseTime).getMessage()));
+        }
 
-        final DatabaseTimerPersistence databaseTimerPersistence = new DatabaseTimerPersistence(name, database, partition);
+        final DatabaseTimerPersistence databaseTimerPersistence = new DatabaseTimerPersistence(name, database, partition, clustered, pollInterval, leaseTime);
         final ServiceName serviceName = TimerPersistence.SERVICE_NAME.append(name);
         final ServiceBuilder<DatabaseTimerPersistence> builder = context.getServiceTarget().addService(serviceName, databaseTimerPersistence);
 
@@ -95,6 +107,8 @@ public class DatabaseDataStoreAdd extends AbstractAddStepHandler {
         return builder
                 .addDependency(Services.JBOSS_SERVICE_MODULE_LOADER, ModuleLoader.class, databaseTimerPersistence.getModuleLoader())
                 .addDependency(ContextNames.bindInfoFor(jndiName).getBinderServiceName(), ManagedReferenceFactory.class, databaseTimerPersistence.getDataSourceInjectedValue())
+                .addDependency(TransactionSynchronizationRegistryService.SERVICE_NAME, TransactionSynchronizationRegistry.class, databaseTimerPersistence.getTransactionSynchronizationRegistry())
+                .addDependency(ServerEnvironmentService.SERVICE_NAME, ServerEnvironment.class, databaseTimerPersistence.getServerEnvironment())
                 .install();
     }
 
@@ -32,6 +32,7 @@ import org.jboss.as.controller.ServiceRemoveStepHandler;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.operations.validation.LongRangeValidator;
 import org.jboss.as.controller.operations.validation.ModelTypeValidator;
 import org.jboss.as.controller.operations.validation.StringLengthValidator;
 import org.jboss.as.controller.registry.AttributeAccess;
@@ -70,6 +71,29 @@ public class DatabaseDataStoreResourceDefinition extends SimpleResourceDefinitio
                     .setValidator(new StringLengthValidator(0))
                     .build();
 
+    public static final SimpleAttributeDefinition CLUSTERED =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.CLUSTERED, ModelType.BOOLEAN, true)
+                    .setAllowExpression(true)
+                    .setFlags(AttributeAccess.Flag.RESTART_RESOURCE_SERVICES)
+                    .setDefaultValue(new ModelNode(false))
+                    .build();
+
+    public static final SimpleAttributeDefinition POLL_INTERVAL =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.POLL_INTERVAL, ModelType.LONG, true)
+                    .setAllowExpression(true)
+                    .setFlags(AttributeAccess.Flag.RESTART_RESOURCE_SERVICES)
+                    .setDefaultValue(new ModelNode(1000L))
+                    .setValidator(new LongRangeValidator(1, Integer.MAX_VALUE, true, true))
+                    .build();
+
+    public static final SimpleAttributeDefinition LEASE_TIME =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.LEASE_TIME, ModelType.LONG, true)
+                    .setAllowExpression(true)
+                    .setFlags(AttributeAccess.Flag.RESTART_RESOURCE_SERVICES)
+                    .setDefaultValue(new ModelNode(60000L))
+                    .setValidator(new LongRangeValidator(1, Integer.MAX_VALUE, true, true))
+                    .build();
+
     public static final Map<String, AttributeDefinition> ATTRIBUTES ;
 
     static {
@@ -77,6 +101,9 @@ public class DatabaseDataStoreResourceDefinition extends SimpleResourceDefinitio
         map.put(DATASOURCE_JNDI_NAME.getName(), DATASOURCE_JNDI_NAME);
         map.put(DATABASE.getName(), DATABASE);
         map.put(PARTITION.getName(), PARTITION);
+        map.put(CLUSTERED.getName(), CLUSTERED);
+        map.put(POLL_INTERVAL.getName(), POLL_INTERVAL);
+        map.put(LEASE_TIME.getName(), LEASE_TIME);
 
         ATTRIBUTES = Collections.unmodifiableMap(map);
     }
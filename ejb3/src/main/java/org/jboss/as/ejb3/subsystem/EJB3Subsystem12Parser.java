@@ -409,14 +409,14 @@ public class EJB3Subsystem12Parser implements XMLElementReader<List<ModelNode>>
         }
     }
 
-    private void parseBeanInstancePools(final XMLExtendedStreamReader reader, List<ModelNode> operations) throws XMLStreamException {
+    protected void parseBeanInstancePools(final XMLExtendedStreamReader reader, List<ModelNode> operations) throws XMLStreamException {
         // no attributes expected
         requireNoAttributes(reader);
 
         while (reader.hasNext() && reader.nextTag() != XMLStreamConstants.END_ELEMENT) {
             switch (EJB3SubsystemXMLElement.forName(reader.getLocalName())) {
                 case STRICT_MAX_POOL: {
-                    this.parseStrictMaxPool(reader, operations);
+                    this.parseBeanInstancePool(reader, operations, STRICT_MAX_BEAN_INSTANCE_POOL);
                     break;
                 }
                 default: {
@@ -426,7 +426,7 @@ public class EJB3Subsystem12Parser implements XMLElementReader<List<ModelNode>>
         }
     }
 
-    private void parseStrictMaxPool(final XMLExtendedStreamReader reader, List<ModelNode> operations) throws XMLStreamException {
+    protected void parseBeanInstancePool(final XMLExtendedStreamReader reader, List<ModelNode> operations, final String poolType) throws XMLStreamException {
         final int count = reader.getAttributeCount();
         String poolName = null;
         final ModelNode operation = Util.createAddOperation();
@@ -457,8 +457,8 @@ public class EJB3Subsystem12Parser implements XMLElementReader<List<ModelNode>>
             throw missingRequired(reader, Collections.singleton(EJB3SubsystemXMLAttribute.NAME.getLocalName()));
         }
         // create and add the operation
-        // create /subsystem=ejb3/strict-max-bean-instance-pool=name:add(...)
-        final PathAddress address = this.getEJB3SubsystemAddress().append(STRICT_MAX_BEAN_INSTANCE_POOL, poolName);
+        // create /subsystem=ejb3/<pool-type>=name:add(...)
+        final PathAddress address = this.getEJB3SubsystemAddress().append(poolType, poolName);
         operation.get(OP_ADDR).set(address.toModelNode());
         operations.add(operation);
     }
@@ -576,6 +576,13 @@ public class EJB3Subsystem12Parser implements XMLElementReader<List<ModelNode>>
                     FilePassivationStoreResourceDefinition.SUBDIRECTORY_COUNT.parseAndSetParameter(value, operation, reader);
                     break;
                 }
+                case DELTA_PASSIVATION: {
+                    if (getExpectedNamespace().compareTo(EJB3SubsystemNamespace.EJB3_2_0) < 0) {
+                        throw unexpectedAttribute(reader, i);
+                    }
+                    FilePassivationStoreResourceDefinition.DELTA_PASSIVATION.parseAndSetParameter(value, operation, reader);
+                    break;
+                }
                 default: {
                     throw unexpectedAttribute(reader, i);
                 }
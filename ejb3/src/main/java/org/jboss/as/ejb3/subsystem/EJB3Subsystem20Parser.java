@@ -36,6 +36,7 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBSYSTEM;
 import static org.jboss.as.controller.parsing.ParseUtils.missingRequired;
+import static org.jboss.as.controller.parsing.ParseUtils.requireNoAttributes;
 import static org.jboss.as.controller.parsing.ParseUtils.requireNoContent;
 import static org.jboss.as.controller.parsing.ParseUtils.requireNoNamespaceAttribute;
 import static org.jboss.as.controller.parsing.ParseUtils.unexpectedAttribute;
@@ -69,6 +70,78 @@ public class EJB3Subsystem20Parser extends EJB3Subsystem14Parser {
         }
     }
 
+    private void parseAdaptivePool(final XMLExtendedStreamReader reader, final List<ModelNode> operations) throws XMLStreamException {
+        String poolName = null;
+        final ModelNode operation = new ModelNode();
+        operation.get(OP).set(ADD);
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            requireNoNamespaceAttribute(reader, i);
+            final String value = reader.getAttributeValue(i);
+            final EJB3SubsystemXMLAttribute attribute = EJB3SubsystemXMLAttribute.forName(reader.getAttributeLocalName(i));
+            switch (attribute) {
+                case NAME:
+                    poolName = value;
+                    break;
+                case MIN_POOL_SIZE:
+                    AdaptivePoolResourceDefinition.MIN_POOL_SIZE.parseAndSetParameter(value, operation, reader);
+                    break;
+                case MAX_POOL_SIZE:
+                    StrictMaxPoolResourceDefinition.MAX_POOL_SIZE.parseAndSetParameter(value, operation, reader);
+                    break;
+                case INSTANCE_ACQUISITION_TIMEOUT:
+                    StrictMaxPoolResourceDefinition.INSTANCE_ACQUISITION_TIMEOUT.parseAndSetParameter(value, operation, reader);
+                    break;
+                case INSTANCE_ACQUISITION_TIMEOUT_UNIT:
+                    StrictMaxPoolResourceDefinition.INSTANCE_ACQUISITION_TIMEOUT_UNIT.parseAndSetParameter(value, operation, reader);
+                    break;
+                case IDLE_TIMEOUT:
+                    AdaptivePoolResourceDefinition.IDLE_TIMEOUT.parseAndSetParameter(value, operation, reader);
+                    break;
+                case IDLE_TIMEOUT_UNIT:
+                    AdaptivePoolResourceDefinition.IDLE_TIMEOUT_UNIT.parseAndSetParameter(value, operation, reader);
+                    break;
+                default:
+                    throw unexpectedAttribute(reader, i);
+            }
+        }
+        requireNoContent(reader);
+        if (poolName == null) {
+            throw missingRequired(reader, EnumSet.of(EJB3SubsystemXMLAttribute.NAME));
+        }
+        // create /subsystem=ejb3/adaptive-bean-instance-pool=name:add(...)
+        final ModelNode address = new ModelNode();
+        address.add(SUBSYSTEM, EJB3Extension.SUBSYSTEM_NAME);
+        address.add(ADAPTIVE_BEAN_INSTANCE_POOL, poolName);
+        operation.get(OP_ADDR).set(address);
+        operations.add(operation);
+    }
+
+    @Override
+    protected void parseBeanInstancePools(final XMLExtendedStreamReader reader, final List<ModelNode> operations) throws XMLStreamException {
+        // no attributes expected
+        requireNoAttributes(reader);
+
+        while (reader.hasNext() && reader.nextTag() != XMLStreamConstants.END_ELEMENT) {
+            switch (EJB3SubsystemXMLElement.forName(reader.getLocalName())) {
+                case STRICT_MAX_POOL: {
+                    this.parseBeanInstancePool(reader, operations, STRICT_MAX_BEAN_INSTANCE_POOL);
+                    break;
+                }
+                case STRIPED_POOL: {
+                    this.parseBeanInstancePool(reader, operations, STRIPED_BEAN_INSTANCE_POOL);
+                    break;
+                }
+                case ADAPTIVE_POOL: {
+                    this.parseAdaptivePool(reader, operations);
+                    break;
+                }
+                default: {
+                    throw unexpectedElement(reader);
+                }
+            }
+        }
+    }
+
     private void parseDisableDefaultEjbPermissions(XMLExtendedStreamReader reader, ModelNode ejb3SubsystemAddOperation) throws XMLStreamException {
         final int count = reader.getAttributeCount();
         final EnumSet<EJB3SubsystemXMLAttribute> missingRequiredAttributes = EnumSet.of(EJB3SubsystemXMLAttribute.VALUE);
@@ -199,6 +272,7 @@ public class EJB3Subsystem20Parser extends EJB3Subsystem14Parser {
     private void parseFileDataStore(final XMLExtendedStreamReader reader, final List<ModelNode> operations) throws XMLStreamException {
         String dataStorePath = null;
         String dataStorePathRelativeTo = null;
+        ModelNode journal = null;
         String name = null;
         final EnumSet<EJB3SubsystemXMLAttribute> required = EnumSet.of(EJB3SubsystemXMLAttribute.NAME, EJB3SubsystemXMLAttribute.PATH);
         final int count = reader.getAttributeCount();
@@ -226,6 +300,12 @@ public class EJB3Subsystem20Parser extends EJB3Subsystem14Parser {
                     }
                     dataStorePathRelativeTo = FileDataStoreResourceDefinition.RELATIVE_TO.parse(value, reader).asString();
                     break;
+                case JOURNAL:
+                    if (journal != null) {
+                        throw unexpectedAttribute(reader, i);
+                    }
+                    journal = FileDataStoreResourceDefinition.JOURNAL.parse(value, reader);
+                    break;
                 default:
                     throw unexpectedAttribute(reader, i);
             }
@@ -244,6 +324,9 @@ public class EJB3Subsystem20Parser extends EJB3Subsystem14Parser {
         if (dataStorePathRelativeTo != null) {
             fileDataStoreAdd.get(RELATIVE_TO).set(dataStorePathRelativeTo);
         }
+        if (journal != null) {
+            fileDataStoreAdd.get(JOURNAL).set(journal);
+        }
         operations.add(fileDataStoreAdd);
         requireNoContent(reader);
     }
@@ -276,6 +359,15 @@ public class EJB3Subsystem20Parser extends EJB3Subsystem14Parser {
                 case PARTITION:
                     DatabaseDataStoreResourceDefinition.PARTITION.parseAndSetParameter(value, databaseDataStore, reader);
                     break;
+                case CLUSTERED:
+                    DatabaseDataStoreResourceDefinition.CLUSTERED.parseAndSetParameter(value, databaseDataStore, reader);
+                    break;
+                case POLL_INTERVAL:
+                    DatabaseDataStoreResourceDefinition.POLL_INTERVAL.parseAndSetParameter(value, databaseDataStore, reader);
+                    break;
+                case LEASE_TIME:
+                    DatabaseDataStoreResourceDefinition.LEASE_TIME.parseAndSetParameter(value, databaseDataStore, reader);
+                    break;
                 default:
                     throw unexpectedAttribute(reader, i);
             }
@@ -60,13 +60,18 @@ public interface EJB3SubsystemModel {
     String FILE_DATA_STORE = "file-data-store";
 
     String MAX_POOL_SIZE = "max-pool-size";
+    String MIN_POOL_SIZE = "min-pool-size";
+    String ADAPTIVE_BEAN_INSTANCE_POOL = "adaptive-bean-instance-pool";
     String STRICT_MAX_BEAN_INSTANCE_POOL = "strict-max-bean-instance-pool";
+    String STRIPED_BEAN_INSTANCE_POOL = "striped-bean-instance-pool";
 
     String MAX_THREADS = "max-threads";
     String KEEPALIVE_TIME = "keepalive-time";
 
     String RELATIVE_TO = "relative-to";
     String PATH = "path";
+    String JOURNAL = "journal";
+    String DELTA_PASSIVATION = "delta-passivation";
 
     String DEFAULT_SINGLETON_BEAN_ACCESS_TIMEOUT = "default-singleton-bean-access-timeout";
     String DEFAULT_STATEFUL_BEAN_ACCESS_TIMEOUT = "default-stateful-bean-access-timeout";
@@ -107,6 +112,9 @@ public interface EJB3SubsystemModel {
     String DATABASE = "database";
     String DATABASE_DATA_STORE = "database-data-store";
     String PARTITION  = "partition";
+    String CLUSTERED = "clustered";
+    String POLL_INTERVAL = "poll-interval";
+    String LEASE_TIME = "lease-time";
 
     PathElement REMOTE_SERVICE_PATH = PathElement.pathElement(SERVICE, REMOTE);
     PathElement ASYNC_SERVICE_PATH = PathElement.pathElement(SERVICE, ASYNC);
@@ -116,6 +124,8 @@ public interface EJB3SubsystemModel {
     PathElement IIOP_PATH = PathElement.pathElement(SERVICE, IIOP);
     PathElement FILE_DATA_STORE_PATH = PathElement.pathElement(FILE_DATA_STORE);
     PathElement DATABASE_DATA_STORE_PATH = PathElement.pathElement(DATABASE_DATA_STORE);
+    PathElement STRIPED_BEAN_INSTANCE_POOL_PATH = PathElement.pathElement(STRIPED_BEAN_INSTANCE_POOL);
+    PathElement ADAPTIVE_BEAN_INSTANCE_POOL_PATH = PathElement.pathElement(ADAPTIVE_BEAN_INSTANCE_POOL);
 
     ServiceName BASE_THREAD_POOL_SERVICE_NAME = ThreadsServices.EXECUTOR.append("ejb3");
 }
@@ -229,6 +229,12 @@ public class EJB3SubsystemRootResourceDefinition extends SimpleResourceDefinitio
         // subsystem=ejb3/strict-max-bean-instance-pool=*
         subsystemRegistration.registerSubModel(StrictMaxPoolResourceDefinition.INSTANCE);
 
+        // subsystem=ejb3/striped-bean-instance-pool=*
+        subsystemRegistration.registerSubModel(StripedPoolResourceDefinition.INSTANCE);
+
+        // subsystem=ejb3/adaptive-bean-instance-pool=*
+        subsystemRegistration.registerSubModel(AdaptivePoolResourceDefinition.INSTANCE);
+
         subsystemRegistration.registerSubModel(CacheFactoryResourceDefinition.INSTANCE);
         subsystemRegistration.registerSubModel(FilePassivationStoreResourceDefinition.INSTANCE);
         subsystemRegistration.registerSubModel(ClusterPassivationStoreResourceDefinition.INSTANCE);
@@ -282,6 +288,8 @@ public class EJB3SubsystemRootResourceDefinition extends SimpleResourceDefinitio
         EJB3RemoteResourceDefinition.registerTransformers_1_1_0(builder);
         UnboundedQueueThreadPoolResourceDefinition.registerTransformers1_0(builder, EJB3SubsystemModel.THREAD_POOL);
         StrictMaxPoolResourceDefinition.registerTransformers_1_1_0(builder);
+        builder.rejectChildResource(EJB3SubsystemModel.STRIPED_BEAN_INSTANCE_POOL_PATH);
+        builder.rejectChildResource(EJB3SubsystemModel.ADAPTIVE_BEAN_INSTANCE_POOL_PATH);
         FilePassivationStoreResourceDefinition.registerTransformers_1_1_0(builder);
         ClusterPassivationStoreResourceDefinition.registerTransformers_1_1_0(builder);
         TimerServiceResourceDefinition.registerTransformers_1_1_0(builder);
@@ -300,6 +308,10 @@ public class EJB3SubsystemRootResourceDefinition extends SimpleResourceDefinitio
         // a legacy slave can't have that subsystem in its profile.
         builder.getAttributeBuilder().setDiscard(DiscardAttributeChecker.ALWAYS, EJB3SubsystemRootResourceDefinition.DISABLE_DEFAULT_EJB_PERMISSIONS);
 
+        builder.rejectChildResource(EJB3SubsystemModel.STRIPED_BEAN_INSTANCE_POOL_PATH);
+        builder.rejectChildResource(EJB3SubsystemModel.ADAPTIVE_BEAN_INSTANCE_POOL_PATH);
+
+        FilePassivationStoreResourceDefinition.registerTransformers_1_2_0(builder);
         TimerServiceResourceDefinition.registerTransformers_1_2_0(builder);
         TransformationDescription.Tools.register(builder.build(), subsystemRegistration, subsystem120);
     }
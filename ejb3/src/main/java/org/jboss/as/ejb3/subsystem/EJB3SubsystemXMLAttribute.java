@@ -37,6 +37,7 @@ public enum EJB3SubsystemXMLAttribute {
     CACHE_CONTAINER("cache-container"),
     CACHE_REF("cache-ref"),
     CLIENT_MAPPINGS_CACHE("client-mappings-cache"),
+    CLUSTERED("clustered"),
     CLUSTERED_CACHE_REF("clustered-cache-ref"),
     CONNECTOR_REF("connector-ref"),
     CORE_THREADS("core-threads"),
@@ -45,6 +46,7 @@ public enum EJB3SubsystemXMLAttribute {
     DEFAULT_DATA_STORE("default-data-store"),
     DATABASE("database"),
     DATASOURCE_JNDI_NAME("datasource-jndi-name"),
+    DELTA_PASSIVATION("delta-passivation"),
 
     ENABLED("enabled"),
     ENABLE_BY_DEFAULT("enable-by-default"),
@@ -56,11 +58,16 @@ public enum EJB3SubsystemXMLAttribute {
     INSTANCE_ACQUISITION_TIMEOUT("instance-acquisition-timeout"),
     INSTANCE_ACQUISITION_TIMEOUT_UNIT("instance-acquisition-timeout-unit"),
 
+    JOURNAL("journal"),
+
     KEEPALIVE_TIME("keepalive-time"),
 
+    LEASE_TIME("lease-time"),
+
     MAX_POOL_SIZE("max-pool-size"),
     MAX_SIZE("max-size"),
     MAX_THREADS("max-threads"),
+    MIN_POOL_SIZE("min-pool-size"),
 
     NAME("name"),
 
@@ -70,6 +77,7 @@ public enum EJB3SubsystemXMLAttribute {
     PASSIVATION_DISABLED_CACHE_REF("passivation-disabled-cache-ref"),
     PASSIVATION_STORE_REF("passivation-store-ref"),
     PATH("path"),
+    POLL_INTERVAL("poll-interval"),
     POOL_NAME("pool-name"),
 
     RELATIVE_TO("relative-to"),
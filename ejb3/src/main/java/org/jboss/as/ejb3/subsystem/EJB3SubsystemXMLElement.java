@@ -34,6 +34,7 @@ public enum EJB3SubsystemXMLElement {
     // must be first
     UNKNOWN(null),
 
+    ADAPTIVE_POOL("adaptive-pool"),
     ASYNC("async"),
 
     BEAN_INSTANCE_POOLS("bean-instance-pools"),
@@ -80,6 +81,7 @@ public enum EJB3SubsystemXMLElement {
     STATELESS("stateless"),
     STATISTICS("statistics"),
     STRICT_MAX_POOL("strict-max-pool"),
+    STRIPED_POOL("striped-pool"),
 
     THREAD_POOL("thread-pool"),
     THREAD_POOLS("thread-pools"),
@@ -22,6 +22,7 @@
 
 package org.jboss.as.ejb3.subsystem;
 
+import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.persistence.SubsystemMarshallingContext;
 import org.jboss.as.remoting.Attribute;
 import org.jboss.as.threads.ThreadsParser;
@@ -125,7 +126,8 @@ public class EJB3SubsystemXMLPersister implements XMLElementWriter<SubsystemMars
             writer.writeEndElement();
         }
         // write the pools element
-        if (model.hasDefined(EJB3SubsystemModel.STRICT_MAX_BEAN_INSTANCE_POOL)) {
+        if (model.hasDefined(EJB3SubsystemModel.STRICT_MAX_BEAN_INSTANCE_POOL) || model.hasDefined(EJB3SubsystemModel.STRIPED_BEAN_INSTANCE_POOL)
+                || model.hasDefined(EJB3SubsystemModel.ADAPTIVE_BEAN_INSTANCE_POOL)) {
             // <pools>
             writer.writeStartElement(EJB3SubsystemXMLElement.POOLS.getLocalName());
             // <bean-instance-pools>
@@ -378,6 +380,30 @@ public class EJB3SubsystemXMLPersister implements XMLElementWriter<SubsystemMars
                 writer.writeEndElement();
             }
         }
+        if (beanInstancePoolModelNode.hasDefined(EJB3SubsystemModel.STRIPED_BEAN_INSTANCE_POOL)) {
+            final List<Property> stripedPools = beanInstancePoolModelNode.get(EJB3SubsystemModel.STRIPED_BEAN_INSTANCE_POOL).asPropertyList();
+            for (Property property : stripedPools) {
+                // <striped-pool>
+                writer.writeStartElement(EJB3SubsystemXMLElement.STRIPED_POOL.getLocalName());
+                // a striped-pool has the same attributes as a strict-max-pool
+                this.writeStrictMaxPoolConfig(writer, property);
+                // </striped-pool>
+                writer.writeEndElement();
+            }
+        }
+        if (beanInstancePoolModelNode.hasDefined(EJB3SubsystemModel.ADAPTIVE_BEAN_INSTANCE_POOL)) {
+            final List<Property> adaptivePools = beanInstancePoolModelNode.get(EJB3SubsystemModel.ADAPTIVE_BEAN_INSTANCE_POOL).asPropertyList();
+            for (Property property : adaptivePools) {
+                // <adaptive-pool>
+                writer.writeStartElement(EJB3SubsystemXMLElement.ADAPTIVE_POOL.getLocalName());
+                writer.writeAttribute(EJB3SubsystemXMLAttribute.NAME.getLocalName(), property.getName());
+                for (AttributeDefinition attribute : AdaptivePoolResourceDefinition.ATTRIBUTES.values()) {
+                    attribute.marshallAsAttribute(property.getValue(), writer);
+                }
+                // </adaptive-pool>
+                writer.writeEndElement();
+            }
+        }
     }
 
     private void writeStrictMaxPoolConfig(final XMLExtendedStreamWriter writer, final Property strictMaxPoolModel) throws XMLStreamException {
@@ -439,6 +465,7 @@ public class EJB3SubsystemXMLPersister implements XMLElementWriter<SubsystemMars
                 FilePassivationStoreResourceDefinition.GROUPS_PATH.marshallAsAttribute(store, writer);
                 FilePassivationStoreResourceDefinition.SESSIONS_PATH.marshallAsAttribute(store, writer);
                 FilePassivationStoreResourceDefinition.SUBDIRECTORY_COUNT.marshallAsAttribute(store, writer);
+                FilePassivationStoreResourceDefinition.DELTA_PASSIVATION.marshallAsAttribute(store, writer);
                 writer.writeEndElement();
             }
         }
@@ -466,6 +493,9 @@ public class EJB3SubsystemXMLPersister implements XMLElementWriter<SubsystemMars
                 DatabaseDataStoreResourceDefinition.DATASOURCE_JNDI_NAME.marshallAsAttribute(store, writer);
                 DatabaseDataStoreResourceDefinition.DATABASE.marshallAsAttribute(store, writer);
                 DatabaseDataStoreResourceDefinition.PARTITION.marshallAsAttribute(store, writer);
+                DatabaseDataStoreResourceDefinition.CLUSTERED.marshallAsAttribute(store, writer);
+                DatabaseDataStoreResourceDefinition.POLL_INTERVAL.marshallAsAttribute(store, writer);
+                DatabaseDataStoreResourceDefinition.LEASE_TIME.marshallAsAttribute(store, writer);
                 writer.writeEndElement();
             }
         }
@@ -480,6 +510,7 @@ public class EJB3SubsystemXMLPersister implements XMLElementWriter<SubsystemMars
                 writer.writeAttribute(EJB3SubsystemXMLAttribute.NAME.getLocalName(), property.getName());
                 FileDataStoreResourceDefinition.PATH.marshallAsAttribute(store, writer);
                 FileDataStoreResourceDefinition.RELATIVE_TO.marshallAsAttribute(store, writer);
+                FileDataStoreResourceDefinition.JOURNAL.marshallAsAttribute(store, writer);
                 writer.writeEndElement();
             }
         }
@@ -56,6 +56,7 @@ public class FilePassivationStoreAdd extends PassivationStoreAdd {
         ModelNode groupsPath = FilePassivationStoreResourceDefinition.GROUPS_PATH.resolveModelAttribute(context, operation);
         ModelNode sessionsPath = FilePassivationStoreResourceDefinition.SESSIONS_PATH.resolveModelAttribute(context, operation);
         ModelNode subdirectoryCount = FilePassivationStoreResourceDefinition.SUBDIRECTORY_COUNT.resolveModelAttribute(context, operation);
+        ModelNode deltaPassivation = FilePassivationStoreResourceDefinition.DELTA_PASSIVATION.resolveModelAttribute(context, operation);
         if (relativeToModel.isDefined()) {
             source.setRelativeTo(relativeToModel.asString());
         }
@@ -68,6 +69,9 @@ public class FilePassivationStoreAdd extends PassivationStoreAdd {
         if (subdirectoryCount.isDefined()) {
             source.setSubdirectoryCount(subdirectoryCount.asInt());
         }
+        if (deltaPassivation.isDefined()) {
+            source.setDeltaPassivation(deltaPassivation.asBoolean());
+        }
         return Collections.<ServiceController<?>>singleton(this.installBackingCacheEntryStoreSourceService(service, context, model, verificationHandler));
     }
 }
@@ -56,6 +56,9 @@ public class FilePassivationStoreWriteHandler extends PassivationStoreWriteHandl
         } else if (FilePassivationStoreResourceDefinition.SUBDIRECTORY_COUNT.getName().equals(attributeName)) {
             int count = FilePassivationStoreResourceDefinition.SUBDIRECTORY_COUNT.resolveModelAttribute(context, model).asInt();
             config.setSubdirectoryCount(count);
+        } else if (FilePassivationStoreResourceDefinition.DELTA_PASSIVATION.getName().equals(attributeName)) {
+            boolean deltaPassivation = FilePassivationStoreResourceDefinition.DELTA_PASSIVATION.resolveModelAttribute(context, model).asBoolean();
+            config.setDeltaPassivation(deltaPassivation);
         }
     }
 }
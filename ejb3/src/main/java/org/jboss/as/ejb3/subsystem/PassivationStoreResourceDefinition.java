@@ -33,6 +33,7 @@ import org.jboss.as.controller.operations.validation.TimeUnitValidator;
 import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.OperationEntry;
+import org.jboss.as.controller.transform.description.AttributeTransformationDescriptionBuilder;
 import org.jboss.as.controller.transform.description.RejectAttributeChecker;
 import org.jboss.as.controller.transform.description.ResourceTransformationDescriptionBuilder;
 import org.jboss.as.ejb3.cache.spi.BackingCacheEntryStoreConfig;
@@ -85,8 +86,8 @@ public abstract class PassivationStoreResourceDefinition extends SimpleResourceD
         }
     }
 
-    static void registerTransformers_1_1_0(PathElement path, ResourceTransformationDescriptionBuilder parent) {
-        parent.addChildResource(path)
+    static AttributeTransformationDescriptionBuilder registerTransformers_1_1_0(PathElement path, ResourceTransformationDescriptionBuilder parent) {
+        return parent.addChildResource(path)
             .getAttributeBuilder()
             .addRejectCheck(RejectAttributeChecker.SIMPLE_EXPRESSIONS, IDLE_TIMEOUT_UNIT);
     }
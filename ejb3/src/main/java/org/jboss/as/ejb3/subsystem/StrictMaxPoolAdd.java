@@ -81,9 +81,9 @@ public class StrictMaxPoolAdd extends AbstractAddStepHandler {
         final long timeout = StrictMaxPoolResourceDefinition.INSTANCE_ACQUISITION_TIMEOUT.resolveModelAttribute(context, strictMaxPoolModel).asLong();
         final String unit = StrictMaxPoolResourceDefinition.INSTANCE_ACQUISITION_TIMEOUT_UNIT.resolveModelAttribute(context, strictMaxPoolModel).asString();
         // create the pool config
-        final PoolConfig strictMaxPoolConfig = new StrictMaxPoolConfig(poolName, maxPoolSize, timeout, TimeUnit.valueOf(unit));
+        final PoolConfig poolConfig = createPoolConfig(poolName, maxPoolSize, timeout, TimeUnit.valueOf(unit));
         // create and install the service
-        final PoolConfigService poolConfigService = new PoolConfigService(strictMaxPoolConfig);
+        final PoolConfigService poolConfigService = new PoolConfigService(poolConfig);
         final ServiceName serviceName = PoolConfigService.EJB_POOL_CONFIG_BASE_SERVICE_NAME.append(poolName);
         ServiceBuilder<PoolConfig> svcBuilder = context.getServiceTarget().addService(serviceName, poolConfigService);
         if (verificationHandler != null) {
@@ -92,4 +92,17 @@ public class StrictMaxPoolAdd extends AbstractAddStepHandler {
         return svcBuilder.install();
     }
 
+    /**
+     * Creates the configuration of the pool managed by this resource.
+     *
+     * @param poolName    the name of the pool
+     * @param maxPoolSize the maximum number of bean instances
+     * @param timeout     the instance acquisition timeout
+     * @param unit        the instance acquisition timeout unit
+     * @return the pool config
+     */
+    protected PoolConfig createPoolConfig(String poolName, int maxPoolSize, long timeout, TimeUnit unit) {
+        return new StrictMaxPoolConfig(poolName, maxPoolSize, timeout, unit);
+    }
+
 }
@@ -37,7 +37,7 @@ import org.jboss.msc.service.ServiceName;
 import org.jboss.msc.service.ServiceRegistry;
 
 /**
- * Handles the "write-attribute" operation for a strict-max-bean-instance-pool resource.
+ * Handles the "write-attribute" operation for a strict-max-bean-instance-pool or striped-bean-instance-pool resource.
  *
  * @author Brian Stansberry (c) 2011 Red Hat Inc.
  */
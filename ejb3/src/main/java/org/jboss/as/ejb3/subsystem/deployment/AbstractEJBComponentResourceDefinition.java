@@ -34,6 +34,7 @@ import org.jboss.as.controller.PrimitiveListAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.operations.validation.StringLengthValidator;
 import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
@@ -80,7 +81,16 @@ public abstract class AbstractEJBComponentResourceDefinition extends SimpleResou
             .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
             .build();
 
-    private static final AttributeDefinition METHODS = ObjectTypeAttributeDefinition.Builder.of("methods", EXECUTION_TIME, INVOCATIONS, WAIT_TIME)
+    private static final AttributeDefinition EXECUTION_TIME_P50 = createPercentile("execution-time-p50");
+    private static final AttributeDefinition EXECUTION_TIME_P99 = createPercentile("execution-time-p99");
+    private static final AttributeDefinition EXECUTION_TIME_P999 = createPercentile("execution-time-p999");
+    private static final AttributeDefinition WAIT_TIME_P50 = createPercentile("wait-time-p50");
+    private static final AttributeDefinition WAIT_TIME_P99 = createPercentile("wait-time-p99");
+    private static final AttributeDefinition WAIT_TIME_P999 = createPercentile("wait-time-p999");
+
+    private static final AttributeDefinition METHODS = ObjectTypeAttributeDefinition.Builder.of("methods", EXECUTION_TIME,
+            EXECUTION_TIME_P50, EXECUTION_TIME_P99, EXECUTION_TIME_P999, INVOCATIONS, WAIT_TIME, WAIT_TIME_P50, WAIT_TIME_P99,
+            WAIT_TIME_P999)
             .setAllowNull(false)
             .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
             .build();
@@ -200,6 +210,12 @@ public abstract class AbstractEJBComponentResourceDefinition extends SimpleResou
                 context.getResult().set(component.getInvocationMetrics().getWaitTime());
             }
         });
+        registerPercentile(resourceRegistration, EXECUTION_TIME_P50, 50, true);
+        registerPercentile(resourceRegistration, EXECUTION_TIME_P99, 99, true);
+        registerPercentile(resourceRegistration, EXECUTION_TIME_P999, 99.9, true);
+        registerPercentile(resourceRegistration, WAIT_TIME_P50, 50, false);
+        registerPercentile(resourceRegistration, WAIT_TIME_P99, 99, false);
+        registerPercentile(resourceRegistration, WAIT_TIME_P999, 99.9, false);
         resourceRegistration.registerMetric(METHODS, new AbstractRuntimeMetricsHandler() {
             @Override
             protected void executeReadMetricStep(final OperationContext context, final ModelNode operation, final EJBComponent component) throws OperationFailedException {
@@ -208,14 +224,39 @@ public abstract class AbstractEJBComponentResourceDefinition extends SimpleResou
                     final InvocationMetrics.Values values = entry.getValue();
                     final ModelNode result = new ModelNode();
                     result.get("execution-time").set(values.getExecutionTime());
+                    result.get(EXECUTION_TIME_P50.getName()).set(values.getExecutionTimePercentile(50));
+                    result.get(EXECUTION_TIME_P99.getName()).set(values.getExecutionTimePercentile(99));
+                    result.get(EXECUTION_TIME_P999.getName()).set(values.getExecutionTimePercentile(99.9));
                     result.get("invocations").set(values.getInvocations());
                     result.get("wait-time").set(values.getWaitTime());
+                    result.get(WAIT_TIME_P50.getName()).set(values.getWaitTimePercentile(50));
+                    result.get(WAIT_TIME_P99.getName()).set(values.getWaitTimePercentile(99));
+                    result.get(WAIT_TIME_P999.getName()).set(values.getWaitTimePercentile(99.9));
                     context.getResult().get(entry.getKey()).set(result);
                 }
             }
         });
     }
 
+    private static AttributeDefinition createPercentile(final String name) {
+        return new SimpleAttributeDefinitionBuilder(name, ModelType.DOUBLE)
+                .setAllowNull(false)
+                .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+                .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+                .build();
+    }
+
+    private static void registerPercentile(final ManagementResourceRegistration resourceRegistration, final AttributeDefinition attribute,
+                                           final double percentile, final boolean executionTime) {
+        resourceRegistration.registerMetric(attribute, new AbstractRuntimeMetricsHandler() {
+            @Override
+            protected void executeReadMetricStep(final OperationContext context, final ModelNode operation, final EJBComponent component) throws OperationFailedException {
+                final InvocationMetrics metrics = component.getInvocationMetrics();
+                context.getResult().set(executionTime ? metrics.getExecutionTimePercentile(percentile) : metrics.getWaitTimePercentile(percentile));
+            }
+        });
+    }
+
     /* (non-Javadoc)
      * @see org.jboss.as.controller.SimpleResourceDefinition#registerChildren(org.jboss.as.controller.registry.ManagementResourceRegistration)
      */
@@ -35,6 +35,8 @@ import java.util.ListIterator;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
 
 import javax.ejb.EJBException;
@@ -63,6 +65,8 @@ import org.jboss.as.ejb3.subsystem.deployment.TimerServiceResource;
 import org.jboss.as.ejb3.timerservice.persistence.TimerPersistence;
 import org.jboss.as.ejb3.timerservice.spi.ScheduleTimer;
 import org.jboss.as.ejb3.timerservice.spi.TimedObjectInvoker;
+import org.jboss.as.ejb3.timerservice.spi.TimeoutScheduler;
+import org.jboss.as.ejb3.timerservice.spi.TimeoutScheduler.ScheduledTimeout;
 import org.jboss.as.ejb3.timerservice.task.TimerTask;
 import org.jboss.invocation.InterceptorContext;
 import org.jboss.logging.Logger;
@@ -105,7 +109,7 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
 
     private final InjectedValue<ExecutorService> executorServiceInjectedValue = new InjectedValue<ExecutorService>();
 
-    private final InjectedValue<java.util.Timer> timerInjectedValue = new InjectedValue<java.util.Timer>();
+    private final InjectedValue<TimeoutScheduler> timeoutSchedulerInjectedValue = new InjectedValue<TimeoutScheduler>();
 
     private final InjectedValue<TimedObjectInvoker> timedObjectInvoker = new InjectedValue<TimedObjectInvoker>();
 
@@ -125,9 +129,9 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
     private final Map<String, TimerImpl> timers = Collections.synchronizedMap(new HashMap<String, TimerImpl>());
 
     /**
-     * Holds the {@link java.util.concurrent.Future} of each of the timer tasks that have been scheduled
+     * Holds the scheduled task of each of the timers that have been scheduled
      */
-    private final Map<String, java.util.TimerTask> scheduledTimerFutures = new HashMap<String, java.util.TimerTask>();
+    private final ConcurrentMap<String, Task<?>> scheduledTimerFutures = new ConcurrentHashMap<String, Task<?>>();
 
     /**
      * Key that is used to store timers that are waiting on transaction completion in the transaction local
@@ -840,64 +844,60 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
      * Creates and schedules a {@link org.jboss.as.ejb3.timerservice.task.TimerTask} for the next timeout of the passed <code>timer</code>
      */
     protected void scheduleTimeout(TimerImpl timer, boolean newTimer) {
-        synchronized (scheduledTimerFutures) {
-            if (!newTimer && !scheduledTimerFutures.containsKey(timer.getId())) {
-                //this timer has been cancelled by another thread. We just return
-                return;
-            }
-
-            Date nextExpiration = timer.getNextExpiration();
-            if (nextExpiration == null) {
-                ROOT_LOGGER.nextExpirationIsNull(timer);
-                return;
-            }
-            // create the timer task
-            final TimerTask<?> timerTask = timer.getTimerTask();
-            // find out how long is it away from now
-            long delay = nextExpiration.getTime() - System.currentTimeMillis();
-            // if in past, then trigger immediately
-            if (delay < 0) {
-                delay = 0;
-            }
-            long intervalDuration = timer.getInterval();
-            final Task task = new Task(timerTask);
-            if (intervalDuration > 0) {
-                ROOT_LOGGER.debug("Scheduling timer " + timer + " at fixed rate, starting at " + delay
-                        + " milliseconds from now with repeated interval=" + intervalDuration);
-                // schedule the task
-                this.timerInjectedValue.getValue().scheduleAtFixedRate(task, delay, intervalDuration);
-                // maintain it in timerservice for future use (like cancellation)
-                this.scheduledTimerFutures.put(timer.getId(), task);
-            } else {
-                ROOT_LOGGER.debug("Scheduling a single action timer " + timer + " starting at " + delay + " milliseconds from now");
-                // schedule the task
-                this.timerInjectedValue.getValue().schedule(task, delay);
-                // maintain it in timerservice for future use (like cancellation)
-                this.scheduledTimerFutures.put(timer.getId(), task);
+        if (!newTimer && !scheduledTimerFutures.containsKey(timer.getId())) {
+            //this timer has been cancelled by another thread. We just return
+            return;
+        }
 
-            }
+        Date nextExpiration = timer.getNextExpiration();
+        if (nextExpiration == null) {
+            ROOT_LOGGER.nextExpirationIsNull(timer);
+            return;
+        }
+        // create the timer task
+        final TimerTask<?> timerTask = timer.getTimerTask();
+        // find out how long is it away from now
+        long delay = nextExpiration.getTime() - System.currentTimeMillis();
+        // if in past, then trigger immediately
+        if (delay < 0) {
+            delay = 0;
+        }
+        long intervalDuration = timer.getInterval();
+        final Task<?> task = new Task(timerTask);
+        // maintain it in timerservice for future use (like cancellation)
+        if (newTimer) {
+            this.scheduledTimerFutures.put(timer.getId(), task);
+        } else if (this.scheduledTimerFutures.replace(timer.getId(), task) == null) {
+            // cancelled in the meantime
+            return;
+        }
+        if (intervalDuration > 0) {
+            ROOT_LOGGER.debug("Scheduling timer " + timer + " at fixed rate, starting at " + delay
+                    + " milliseconds from now with repeated interval=" + intervalDuration);
+            // schedule the task
+            task.setScheduledTimeout(this.timeoutSchedulerInjectedValue.getValue().scheduleAtFixedRate(task, delay, intervalDuration));
+        } else {
+            ROOT_LOGGER.debug("Scheduling a single action timer " + timer + " starting at " + delay + " milliseconds from now");
+            // schedule the task
+            task.setScheduledTimeout(this.timeoutSchedulerInjectedValue.getValue().schedule(task, delay));
         }
     }
 
     /**
-     * Cancels any scheduled {@link java.util.concurrent.Future} corresponding to the passed <code>timer</code>
+     * Cancels any scheduled task corresponding to the passed <code>timer</code>
      *
      * @param timer
      */
     protected void cancelTimeout(final TimerImpl timer) {
-        synchronized (this.scheduledTimerFutures) {
-            java.util.TimerTask timerTask = this.scheduledTimerFutures.remove(timer.getId());
-            if (timerTask != null) {
-                timerTask.cancel();
-            }
+        final Task<?> task = this.scheduledTimerFutures.remove(timer.getId());
+        if (task != null) {
+            task.cancel();
         }
     }
 
     public void invokeTimeout(final TimerImpl timer) {
-        synchronized (this.scheduledTimerFutures) {
-            if (this.scheduledTimerFutures.containsKey(timer.getId())) {
-                timer.getTimerTask().run();
-            }
+        if (this.scheduledTimerFutures.containsKey(timer.getId())) {
+            timer.getTimerTask().run();
         }
     }
 
@@ -905,6 +905,55 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
         return this.scheduledTimerFutures.containsKey(tid);
     }
 
+    /**
+     * Returns true if this node should deliver the next timeout of the passed <code>timer</code>.
+     * <p>
+     * A persistent timer which is owned by another node sharing the timer persistence is dropped from this
+     * timer service. The timer persistence hands it back through {@link #timerLeased(TimerImpl)} should this
+     * node take the timer over later on.
+     * </p>
+     *
+     * @param timer the timer about to time out
+     * @return false if another node delivers the timeout
+     */
+    public boolean shouldRun(final TimerImpl timer) {
+        if (!timer.isTimerPersistent() || timerPersistence.getOptionalValue() == null
+                || timerPersistence.getValue().shouldRun(timer)) {
+            return true;
+        }
+        this.cancelTimeout(timer);
+        this.unregisterTimerResource(timer.getId());
+        this.timers.remove(timer.getId());
+        return false;
+    }
+
+    /**
+     * Called by a timer persistence shared by several nodes once this node holds the lease of a persistent
+     * timer which is about to time out. The timer is scheduled, unless this timer service has already
+     * scheduled the same timeout.
+     *
+     * @param timer the timer as loaded from the timer persistence
+     */
+    public void timerLeased(final TimerImpl timer) {
+        if (!started || ineligibleTimerStates.contains(timer.getState())) {
+            return;
+        }
+        final TimerImpl existing = this.timers.get(timer.getId());
+        if (existing != null) {
+            if (existing.getState() == TimerState.IN_TIMEOUT || existing.isInRetry()) {
+                return;
+            }
+            final Date next = existing.getNextExpiration();
+            if (next != null && timer.getNextExpiration() != null && next.getTime() == timer.getNextExpiration().getTime()
+                    && isScheduled(timer.getId())) {
+                return;
+            }
+            // the copy held by this node is stale, the timer has been run by another node in the meantime
+            this.cancelTimeout(existing);
+        }
+        startTimer(timer);
+    }
+
     /**
      * Returns an unmodifiable view of timers in the current transaction that are waiting for the transaction
      * to finish
@@ -1065,8 +1114,8 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
         return executorServiceInjectedValue;
     }
 
-    public InjectedValue<java.util.Timer> getTimerInjectedValue() {
-        return timerInjectedValue;
+    public InjectedValue<TimeoutScheduler> getTimeoutSchedulerInjectedValue() {
+        return timeoutSchedulerInjectedValue;
     }
 
     public InjectedValue<TimerPersistence> getTimerPersistence() {
@@ -1171,14 +1220,26 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
         }
     }
 
-    private class Task<T extends TimerImpl> extends java.util.TimerTask {
+    private class Task<T extends TimerImpl> implements Runnable {
 
         private final TimerTask<T> delegate;
 
+        private volatile ScheduledTimeout scheduledTimeout;
+
+        private volatile boolean cancelled;
+
         public Task(final TimerTask<T> delegate) {
             this.delegate = delegate;
         }
 
+        void setScheduledTimeout(final ScheduledTimeout scheduledTimeout) {
+            this.scheduledTimeout = scheduledTimeout;
+            // a cancel() which happened before the task was handed to the scheduler did not see it
+            if (cancelled) {
+                scheduledTimeout.cancel();
+            }
+        }
+
         @Override
         public void run() {
             final ExecutorService executor = executorServiceInjectedValue.getOptionalValue();
@@ -1187,10 +1248,11 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
             }
         }
 
-        @Override
         public boolean cancel() {
+            cancelled = true;
             delegate.cancel();
-            return super.cancel();
+            final ScheduledTimeout scheduledTimeout = this.scheduledTimeout;
+            return scheduledTimeout != null && scheduledTimeout.cancel();
         }
     }
 
@@ -56,6 +56,15 @@ public interface TimerPersistence {
      */
     void timerUndeployed(String timedObjectId);
 
+    /**
+     * Called before the timeout of a persistent timer is delivered. Persistence implementations shared by several
+     * nodes return false if the timer is owned by another node, which will deliver the timeout instead.
+     *
+     * @param timer the timer
+     * @return true if this node should deliver the timeout
+     */
+    boolean shouldRun(TimerImpl timer);
+
     /**
      * Load all active timers for the given object. If the object is an entity bean timers for all beans will be returned.
      *
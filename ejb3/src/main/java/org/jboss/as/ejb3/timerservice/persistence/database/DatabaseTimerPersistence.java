@@ -36,11 +36,22 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Properties;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import javax.sql.DataSource;
+import javax.transaction.TransactionSynchronizationRegistry;
 
 import org.jboss.as.ejb3.EjbLogger;
 import org.jboss.as.ejb3.timerservice.CalendarTimer;
@@ -51,6 +62,7 @@ import org.jboss.as.ejb3.timerservice.persistence.TimeoutMethod;
 import org.jboss.as.ejb3.timerservice.persistence.TimerPersistence;
 import org.jboss.as.naming.ManagedReference;
 import org.jboss.as.naming.ManagedReferenceFactory;
+import org.jboss.as.server.ServerEnvironment;
 import org.jboss.marshalling.InputStreamByteInput;
 import org.jboss.marshalling.Marshaller;
 import org.jboss.marshalling.MarshallerFactory;
@@ -65,35 +77,95 @@ import org.jboss.msc.service.StartContext;
 import org.jboss.msc.service.StartException;
 import org.jboss.msc.service.StopContext;
 import org.jboss.msc.value.InjectedValue;
+import org.jboss.threads.JBossThreadFactory;
 import org.jboss.util.Base64;
+import org.wildfly.security.manager.GetAccessControlContextAction;
+
+import static java.security.AccessController.doPrivileged;
 
 /**
+ * Persists timers in a database table.
+ * <p/>
+ * Changes made outside of a transaction are written in JDBC batches: a writer queues its statement and either
+ * flushes the queue itself, or finds its statement already written by the writer that flushed before it.
+ * <p/>
+ * In clustered mode the nodes sharing a partition deliver the timeouts together. Every node periodically takes a
+ * lease on the timers of its deployed timed objects that are due soon and not leased by a live node, and loads them in
+ * a single range query on {@code (PARTITION, NEXT_DATE)}. The leases on the timers of a timed object are released
+ * when it is undeployed, so that the other nodes deploying it take them over. A timeout is only delivered by the node holding the lease of the timer. The
+ * lease times are compared across nodes, so the clocks of the nodes must be synchronized well within the lease time.
+ *
  * @author Stuart Douglas
  */
 public class DatabaseTimerPersistence implements TimerPersistence, Service<DatabaseTimerPersistence> {
 
     private final InjectedValue<ManagedReferenceFactory> dataSourceInjectedValue = new InjectedValue<ManagedReferenceFactory>();
     private final InjectedValue<ModuleLoader> moduleLoader = new InjectedValue<ModuleLoader>();
+    private final InjectedValue<TransactionSynchronizationRegistry> transactionSynchronizationRegistry = new InjectedValue<TransactionSynchronizationRegistry>();
+    private final InjectedValue<ServerEnvironment> serverEnvironment = new InjectedValue<ServerEnvironment>();
     private final String name;
     private final String database;
     private final String partition;
+    private final boolean clustered;
+    private final long pollInterval;
+    private final long leaseTime;
     private volatile ManagedReference managedReference;
     private volatile DataSource dataSource;
     private volatile Properties sql;
     private MarshallerFactory factory;
     private MarshallingConfiguration configuration;
 
+    /**
+     * Statements written outside of a transaction, waiting to be flushed in a batch. Flushing is serialized
+     * by {@link #flushLock}.
+     */
+    private final Queue<Write> pendingWrites = new ConcurrentLinkedQueue<Write>();
+    private final Object flushLock = new Object();
+
+    /**
+     * The timer services of the deployed timed objects, clustered mode only.
+     */
+    private final ConcurrentMap<String, TimerServiceImpl> timerServices = new ConcurrentHashMap<String, TimerServiceImpl>();
+    /**
+     * The ids of the timers leased by this node, mapped to the ids of their timed objects, clustered mode only.
+     */
+    private final ConcurrentMap<String, String> leasedTimers = new ConcurrentHashMap<String, String>();
+    /**
+     * The time up to which the leases of this node are valid.
+     */
+    private volatile long leaseExpiration;
+    private volatile String nodeName;
+    private ScheduledExecutorService pollExecutor;
+
     private static final String CREATE_TABLE = "create-table";
     private static final String CREATE_TIMER = "create-timer";
     private static final String UPDATE_TIMER = "update-timer";
     private static final String LOAD_ALL_TIMERS = "load-all-timers";
     private static final String LOAD_TIMER = "load-timer";
     private static final String DELETE_TIMER = "delete-timer";
+    private static final String CREATE_LEASED_TIMER = "create-leased-timer";
+    private static final String CREATE_LEASE_COLUMNS = "create-lease-columns";
+    private static final String RENEW_LEASES = "renew-leases";
+    private static final String LEASE_TIMERS = "lease-timers";
+    private static final String LOAD_LEASED_TIMERS = "load-leased-timers";
+    private static final String RELEASE_LEASES = "release-leases";
+
+    /**
+     * The maximum number of statements sent to the database in a single batch.
+     */
+    private static final int MAX_BATCH_SIZE = 100;
 
     public DatabaseTimerPersistence(final String name, final String database, String partition) {
+        this(name, database, partition, false, 0, 0);
+    }
+
+    public DatabaseTimerPersistence(final String name, final String database, String partition, final boolean clustered, final long pollInterval, final long leaseTime) {
         this.name = name;
         this.database = database;
         this.partition = partition;
+        this.clustered = clustered;
+        this.pollInterval = pollInterval;
+        this.leaseTime = leaseTime;
     }
 
     @Override
@@ -115,10 +187,30 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
             safeClose(stream);
         }
         runCreateTable();
+        if (clustered) {
+            nodeName = serverEnvironment.getValue().getNodeName();
+            runCreateLeaseColumns();
+            final JBossThreadFactory threadFactory = new JBossThreadFactory(new ThreadGroup("EJB timer poller " + name),
+                    Boolean.TRUE, null, "%G - %t", null, null, doPrivileged(GetAccessControlContextAction.getInstance()));
+            pollExecutor = Executors.newSingleThreadScheduledExecutor(threadFactory);
+            // the timed objects register once they are deployed, there is nothing to lease before
+            pollExecutor.scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    poll();
+                }
+            }, pollInterval, pollInterval, TimeUnit.MILLISECONDS);
+        }
     }
 
     @Override
     public void stop(final StopContext context) {
+        if (pollExecutor != null) {
+            pollExecutor.shutdownNow();
+            pollExecutor = null;
+        }
+        leasedTimers.clear();
+        leaseExpiration = 0;
         managedReference.release();
         managedReference = null;
         dataSource = null;
@@ -166,6 +258,48 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
         }
     }
 
+    /**
+     * Adds the lease columns to a timer table which has been created by a previous version.
+     */
+    void runCreateLeaseColumns() {
+        String loadLeasedTimers = sql(LOAD_LEASED_TIMERS);
+        Connection connection = null;
+        Statement statement = null;
+        PreparedStatement preparedStatement = null;
+        ResultSet resultSet = null;
+        try {
+            //test for the existence of the lease columns by running the load leased timers query
+            connection = dataSource.getConnection();
+            preparedStatement = connection.prepareStatement(loadLeasedTimers);
+            preparedStatement.setString(1, "NON-EXISTENT");
+            preparedStatement.setString(2, "NON-EXISTENT");
+            preparedStatement.setTimestamp(3, new Timestamp(0));
+            resultSet = preparedStatement.executeQuery();
+        } catch (SQLException e) {
+            if (connection != null) {
+                try {
+                    for (final String sql : sql(CREATE_LEASE_COLUMNS).split(";")) {
+                        try {
+                            statement = connection.createStatement();
+                            statement.executeUpdate(sql);
+                        } finally {
+                            safeClose(statement);
+                        }
+                    }
+                } catch (SQLException e1) {
+                    EjbLogger.EJB3_LOGGER.couldNotCreateTable(e1);
+                }
+            } else {
+                EjbLogger.EJB3_LOGGER.couldNotCreateTable(e);
+            }
+        } finally {
+            safeClose(resultSet);
+            safeClose(preparedStatement);
+            safeClose(statement);
+            safeClose(connection);
+        }
+    }
+
     private String sql(final String key) {
         if (database != null) {
             String result = sql.getProperty(key + "." + database);
@@ -178,53 +312,250 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
 
     @Override
     public void addTimer(final TimerImpl timerEntity) {
-        String createTimer = sql(CREATE_TIMER);
+        if (clustered) {
+            // the node creating a timer owns it until its lease runs out
+            final Timestamp lease = new Timestamp(System.currentTimeMillis() + leaseTime);
+            execute(new Write(sql(CREATE_LEASED_TIMER)) {
+                @Override
+                void setParameters(final PreparedStatement statement) throws SQLException {
+                    statementParameters(timerEntity, statement);
+                    statement.setString(26, nodeName);
+                    statement.setTimestamp(27, lease);
+                }
+            });
+            leasedTimers.put(timerEntity.getId(), timerEntity.getTimedObjectId());
+        } else {
+            execute(new Write(sql(CREATE_TIMER)) {
+                @Override
+                void setParameters(final PreparedStatement statement) throws SQLException {
+                    statementParameters(timerEntity, statement);
+                }
+            });
+        }
+    }
+
+
+    @Override
+    public void persistTimer(final TimerImpl timerEntity) {
+        if (timerEntity.getState() == TimerState.CANCELED ||
+                timerEntity.getState() == TimerState.EXPIRED) {
+            execute(new Write(sql(DELETE_TIMER)) {
+                @Override
+                void setParameters(final PreparedStatement statement) throws SQLException {
+                    statement.setString(1, timerEntity.getTimedObjectId());
+                    statement.setString(2, timerEntity.getId());
+                    statement.setString(3, partition);
+                }
+            });
+            leasedTimers.remove(timerEntity.getId());
+        } else {
+            execute(new Write(sql(UPDATE_TIMER)) {
+                @Override
+                void setParameters(final PreparedStatement statement) throws SQLException {
+                    statement.setTimestamp(1, timestamp(timerEntity.getNextExpiration()));
+                    statement.setTimestamp(2, timestamp(timerEntity.getPreviousRun()));
+                    statement.setString(3, timerEntity.getState().name());
+                    statement.setString(4, timerEntity.getTimedObjectId());
+                    statement.setString(5, timerEntity.getId());
+                    statement.setString(6, partition);
+                }
+            });
+        }
+    }
+
+    @Override
+    public boolean shouldRun(final TimerImpl timer) {
+        if (!clustered) {
+            return true;
+        }
+        return System.currentTimeMillis() < leaseExpiration && leasedTimers.containsKey(timer.getId());
+    }
+
+    @Override
+    public void timerUndeployed(final String timedObjectId) {
+        if (timerServices.remove(timedObjectId) == null) {
+            return;
+        }
+        leasedTimers.values().removeAll(Collections.singleton(timedObjectId));
+        // hand the timers over to the nodes which still deploy the timed object, rather than renewing the leases forever
+        try {
+            execute(new Write(sql(RELEASE_LEASES)) {
+                @Override
+                void setParameters(final PreparedStatement statement) throws SQLException {
+                    statement.setString(1, partition);
+                    statement.setString(2, nodeName);
+                    statement.setString(3, timedObjectId);
+                }
+            });
+        } catch (RuntimeException e) {
+            EjbLogger.ROOT_LOGGER.failToReleaseTimerLeases(nodeName, timedObjectId, e);
+        }
+    }
+
+    /**
+     * Executes the statement right away if a transaction is active, so that it takes part in the transaction.
+     * Otherwise the statement is queued, and written in a batch together with the statements queued by other
+     * threads in the meantime.
+     */
+    private void execute(final Write write) {
+        if (transactionSynchronizationRegistry.getValue().getTransactionKey() != null) {
+            Connection connection = null;
+            PreparedStatement statement = null;
+            try {
+                connection = dataSource.getConnection();
+                statement = connection.prepareStatement(write.sql);
+                write.setParameters(statement);
+                statement.execute();
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            } finally {
+                safeClose(statement);
+                safeClose(connection);
+            }
+            return;
+        }
+        pendingWrites.add(write);
+        synchronized (flushLock) {
+            // while we waited for the lock another thread may have written our statement already
+            while (!write.done) {
+                flush(write);
+            }
+        }
+        if (write.failure != null) {
+            throw new RuntimeException(write.failure);
+        }
+    }
+
+    /**
+     * Writes the queued statements, a batch per run of statements with the same SQL. Must be called while
+     * holding {@link #flushLock}.
+     *
+     * @param own the statement of the calling thread, completed with a failure if the flush fails before
+     *            reaching it
+     */
+    private void flush(final Write own) {
+        final List<Write> batch = new ArrayList<Write>();
         Connection connection = null;
         PreparedStatement statement = null;
-        ResultSet resultSet = null;
+        String batchSql = null;
+        // polled from the queue, but not added to the batch yet
+        Write write = null;
         try {
             connection = dataSource.getConnection();
-            statement = connection.prepareStatement(createTimer);
-            statementParameters(timerEntity, statement);
-            statement.execute();
-        } catch (SQLException e) {
-            throw new RuntimeException(e);
+            while ((write = pendingWrites.poll()) != null) {
+                if (!write.sql.equals(batchSql) || batch.size() == MAX_BATCH_SIZE) {
+                    executeBatch(statement, batch);
+                    if (!write.sql.equals(batchSql)) {
+                        safeClose(statement);
+                        statement = connection.prepareStatement(write.sql);
+                        batchSql = write.sql;
+                    }
+                }
+                batch.add(write);
+                write.setParameters(statement);
+                statement.addBatch();
+                write = null;
+            }
+            executeBatch(statement, batch);
+        } catch (Throwable t) {
+            // every polled statement is failed, its writer may be waiting for it
+            for (Write failed : batch) {
+                failed.complete(t);
+            }
+            if (write != null && !write.done) {
+                write.complete(t);
+            }
+            if (pendingWrites.remove(own)) {
+                own.complete(t);
+            }
         } finally {
-            safeClose(resultSet);
             safeClose(statement);
             safeClose(connection);
         }
     }
 
+    private static void executeBatch(final PreparedStatement statement, final List<Write> batch) throws SQLException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        statement.executeBatch();
+        for (Write write : batch) {
+            write.complete(null);
+        }
+        batch.clear();
+    }
 
-    @Override
-    public void persistTimer(final TimerImpl timerEntity) {
+    /**
+     * Renews the leases of this node, leases the timers which are due before the next poll and are not owned
+     * by a live node, and hands the timers leased by this node to their timer services. Only the timers of the timed
+     * objects deployed on this node are leased.
+     */
+    void poll() {
+        final Set<String> timedObjectIds = new HashSet<String>(timerServices.keySet());
+        if (timedObjectIds.isEmpty()) {
+            return;
+        }
+        final long now = System.currentTimeMillis();
+        final Timestamp lease = new Timestamp(now + leaseTime);
+        // lease what becomes due before the next poll, so that the timeout does not wait for it
+        final Timestamp horizon = new Timestamp(now + 2 * pollInterval);
         Connection connection = null;
         PreparedStatement statement = null;
         ResultSet resultSet = null;
         try {
             connection = dataSource.getConnection();
-            if (timerEntity.getState() == TimerState.CANCELED ||
-                    timerEntity.getState() == TimerState.EXPIRED) {
-                String deleteTimer = sql(DELETE_TIMER);
-                statement = connection.prepareStatement(deleteTimer);
-                statement.setString(1, timerEntity.getTimedObjectId());
-                statement.setString(2, timerEntity.getId());
+            statement = connection.prepareStatement(sql(RENEW_LEASES));
+            for (String timedObjectId : timedObjectIds) {
+                statement.setTimestamp(1, lease);
+                statement.setString(2, partition);
+                statement.setString(3, nodeName);
+                statement.setString(4, timedObjectId);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+            safeClose(statement);
+            if (now >= leaseExpiration) {
+                // our leases ran out before they were renewed, other nodes may have taken over some timers
+                leasedTimers.clear();
+            }
+            leaseExpiration = now + leaseTime;
+
+            statement = connection.prepareStatement(sql(LEASE_TIMERS));
+            for (String timedObjectId : timedObjectIds) {
+                statement.setString(1, nodeName);
+                statement.setTimestamp(2, lease);
                 statement.setString(3, partition);
-                statement.execute();
-            } else {
-                String updateTimer = sql(UPDATE_TIMER);
-                statement = connection.prepareStatement(updateTimer);
-                statement.setTimestamp(1, timestamp(timerEntity.getNextExpiration()));
-                statement.setTimestamp(2, timestamp(timerEntity.getPreviousRun()));
-                statement.setString(3, timerEntity.getState().name());
-                statement.setString(4, timerEntity.getTimedObjectId());
-                statement.setString(5, timerEntity.getId());
-                statement.setString(6, partition);
-                statement.execute();
+                statement.setTimestamp(4, horizon);
+                statement.setTimestamp(5, new Timestamp(now));
+                statement.setString(6, timedObjectId);
+                statement.addBatch();
             }
-        } catch (SQLException e) {
-            throw new RuntimeException(e);
+            statement.executeBatch();
+            safeClose(statement);
+
+            statement = connection.prepareStatement(sql(LOAD_LEASED_TIMERS));
+            statement.setString(1, partition);
+            statement.setString(2, nodeName);
+            statement.setTimestamp(3, horizon);
+            resultSet = statement.executeQuery();
+            while (resultSet.next()) {
+                final TimerServiceImpl timerService = timerServices.get(resultSet.getString(2));
+                if (timerService == null) {
+                    // not deployed on this node (yet)
+                    continue;
+                }
+                try {
+                    final TimerImpl timer = timerFromResult(resultSet, timerService);
+                    if (timer != null) {
+                        leasedTimers.put(timer.getId(), timer.getTimedObjectId());
+                        timerService.timerLeased(timer);
+                    }
+                } catch (Exception e) {
+                    EjbLogger.ROOT_LOGGER.timerReinstatementFailed(resultSet.getString(2), resultSet.getString(1), e);
+                }
+            }
+        } catch (Throwable t) {
+            EjbLogger.ROOT_LOGGER.failToPollTimers(nodeName, t);
         } finally {
             safeClose(resultSet);
             safeClose(statement);
@@ -232,13 +563,11 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
         }
     }
 
-    @Override
-    public void timerUndeployed(final String timedObjectId) {
-
-    }
-
     @Override
     public List<TimerImpl> loadActiveTimers(final String timedObjectId, final TimerServiceImpl timerService) {
+        if (clustered) {
+            timerServices.put(timedObjectId, timerService);
+        }
         String loadTimer = sql(LOAD_ALL_TIMERS);
         Connection connection = null;
         PreparedStatement statement = null;
@@ -439,6 +768,36 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
         return moduleLoader;
     }
 
+    public InjectedValue<TransactionSynchronizationRegistry> getTransactionSynchronizationRegistry() {
+        return transactionSynchronizationRegistry;
+    }
+
+    public InjectedValue<ServerEnvironment> getServerEnvironment() {
+        return serverEnvironment;
+    }
+
+    /**
+     * A statement waiting to be written. The parameters are only read when the statement is flushed, the writer
+     * waits for that to happen.
+     */
+    private abstract static class Write {
+        final String sql;
+        // guarded by flushLock
+        boolean done;
+        Throwable failure;
+
+        Write(final String sql) {
+            this.sql = sql;
+        }
+
+        abstract void setParameters(PreparedStatement statement) throws SQLException;
+
+        void complete(final Throwable failure) {
+            this.failure = failure;
+            this.done = true;
+        }
+    }
+
     private static void safeClose(final Closeable resource) {
         try {
             if (resource != null) {
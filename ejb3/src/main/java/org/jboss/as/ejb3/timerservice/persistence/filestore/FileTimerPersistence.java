@@ -41,14 +41,19 @@ import org.jboss.marshalling.river.RiverMarshallerFactory;
 import org.jboss.modules.ModuleLoader;
 import org.jboss.msc.service.Service;
 import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StartException;
 import org.jboss.msc.service.StopContext;
 import org.jboss.msc.value.InjectedValue;
+import org.jboss.threads.JBossThreadFactory;
+import org.wildfly.security.manager.GetAccessControlContextAction;
 
 import javax.transaction.Status;
 import javax.transaction.Synchronization;
 import javax.transaction.SystemException;
 import javax.transaction.TransactionManager;
 import javax.transaction.TransactionSynchronizationRegistry;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
@@ -60,9 +65,12 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
+import static java.security.AccessController.doPrivileged;
 import static org.jboss.as.ejb3.EjbLogger.ROOT_LOGGER;
 import static org.jboss.as.ejb3.EjbMessages.MESSAGES;
 
@@ -70,12 +78,22 @@ import static org.jboss.as.ejb3.EjbMessages.MESSAGES;
  * File based persistent timer store.
  * <p/>
  * TODO: this is fairly hackey at the moment, it should be registered as an XA resource to support proper XA semantics
+ * <p/>
+ * By default every timer is stored in a file of its own, which is rewritten and synced on each change. In journal mode
+ * the changes are instead appended to a {@link TimerJournal} shared by all timed objects, which syncs the changes of
+ * concurrent writers together and keeps the timers in memory, so they don't have to be read back from disk.
  *
  * @author Stuart Douglas
  */
 public class FileTimerPersistence implements TimerPersistence, Service<FileTimerPersistence> {
 
+    /**
+     * The directory below the base directory which holds the journal
+     */
+    static final String JOURNAL_DIRECTORY = "timer-journal";
+
     private final boolean createIfNotExists;
+    private final boolean journal;
     private MarshallerFactory factory;
     private MarshallingConfiguration configuration;
     private final InjectedValue<TransactionManager> transactionManager = new InjectedValue<TransactionManager>();
@@ -90,14 +108,26 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
     private final ConcurrentMap<String, Lock> locks = new ConcurrentHashMap<String, Lock>();
     private final ConcurrentMap<String, String> directories = new ConcurrentHashMap<String, String>();
 
+    private TimerJournal timerJournal;
+    private ExecutorService journalExecutor;
+    /**
+     * The timers of each timed object, in journal mode
+     */
+    private final ConcurrentMap<String, Map<String, TimerImpl>> journalTimers = new ConcurrentHashMap<String, Map<String, TimerImpl>>();
+
     public FileTimerPersistence(final boolean createIfNotExists, final String path, final String pathRelativeTo) {
+        this(createIfNotExists, path, pathRelativeTo, false);
+    }
+
+    public FileTimerPersistence(final boolean createIfNotExists, final String path, final String pathRelativeTo, final boolean journal) {
         this.createIfNotExists = createIfNotExists;
         this.path = path;
         this.pathRelativeTo = pathRelativeTo;
+        this.journal = journal;
     }
 
     @Override
-    public synchronized void start(final StartContext context) {
+    public synchronized void start(final StartContext context) throws StartException {
 
         final RiverMarshallerFactory factory = new RiverMarshallerFactory();
         final MarshallingConfiguration configuration = new MarshallingConfiguration();
@@ -121,12 +151,30 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
         if (!baseDir.isDirectory()) {
             throw MESSAGES.invalidTimerFileStoreDir(baseDir);
         }
+        if (journal) {
+            final JBossThreadFactory threadFactory = new JBossThreadFactory(new ThreadGroup("EJB timer journal"),
+                    Boolean.TRUE, null, "%G - %t", null, null, doPrivileged(GetAccessControlContextAction.getInstance()));
+            journalExecutor = Executors.newSingleThreadExecutor(threadFactory);
+            timerJournal = new TimerJournal(new File(baseDir, JOURNAL_DIRECTORY), TimerJournal.DEFAULT_SEGMENT_SIZE, journalExecutor);
+            try {
+                timerJournal.open();
+            } catch (IOException e) {
+                throw new StartException(e);
+            }
+        }
     }
 
     @Override
-    public void stop(final StopContext context) {
+    public synchronized void stop(final StopContext context) {
         locks.clear();
         directories.clear();
+        journalTimers.clear();
+        if (timerJournal != null) {
+            journalExecutor.shutdown();
+            timerJournal.close();
+            timerJournal = null;
+            journalExecutor = null;
+        }
         if (callbackHandle != null) {
             callbackHandle.remove();
         }
@@ -151,6 +199,7 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
 
     private void persistTimer(final TimerImpl timer, boolean newTimer) {
         final Lock lock = getLock(timer.getTimedObjectId());
+        long sequence = 0;
         try {
             final int status = transactionManager.getValue().getStatus();
             if (status == Status.STATUS_MARKED_ROLLBACK || status == Status.STATUS_ROLLEDBACK ||
@@ -167,12 +216,12 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
                 if (timer.getState() == TimerState.CANCELED ||
                         timer.getState() == TimerState.EXPIRED) {
                     map.remove(timer.getId());
-                    writeFile(timer);
+                    sequence = writeTimer(timer);
                 } else if (newTimer || map.containsKey(timer.getId())) {
                     //if it is not a new timer and is not in the map then it has
                     //been removed by another thread.
                     map.put(timer.getId(), timer);
-                    writeFile(timer);
+                    sequence = writeTimer(timer);
                 }
             } else {
 
@@ -190,6 +239,8 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
         } finally {
             lock.unlock();
         }
+        // sync outside of the lock, so that the changes of other writers can be synced together with this one
+        syncJournal(sequence);
     }
 
     private String timerTransactionKey(final TimerImpl TimerImpl) {
@@ -203,6 +254,7 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
             lock.lock();
             locks.remove(timedObjectId);
             directories.remove(timedObjectId);
+            journalTimers.remove(timedObjectId);
         } finally {
             lock.unlock();
         }
@@ -217,6 +269,11 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
         return false;
     }
 
+    @Override
+    public boolean shouldRun(final TimerImpl timer) {
+        return true;
+    }
+
     @Override
     public List<TimerImpl> loadActiveTimers(final String timedObjectId, final TimerServiceImpl timerService) {
         final Lock lock = getLock(timedObjectId);
@@ -272,9 +329,64 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
      * @return The timers for the object
      */
     private Map<String, TimerImpl> getTimers(final String timedObjectId, final TimerServiceImpl timerService) {
+        if (timerJournal != null) {
+            Map<String, TimerImpl> timers = journalTimers.get(timedObjectId);
+            if (timers == null) {
+                timers = loadTimersFromJournal(timedObjectId, timerService);
+                journalTimers.put(timedObjectId, timers);
+            }
+            return timers;
+        }
         return loadTimersFromFile(timedObjectId, timerService);
     }
 
+    private Map<String, TimerImpl> loadTimersFromJournal(final String timedObjectId, final TimerServiceImpl timerService) {
+        final Map<String, TimerImpl> timers = new HashMap<String, TimerImpl>();
+        try {
+            migrateTimerFiles(timedObjectId, timerService);
+            final Unmarshaller unmarshaller = factory.createUnmarshaller(configuration);
+            for (Map.Entry<String, byte[]> entry : timerJournal.getTimers(timedObjectId).entrySet()) {
+                try {
+                    unmarshaller.start(new InputStreamByteInput(new ByteArrayInputStream(entry.getValue())));
+                    final TimerEntity entity = unmarshaller.readObject(TimerEntity.class);
+                    timers.put(entity.getId(), fromEntity(entity, timerService));
+                    unmarshaller.finish();
+                } catch (Exception e) {
+                    ROOT_LOGGER.timerReinstatementFailed(timedObjectId, entry.getKey(), e);
+                }
+            }
+        } catch (Exception e) {
+            ROOT_LOGGER.failToRestoreTimersForObjectId(timedObjectId, e);
+        }
+        return timers;
+    }
+
+    /**
+     * Moves the timers which were stored in a file per timer into the journal.
+     */
+    private void migrateTimerFiles(final String timedObjectId, final TimerServiceImpl timerService) throws IOException {
+        final File directory = new File(baseDir, timedObjectId.replace(File.separator, "-"));
+        if (!directory.isDirectory()) {
+            return;
+        }
+        final Map<String, byte[]> journaled = timerJournal.getTimers(timedObjectId);
+        long sequence = 0;
+        for (TimerImpl timer : loadTimersFromFile(timedObjectId, timerService).values()) {
+            if (!journaled.containsKey(timer.getId())) {
+                sequence = timerJournal.append(timedObjectId, timer.getId(), marshall(timer));
+            }
+        }
+        syncJournal(sequence);
+        final File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+        directories.remove(timedObjectId);
+    }
+
     private Map<String, TimerImpl> loadTimersFromFile(final String timedObjectId, final TimerServiceImpl timerService) {
         final Map<String, TimerImpl> timers = new HashMap<String, TimerImpl>();
         try {
@@ -295,39 +407,7 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
 
                     final TimerEntity entity = unmarshaller.readObject(TimerEntity.class);
 
-                    //we load the legacy timer entity class, and turn it into a timer state
-
-                    TimerImpl.Builder builder;
-                    if (entity instanceof CalendarTimerEntity) {
-                        CalendarTimerEntity c = (CalendarTimerEntity) entity;
-                        builder = CalendarTimer.builder()
-                                .setScheduleExprSecond(c.getSecond())
-                                .setScheduleExprMinute(c.getMinute())
-                                .setScheduleExprHour(c.getHour())
-                                .setScheduleExprDayOfWeek(c.getDayOfWeek())
-                                .setScheduleExprDayOfMonth(c.getDayOfMonth())
-                                .setScheduleExprMonth(c.getMonth())
-                                .setScheduleExprYear(c.getYear())
-                                .setScheduleExprStartDate(c.getStartDate())
-                                .setScheduleExprEndDate(c.getEndDate())
-                                .setScheduleExprTimezone(c.getTimezone())
-                                .setAutoTimer(c.isAutoTimer())
-                                .setTimeoutMethod(CalendarTimer.getTimeoutMethod(c.getTimeoutMethod(), timerService.getTimedObjectInvoker().getValue()));
-                    } else {
-                        builder = TimerImpl.builder();
-                    }
-                    builder.setId(entity.getId())
-                            .setTimedObjectId(entity.getTimedObjectId())
-                            .setInitialDate(entity.getInitialDate())
-                            .setRepeatInterval(entity.getInterval())
-                            .setNextDate(entity.getNextDate())
-                            .setPreviousRun(entity.getPreviousRun())
-                            .setInfo(entity.getInfo())
-                            .setPrimaryKey(entity.getPrimaryKey())
-                            .setTimerState(entity.getTimerState())
-                            .setPersistent(true);
-
-                    timers.put(entity.getId(), builder.build(timerService));
+                    timers.put(entity.getId(), fromEntity(entity, timerService));
                     unmarshaller.finish();
                 } catch (Exception e) {
                     ROOT_LOGGER.failToRestoreTimersFromFile(timerFile, e);
@@ -348,6 +428,42 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
         return timers;
     }
 
+    private TimerImpl fromEntity(final TimerEntity entity, final TimerServiceImpl timerService) {
+        //we load the legacy timer entity class, and turn it into a timer state
+
+        TimerImpl.Builder builder;
+        if (entity instanceof CalendarTimerEntity) {
+            CalendarTimerEntity c = (CalendarTimerEntity) entity;
+            builder = CalendarTimer.builder()
+                    .setScheduleExprSecond(c.getSecond())
+                    .setScheduleExprMinute(c.getMinute())
+                    .setScheduleExprHour(c.getHour())
+                    .setScheduleExprDayOfWeek(c.getDayOfWeek())
+                    .setScheduleExprDayOfMonth(c.getDayOfMonth())
+                    .setScheduleExprMonth(c.getMonth())
+                    .setScheduleExprYear(c.getYear())
+                    .setScheduleExprStartDate(c.getStartDate())
+                    .setScheduleExprEndDate(c.getEndDate())
+                    .setScheduleExprTimezone(c.getTimezone())
+                    .setAutoTimer(c.isAutoTimer())
+                    .setTimeoutMethod(CalendarTimer.getTimeoutMethod(c.getTimeoutMethod(), timerService.getTimedObjectInvoker().getValue()));
+        } else {
+            builder = TimerImpl.builder();
+        }
+        builder.setId(entity.getId())
+                .setTimedObjectId(entity.getTimedObjectId())
+                .setInitialDate(entity.getInitialDate())
+                .setRepeatInterval(entity.getInterval())
+                .setNextDate(entity.getNextDate())
+                .setPreviousRun(entity.getPreviousRun())
+                .setInfo(entity.getInfo())
+                .setPrimaryKey(entity.getPrimaryKey())
+                .setTimerState(entity.getTimerState())
+                .setPersistent(true);
+
+        return builder.build(timerService);
+    }
+
     private File fileName(String timedObjectId, String timerId) {
         return new File(getDirectory(timedObjectId) + File.separator + timerId.replace(File.separator, "-"));
     }
@@ -374,6 +490,50 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
     }
 
 
+    /**
+     * Writes the state of the timer to its file, or appends it to the journal.
+     *
+     * @return the journal sequence number to sync, or 0 if nothing has to be synced
+     */
+    private long writeTimer(final TimerImpl timer) {
+        if (timerJournal == null) {
+            writeFile(timer);
+            return 0;
+        }
+        try {
+            final boolean removed = timer.getState() == TimerState.CANCELED || timer.getState() == TimerState.EXPIRED;
+            return timerJournal.append(timer.getTimedObjectId(), timer.getId(), removed ? null : marshall(timer));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void syncJournal(final long sequence) {
+        if (sequence > 0) {
+            try {
+                timerJournal.sync(sequence);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    private byte[] marshall(final TimerImpl timer) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        final Marshaller marshaller = factory.createMarshaller(configuration);
+        marshaller.start(new OutputStreamByteOutput(bytes));
+        marshaller.writeObject(toEntity(timer));
+        marshaller.finish();
+        return bytes.toByteArray();
+    }
+
+    private static TimerEntity toEntity(final TimerImpl timer) {
+        if (timer instanceof CalendarTimer) {
+            return new CalendarTimerEntity((CalendarTimer) timer);
+        }
+        return new TimerEntity(timer);
+    }
+
     private void writeFile(TimerImpl timer) {
         final File file = fileName(timer.getTimedObjectId(), timer.getId());
 
@@ -386,12 +546,7 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
             return;
         }
 
-        final TimerEntity entity;
-        if (timer instanceof CalendarTimer) {
-            entity = new CalendarTimerEntity((CalendarTimer) timer);
-        } else {
-            entity = new TimerEntity(timer);
-        }
+        final TimerEntity entity = toEntity(timer);
 
         FileOutputStream fileOutputStream = null;
         try {
@@ -444,6 +599,7 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
             if (timer == null) {
                 return;
             }
+            long sequence = 0;
             try {
                 lock.lock();
                 if (status == Status.STATUS_COMMITTED) {
@@ -457,11 +613,12 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
                             map.put(timer.getId(), timer);
                         }
                     }
-                    writeFile(timer);
+                    sequence = writeTimer(timer);
                 }
             } finally {
                 lock.unlock();
             }
+            syncJournal(sequence);
         }
 
 
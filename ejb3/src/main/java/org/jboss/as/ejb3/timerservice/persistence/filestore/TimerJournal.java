@@ -0,0 +1,453 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.persistence.filestore;
+
+import static org.jboss.as.ejb3.EjbLogger.ROOT_LOGGER;
+import static org.jboss.as.ejb3.EjbMessages.MESSAGES;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only journal of the state changes of persistent timers.
+ * <p/>
+ * Each change is a record holding the marshalled timer, or a tombstone if the timer was removed. Records are appended
+ * to the current segment file, and once it exceeds the segment size a new segment is started. Writers first
+ * {@link #append append} their record and then {@link #sync} up to its sequence number; whoever syncs first forces
+ * the records of all the writers that appended in the meantime to disk with a single fsync (group commit).
+ * <p/>
+ * The live state is kept in memory. Once the closed segments are considerably larger than the live state, a snapshot
+ * of it is written in the background, after which the segments it covers are deleted. Opening the journal loads the
+ * latest snapshot and replays the segments written after it.
+ * <p/>
+ * File names are {@code <sequence>.log} for segments and {@code <sequence>.snapshot} for a snapshot of the state
+ * after replaying all segments up to and including that sequence.
+ */
+final class TimerJournal {
+
+    static final long DEFAULT_SEGMENT_SIZE = 8 * 1024 * 1024;
+
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String SNAPSHOT_SUFFIX = ".snapshot";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private static final byte PUT = 1;
+    private static final byte REMOVE = 2;
+
+    /**
+     * Compact once the closed segments are this many times larger than the live state.
+     */
+    private static final int COMPACTION_RATIO = 2;
+
+    private final File directory;
+    private final long segmentSize;
+    private final Executor compactionExecutor;
+    private final AtomicBoolean compacting = new AtomicBoolean();
+
+    /**
+     * Serializes syncing and rolling segments. Never acquired while holding the monitor of the journal.
+     */
+    private final Object syncLock = new Object();
+
+    // guarded by this
+    private final Map<String, Map<String, byte[]>> live = new HashMap<String, Map<String, byte[]>>();
+    private long liveBytes;
+    private long closedBytes;
+    private long segment;
+    private long segmentBytes;
+    private FileOutputStream segmentStream;
+    private OutputStream out;
+    private long appended;
+    // a write to the segment failed, so it may end with part of a record and must not be appended to anymore
+    private boolean torn;
+
+    // guarded by syncLock
+    private volatile long synced;
+
+    TimerJournal(final File directory, final long segmentSize, final Executor compactionExecutor) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.compactionExecutor = compactionExecutor;
+    }
+
+    /**
+     * Loads the journal and starts a new segment.
+     */
+    synchronized void open() throws IOException {
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw MESSAGES.failToCreateTimerFileStoreDir(directory);
+        }
+        final TreeMap<Long, File> segments = new TreeMap<Long, File>();
+        final TreeMap<Long, File> snapshots = new TreeMap<Long, File>();
+        final File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                final String name = file.getName();
+                if (name.endsWith(SEGMENT_SUFFIX)) {
+                    segments.put(sequence(name, SEGMENT_SUFFIX), file);
+                } else if (name.endsWith(SNAPSHOT_SUFFIX)) {
+                    snapshots.put(sequence(name, SNAPSHOT_SUFFIX), file);
+                } else if (name.endsWith(TEMP_SUFFIX)) {
+                    // an interrupted compaction
+                    file.delete();
+                }
+            }
+        }
+        long last = 0;
+        if (!snapshots.isEmpty()) {
+            last = snapshots.lastKey();
+            replay(snapshots.lastEntry().getValue());
+            for (File stale : snapshots.headMap(last).values()) {
+                stale.delete();
+            }
+            for (File stale : segments.headMap(last, true).values()) {
+                stale.delete();
+            }
+        }
+        for (Map.Entry<Long, File> entry : segments.tailMap(last, false).entrySet()) {
+            replay(entry.getValue());
+            closedBytes += entry.getValue().length();
+            last = entry.getKey();
+        }
+        // never append to an existing segment, its tail may be torn
+        segment = last;
+        startSegment();
+    }
+
+    /**
+     * Returns the marshalled state of the live timers of a timed object.
+     *
+     * @param timedObjectId the timed object id
+     * @return the marshalled timers by timer id
+     */
+    synchronized Map<String, byte[]> getTimers(final String timedObjectId) {
+        final Map<String, byte[]> timers = live.get(timedObjectId);
+        return timers == null ? new HashMap<String, byte[]>() : new HashMap<String, byte[]>(timers);
+    }
+
+    /**
+     * Appends a state change of a timer. The change is only durable after a subsequent {@link #sync(long)}. If the
+     * record cannot be written, the live state is left unchanged and a new segment is started for the next records.
+     *
+     * @param timedObjectId the timed object id
+     * @param timerId       the timer id
+     * @param timer         the marshalled timer, or {@code null} if it has been removed
+     * @return the sequence number to sync up to
+     */
+    long append(final String timedObjectId, final String timerId, final byte[] timer) throws IOException {
+        final byte[] record = encode(timer == null ? REMOVE : PUT, timedObjectId, timerId, timer);
+        for (;;) {
+            synchronized (this) {
+                if (!torn) {
+                    try {
+                        out.write(record);
+                        out.flush();
+                    } catch (IOException e) {
+                        torn = true;
+                        throw e;
+                    }
+                    // the live state only reflects what has been written
+                    apply(timedObjectId, timerId, timer);
+                    segmentBytes += record.length;
+                    return ++appended;
+                }
+            }
+            synchronized (syncLock) {
+                final boolean roll;
+                synchronized (this) {
+                    roll = torn;
+                }
+                if (roll) {
+                    rollSegment();
+                }
+            }
+        }
+    }
+
+    /**
+     * Makes sure that everything up to the given sequence number has been written to disk.
+     *
+     * @param sequence the sequence number returned by {@link #append}
+     */
+    void sync(final long sequence) throws IOException {
+        if (synced >= sequence) {
+            return;
+        }
+        synchronized (syncLock) {
+            if (synced >= sequence) {
+                // somebody else synced our record along with theirs
+                return;
+            }
+            final long target;
+            final FileChannel channel;
+            final boolean full;
+            synchronized (this) {
+                if (!torn) {
+                    out.flush();
+                }
+                target = appended;
+                channel = segmentStream.getChannel();
+                full = torn || segmentBytes >= segmentSize;
+            }
+            channel.force(false);
+            synced = target;
+            if (full) {
+                rollSegment();
+            }
+        }
+    }
+
+    void close() {
+        synchronized (syncLock) {
+            synchronized (this) {
+                try {
+                    if (out != null) {
+                        if (!torn) {
+                            out.flush();
+                        }
+                        segmentStream.getChannel().force(false);
+                    }
+                } catch (IOException e) {
+                    ROOT_LOGGER.failToCloseFile(e);
+                } finally {
+                    closeSegment();
+                    live.clear();
+                }
+            }
+        }
+    }
+
+    /**
+     * Must be called while holding the sync lock.
+     */
+    private void rollSegment() throws IOException {
+        final boolean compact;
+        synchronized (this) {
+            if (!torn) {
+                out.flush();
+            }
+            segmentStream.getChannel().force(false);
+            synced = appended;
+            closedBytes += segmentBytes;
+            closeSegment();
+            startSegment();
+            compact = closedBytes > COMPACTION_RATIO * Math.max(liveBytes, segmentSize);
+        }
+        if (compact && compacting.compareAndSet(false, true)) {
+            compactionExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        compact();
+                    } catch (Throwable t) {
+                        ROOT_LOGGER.failToCompactTimerJournal(directory, t);
+                    } finally {
+                        compacting.set(false);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Writes a snapshot of the live state covering all closed segments and deletes them.
+     */
+    void compact() throws IOException {
+        final long covered;
+        final long coveredBytes;
+        final Map<String, Map<String, byte[]>> state = new HashMap<String, Map<String, byte[]>>();
+        synchronized (syncLock) {
+            rollSegment();
+            synchronized (this) {
+                covered = segment - 1;
+                coveredBytes = closedBytes;
+                for (Map.Entry<String, Map<String, byte[]>> entry : live.entrySet()) {
+                    state.put(entry.getKey(), new HashMap<String, byte[]>(entry.getValue()));
+                }
+            }
+        }
+        final File temp = new File(directory, covered + SNAPSHOT_SUFFIX + TEMP_SUFFIX);
+        final FileOutputStream stream = new FileOutputStream(temp);
+        try {
+            final OutputStream snapshot = new BufferedOutputStream(stream, 64 * 1024);
+            for (Map.Entry<String, Map<String, byte[]>> object : state.entrySet()) {
+                for (Map.Entry<String, byte[]> timer : object.getValue().entrySet()) {
+                    snapshot.write(encode(PUT, object.getKey(), timer.getKey(), timer.getValue()));
+                }
+            }
+            snapshot.flush();
+            stream.getChannel().force(false);
+        } finally {
+            stream.close();
+        }
+        Files.move(temp.toPath(), new File(directory, covered + SNAPSHOT_SUFFIX).toPath(), StandardCopyOption.ATOMIC_MOVE);
+        final File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                final String name = file.getName();
+                if ((name.endsWith(SEGMENT_SUFFIX) && sequence(name, SEGMENT_SUFFIX) <= covered)
+                        || (name.endsWith(SNAPSHOT_SUFFIX) && sequence(name, SNAPSHOT_SUFFIX) < covered)) {
+                    file.delete();
+                }
+            }
+        }
+        synchronized (this) {
+            closedBytes -= coveredBytes;
+        }
+    }
+
+    private void startSegment() throws IOException {
+        segment++;
+        segmentStream = new FileOutputStream(new File(directory, segment + SEGMENT_SUFFIX));
+        out = new BufferedOutputStream(segmentStream, 64 * 1024);
+        segmentBytes = 0;
+        torn = false;
+    }
+
+    private void closeSegment() {
+        if (segmentStream != null) {
+            try {
+                segmentStream.close();
+            } catch (IOException e) {
+                ROOT_LOGGER.failToCloseFile(e);
+            }
+            segmentStream = null;
+            out = null;
+        }
+    }
+
+    private void apply(final String timedObjectId, final String timerId, final byte[] timer) {
+        Map<String, byte[]> timers = live.get(timedObjectId);
+        if (timer == null) {
+            if (timers != null) {
+                final byte[] removed = timers.remove(timerId);
+                if (removed != null) {
+                    liveBytes -= removed.length;
+                }
+                if (timers.isEmpty()) {
+                    live.remove(timedObjectId);
+                }
+            }
+        } else {
+            if (timers == null) {
+                timers = new HashMap<String, byte[]>();
+                live.put(timedObjectId, timers);
+            }
+            final byte[] replaced = timers.put(timerId, timer);
+            liveBytes += timer.length - (replaced == null ? 0 : replaced.length);
+        }
+    }
+
+    private void replay(final File file) throws IOException {
+        final DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 64 * 1024));
+        long offset = 0;
+        try {
+            for (;;) {
+                final int length;
+                try {
+                    length = in.readInt();
+                } catch (EOFException e) {
+                    // end of the file
+                    return;
+                }
+                if (length <= 0 || offset + length + 8 > file.length()) {
+                    ROOT_LOGGER.corruptTimerJournal(file, offset);
+                    return;
+                }
+                final byte[] record = new byte[length];
+                in.readFully(record);
+                final CRC32 crc = new CRC32();
+                crc.update(record);
+                if ((int) crc.getValue() != in.readInt()) {
+                    ROOT_LOGGER.corruptTimerJournal(file, offset);
+                    return;
+                }
+                final DataInputStream data = new DataInputStream(new ByteArrayInputStream(record));
+                final byte type = data.readByte();
+                final String timedObjectId = data.readUTF();
+                final String timerId = data.readUTF();
+                if (type == PUT) {
+                    final byte[] timer = new byte[data.readInt()];
+                    data.readFully(timer);
+                    apply(timedObjectId, timerId, timer);
+                } else {
+                    apply(timedObjectId, timerId, null);
+                }
+                offset += length + 8;
+            }
+        } finally {
+            in.close();
+        }
+    }
+
+    private static byte[] encode(final byte type, final String timedObjectId, final String timerId, final byte[] timer) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + (timer == null ? 0 : timer.length));
+        final DataOutputStream data = new DataOutputStream(bytes);
+        // reserve the length prefix
+        data.writeInt(0);
+        data.writeByte(type);
+        data.writeUTF(timedObjectId);
+        data.writeUTF(timerId);
+        if (timer != null) {
+            data.writeInt(timer.length);
+            data.write(timer);
+        }
+        final CRC32 crc = new CRC32();
+        final byte[] record = bytes.toByteArray();
+        final int length = record.length - 4;
+        crc.update(record, 4, length);
+        data.writeInt((int) crc.getValue());
+        final byte[] result = bytes.toByteArray();
+        result[0] = (byte) (length >>> 24);
+        result[1] = (byte) (length >>> 16);
+        result[2] = (byte) (length >>> 8);
+        result[3] = (byte) length;
+        return result;
+    }
+
+    private static long sequence(final String name, final String suffix) {
+        try {
+            return Long.parseLong(name.substring(0, name.length() - suffix.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -101,6 +101,11 @@ public class CalendarBasedTimeout {
      */
     private TimeZone timezone;
 
+    /**
+     * The attributes compiled into bit masks, used to compute the timeouts
+     */
+    private CompiledSchedule compiledSchedule;
+
     /**
      * Creates a {@link CalendarBasedTimeout} from the passed <code>schedule</code>.
      * <p>
@@ -150,6 +155,8 @@ public class CalendarBasedTimeout {
         } else {
             this.timezone = TimeZone.getDefault();
         }
+        this.compiledSchedule = new CompiledSchedule(this.second, this.minute, this.hour, this.dayOfMonth, this.dayOfWeek,
+                this.month, this.year, this.isDayOfMonthWildcard(), this.isDayOfWeekWildcard());
 
         // Now that we have parsed the values from the ScheduleExpression,
         // determine and set the first timeout (relative to the current time)
@@ -173,50 +180,17 @@ public class CalendarBasedTimeout {
 
 
     private void setFirstTimeout() {
-        this.firstTimeout = new GregorianCalendar(this.timezone);
+        Calendar candidate = new GregorianCalendar(this.timezone);
         Date start = this.scheduleExpression.getStart();
         if (start != null) {
-            this.firstTimeout.setTime(start);
+            candidate.setTime(start);
         } else {
-            this.firstTimeout.set(Calendar.SECOND, this.second.getFirst());
-            this.firstTimeout.set(Calendar.MINUTE, this.minute.getFirst());
-            this.firstTimeout.set(Calendar.HOUR_OF_DAY, this.hour.getFirst());
-            this.firstTimeout.set(Calendar.MILLISECOND, 0);
-        }
-        this.firstTimeout.setFirstDayOfWeek(Calendar.SUNDAY);
-
-        this.firstTimeout = this.computeNextSecond(this.firstTimeout);
-        if (this.firstTimeout == null) {
-            return;
-        }
-
-        this.firstTimeout = this.computeNextMinute(this.firstTimeout);
-        if (this.firstTimeout == null) {
-            return;
-        }
-
-        this.firstTimeout = this.computeNextHour(this.firstTimeout);
-        if (this.firstTimeout == null) {
-            return;
-        }
-
-        this.firstTimeout = this.computeNextMonth(this.firstTimeout);
-        if (this.firstTimeout == null) {
-            return;
+            candidate.set(Calendar.SECOND, this.second.getFirst());
+            candidate.set(Calendar.MINUTE, this.minute.getFirst());
+            candidate.set(Calendar.HOUR_OF_DAY, this.hour.getFirst());
+            candidate.set(Calendar.MILLISECOND, 0);
         }
-
-        this.firstTimeout = this.computeNextDate(this.firstTimeout);
-        if (this.firstTimeout == null) {
-            return;
-        }
-
-        this.firstTimeout = this.computeNextYear(this.firstTimeout);
-
-        // one final check
-        if (this.firstTimeout != null && this.noMoreTimeouts(this.firstTimeout)) {
-            this.firstTimeout = null;
-        }
-
+        this.firstTimeout = this.computeNextTimeout(candidate.getTimeInMillis(), this.timezone);
     }
 
     /**
@@ -230,6 +204,26 @@ public class CalendarBasedTimeout {
     }
 
     public Calendar getNextTimeout(Calendar currentCal) {
+        if (this.noMoreTimeouts(currentCal)) {
+            return null;
+        }
+        final long candidate;
+        Date start = this.scheduleExpression.getStart();
+        if (start != null && currentCal.getTime().before(start)) {
+            candidate = start.getTime();
+        } else {
+            // increment the current second by 1
+            final long now = currentCal.getTimeInMillis() + 1000;
+            candidate = now - (now % 1000 + 1000) % 1000;
+        }
+        return this.computeNextTimeout(candidate, currentCal.getTimeZone());
+    }
+
+    /**
+     * Computes the next timeout like {@link #getNextTimeout(Calendar)}, but always by walking the calendar fields.
+     * Used to verify the compiled schedule.
+     */
+    Calendar getNextTimeoutByFields(Calendar currentCal) {
         if (this.noMoreTimeouts(currentCal)) {
             return null;
         }
@@ -243,6 +237,37 @@ public class CalendarBasedTimeout {
             nextCal.add(Calendar.SECOND, 1);
             nextCal.set(Calendar.MILLISECOND, 0);
         }
+        return this.computeNextTimeoutByFields(nextCal);
+    }
+
+    /**
+     * Returns the first timeout at or after <code>candidate</code>, evaluating the schedule in the passed time zone.
+     *
+     * @param candidate the earliest possible timeout
+     * @param zone      the time zone
+     * @return the next timeout or null if there are no more timeouts
+     */
+    private Calendar computeNextTimeout(long candidate, TimeZone zone) {
+        final long next = this.compiledSchedule.getNextTimeout(candidate, zone);
+        if (next == CompiledSchedule.UNSUPPORTED) {
+            // the compiled schedule doesn't handle offset transitions, let the calendar deal with them
+            Calendar cal = new GregorianCalendar(zone);
+            cal.setTimeInMillis(candidate);
+            return this.computeNextTimeoutByFields(cal);
+        }
+        if (next == CompiledSchedule.NO_MORE_TIMEOUTS) {
+            return null;
+        }
+        Calendar nextCal = new GregorianCalendar(zone);
+        nextCal.setFirstDayOfWeek(Calendar.SUNDAY);
+        nextCal.setTimeInMillis(next);
+        if (this.noMoreTimeouts(nextCal)) {
+            return null;
+        }
+        return nextCal;
+    }
+
+    private Calendar computeNextTimeoutByFields(Calendar nextCal) {
         nextCal.setFirstDayOfWeek(Calendar.SUNDAY);
 
         nextCal = this.computeNextSecond(nextCal);
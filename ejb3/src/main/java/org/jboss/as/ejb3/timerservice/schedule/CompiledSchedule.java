@@ -0,0 +1,400 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.schedule;
+
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.SortedSet;
+import java.util.TimeZone;
+
+import org.jboss.as.ejb3.timerservice.schedule.attribute.DayOfMonth;
+import org.jboss.as.ejb3.timerservice.schedule.attribute.DayOfWeek;
+import org.jboss.as.ejb3.timerservice.schedule.attribute.Hour;
+import org.jboss.as.ejb3.timerservice.schedule.attribute.IntegerBasedExpression;
+import org.jboss.as.ejb3.timerservice.schedule.attribute.Minute;
+import org.jboss.as.ejb3.timerservice.schedule.attribute.Month;
+import org.jboss.as.ejb3.timerservice.schedule.attribute.Second;
+import org.jboss.as.ejb3.timerservice.schedule.attribute.Year;
+
+/**
+ * The parsed attributes of a {@link javax.ejb.ScheduleExpression}, compiled into bit masks so that the next
+ * timeout can be computed on <code>long</code> epoch values, without any {@link Calendar}.
+ * <p/>
+ * The search runs on the local date and time fields and converts the result back to an instant with the offset of
+ * its day. Days on which the offset of the time zone changes are not handled here, {@link #getNextTimeout(long, TimeZone)}
+ * returns {@link #UNSUPPORTED} for them and the caller falls back to the {@link Calendar} based computation. The offset
+ * of the last day seen is cached, as timeouts of a schedule tend to fall on the same few days.
+ *
+ * @see CalendarBasedTimeout
+ */
+final class CompiledSchedule {
+
+    /**
+     * Returned if there are no more timeouts.
+     */
+    static final long NO_MORE_TIMEOUTS = Long.MIN_VALUE;
+
+    /**
+     * Returned if the next timeout can not be computed by the compiled schedule.
+     */
+    static final long UNSUPPORTED = Long.MAX_VALUE;
+
+    private static final long MILLIS_PER_DAY = 24 * 60 * 60 * 1000L;
+
+    /**
+     * The largest absolute offset of any time zone, used as a margin when checking whether a day has a fixed offset.
+     */
+    private static final long MAX_OFFSET = 18 * 60 * 60 * 1000L;
+
+    /**
+     * The first year of the Gregorian calendar, {@link GregorianCalendar} switches to the Julian calendar before.
+     */
+    private static final int FIRST_GREGORIAN_YEAR = 1583;
+
+    private static final int NO_FIXED_OFFSET = Integer.MIN_VALUE;
+
+    private final long seconds;
+    private final long minutes;
+    private final long hours;
+    private final long months;
+    /**
+     * The sorted matching years, or <code>null</code> if all years match.
+     */
+    private final int[] years;
+    /**
+     * Indexed by the day of the week of the first day of a month (0 is Sunday), the days of that month which are
+     * matched by the day of week attribute.
+     */
+    private final long[] daysOfWeek = new long[7];
+    private final DayOfMonth dayOfMonth;
+    /**
+     * The days matched by the day of month attribute, if they do not depend on the month.
+     */
+    private final long daysOfMonth;
+    private final boolean anyDayOfMonth;
+    private final boolean anyDayOfWeek;
+    /**
+     * True if the expression can never match.
+     */
+    private final boolean empty;
+
+    private volatile MonthDays cachedMonthDays;
+    private volatile DayOffset cachedDayOffset;
+
+    /**
+     * @param anyDayOfMonth true if only the day of week attribute restricts the days
+     * @param anyDayOfWeek  true if only the day of month attribute restricts the days. If both flags are false a day
+     *                      matches if it is matched by either attribute.
+     */
+    CompiledSchedule(Second second, Minute minute, Hour hour, DayOfMonth dayOfMonth, DayOfWeek dayOfWeek, Month month,
+                     Year year, boolean anyDayOfMonth, boolean anyDayOfWeek) {
+        this.seconds = mask(second, 0, 59);
+        this.minutes = mask(minute, 0, 59);
+        this.hours = mask(hour, 0, 23);
+        // months are 1 based in the expression and 0 based in the calendar
+        this.months = mask(month, 1, 12) >>> 1;
+        if (year.isWildcard()) {
+            this.years = null;
+        } else {
+            final SortedSet<Integer> values = year.getAbsoluteValues();
+            this.years = new int[values.size()];
+            int i = 0;
+            for (Integer value : values) {
+                this.years[i++] = value;
+            }
+        }
+        long weekDays = mask(dayOfWeek, 0, 7);
+        if ((weekDays & 1L << 7) != 0) {
+            // both 0 and 7 stand for Sunday
+            weekDays = (weekDays | 1) & ~(1L << 7);
+        }
+        for (int first = 0; first < 7; first++) {
+            long days = 0;
+            for (int day = 1; day <= 31; day++) {
+                if ((weekDays & (1L << ((first + day - 1) % 7))) != 0) {
+                    days |= 1L << day;
+                }
+            }
+            this.daysOfWeek[first] = days;
+        }
+        this.dayOfMonth = dayOfMonth;
+        this.daysOfMonth = dayOfMonth.hasRelativeDayOfMonth() ? 0 : dayOfMonth.getMatchingDays(new GregorianCalendar());
+        this.anyDayOfMonth = anyDayOfMonth;
+        this.anyDayOfWeek = anyDayOfWeek;
+        this.empty = seconds == 0 || minutes == 0 || hours == 0 || months == 0 || (years != null && years.length == 0);
+    }
+
+    /**
+     * Computes the first instant at or after <code>candidate</code> which matches the schedule. Only the second and
+     * larger fields are matched, the milliseconds of the candidate are kept.
+     *
+     * @param candidate the earliest possible timeout
+     * @param timezone  the time zone the schedule is evaluated in
+     * @return the next timeout, {@link #NO_MORE_TIMEOUTS} or {@link #UNSUPPORTED}
+     */
+    long getNextTimeout(final long candidate, final TimeZone timezone) {
+        if (empty) {
+            return NO_MORE_TIMEOUTS;
+        }
+        final long local = candidate + timezone.getOffset(candidate);
+        final long epochDay = floorDiv(local, MILLIS_PER_DAY);
+        final int millisOfDay = (int) (local - epochDay * MILLIS_PER_DAY);
+        final int millis = millisOfDay % 1000;
+        int second = millisOfDay / 1000 % 60;
+        int minute = millisOfDay / 60000 % 60;
+        int hour = millisOfDay / 3600000;
+
+        // civil from days, see http://howardhinnant.github.io/date_algorithms.html
+        final long z = epochDay + 719468;
+        final long era = floorDiv(z, 146097);
+        final int dayOfEra = (int) (z - era * 146097);
+        final int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        final int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        final int mp = (5 * dayOfYear + 2) / 153;
+        int day = dayOfYear - (153 * mp + 2) / 5 + 1;
+        int month = mp < 10 ? mp + 2 : mp - 10;
+        int year = (int) (yearOfEra + era * 400) + (month < 2 ? 1 : 0);
+
+        if (year < FIRST_GREGORIAN_YEAR) {
+            return UNSUPPORTED;
+        }
+        for (;;) {
+            if (year > Year.MAX_YEAR) {
+                return NO_MORE_TIMEOUTS;
+            }
+            if (years != null) {
+                final int next = nextYear(year);
+                if (next < 0) {
+                    return NO_MORE_TIMEOUTS;
+                }
+                if (next != year) {
+                    year = next;
+                    month = 0;
+                    day = 1;
+                    hour = minute = second = 0;
+                }
+            }
+            final int nextMonth = next(months, month);
+            if (nextMonth < 0) {
+                year++;
+                month = 0;
+                day = 1;
+                hour = minute = second = 0;
+                continue;
+            }
+            if (nextMonth != month) {
+                month = nextMonth;
+                day = 1;
+                hour = minute = second = 0;
+            }
+            final int nextDay = next(days(year, month), day);
+            if (nextDay < 0) {
+                if (++month == 12) {
+                    year++;
+                    month = 0;
+                }
+                day = 1;
+                hour = minute = second = 0;
+                continue;
+            }
+            if (nextDay != day) {
+                day = nextDay;
+                hour = minute = second = 0;
+            }
+            final int nextHour = next(hours, hour);
+            if (nextHour < 0) {
+                day++;
+                hour = minute = second = 0;
+                continue;
+            }
+            if (nextHour != hour) {
+                hour = nextHour;
+                minute = second = 0;
+            }
+            final int nextMinute = next(minutes, minute);
+            if (nextMinute < 0) {
+                hour++;
+                minute = second = 0;
+                continue;
+            }
+            if (nextMinute != minute) {
+                minute = nextMinute;
+                second = 0;
+            }
+            final int nextSecond = next(seconds, second);
+            if (nextSecond < 0) {
+                minute++;
+                second = 0;
+                continue;
+            }
+            second = nextSecond;
+            break;
+        }
+        final long resultDay = epochDay(year, month, day);
+        final int offset = offset(resultDay, timezone);
+        if (offset == NO_FIXED_OFFSET) {
+            return UNSUPPORTED;
+        }
+        return resultDay * MILLIS_PER_DAY + ((hour * 60 + minute) * 60 + second) * 1000L + millis - offset;
+    }
+
+    /**
+     * Returns the days of the month which match the schedule, as a bit mask with bit <code>n</code> set for day
+     * <code>n</code>.
+     */
+    private long days(final int year, final int month) {
+        final int length = monthLength(year, month);
+        final long all = (1L << (length + 1)) - 2;
+        final long weekDays = daysOfWeek[(int) floorMod(epochDay(year, month, 1) + 4, 7)];
+        final long days;
+        if (anyDayOfMonth) {
+            days = weekDays;
+        } else if (anyDayOfWeek) {
+            days = daysOfMonth(year, month);
+        } else {
+            days = daysOfMonth(year, month) | weekDays;
+        }
+        return days & all;
+    }
+
+    private long daysOfMonth(final int year, final int month) {
+        if (!dayOfMonth.hasRelativeDayOfMonth()) {
+            return daysOfMonth;
+        }
+        final int key = year * 12 + month;
+        final MonthDays cached = cachedMonthDays;
+        if (cached != null && cached.month == key) {
+            return cached.days;
+        }
+        final long days = dayOfMonth.getMatchingDays(new GregorianCalendar(year, month, 1));
+        cachedMonthDays = new MonthDays(key, days);
+        return days;
+    }
+
+    /**
+     * Returns the offset of the time zone during the whole local day, or {@link #NO_FIXED_OFFSET} if the offset
+     * changes on or around that day.
+     */
+    private int offset(final long epochDay, final TimeZone timezone) {
+        final DayOffset cached = cachedDayOffset;
+        if (cached != null && cached.epochDay == epochDay && cached.timezone == timezone) {
+            return cached.offset;
+        }
+        final long dayStart = epochDay * MILLIS_PER_DAY;
+        int offset = timezone.getOffset(dayStart - MAX_OFFSET);
+        if (offset != timezone.getOffset(dayStart + MILLIS_PER_DAY / 2)
+                || offset != timezone.getOffset(dayStart + MILLIS_PER_DAY + MAX_OFFSET)) {
+            offset = NO_FIXED_OFFSET;
+        }
+        cachedDayOffset = new DayOffset(timezone, epochDay, offset);
+        return offset;
+    }
+
+    private int nextYear(final int year) {
+        int index = Arrays.binarySearch(years, year);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return index < years.length ? years[index] : -1;
+    }
+
+    /**
+     * Returns the lowest bit set in <code>mask</code> at or above <code>from</code>, or -1 if there is none.
+     */
+    private static int next(final long mask, final int from) {
+        if (from > 63) {
+            return -1;
+        }
+        final long candidates = mask & (-1L << from);
+        return candidates == 0 ? -1 : Long.numberOfTrailingZeros(candidates);
+    }
+
+    private static long mask(final IntegerBasedExpression expression, final int min, final int max) {
+        if (expression.isWildcard()) {
+            return (-1L >>> (63 - max)) & (-1L << min);
+        }
+        long mask = 0;
+        for (Integer value : expression.getAbsoluteValues()) {
+            if (value >= min && value <= max) {
+                mask |= 1L << value;
+            }
+        }
+        return mask;
+    }
+
+    private static long epochDay(final int year, final int month, final int day) {
+        // days from civil, month is 0 based
+        final int y = month < 2 ? year - 1 : year;
+        final long era = floorDiv(y, 400);
+        final int yearOfEra = (int) (y - era * 400);
+        final int m = month + 1;
+        final int dayOfYear = (153 * (m > 2 ? m - 3 : m + 9) + 2) / 5 + day - 1;
+        final int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    private static int monthLength(final int year, final int month) {
+        switch (month) {
+            case Calendar.FEBRUARY:
+                return (year % 4 == 0 && year % 100 != 0) || year % 400 == 0 ? 29 : 28;
+            case Calendar.APRIL:
+            case Calendar.JUNE:
+            case Calendar.SEPTEMBER:
+            case Calendar.NOVEMBER:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    private static long floorDiv(final long x, final long y) {
+        final long q = x / y;
+        return (x % y != 0 && ((x ^ y) < 0)) ? q - 1 : q;
+    }
+
+    private static long floorMod(final long x, final long y) {
+        return x - floorDiv(x, y) * y;
+    }
+
+    private static final class MonthDays {
+        final int month;
+        final long days;
+
+        MonthDays(final int month, final long days) {
+            this.month = month;
+            this.days = days;
+        }
+    }
+
+    private static final class DayOffset {
+        final TimeZone timezone;
+        final long epochDay;
+        final int offset;
+
+        DayOffset(final TimeZone timezone, final long epochDay, final int offset) {
+            this.timezone = timezone;
+            this.epochDay = epochDay;
+            this.offset = offset;
+        }
+    }
+}
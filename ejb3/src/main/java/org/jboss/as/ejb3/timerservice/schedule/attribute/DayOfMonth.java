@@ -188,13 +188,38 @@ public class DayOfMonth extends IntegerBasedExpression {
         super.assertValid(value);
     }
 
-    private boolean hasRelativeDayOfMonth() {
+    /**
+     * Returns true if the days matched by this expression depend on the month, for example for "Last" or "2nd Fri".
+     *
+     * @return true if there are relative values
+     */
+    public boolean hasRelativeDayOfMonth() {
         if (this.relativeValues.isEmpty()) {
             return false;
         }
         return true;
     }
 
+    /**
+     * Returns the days in the month of the passed calendar which are matched by this expression, as a bit mask
+     * with bit <code>n</code> set for day <code>n</code>. A wildcard matches all days.
+     *
+     * @param cal a calendar set to the month
+     * @return the matching days
+     */
+    public long getMatchingDays(Calendar cal) {
+        if (this.scheduleExpressionType == ScheduleExpressionType.WILDCARD) {
+            return (1L << (MAX_DAY_OF_MONTH + 1)) - 2;
+        }
+        long days = 0;
+        for (Integer day : this.getEligibleDaysOfMonth(cal)) {
+            if (day >= 1 && day <= MAX_DAY_OF_MONTH) {
+                days |= 1L << day;
+            }
+        }
+        return days;
+    }
+
     private SortedSet<Integer> getEligibleDaysOfMonth(Calendar cal) {
         if (this.hasRelativeDayOfMonth() == false) {
             return this.absoluteValues;
@@ -29,6 +29,7 @@ import org.jboss.as.ejb3.timerservice.schedule.value.ScheduleExpressionType;
 import org.jboss.as.ejb3.timerservice.schedule.value.ScheduleValue;
 import org.jboss.as.ejb3.timerservice.schedule.value.SingleValue;
 
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.SortedSet;
@@ -212,4 +213,22 @@ public abstract class IntegerBasedExpression {
 
     public abstract boolean isRelativeValue(String value);
 
+    /**
+     * Returns true if this expression is a wildcard, i.e. matches all possible values.
+     *
+     * @return true for a {@link ScheduleExpressionType#WILDCARD}
+     */
+    public boolean isWildcard() {
+        return this.scheduleExpressionType == ScheduleExpressionType.WILDCARD;
+    }
+
+    /**
+     * Returns the absolute values this expression matches, which is empty for a wildcard.
+     *
+     * @return the absolute values, in ascending order
+     */
+    public SortedSet<Integer> getAbsoluteValues() {
+        return Collections.unmodifiableSortedSet(this.absoluteValues);
+    }
+
 }
@@ -0,0 +1,382 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.scheduler;
+
+import static org.jboss.as.ejb3.EjbLogger.ROOT_LOGGER;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+
+import org.jboss.as.ejb3.timerservice.spi.TimeoutScheduler;
+
+/**
+ * A {@link TimeoutScheduler} based on a hierarchical timing wheel.
+ * <p/>
+ * Time is divided into ticks. The root wheel has a slot for each of the next 256 ticks, each of the four outer wheels
+ * has 64 slots which each cover a whole turn of the next inner wheel, so about 2^32 ticks can be represented. Adding
+ * or cancelling a task is O(1), and a task is moved inwards at most four times before it expires. Tasks which are
+ * further away than the outermost wheel are parked in its last slot and placed again when it comes round.
+ * <p/>
+ * The wheels are only ever touched by a single worker thread. Other threads hand new and cancelled tasks over through
+ * lock-free queues, so scheduling never blocks. Expired tasks are run on the worker thread, so they must only dispatch
+ * the real work to another executor. A task never runs before its deadline, and at most one tick after it.
+ */
+public class TimingWheelScheduler implements TimeoutScheduler {
+
+    /**
+     * The default tick duration, in milliseconds.
+     */
+    public static final long DEFAULT_TICK_DURATION = 10;
+
+    private static final int ROOT_BITS = 8;
+    private static final int ROOT_SIZE = 1 << ROOT_BITS;
+    private static final int ROOT_MASK = ROOT_SIZE - 1;
+    private static final int LEVEL_BITS = 6;
+    private static final int LEVEL_SIZE = 1 << LEVEL_BITS;
+    private static final int LEVEL_MASK = LEVEL_SIZE - 1;
+    private static final int LEVELS = 4;
+    private static final long MAX_TICKS = (1L << (ROOT_BITS + LEVELS * LEVEL_BITS)) - 1;
+
+    private static final int INITIAL = 0;
+    private static final int STARTED = 1;
+    private static final int STOPPED = 2;
+
+    private final ThreadFactory threadFactory;
+    private final long tickNanos;
+    private final long startTime = System.nanoTime();
+
+    private final Queue<Entry> pendingAdditions = new ConcurrentLinkedQueue<Entry>();
+    private final Queue<Entry> pendingCancellations = new ConcurrentLinkedQueue<Entry>();
+
+    private volatile int state = INITIAL;
+    private volatile Thread worker;
+    /**
+     * Set while the worker waits without a timeout because no task is scheduled at all.
+     */
+    private volatile boolean idle;
+
+    // the following fields are only accessed by the worker thread
+    private final Bucket[] root = newBuckets(ROOT_SIZE);
+    private final Bucket[][] levels = new Bucket[LEVELS][];
+    private long currentTick;
+    private int size;
+
+    public TimingWheelScheduler(final ThreadFactory threadFactory) {
+        this(threadFactory, DEFAULT_TICK_DURATION, TimeUnit.MILLISECONDS);
+    }
+
+    public TimingWheelScheduler(final ThreadFactory threadFactory, final long tickDuration, final TimeUnit unit) {
+        this.threadFactory = threadFactory;
+        this.tickNanos = Math.max(1, unit.toNanos(tickDuration));
+        for (int i = 0; i < LEVELS; i++) {
+            levels[i] = newBuckets(LEVEL_SIZE);
+        }
+    }
+
+    public synchronized void start() {
+        if (state != INITIAL) {
+            return;
+        }
+        state = STARTED;
+        worker = threadFactory.newThread(new Worker());
+        worker.start();
+    }
+
+    public synchronized void stop() {
+        state = STOPPED;
+        final Thread worker = this.worker;
+        if (worker != null) {
+            LockSupport.unpark(worker);
+        }
+    }
+
+    @Override
+    public ScheduledTimeout schedule(final Runnable task, final long delay) {
+        return add(new Entry(this, task, deadline(delay), 0));
+    }
+
+    @Override
+    public ScheduledTimeout scheduleAtFixedRate(final Runnable task, final long delay, final long period) {
+        return add(new Entry(this, task, deadline(delay), TimeUnit.MILLISECONDS.toNanos(period)));
+    }
+
+    private long deadline(final long delay) {
+        return System.nanoTime() - startTime + TimeUnit.MILLISECONDS.toNanos(Math.max(0, delay));
+    }
+
+    private Entry add(final Entry entry) {
+        pendingAdditions.offer(entry);
+        if (idle) {
+            LockSupport.unpark(worker);
+        }
+        return entry;
+    }
+
+    private static Bucket[] newBuckets(final int count) {
+        final Bucket[] buckets = new Bucket[count];
+        for (int i = 0; i < count; i++) {
+            buckets[i] = new Bucket();
+        }
+        return buckets;
+    }
+
+    /**
+     * Places an entry into the slot matching its deadline.
+     */
+    private void place(final Entry entry) {
+        long expires = entry.deadline / tickNanos;
+        final long ticks = expires - currentTick;
+        final Bucket bucket;
+        if (ticks < 0) {
+            // overdue, run it with the current tick
+            bucket = root[(int) (currentTick & ROOT_MASK)];
+        } else if (ticks < ROOT_SIZE) {
+            bucket = root[(int) (expires & ROOT_MASK)];
+        } else {
+            if (ticks > MAX_TICKS) {
+                // placed again when the slot is cascaded
+                expires = currentTick + MAX_TICKS;
+            }
+            int level = 0;
+            while (level < LEVELS - 1 && ticks >= 1L << (ROOT_BITS + (level + 1) * LEVEL_BITS)) {
+                level++;
+            }
+            bucket = levels[level][(int) ((expires >>> (ROOT_BITS + level * LEVEL_BITS)) & LEVEL_MASK)];
+        }
+        bucket.add(entry);
+    }
+
+    /**
+     * Advances the wheel by one tick and runs the tasks which expired.
+     */
+    private void tick() {
+        final int index = (int) (currentTick & ROOT_MASK);
+        if (index == 0) {
+            // the root wheel completed a turn, move the tasks of the next slots of the outer wheels inwards
+            for (int level = 0; level < LEVELS; level++) {
+                final int slot = (int) ((currentTick >>> (ROOT_BITS + level * LEVEL_BITS)) & LEVEL_MASK);
+                Entry entry = levels[level][slot].clear();
+                while (entry != null) {
+                    final Entry next = entry.next;
+                    entry.next = null;
+                    if (entry.isWaiting()) {
+                        place(entry);
+                    } else {
+                        size--;
+                    }
+                    entry = next;
+                }
+                if (slot != 0) {
+                    break;
+                }
+            }
+        }
+        // tasks which are re-added from here on belong to the next tick at the earliest
+        currentTick++;
+        Entry entry = root[index].clear();
+        while (entry != null) {
+            final Entry next = entry.next;
+            entry.next = null;
+            size--;
+            expire(entry);
+            entry = next;
+        }
+    }
+
+    private void expire(final Entry entry) {
+        if (entry.period == 0) {
+            if (!entry.expire()) {
+                return;
+            }
+        } else if (!entry.isWaiting()) {
+            return;
+        }
+        try {
+            entry.task.run();
+        } catch (Throwable t) {
+            ROOT_LOGGER.failedToDispatchTimeout(entry.task, t);
+        }
+        if (entry.period > 0 && entry.isWaiting()) {
+            entry.deadline += entry.period;
+            size++;
+            place(entry);
+        }
+    }
+
+    private void processCancellations() {
+        Entry entry;
+        while ((entry = pendingCancellations.poll()) != null) {
+            if (entry.bucket != null) {
+                entry.bucket.remove(entry);
+                size--;
+            }
+        }
+    }
+
+    private void processAdditions() {
+        Entry entry;
+        while ((entry = pendingAdditions.poll()) != null) {
+            if (entry.isWaiting()) {
+                size++;
+                place(entry);
+            }
+        }
+    }
+
+    /**
+     * Waits until the current tick is over.
+     *
+     * @return {@code false} if the scheduler has been stopped
+     */
+    private boolean awaitTick() {
+        for (;;) {
+            if (state != STARTED) {
+                return false;
+            }
+            final long now = System.nanoTime() - startTime;
+            final long tickDeadline = tickNanos * (currentTick + 1);
+            if (now >= tickDeadline) {
+                return true;
+            }
+            if (size == 0 && pendingAdditions.isEmpty()) {
+                idle = true;
+                if (pendingAdditions.isEmpty() && state == STARTED) {
+                    LockSupport.park(this);
+                }
+                idle = false;
+                // the wheel is empty, so no tick has to be processed on the way to the current time
+                currentTick = Math.max(currentTick, (System.nanoTime() - startTime) / tickNanos);
+            } else {
+                LockSupport.parkNanos(this, tickDeadline - now);
+            }
+        }
+    }
+
+    private class Worker implements Runnable {
+        @Override
+        public void run() {
+            currentTick = (System.nanoTime() - startTime) / tickNanos;
+            while (awaitTick()) {
+                processCancellations();
+                processAdditions();
+                tick();
+            }
+            pendingAdditions.clear();
+            pendingCancellations.clear();
+        }
+    }
+
+    private static final class Bucket {
+        private Entry head;
+        private Entry tail;
+
+        void add(final Entry entry) {
+            entry.bucket = this;
+            entry.prev = tail;
+            if (tail == null) {
+                head = entry;
+            } else {
+                tail.next = entry;
+            }
+            tail = entry;
+        }
+
+        void remove(final Entry entry) {
+            if (entry.prev == null) {
+                head = entry.next;
+            } else {
+                entry.prev.next = entry.next;
+            }
+            if (entry.next == null) {
+                tail = entry.prev;
+            } else {
+                entry.next.prev = entry.prev;
+            }
+            entry.prev = entry.next = null;
+            entry.bucket = null;
+        }
+
+        /**
+         * Empties the bucket.
+         *
+         * @return the first entry of the removed chain, linked through {@link Entry#next}
+         */
+        Entry clear() {
+            final Entry first = head;
+            for (Entry entry = first; entry != null; entry = entry.next) {
+                entry.prev = null;
+                entry.bucket = null;
+            }
+            head = tail = null;
+            return first;
+        }
+    }
+
+    private static final class Entry implements ScheduledTimeout {
+        private static final AtomicIntegerFieldUpdater<Entry> STATE_UPDATER = AtomicIntegerFieldUpdater.newUpdater(Entry.class, "state");
+        private static final int WAITING = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        final TimingWheelScheduler scheduler;
+        final Runnable task;
+        final long period;
+        /**
+         * Nanoseconds since the start time of the scheduler.
+         */
+        long deadline;
+        private volatile int state = WAITING;
+
+        // only accessed by the worker thread
+        Bucket bucket;
+        Entry prev;
+        Entry next;
+
+        Entry(final TimingWheelScheduler scheduler, final Runnable task, final long deadline, final long period) {
+            this.scheduler = scheduler;
+            this.task = task;
+            this.deadline = deadline;
+            this.period = period;
+        }
+
+        boolean isWaiting() {
+            return state == WAITING;
+        }
+
+        boolean expire() {
+            return STATE_UPDATER.compareAndSet(this, WAITING, EXPIRED);
+        }
+
+        @Override
+        public boolean cancel() {
+            if (!STATE_UPDATER.compareAndSet(this, WAITING, CANCELLED)) {
+                return false;
+            }
+            scheduler.pendingCancellations.offer(this);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.spi;
+
+/**
+ * Schedules the timeouts of the timers of a {@link org.jboss.as.ejb3.timerservice.TimerServiceImpl}.
+ * <p/>
+ * The scheduled tasks are expected to return quickly, the timer service only uses them to hand the timeout over to
+ * its own executor. An implementation may therefore run them on a single internal thread.
+ */
+public interface TimeoutScheduler {
+
+    /**
+     * Schedules a task to run once after the given delay.
+     *
+     * @param task  the task
+     * @param delay the delay in milliseconds, a negative delay is treated as zero
+     * @return the handle to cancel the task with
+     */
+    ScheduledTimeout schedule(Runnable task, long delay);
+
+    /**
+     * Schedules a task to run repeatedly, first after the given delay and then at a fixed rate.
+     *
+     * @param task   the task
+     * @param delay  the delay in milliseconds until the first run, a negative delay is treated as zero
+     * @param period the time in milliseconds between the start of successive runs, must be positive
+     * @return the handle to cancel the task with
+     */
+    ScheduledTimeout scheduleAtFixedRate(Runnable task, long delay, long period);
+
+    /**
+     * A scheduled task.
+     */
+    interface ScheduledTimeout {
+
+        /**
+         * Cancels the task. A task which is already running is not interrupted.
+         *
+         * @return {@code true} if this call prevented at least one run of the task
+         */
+        boolean cancel();
+    }
+}
@@ -97,6 +97,10 @@ public class TimerTask<T extends TimerImpl> implements Runnable {
                 ROOT_LOGGER.debug("Timer task was cancelled for " + timer);
                 return;
             }
+            if (!timerService.shouldRun(timer)) {
+                ROOT_LOGGER.debug("Timer " + timer + " is owned by another node, skipping this scheduled execution");
+                return;
+            }
 
             Date now = new Date();
             if (ROOT_LOGGER.isDebugEnabled()) {
@@ -0,0 +1,175 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.cache.spi.impl;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link BlockDelta}
+ */
+public class BlockDeltaTestCase {
+
+    private static final int SIZE = 10 * BlockDelta.BLOCK_SIZE + 17;
+
+    @Test
+    public void testUnchangedImage() throws IOException {
+        final byte[] image = new byte[SIZE];
+        new Random(42).nextBytes(image);
+        final byte[][] digests = BlockDelta.digest(image, image.length);
+        assertEquals(11, digests.length);
+        assertEquals(0, BlockDelta.changedBlocks(digests, BlockDelta.digest(image.clone(), image.length)).length);
+    }
+
+    @Test
+    public void testChangedBytes() throws IOException {
+        final Random random = new Random(42);
+        final byte[] previous = new byte[SIZE];
+        random.nextBytes(previous);
+        final byte[] current = previous.clone();
+        current[5] ^= 1;
+        current[3 * BlockDelta.BLOCK_SIZE] ^= 1;
+        current[SIZE - 1] ^= 1;
+        final int[] blocks = BlockDelta.changedBlocks(BlockDelta.digest(previous, previous.length), BlockDelta.digest(current, current.length));
+        assertArrayEquals(new int[]{0, 3, 10}, blocks);
+        assertArrayEquals(current, this.apply(previous, current, current.length, blocks));
+    }
+
+    @Test
+    public void testChangedLength() throws IOException {
+        final Random random = new Random(42);
+        final byte[] previous = new byte[SIZE];
+        random.nextBytes(previous);
+        // grows into new blocks, the tail of the last block changes even though its bytes are the same
+        final byte[] grown = Arrays.copyOf(previous, SIZE + 2 * BlockDelta.BLOCK_SIZE);
+        int[] blocks = BlockDelta.changedBlocks(BlockDelta.digest(previous, previous.length), BlockDelta.digest(grown, grown.length));
+        assertArrayEquals(new int[]{10, 11, 12}, blocks);
+        assertArrayEquals(grown, this.apply(previous, grown, grown.length, blocks));
+        // shrinks within the last block
+        final byte[] shrunk = Arrays.copyOf(previous, SIZE - 10);
+        blocks = BlockDelta.changedBlocks(BlockDelta.digest(previous, previous.length), BlockDelta.digest(shrunk, shrunk.length));
+        assertArrayEquals(new int[]{10}, blocks);
+        assertArrayEquals(shrunk, this.apply(previous, shrunk, shrunk.length, blocks));
+        // shrinks to a whole number of blocks
+        final byte[] truncated = Arrays.copyOf(previous, 4 * BlockDelta.BLOCK_SIZE);
+        blocks = BlockDelta.changedBlocks(BlockDelta.digest(previous, previous.length), BlockDelta.digest(truncated, truncated.length));
+        assertEquals(0, blocks.length);
+        assertArrayEquals(truncated, this.apply(previous, truncated, truncated.length, blocks));
+    }
+
+    @Test
+    public void testSuccessiveDeltas() throws IOException {
+        final Random random = new Random(42);
+        byte[] current = new byte[SIZE];
+        random.nextBytes(current);
+        final byte[] snapshot = current.clone();
+        final ByteArrayOutputStream deltas = new ByteArrayOutputStream();
+        final DataOutputStream output = new DataOutputStream(deltas);
+        long size = 0;
+        for (int i = 0; i < 20; i++) {
+            final byte[][] digests = BlockDelta.digest(current, current.length);
+            // the buffer a marshaller writes to is usually larger than the image
+            final byte[] next = Arrays.copyOf(current, current.length + random.nextInt(100) + BlockDelta.BLOCK_SIZE);
+            next[random.nextInt(next.length)] = (byte) random.nextInt();
+            final int length = current.length + random.nextInt(100) - 50;
+            final int[] blocks = BlockDelta.changedBlocks(digests, BlockDelta.digest(next, length));
+            BlockDelta.write(output, next, length, blocks);
+            size += BlockDelta.size(length, blocks);
+            assertEquals(size, deltas.size());
+            current = Arrays.copyOf(next, length);
+        }
+        final DataInputStream input = new DataInputStream(new ByteArrayInputStream(deltas.toByteArray()));
+        byte[] image = snapshot;
+        while (input.available() > 0) {
+            image = BlockDelta.apply(input, image);
+        }
+        assertArrayEquals(current, image);
+    }
+
+    @Test
+    public void testIncompleteRecord() throws IOException {
+        final Random random = new Random(42);
+        final byte[] previous = new byte[SIZE];
+        random.nextBytes(previous);
+        final byte[] current = previous.clone();
+        current[3 * BlockDelta.BLOCK_SIZE] ^= 1;
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        BlockDelta.write(new DataOutputStream(bytes), current, current.length, new int[]{3});
+        final byte[] record = bytes.toByteArray();
+        for (final int length : new int[]{2, 8, 100, record.length - 1}) {
+            final byte[] image = previous.clone();
+            try {
+                BlockDelta.apply(new DataInputStream(new ByteArrayInputStream(Arrays.copyOf(record, length))), image);
+                fail("Applied a record cut to " + length + " bytes");
+            } catch (EOFException expected) {
+            }
+            assertArrayEquals(previous, image);
+        }
+    }
+
+    @Test
+    public void testCorruptRecord() throws IOException {
+        final Random random = new Random(42);
+        final byte[] previous = new byte[SIZE];
+        random.nextBytes(previous);
+        final byte[] current = previous.clone();
+        current[3 * BlockDelta.BLOCK_SIZE] ^= 1;
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        BlockDelta.write(new DataOutputStream(bytes), current, current.length, new int[]{3});
+        final byte[] record = bytes.toByteArray();
+        record[20] ^= 1;
+        try {
+            BlockDelta.apply(new DataInputStream(new ByteArrayInputStream(record)), previous);
+            fail("Applied a corrupt record");
+        } catch (StreamCorruptedException expected) {
+        }
+        // applied to another image than the one it was written for
+        final byte[] other = previous.clone();
+        other[0] ^= 1;
+        try {
+            BlockDelta.apply(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), other);
+            fail("Applied a record to the wrong image");
+        } catch (StreamCorruptedException expected) {
+        }
+    }
+
+    private byte[] apply(final byte[] previous, final byte[] current, final int length, final int[] blocks) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        BlockDelta.write(new DataOutputStream(bytes), current, length, blocks);
+        assertEquals(BlockDelta.size(length, blocks), bytes.size());
+        return BlockDelta.apply(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), previous.clone());
+    }
+}
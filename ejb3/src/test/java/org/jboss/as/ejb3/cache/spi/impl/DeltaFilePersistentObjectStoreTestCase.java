@@ -0,0 +1,243 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.cache.spi.impl;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Random;
+
+import org.jboss.as.ejb3.cache.Cacheable;
+import org.jboss.as.ejb3.cache.PassivationManager;
+import org.jboss.marshalling.MarshallingConfiguration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests {@link DeltaFilePersistentObjectStore}
+ */
+public class DeltaFilePersistentObjectStoreTestCase {
+
+    private static final int SIZE = 64 * BlockDelta.BLOCK_SIZE;
+
+    private File directory;
+
+    @Before
+    public void createDirectory() throws IOException {
+        directory = File.createTempFile("delta-passivation", "");
+        directory.delete();
+        directory.mkdirs();
+    }
+
+    @After
+    public void deleteDirectory() {
+        delete(directory);
+    }
+
+    @Test
+    public void testRoundTrip() {
+        final DeltaFilePersistentObjectStore<String, Bean> store = this.createStore();
+        store.start();
+        try {
+            final Bean bean = new Bean("bean", SIZE);
+            new Random(42).nextBytes(bean.state);
+            final File file = store.getFile(bean.getId());
+            final File deltaFile = store.getDeltaFile(bean.getId());
+
+            store.store(bean);
+            assertTrue(file.exists());
+            assertFalse(deltaFile.exists());
+            final long snapshotLength = file.length();
+
+            // the snapshot is kept on activation, and the next passivation only appends the changed block
+            Bean active = store.load(bean.getId());
+            assertArrayEquals(bean.state, active.state);
+            active.state[5 * BlockDelta.BLOCK_SIZE] ^= 1;
+            store.store(active);
+            assertEquals(snapshotLength, file.length());
+            assertTrue(deltaFile.exists());
+            assertTrue(deltaFile.length() < 2 * BlockDelta.BLOCK_SIZE);
+
+            active = store.load(bean.getId());
+            active.state[SIZE - 1] ^= 1;
+            store.store(active);
+            final byte[] expected = active.state;
+
+            // the delta file is replayed onto the snapshot, also by a store which did not write them
+            assertArrayEquals(expected, store.load(bean.getId()).state);
+            // not stopped, that would delete the directory of both stores
+            final DeltaFilePersistentObjectStore<String, Bean> restarted = this.createStore();
+            restarted.start();
+            assertArrayEquals(expected, restarted.load(bean.getId()).state);
+
+            store.remove(bean.getId());
+            assertFalse(file.exists());
+            assertFalse(deltaFile.exists());
+            assertNull(store.load(bean.getId()));
+        } finally {
+            store.stop();
+        }
+    }
+
+    @Test
+    public void testNewSnapshot() {
+        final DeltaFilePersistentObjectStore<String, Bean> store = this.createStore();
+        store.start();
+        try {
+            final Bean bean = new Bean("bean", SIZE);
+            final Random random = new Random(42);
+            random.nextBytes(bean.state);
+            final File deltaFile = store.getDeltaFile(bean.getId());
+            store.store(bean);
+            Bean active = bean;
+            for (int i = 0; i < DeltaFilePersistentObjectStore.MAX_DELTAS; i++) {
+                active = store.load(bean.getId());
+                active.state[random.nextInt(SIZE)] ^= 1;
+                store.store(active);
+            }
+            assertTrue(deltaFile.exists());
+            // the deltas are dropped in favor of a new snapshot once there are too many of them
+            active = store.load(bean.getId());
+            active.state[0] ^= 1;
+            store.store(active);
+            assertFalse(deltaFile.exists());
+            assertArrayEquals(active.state, store.load(bean.getId()).state);
+        } finally {
+            store.stop();
+        }
+    }
+
+    @Test
+    public void testIncompleteDelta() throws IOException {
+        final DeltaFilePersistentObjectStore<String, Bean> store = this.createStore();
+        store.start();
+        try {
+            final Bean bean = new Bean("bean", SIZE);
+            new Random(42).nextBytes(bean.state);
+            final File file = store.getFile(bean.getId());
+            final File deltaFile = store.getDeltaFile(bean.getId());
+            store.store(bean);
+            Bean active = store.load(bean.getId());
+            active.state[0] ^= 1;
+            store.store(active);
+            final byte[] expected = active.state.clone();
+            final long deltaLength = deltaFile.length();
+            active = store.load(bean.getId());
+            active.state[SIZE - 1] ^= 1;
+            store.store(active);
+
+            // a crash while the second delta was appended
+            final RandomAccessFile raf = new RandomAccessFile(deltaFile, "rw");
+            try {
+                raf.setLength(deltaLength + 10);
+            } finally {
+                raf.close();
+            }
+            final DeltaFilePersistentObjectStore<String, Bean> restarted = this.createStore();
+            restarted.start();
+            active = restarted.load(bean.getId());
+            assertArrayEquals(expected, active.state);
+
+            // the next passivation does not append after the incomplete record
+            final long snapshotLength = file.length();
+            active.state[1] ^= 1;
+            restarted.store(active);
+            assertFalse(deltaFile.exists());
+            assertEquals(snapshotLength, file.length());
+            assertArrayEquals(active.state, restarted.load(bean.getId()).state);
+        } finally {
+            store.stop();
+        }
+    }
+
+    private DeltaFilePersistentObjectStore<String, Bean> createStore() {
+        return new DeltaFilePersistentObjectStore<String, Bean>(new BeanPassivationManager(), directory.getAbsolutePath(), 1);
+    }
+
+    private static void delete(final File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+
+    static class Bean implements Cacheable<String> {
+        private static final long serialVersionUID = 1L;
+
+        private final String id;
+        final byte[] state;
+
+        Bean(final String id, final int size) {
+            this.id = id;
+            this.state = new byte[size];
+        }
+
+        @Override
+        public String getId() {
+            return this.id;
+        }
+
+        @Override
+        public boolean isModified() {
+            return true;
+        }
+    }
+
+    static class BeanPassivationManager implements PassivationManager<String, Bean> {
+
+        @Override
+        public int getCurrentMarshallingVersion() {
+            return 1;
+        }
+
+        @Override
+        public MarshallingConfiguration getMarshallingConfiguration(final int version) {
+            final MarshallingConfiguration config = new MarshallingConfiguration();
+            config.setVersion(3);
+            return config;
+        }
+
+        @Override
+        public void postActivate(final Bean obj) {
+        }
+
+        @Override
+        public void prePassivate(final Bean obj) {
+        }
+
+        @Override
+        public ClassLoader getClassLoader() {
+            return this.getClass().getClassLoader();
+        }
+    }
+}
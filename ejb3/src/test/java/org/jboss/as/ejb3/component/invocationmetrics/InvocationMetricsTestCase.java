@@ -0,0 +1,102 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright (c) 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.component.invocationmetrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link InvocationMetrics} and {@link LatencyHistogram}.
+ */
+public class InvocationMetricsTestCase {
+
+    @Test
+    public void testHistogramBuckets() {
+        long previous = -1;
+        for (int index = 0; index < 528; index++) {
+            final long highest = LatencyHistogram.highestValue(index);
+            assertTrue(highest > previous);
+            // every value of a bucket maps back to it
+            assertEquals(index, LatencyHistogram.index(previous + 1));
+            assertEquals(index, LatencyHistogram.index(highest));
+            // the width of a bucket is at most 1/16 of its values
+            assertTrue(highest - previous <= Math.max(1, (previous + 1) / 16));
+            previous = highest;
+        }
+    }
+
+    @Test
+    public void testPercentiles() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getValueAtPercentile(50));
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000);
+        }
+        assertWithinPrecision(500000, histogram.getValueAtPercentile(50));
+        assertWithinPrecision(990000, histogram.getValueAtPercentile(99));
+        assertWithinPrecision(999000, histogram.getValueAtPercentile(99.9));
+        assertWithinPrecision(1000000, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void testConcurrentInvocations() throws Exception {
+        final InvocationMetrics metrics = new InvocationMetrics();
+        final Method method = Object.class.getMethod("toString");
+        final int threads = 8;
+        final int invocations = 10000;
+        final CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < invocations; i++) {
+                        metrics.startInvocation();
+                        metrics.finishInvocation(method, TimeUnit.MICROSECONDS.toNanos(100), TimeUnit.MILLISECONDS.toNanos(2));
+                    }
+                    done.countDown();
+                }
+            }).start();
+        }
+        assertTrue(done.await(60, TimeUnit.SECONDS));
+
+        assertEquals(threads * invocations, metrics.getInvocations());
+        assertEquals(0, metrics.getConcurrent());
+        assertEquals(threads * invocations * 2, metrics.getExecutionTime());
+        assertEquals(threads * invocations / 10, metrics.getWaitTime());
+        assertEquals(2.0, metrics.getExecutionTimePercentile(99), 2.0 / 16);
+        assertEquals(0.1, metrics.getWaitTimePercentile(50), 0.1 / 16);
+
+        final InvocationMetrics.Values values = metrics.getMethods().get("toString");
+        assertEquals(threads * invocations, values.getInvocations());
+        assertEquals(2.0, values.getExecutionTimePercentile(50), 2.0 / 16);
+    }
+
+    private static void assertWithinPrecision(final long expected, final long actual) {
+        assertTrue(actual + " is not close to " + expected, actual >= expected && actual <= expected + expected / 16);
+    }
+}
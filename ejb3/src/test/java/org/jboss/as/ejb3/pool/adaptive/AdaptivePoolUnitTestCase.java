@@ -0,0 +1,191 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.pool.adaptive;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.ejb3.EjbMessages;
+import org.jboss.as.ejb3.pool.StatelessObjectFactory;
+import org.jboss.as.ejb3.pool.common.MockBean;
+import org.jboss.as.ejb3.pool.common.MockFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the {@link AdaptivePool}.
+ */
+public class AdaptivePoolUnitTestCase {
+
+    @Before
+    public void setUp() {
+        MockBean.reset();
+    }
+
+    @Test
+    public void testGetRelease() {
+        StatelessObjectFactory<MockBean> factory = new MockFactory();
+        AdaptivePool<MockBean> pool = new AdaptivePool<MockBean>(factory, 2, 10, 1, TimeUnit.SECONDS, 1, TimeUnit.MINUTES, null);
+        pool.start();
+
+        MockBean bean = pool.get();
+        pool.release(bean);
+        assertSame(bean, pool.get());
+        pool.release(bean);
+
+        pool.stop();
+
+        assertEquals(1, MockBean.getPostConstructs());
+        assertEquals(1, MockBean.getPreDestroys());
+    }
+
+    /**
+     * The capacity only grows once callers have had to wait.
+     */
+    @Test
+    public void testGrow() {
+        StatelessObjectFactory<MockBean> factory = new MockFactory();
+        AdaptivePool<MockBean> pool = new AdaptivePool<MockBean>(factory, 2, 10, 10, TimeUnit.MILLISECONDS, 1, TimeUnit.MINUTES, null);
+        pool.start();
+
+        MockBean first = pool.get();
+        MockBean second = pool.get();
+        // not contended yet, long waits alone do not grow the pool
+        for (int i = 0; i < 32; i++) {
+            pool.recordWaitTime(100);
+        }
+        assertEquals(2, pool.getCapacity());
+
+        try {
+            pool.get();
+            fail("should have thrown an exception");
+        } catch (Exception e) {
+            assertEquals(EjbMessages.MESSAGES.failedToAcquirePermit(10, TimeUnit.MILLISECONDS).getMessage(), e.getMessage());
+        }
+        pool.recordWaitTime(100);
+        assertEquals(3, pool.getCapacity());
+
+        MockBean third = pool.get();
+        pool.release(first);
+        pool.release(second);
+        pool.release(third);
+        pool.stop();
+
+        assertEquals(3, MockBean.getPostConstructs());
+        assertEquals(3, MockBean.getPreDestroys());
+    }
+
+    /**
+     * Idle instances above the minimum size are evicted and the capacity follows the peak usage.
+     */
+    @Test
+    public void testEvictAndShrink() {
+        StatelessObjectFactory<MockBean> factory = new MockFactory();
+        AdaptivePool<MockBean> pool = new AdaptivePool<MockBean>(factory, 1, 10, 10, TimeUnit.MILLISECONDS, 1, TimeUnit.MINUTES, null);
+        pool.setMaxSize(10);
+
+        MockBean first = pool.get();
+        try {
+            pool.get();
+            fail("should have thrown an exception");
+        } catch (Exception e) {
+            // expected, the pool starts with a single instance
+        }
+        pool.recordWaitTime(100);
+        MockBean second = pool.get();
+        assertEquals(2, pool.getCapacity());
+        pool.release(first);
+        pool.release(second);
+        assertEquals(2, pool.getCurrentSize());
+
+        pool.evictIdle(System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(2));
+        assertEquals(1, pool.getCurrentSize());
+        assertEquals(1, MockBean.getPreDestroys());
+
+        // the peak usage since creation was two instances
+        pool.shrink();
+        assertEquals(2, pool.getCapacity());
+        // nothing was in use since the previous run
+        pool.shrink();
+        assertEquals(1, pool.getCapacity());
+
+        pool.stop();
+        assertEquals(2, MockBean.getPreDestroys());
+    }
+
+    /**
+     * A contention which did not grow the pool only delays the next shrink.
+     */
+    @Test
+    public void testShrinkAfterContention() {
+        StatelessObjectFactory<MockBean> factory = new MockFactory();
+        AdaptivePool<MockBean> pool = new AdaptivePool<MockBean>(factory, 1, 2, 10, TimeUnit.MILLISECONDS, 1, TimeUnit.MINUTES, null);
+
+        MockBean first = pool.get();
+        try {
+            pool.get();
+            fail("should have thrown an exception");
+        } catch (Exception e) {
+            // expected, the pool starts with a single instance
+        }
+        pool.recordWaitTime(100);
+        MockBean second = pool.get();
+        assertEquals(2, pool.getCapacity());
+        // contended again at the maximum size, which does not grow the pool
+        try {
+            pool.get();
+            fail("should have thrown an exception");
+        } catch (Exception e) {
+            // expected, both instances are in use
+        }
+        pool.release(first);
+        pool.release(second);
+
+        // skipped, callers had to wait since the previous run
+        pool.shrink();
+        assertEquals(2, pool.getCapacity());
+        pool.shrink();
+        assertEquals(1, pool.getCapacity());
+
+        pool.stop();
+    }
+
+    @Test
+    public void testSetMaxSize() {
+        StatelessObjectFactory<MockBean> factory = new MockFactory();
+        AdaptivePool<MockBean> pool = new AdaptivePool<MockBean>(factory, 2, 10, 1, TimeUnit.SECONDS, 1, TimeUnit.MINUTES, null);
+        pool.setMaxSize(3);
+        assertEquals(3, pool.getMaxSize());
+        assertEquals(2, pool.getCapacity());
+
+        try {
+            pool.setMaxSize(1);
+            fail("should have thrown an exception");
+        } catch (IllegalArgumentException e) {
+            assertEquals(EjbMessages.MESSAGES.minPoolSizeExceedsMaxPoolSize(2, 1).getMessage(), e.getMessage());
+        }
+        assertEquals(3, pool.getMaxSize());
+    }
+}
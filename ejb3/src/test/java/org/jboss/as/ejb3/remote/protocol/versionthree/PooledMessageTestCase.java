@@ -0,0 +1,88 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.remote.protocol.versionthree;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import org.junit.Test;
+import org.xnio.BufferAllocator;
+import org.xnio.ByteBufferSlicePool;
+import org.xnio.Pool;
+
+/**
+ * Tests {@link PooledMessage}
+ */
+public class PooledMessageTestCase {
+
+    private static final int BUFFER_SIZE = 1024;
+
+    private final Pool<ByteBuffer> pool = new ByteBufferSlicePool(BufferAllocator.BYTE_BUFFER_ALLOCATOR, BUFFER_SIZE, 4 * BUFFER_SIZE);
+
+    @Test
+    public void testMessageSizes() throws IOException {
+        final Random random = new Random(42);
+        for (int size : new int[]{0, 1, BUFFER_SIZE - 1, BUFFER_SIZE, BUFFER_SIZE + 1, 10 * BUFFER_SIZE + 17}) {
+            final byte[] contents = new byte[size];
+            random.nextBytes(contents);
+            final PooledMessage message = PooledMessage.read(this.pool, new ByteArrayInputStream(contents));
+            try {
+                final InputStream inputStream = message.getInputStream();
+                assertEquals(size, inputStream.available());
+                final byte[] read = new byte[size];
+                new DataInputStream(inputStream).readFully(read);
+                assertArrayEquals(contents, read);
+                assertEquals(-1, inputStream.read());
+            } finally {
+                message.free();
+            }
+        }
+    }
+
+    @Test
+    public void testReusedBuffers() throws IOException {
+        final Random random = new Random(42);
+        // the freed buffers are handed out again with the contents of the previous message
+        for (int i = 0; i < 100; i++) {
+            final byte[] contents = new byte[random.nextInt(3 * BUFFER_SIZE)];
+            random.nextBytes(contents);
+            final PooledMessage message = PooledMessage.read(this.pool, new ByteArrayInputStream(contents));
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final InputStream inputStream = message.getInputStream();
+            int b;
+            while ((b = inputStream.read()) != -1) {
+                out.write(b);
+            }
+            message.free();
+            assertArrayEquals(contents, out.toByteArray());
+        }
+    }
+}
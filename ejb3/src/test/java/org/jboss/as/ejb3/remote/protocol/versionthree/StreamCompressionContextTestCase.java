@@ -0,0 +1,150 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.jboss.as.ejb3.remote.protocol.versionthree;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+
+import org.junit.After;
+import org.junit.Test;
+import org.xnio.BufferAllocator;
+import org.xnio.ByteBufferSlicePool;
+import org.xnio.Pool;
+
+/**
+ * Tests {@link StreamCompressionContext} against the compression streams of a client
+ */
+public class StreamCompressionContextTestCase {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final Pool<ByteBuffer> pool = new ByteBufferSlicePool(BufferAllocator.BYTE_BUFFER_ALLOCATOR, 1024, 16 * 1024);
+    private final StreamCompressionContext context = new StreamCompressionContext();
+
+    @After
+    public void closeContext() {
+        this.context.close();
+    }
+
+    @Test
+    public void testInflateSegments() throws IOException {
+        final Deflater deflater = new Deflater();
+        deflater.setDictionary(CompressionDictionary.getBytes());
+        try {
+            for (int i = 0; i < 50; i++) {
+                final byte[] request = this.createRequest(i);
+                final PooledMessage message = this.context.inflate(this.pool, new ByteArrayInputStream(deflate(deflater, request)));
+                try {
+                    final InputStream inputStream = message.getInputStream();
+                    final byte[] inflated = new byte[request.length];
+                    new DataInputStream(inputStream).readFully(inflated);
+                    assertArrayEquals(request, inflated);
+                    assertTrue(inputStream.read() == -1);
+                } finally {
+                    message.free();
+                }
+            }
+        } finally {
+            deflater.end();
+        }
+    }
+
+    @Test
+    public void testDeflateSegments() throws IOException, DataFormatException {
+        final Inflater inflater = new Inflater();
+        try {
+            for (int i = 0; i < 50; i++) {
+                final byte[] response = this.createRequest(i);
+                final ByteArrayOutputStream segment = new ByteArrayOutputStream();
+                synchronized (this.context) {
+                    this.context.deflate(response, response.length, segment);
+                }
+                inflater.setInput(segment.toByteArray());
+                final byte[] inflated = new byte[response.length];
+                int length = inflater.inflate(inflated);
+                if (inflater.needsDictionary()) {
+                    inflater.setDictionary(CompressionDictionary.getBytes());
+                    length = inflater.inflate(inflated);
+                }
+                assertTrue(length == response.length);
+                assertArrayEquals(response, inflated);
+            }
+        } finally {
+            inflater.end();
+        }
+    }
+
+    @Test
+    public void testCompressionOfRepetitiveMessages() throws IOException {
+        final Deflater deflater = new Deflater();
+        deflater.setDictionary(CompressionDictionary.getBytes());
+        try {
+            // the first message of the stream already benefits from the dictionary
+            final byte[] first = this.createRequest(0);
+            assertTrue(deflate(deflater, first).length < compressIndependently(first).length);
+            // the next ones mostly refer back to the previous ones
+            final byte[] second = this.createRequest(1);
+            assertTrue(deflate(deflater, second).length * 2 < compressIndependently(second).length);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private byte[] createRequest(final int i) {
+        return ("org.jboss.ejb.client.StatelessEJBLocator" + "app" + "module" + "CalculatorBean" + "add" + "int,int" + i
+                + "java.lang.Integer" + "java.util.HashMap").getBytes(UTF_8);
+    }
+
+    private static byte[] deflate(final Deflater deflater, final byte[] bytes) {
+        deflater.setInput(bytes);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[64];
+        int deflated;
+        do {
+            deflated = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+            out.write(buffer, 0, deflated);
+        } while (deflated == buffer.length);
+        return out.toByteArray();
+    }
+
+    private static byte[] compressIndependently(final byte[] bytes) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final DeflaterOutputStream deflaterOutputStream = new DeflaterOutputStream(out);
+        deflaterOutputStream.write(bytes);
+        deflaterOutputStream.close();
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timer.scheduler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.as.ejb3.timerservice.scheduler.TimingWheelScheduler;
+import org.jboss.as.ejb3.timerservice.spi.TimeoutScheduler.ScheduledTimeout;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the {@link TimingWheelScheduler}.
+ */
+public class TimingWheelSchedulerTestCase {
+
+    private TimingWheelScheduler scheduler;
+
+    @Before
+    public void setUp() {
+        scheduler = new TimingWheelScheduler(Executors.defaultThreadFactory(), 1, TimeUnit.MILLISECONDS);
+        scheduler.start();
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.stop();
+    }
+
+    @Test
+    public void testSchedule() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final long start = System.nanoTime();
+        final ScheduledTimeout timeout = scheduler.schedule(new CountDown(latch), 50);
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+        // already expired
+        assertFalse(timeout.cancel());
+    }
+
+    @Test
+    public void testOverdue() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(2);
+        scheduler.schedule(new CountDown(latch), 0);
+        scheduler.schedule(new CountDown(latch), -10);
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testCancel() throws InterruptedException {
+        final AtomicInteger runs = new AtomicInteger();
+        final ScheduledTimeout timeout = scheduler.schedule(new Runnable() {
+            @Override
+            public void run() {
+                runs.incrementAndGet();
+            }
+        }, 50);
+        assertTrue(timeout.cancel());
+        assertFalse(timeout.cancel());
+
+        // a later task must still fire, and the cancelled one must not
+        final CountDownLatch latch = new CountDownLatch(1);
+        scheduler.schedule(new CountDown(latch), 100);
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(0, runs.get());
+    }
+
+    @Test
+    public void testFixedRate() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(5);
+        final ScheduledTimeout timeout = scheduler.scheduleAtFixedRate(new CountDown(latch), 0, 10);
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertTrue(timeout.cancel());
+    }
+
+    /**
+     * Tasks which are further away than a turn of the root wheel have to be moved inwards before they expire.
+     */
+    @Test
+    public void testCascade() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(3);
+        final long start = System.nanoTime();
+        scheduler.schedule(new CountDown(latch), 300);
+        scheduler.schedule(new CountDown(latch), 700);
+        scheduler.schedule(new CountDown(latch), 1100);
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(1100));
+    }
+
+    /**
+     * A failing task must not stop the scheduler.
+     */
+    @Test
+    public void testFailingTask() throws InterruptedException {
+        scheduler.schedule(new Runnable() {
+            @Override
+            public void run() {
+                throw new IllegalStateException();
+            }
+        }, 0);
+        final CountDownLatch latch = new CountDownLatch(1);
+        scheduler.schedule(new CountDown(latch), 20);
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+    }
+
+    private static final class CountDown implements Runnable {
+        private final CountDownLatch latch;
+
+        CountDown(final CountDownLatch latch) {
+            this.latch = latch;
+        }
+
+        @Override
+        public void run() {
+            latch.countDown();
+        }
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.timerservice.persistence.database;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+import javax.transaction.TransactionSynchronizationRegistry;
+
+import org.jboss.as.ejb3.timerservice.TimerImpl;
+import org.jboss.as.ejb3.timerservice.TimerServiceImpl;
+import org.jboss.as.ejb3.timerservice.TimerState;
+import org.jboss.as.naming.ManagedReference;
+import org.jboss.as.naming.ManagedReferenceFactory;
+import org.jboss.as.server.ServerEnvironment;
+import org.jboss.modules.ModuleLoader;
+import org.jboss.msc.value.ImmediateValue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+/**
+ * Tests {@link DatabaseTimerPersistence} against a mocked data source. The statements are loaded from the
+ * {@code timer-sql.properties} of the tests, in which each statement is named after its key.
+ */
+public class DatabaseTimerPersistenceTestCase {
+
+    private final Map<String, PreparedStatement> statements = new HashMap<String, PreparedStatement>();
+    private Connection connection;
+    private DatabaseTimerPersistence persistence;
+
+    @Before
+    public void setUp() throws SQLException {
+        connection = mock(Connection.class);
+        when(connection.prepareStatement(anyString())).thenAnswer(new Answer<PreparedStatement>() {
+            @Override
+            public PreparedStatement answer(final InvocationOnMock invocation) throws Throwable {
+                return statement((String) invocation.getArguments()[0]);
+            }
+        });
+    }
+
+    @After
+    public void tearDown() {
+        if (persistence != null) {
+            persistence.stop(null);
+        }
+    }
+
+    /**
+     * A writer whose statement fails before it is added to a batch gets the failure, rather than waiting for it forever.
+     */
+    @Test(timeout = 10000)
+    public void testFailedWrite() throws Exception {
+        start(false);
+        when(connection.prepareStatement("delete-timer")).thenThrow(new SQLException("expected"));
+        try {
+            persistence.persistTimer(timer("timer", "bean", TimerState.CANCELED));
+            fail("should have thrown an exception");
+        } catch (RuntimeException e) {
+            assertTrue(e.getCause() instanceof SQLException);
+        }
+        // the next write is not affected
+        persistence.persistTimer(timer("timer", "bean", TimerState.ACTIVE));
+        verify(statement("update-timer")).executeBatch();
+    }
+
+    @Test
+    public void testLeaseDeployedTimedObjects() throws Exception {
+        start(true);
+        // nothing is deployed yet
+        persistence.poll();
+        verify(connection, never()).prepareStatement("lease-timers");
+        verify(connection, never()).prepareStatement("renew-leases");
+
+        persistence.loadActiveTimers("bean", mock(TimerServiceImpl.class));
+        persistence.poll();
+        verify(statement("renew-leases")).setString(4, "bean");
+        verify(statement("lease-timers")).setString(6, "bean");
+        verify(statement("lease-timers")).executeBatch();
+    }
+
+    @Test
+    public void testReleaseLeasesOnUndeploy() throws Exception {
+        start(true);
+        persistence.loadActiveTimers("undeployed", mock(TimerServiceImpl.class));
+        persistence.loadActiveTimers("deployed", mock(TimerServiceImpl.class));
+        persistence.timerUndeployed("undeployed");
+        verify(statement("release-leases")).setString(3, "undeployed");
+        verify(statement("release-leases")).executeBatch();
+
+        persistence.poll();
+        verify(statement("lease-timers")).setString(6, "deployed");
+        verify(statement("lease-timers"), never()).setString(6, "undeployed");
+        verify(statement("renew-leases"), never()).setString(4, "undeployed");
+    }
+
+    private void start(final boolean clustered) throws Exception {
+        final DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        final ManagedReference reference = mock(ManagedReference.class);
+        when(reference.getInstance()).thenReturn(dataSource);
+        final ManagedReferenceFactory referenceFactory = mock(ManagedReferenceFactory.class);
+        when(referenceFactory.getReference()).thenReturn(reference);
+        final ServerEnvironment environment = mock(ServerEnvironment.class);
+        when(environment.getNodeName()).thenReturn("node");
+
+        // the poll is run by the tests
+        persistence = new DatabaseTimerPersistence("test", null, "default", clustered, 3600000L, 60000L);
+        persistence.getDataSourceInjectedValue().setValue(new ImmediateValue<ManagedReferenceFactory>(referenceFactory));
+        persistence.getModuleLoader().setValue(new ImmediateValue<ModuleLoader>(mock(ModuleLoader.class)));
+        persistence.getTransactionSynchronizationRegistry().setValue(
+                new ImmediateValue<TransactionSynchronizationRegistry>(mock(TransactionSynchronizationRegistry.class)));
+        persistence.getServerEnvironment().setValue(new ImmediateValue<ServerEnvironment>(environment));
+        persistence.start(null);
+    }
+
+    private PreparedStatement statement(final String sql) throws SQLException {
+        PreparedStatement statement = statements.get(sql);
+        if (statement == null) {
+            statement = mock(PreparedStatement.class);
+            final ResultSet resultSet = mock(ResultSet.class);
+            when(statement.executeQuery()).thenReturn(resultSet);
+            when(statement.executeBatch()).thenReturn(new int[0]);
+            statements.put(sql, statement);
+        }
+        return statement;
+    }
+
+    private static TimerImpl timer(final String id, final String timedObjectId, final TimerState state) {
+        final TimerImpl timer = mock(TimerImpl.class);
+        when(timer.getId()).thenReturn(id);
+        when(timer.getTimedObjectId()).thenReturn(timedObjectId);
+        when(timer.getState()).thenReturn(state);
+        return timer;
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.persistence.filestore;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the {@link TimerJournal}.
+ */
+public class TimerJournalTestCase {
+
+    private static final Executor SAME_THREAD = new Executor() {
+        @Override
+        public void execute(final Runnable command) {
+            command.run();
+        }
+    };
+
+    private File directory;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = File.createTempFile("timer-journal", "");
+        directory.delete();
+    }
+
+    @After
+    public void tearDown() {
+        final File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    @Test
+    public void testReplay() throws IOException {
+        TimerJournal journal = open(TimerJournal.DEFAULT_SEGMENT_SIZE);
+        journal.append("bean", "timer1", new byte[] {1});
+        journal.append("bean", "timer2", new byte[] {2});
+        journal.append("other", "timer3", new byte[] {3});
+        journal.append("bean", "timer1", new byte[] {4});
+        journal.sync(journal.append("bean", "timer2", null));
+        journal.close();
+
+        journal = open(TimerJournal.DEFAULT_SEGMENT_SIZE);
+        final Map<String, byte[]> timers = journal.getTimers("bean");
+        assertEquals(1, timers.size());
+        assertArrayEquals(new byte[] {4}, timers.get("timer1"));
+        assertEquals(1, journal.getTimers("other").size());
+        assertTrue(journal.getTimers("unknown").isEmpty());
+        journal.close();
+    }
+
+    /**
+     * A record which was only partially written before a crash is ignored.
+     */
+    @Test
+    public void testTornRecord() throws IOException {
+        TimerJournal journal = open(TimerJournal.DEFAULT_SEGMENT_SIZE);
+        journal.append("bean", "timer1", new byte[] {1});
+        journal.sync(journal.append("bean", "timer2", new byte[] {2, 2, 2}));
+        journal.close();
+
+        final File segment = new File(directory, "1.log");
+        final RandomAccessFile file = new RandomAccessFile(segment, "rw");
+        try {
+            file.setLength(file.length() - 2);
+        } finally {
+            file.close();
+        }
+
+        journal = open(TimerJournal.DEFAULT_SEGMENT_SIZE);
+        final Map<String, byte[]> timers = journal.getTimers("bean");
+        assertEquals(1, timers.size());
+        assertArrayEquals(new byte[] {1}, timers.get("timer1"));
+        journal.close();
+    }
+
+    @Test
+    public void testCompaction() throws IOException {
+        TimerJournal journal = open(256);
+        final byte[] state = new byte[64];
+        for (int i = 0; i < 100; i++) {
+            state[0] = (byte) i;
+            journal.sync(journal.append("bean", "timer" + (i % 3), state.clone()));
+        }
+        journal.sync(journal.append("bean", "timer2", null));
+        journal.compact();
+        journal.close();
+
+        int snapshots = 0;
+        int segments = 0;
+        for (String name : directory.list()) {
+            if (name.endsWith(".snapshot")) {
+                snapshots++;
+            } else if (name.endsWith(".log")) {
+                segments++;
+            }
+        }
+        assertEquals(1, snapshots);
+        // only the segment started after the snapshot is left
+        assertEquals(1, segments);
+
+        journal = open(256);
+        final Map<String, byte[]> timers = journal.getTimers("bean");
+        assertEquals(2, timers.size());
+        assertEquals(99, timers.get("timer0")[0]);
+        assertEquals(97, timers.get("timer1")[0]);
+        journal.close();
+    }
+
+    private TimerJournal open(final long segmentSize) throws IOException {
+        final TimerJournal journal = new TimerJournal(directory, segmentSize, SAME_THREAD);
+        journal.open();
+        return journal;
+    }
+}
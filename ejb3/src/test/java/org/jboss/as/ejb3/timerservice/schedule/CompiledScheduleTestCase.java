@@ -0,0 +1,186 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.schedule;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.Random;
+import java.util.TimeZone;
+
+import javax.ejb.ScheduleExpression;
+
+import org.jboss.as.ejb3.timerservice.schedule.attribute.DayOfMonth;
+import org.jboss.as.ejb3.timerservice.schedule.attribute.DayOfWeek;
+import org.jboss.as.ejb3.timerservice.schedule.attribute.Hour;
+import org.jboss.as.ejb3.timerservice.schedule.attribute.Minute;
+import org.jboss.as.ejb3.timerservice.schedule.attribute.Month;
+import org.jboss.as.ejb3.timerservice.schedule.attribute.Second;
+import org.jboss.as.ejb3.timerservice.schedule.attribute.Year;
+import org.junit.Test;
+
+/**
+ * Compares the timeouts computed by the {@link CompiledSchedule} of a {@link CalendarBasedTimeout} with the ones
+ * computed by walking the calendar fields.
+ */
+public class CompiledScheduleTestCase {
+
+    private static final String[][] EXPRESSIONS = {
+            // second, minute, hour, day of month, month, day of week, year
+            {"0", "0", "0", "*", "*", "*", "*"},
+            {"*/5", "*", "*", "*", "*", "*", "*"},
+            {"0", "*/15", "*", "*", "*", "*", "*"},
+            {"30", "15", "2", "*", "*", "*", "*"},
+            {"0", "30", "1-3", "*", "*", "*", "*"},
+            {"0", "0", "12", "Last", "*", "*", "*"},
+            {"0", "0", "12", "-3", "*", "*", "*"},
+            {"0", "0", "9", "2nd Fri", "*", "*", "*"},
+            {"0", "0", "0", "1st Mon, Last Fri", "*", "*", "*"},
+            {"0", "0", "9", "*", "*", "Mon-Fri", "*"},
+            {"0", "0", "9", "15", "*", "Mon", "*"},
+            {"0", "0", "2", "*", "*", "7", "*"},
+            {"0", "0", "0", "29", "Feb", "*", "*"},
+            {"0", "0", "0", "31", "*", "*", "*"},
+            {"0", "0", "0", "31", "Feb", "*", "*"},
+            {"0", "0", "0", "1", "Jan", "*", "2020,2025,2031"},
+            {"0,30", "0", "3", "*", "Mar,Oct", "Sun", "*"},
+            {"10", "20", "23", "*", "Nov-Feb", "Sun", "*"},
+            {"59", "59", "23", "Last", "Dec", "*", "*"},
+    };
+
+    private static final String[] TIMEZONES = {"UTC", "Europe/Prague", "America/New_York", "Australia/Lord_Howe",
+            "Asia/Kolkata", "America/Sao_Paulo"};
+
+    /**
+     * A compiled timeout which differs from the timeout computed from the calendar fields must match the schedule
+     * and must be earlier, unless the latter doesn't match the schedule.
+     */
+    @Test
+    public void testCompiledTimeoutsMatchSchedule() {
+        final Random random = new Random(42);
+        for (String[] expression : EXPRESSIONS) {
+            for (String timezone : TIMEZONES) {
+                final CalendarBasedTimeout timeout = new CalendarBasedTimeout(this.getScheduleExpression(expression, timezone));
+                for (int i = 0; i < 10; i++) {
+                    // some time between 2000 and 2040
+                    Calendar current = new GregorianCalendar(TimeZone.getTimeZone(timezone));
+                    current.setTimeInMillis(946684800000L + (long) (random.nextDouble() * 40 * 365 * 24 * 60 * 60 * 1000L));
+                    for (int j = 0; j < 10 && current != null; j++) {
+                        final Calendar compiled = timeout.getNextTimeout(current);
+                        final Calendar byFields = timeout.getNextTimeoutByFields(current);
+                        final String message = Arrays.toString(expression) + " " + timezone + " after " + current.getTime();
+                        if (byFields == null) {
+                            assertNull(message, compiled);
+                            break;
+                        }
+                        assertNotNull(message, compiled);
+                        // on the days the offset changes both are computed from the calendar fields
+                        if (compiled.getTimeInMillis() != byFields.getTimeInMillis()) {
+                            assertTrue(message, this.matches(expression, compiled));
+                            assertTrue(message, compiled.before(byFields) || !this.matches(expression, byFields));
+                        }
+                        current = compiled;
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testWrappingMonthRangeWithDayOfWeek() {
+        final CalendarBasedTimeout timeout = new CalendarBasedTimeout(this.getScheduleExpression(EXPRESSIONS[17], "UTC"));
+        final Calendar current = new GregorianCalendar(TimeZone.getTimeZone("UTC"));
+        current.clear();
+        current.set(2025, Calendar.FEBRUARY, 23, 23, 20, 10);
+
+        final Calendar next = timeout.getNextTimeout(current);
+        assertEquals(2025, next.get(Calendar.YEAR));
+        assertEquals(Calendar.NOVEMBER, next.get(Calendar.MONTH));
+        assertEquals(2, next.get(Calendar.DAY_OF_MONTH));
+        assertEquals(23, next.get(Calendar.HOUR_OF_DAY));
+    }
+
+    @Test
+    public void testDaylightSavingTransition() {
+        // Lord Howe Island moves its clocks from 2:00 to 2:30 on the 1st of October 2023
+        final TimeZone timezone = TimeZone.getTimeZone("Australia/Lord_Howe");
+        final CalendarBasedTimeout timeout = new CalendarBasedTimeout(this.getScheduleExpression(EXPRESSIONS[3], timezone.getID()));
+        final Calendar current = new GregorianCalendar(timezone);
+        current.clear();
+        current.set(2023, Calendar.OCTOBER, 1, 3, 0, 0);
+
+        // the next timeout is on the day after the transition, at the new offset
+        final Calendar next = timeout.getNextTimeout(current);
+        assertEquals(Calendar.OCTOBER, next.get(Calendar.MONTH));
+        assertEquals(2, next.get(Calendar.DAY_OF_MONTH));
+        assertEquals(2, next.get(Calendar.HOUR_OF_DAY));
+        assertEquals(15, next.get(Calendar.MINUTE));
+        assertEquals(30, next.get(Calendar.SECOND));
+    }
+
+    @Test
+    public void testNoMoreTimeouts() {
+        final CalendarBasedTimeout timeout = new CalendarBasedTimeout(this.getScheduleExpression(EXPRESSIONS[15], "UTC"));
+        final Calendar current = new GregorianCalendar(TimeZone.getTimeZone("UTC"));
+        current.clear();
+        current.set(2031, Calendar.JANUARY, 1, 0, 0, 0);
+
+        assertNull(timeout.getNextTimeout(current));
+        assertNull(new CalendarBasedTimeout(this.getScheduleExpression(EXPRESSIONS[14], "UTC")).getFirstTimeout());
+    }
+
+    private boolean matches(String[] expression, Calendar cal) {
+        final boolean dayOfMonth = expression[3].equals("*")
+                || this.matches(cal.get(Calendar.DAY_OF_MONTH), new DayOfMonth(expression[3]).getNextMatch(cal));
+        final boolean dayOfWeek = expression[5].equals("*")
+                || this.matches(cal.get(Calendar.DAY_OF_WEEK), new DayOfWeek(expression[5]).getNextMatch(cal));
+        final boolean day;
+        if (expression[3].equals("*")) {
+            day = dayOfWeek;
+        } else if (expression[5].equals("*")) {
+            day = dayOfMonth;
+        } else {
+            day = dayOfMonth || dayOfWeek;
+        }
+        return day
+                && this.matches(cal.get(Calendar.SECOND), new Second(expression[0]).getNextMatch(cal))
+                && this.matches(cal.get(Calendar.MINUTE), new Minute(expression[1]).getNextMatch(cal))
+                && this.matches(cal.get(Calendar.HOUR_OF_DAY), new Hour(expression[2]).getNextMatch(cal))
+                && this.matches(cal.get(Calendar.MONTH), new Month(expression[4]).getNextMatch(cal))
+                && this.matches(cal.get(Calendar.YEAR), new Year(expression[6]).getNextMatch(cal));
+    }
+
+    private boolean matches(int value, Integer nextMatch) {
+        return nextMatch != null && nextMatch == value;
+    }
+
+    private ScheduleExpression getScheduleExpression(String[] expression, String timezone) {
+        return new ScheduleExpression().second(expression[0]).minute(expression[1]).hour(expression[2])
+                .dayOfMonth(expression[3]).month(expression[4]).dayOfWeek(expression[5]).year(expression[6])
+                .timezone(timezone);
+    }
+}
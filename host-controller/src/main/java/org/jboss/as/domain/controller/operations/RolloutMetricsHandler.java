@@ -0,0 +1,98 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.domain.controller.operations;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.domain.controller.operations.coordination.RolloutStatistics;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+
+/**
+ * Reads the {@link RolloutStatistics} of the domain controller.
+ */
+public class RolloutMetricsHandler implements OperationStepHandler {
+
+    public static final SimpleAttributeDefinition ROLLOUT_COUNT = SimpleAttributeDefinitionBuilder.create("rollout-count", ModelType.LONG, true)
+            .setStorageRuntime()
+            .build();
+
+    public static final SimpleAttributeDefinition ROLLOUT_TIME = SimpleAttributeDefinitionBuilder.create("rollout-time", ModelType.LONG, true)
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .setStorageRuntime()
+            .build();
+
+    public static final SimpleAttributeDefinition MAX_ROLLOUT_TIME = SimpleAttributeDefinitionBuilder.create("max-rollout-time", ModelType.LONG, true)
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .setStorageRuntime()
+            .build();
+
+    public static final SimpleAttributeDefinition LAST_ROLLOUT_TIME = SimpleAttributeDefinitionBuilder.create("last-rollout-time", ModelType.LONG, true)
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .setStorageRuntime()
+            .build();
+
+    private static final AttributeDefinition[] METRICS = {ROLLOUT_COUNT, ROLLOUT_TIME, MAX_ROLLOUT_TIME, LAST_ROLLOUT_TIME};
+
+    private final RolloutStatistics statistics;
+
+    private RolloutMetricsHandler(final RolloutStatistics statistics) {
+        this.statistics = statistics;
+    }
+
+    /**
+     * Registers the rollout metrics on the root resource of the domain.
+     *
+     * @param registration the registration of the root resource
+     * @param statistics the statistics of the domain controller
+     */
+    public static void registerMetrics(final ManagementResourceRegistration registration, final RolloutStatistics statistics) {
+        final RolloutMetricsHandler handler = new RolloutMetricsHandler(statistics);
+        for (AttributeDefinition metric : METRICS) {
+            registration.registerMetric(metric, handler);
+        }
+    }
+
+    @Override
+    public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+        final String name = operation.require(NAME).asString();
+        final ModelNode result = context.getResult();
+        if (ROLLOUT_COUNT.getName().equals(name)) {
+            result.set(statistics.getRolloutCount());
+        } else if (ROLLOUT_TIME.getName().equals(name)) {
+            result.set(statistics.getTotalRolloutTime());
+        } else if (MAX_ROLLOUT_TIME.getName().equals(name)) {
+            result.set(statistics.getMaxRolloutTime());
+        } else if (LAST_ROLLOUT_TIME.getName().equals(name)) {
+            result.set(statistics.getLastRolloutTime());
+        }
+        context.stepCompleted();
+    }
+}
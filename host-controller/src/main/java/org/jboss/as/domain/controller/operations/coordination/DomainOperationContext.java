@@ -59,6 +59,7 @@ public class DomainOperationContext {
     private final Map<String, Boolean> serverGroupStatuses = new ConcurrentHashMap<String, Boolean>();
     private volatile boolean completeRollback = true;
     private volatile boolean failureReported;
+    private final long startTime = System.nanoTime();
 
     public DomainOperationContext(final LocalHostControllerInfo localHostInfo) {
         this.localHostInfo = localHostInfo;
@@ -68,6 +69,13 @@ public class DomainOperationContext {
         return localHostInfo;
     }
 
+    /**
+     * Gets the value of {@link System#nanoTime()} when the coordination of the operation started.
+     */
+    long getStartTime() {
+        return startTime;
+    }
+
     public ModelNode getCoordinatorResult() {
         return coordinatorResult;
     }
@@ -51,6 +51,7 @@ import static org.jboss.as.domain.controller.DomainControllerLogger.HOST_CONTROL
 import static org.jboss.as.domain.controller.DomainControllerMessages.MESSAGES;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -66,6 +67,7 @@ import org.jboss.as.controller.OperationStepHandler;
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.ProxyController;
 import org.jboss.as.domain.controller.ServerIdentity;
+import org.jboss.as.domain.controller.plan.BoundedConcurrentUpdateTask;
 import org.jboss.as.domain.controller.plan.RolloutPlanController;
 import org.jboss.as.domain.controller.plan.ServerTaskExecutor;
 import org.jboss.dmr.ModelNode;
@@ -83,18 +85,21 @@ public class DomainRolloutStepHandler implements OperationStepHandler {
     private final Map<String, ProxyController> serverProxies;
     private final ExecutorService executorService;
     private final ModelNode providedRolloutPlan;
+    private final RolloutStatistics rolloutStatistics;
     private final boolean trace = HOST_CONTROLLER_LOGGER.isTraceEnabled();
 
     public DomainRolloutStepHandler(final Map<String, ProxyController> hostProxies,
                                     final Map<String, ProxyController> serverProxies,
                                     final DomainOperationContext domainOperationContext,
                                     final ModelNode rolloutPlan,
-                                    final ExecutorService executorService) {
+                                    final ExecutorService executorService,
+                                    final RolloutStatistics rolloutStatistics) {
         this.hostProxies = hostProxies;
         this.serverProxies = serverProxies;
         this.domainOperationContext = domainOperationContext;
         this.providedRolloutPlan = rolloutPlan;
         this.executorService = executorService;
+        this.rolloutStatistics = rolloutStatistics;
     }
 
     @Override
@@ -162,6 +167,7 @@ public class DomainRolloutStepHandler implements OperationStepHandler {
         } else {
             // There were failures on hosts, so gather them up and report them
             reportHostFailures(context, operation);
+            rolloutStatistics.recordRollout(domainOperationContext.getStartTime());
             context.completeStep(OperationContext.ResultHandler.NOOP_RESULT_HANDLER);
         }
     }
@@ -171,35 +177,46 @@ public class DomainRolloutStepHandler implements OperationStepHandler {
 
         // Inform the remote hosts whether to commit or roll back their updates
         // Do them all before reading results so the commits/rollbacks can be executed in parallel
-        boolean completeRollback = domainOperationContext.isCompleteRollback();
+        final boolean completeRollback = domainOperationContext.isCompleteRollback();
         final String localHostName = domainOperationContext.getLocalHostInfo().getLocalHostName();
+        final List<ServerTaskExecutor.ServerPreparedResponse> outOfSync = Collections.synchronizedList(new ArrayList<ServerTaskExecutor.ServerPreparedResponse>());
+        final List<Runnable> completionTasks = new ArrayList<Runnable>(preparedResults.size());
         for(final ServerTaskExecutor.ServerPreparedResponse preparedResult : preparedResults) {
-            boolean rollback = completeRollback || domainOperationContext.isServerGroupRollback(preparedResult.getServerGroupName());
+            completionTasks.add(new Runnable() {
+                @Override
+                public void run() {
+                    boolean rollback = completeRollback || domainOperationContext.isServerGroupRollback(preparedResult.getServerGroupName());
+                    if(! preparedResult.finalizeTransaction(! rollback)) {
+                        outOfSync.add(preparedResult);
+                    }
+                }
+            });
+        }
+        new BoundedConcurrentUpdateTask(completionTasks, executorService).run();
+        for(final ServerTaskExecutor.ServerPreparedResponse preparedResult : outOfSync) {
             // Require a server reload, in case the operation failed, but the overall state was commit
-            if(! preparedResult.finalizeTransaction(! rollback)) {
-                final ServerIdentity identity = preparedResult.getServerIdentity();
-                try {
-                    // Replace the original proxyTask with the requireReloadTask
-                    final ModelNode result = preparedResult.getPreparedOperation().getPreparedResult();
-                    ProxyController proxy = hostProxies.get(identity.getHostName());
-                    if (proxy == null) {
-                        if (localHostName.equals(identity.getHostName())) {
-                            // Use our server proxies
-                            proxy = serverProxies.get(identity.getServerName());
-                            if (proxy == null) {
-                                if (trace) {
-                                    HOST_CONTROLLER_LOGGER.tracef("No proxy for %s", identity);
-                                }
-                                continue;
+            final ServerIdentity identity = preparedResult.getServerIdentity();
+            try {
+                // Replace the original proxyTask with the requireReloadTask
+                final ModelNode result = preparedResult.getPreparedOperation().getPreparedResult();
+                ProxyController proxy = hostProxies.get(identity.getHostName());
+                if (proxy == null) {
+                    if (localHostName.equals(identity.getHostName())) {
+                        // Use our server proxies
+                        proxy = serverProxies.get(identity.getServerName());
+                        if (proxy == null) {
+                            if (trace) {
+                                HOST_CONTROLLER_LOGGER.tracef("No proxy for %s", identity);
                             }
+                            continue;
                         }
                     }
-                    final Future<ModelNode> future = executorService.submit(new ServerRequireRestartTask(identity, proxy, result));
-                    // replace the existing future
-                    submittedTasks.put(identity, new ServerTaskExecutor.ExecutedServerRequest(identity, future));
-                } catch (Exception ignore) {
-                    // getUncommittedResult() won't fail here
                 }
+                final Future<ModelNode> future = executorService.submit(new ServerRequireRestartTask(identity, proxy, result));
+                // replace the existing future
+                submittedTasks.put(identity, new ServerTaskExecutor.ExecutedServerRequest(identity, future));
+            } catch (Exception ignore) {
+                // getUncommittedResult() won't fail here
             }
         }
         // Now read the final values. This ensures the operations are committed on the remote servers
@@ -222,6 +239,7 @@ public class DomainRolloutStepHandler implements OperationStepHandler {
                 }
             }
         } finally {
+            rolloutStatistics.recordRollout(domainOperationContext.getStartTime());
             if (interrupted) {
                 Thread.currentThread().interrupt();
             }
@@ -253,7 +271,7 @@ public class DomainRolloutStepHandler implements OperationStepHandler {
             final ServerTaskExecutor taskExecutor = new ServerTaskExecutor(context, submittedTasks, preparedResults) {
 
                 @Override
-                protected boolean execute(TransactionalProtocolClient.TransactionalOperationListener<ServerTaskExecutor.ServerOperation> listener, ServerIdentity server, ModelNode original) throws OperationFailedException {
+                protected Runnable prepare(TransactionalProtocolClient.TransactionalOperationListener<ServerTaskExecutor.ServerOperation> listener, ServerIdentity server, ModelNode original) throws OperationFailedException {
                     final String hostName = server.getHostName();
                     ProxyController proxy = hostProxies.get(hostName);
                     if (proxy == null) {
@@ -265,7 +283,7 @@ public class DomainRolloutStepHandler implements OperationStepHandler {
                             if (trace) {
                                 HOST_CONTROLLER_LOGGER.tracef("No proxy for %s", server);
                             }
-                            return false;
+                            return null;
                         }
                     }
                     // Transform the server-results
@@ -274,7 +292,7 @@ public class DomainRolloutStepHandler implements OperationStepHandler {
                     final ModelNode transformedOperation = transformed.getTransformedOperation();
                     final OperationResultTransformer resultTransformer = transformed.getResultTransformer();
                     final TransactionalProtocolClient client = remoteProxyController.getProtocolClient();
-                    return executeOperation(listener, client, server, transformedOperation, resultTransformer);
+                    return prepareOperation(listener, client, server, transformedOperation, resultTransformer);
                 }
             };
             RolloutPlanController rolloutPlanController = new RolloutPlanController(opsByGroup, rolloutPlan, domainOperationContext, taskExecutor, executorService);
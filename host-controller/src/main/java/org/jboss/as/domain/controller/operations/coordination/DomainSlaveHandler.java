@@ -30,12 +30,13 @@ import static org.jboss.as.domain.controller.DomainControllerLogger.HOST_CONTROL
 import static org.jboss.as.domain.controller.DomainControllerMessages.MESSAGES;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 
 import org.jboss.as.controller.CompositeOperationHandler;
 import org.jboss.as.controller.CurrentOperationIdHolder;
@@ -47,11 +48,16 @@ import org.jboss.as.controller.TransformingProxyController;
 import org.jboss.as.controller.operations.DomainOperationTransformer;
 import org.jboss.as.controller.operations.OperationAttachments;
 import org.jboss.as.controller.remote.TransactionalProtocolClient;
+import org.jboss.as.domain.controller.plan.BoundedConcurrentUpdateTask;
 import org.jboss.as.host.controller.mgmt.DomainControllerRuntimeIgnoreTransformationRegistry;
 import org.jboss.dmr.ModelNode;
 
 /**
  * Executes the first phase of a two phase operation on one or more remote, slave host controllers.
+ * <p/>
+ * The operation is sent to the hosts, and later committed or rolled back on them, using at most
+ * {@link BoundedConcurrentUpdateTask#getMaxThreads()} threads. The prepared results are processed in the order the
+ * hosts report them.
  *
  * @author Brian Stansberry (c) 2011 Red Hat Inc.
  */
@@ -60,13 +66,16 @@ public class DomainSlaveHandler implements OperationStepHandler {
     private final DomainOperationContext domainOperationContext;
     private final Map<String, ProxyController> hostProxies;
     private final DomainControllerRuntimeIgnoreTransformationRegistry runtimeIgnoreTransformationRegistry;
+    private final ExecutorService executorService;
 
     public DomainSlaveHandler(final Map<String, ProxyController> hostProxies,
                               final DomainOperationContext domainOperationContext,
-                              final DomainControllerRuntimeIgnoreTransformationRegistry runtimeIgnoreTransformationRegistry) {
+                              final DomainControllerRuntimeIgnoreTransformationRegistry runtimeIgnoreTransformationRegistry,
+                              final ExecutorService executorService) {
         this.hostProxies = hostProxies;
         this.domainOperationContext = domainOperationContext;
         this.runtimeIgnoreTransformationRegistry = runtimeIgnoreTransformationRegistry;
+        this.executorService = executorService;
     }
 
     @Override
@@ -84,29 +93,37 @@ public class DomainSlaveHandler implements OperationStepHandler {
 
         final Set<String> outstanding = new HashSet<String>(hostProxies.keySet());
         final List<TransactionalProtocolClient.PreparedOperation<HostControllerUpdateTask.ProxyOperation>> results = new ArrayList<TransactionalProtocolClient.PreparedOperation<HostControllerUpdateTask.ProxyOperation>>();
-        final Map<String, HostControllerUpdateTask.ExecutedHostRequest> finalResults = new HashMap<String, HostControllerUpdateTask.ExecutedHostRequest>();
+        final Map<String, HostControllerUpdateTask.ExecutedHostRequest> finalResults = new ConcurrentHashMap<String, HostControllerUpdateTask.ExecutedHostRequest>();
         final HostControllerUpdateTask.ProxyOperationListener listener = new HostControllerUpdateTask.ProxyOperationListener();
+        // The domain operation transformers do not depend on the host
+        List<DomainOperationTransformer> transformers = context.getAttachment(OperationAttachments.SLAVE_SERVER_OPERATION_TRANSFORMERS);
+        ModelNode op = operation;
+        if(transformers != null) {
+            for(final DomainOperationTransformer transformer : transformers) {
+                op = transformer.transform(context, op);
+            }
+        }
+        final List<Runnable> sendTasks = new ArrayList<Runnable>(hostProxies.size());
         for (Map.Entry<String, ProxyController> entry : hostProxies.entrySet()) {
             // Create the proxy task
             final String host = entry.getKey();
             final TransformingProxyController proxyController = (TransformingProxyController) entry.getValue();
-            List<DomainOperationTransformer> transformers = context.getAttachment(OperationAttachments.SLAVE_SERVER_OPERATION_TRANSFORMERS);
-            ModelNode op = operation;
-            if(transformers != null) {
-                for(final DomainOperationTransformer transformer : transformers) {
-                    op = transformer.transform(context, op);
-                }
-            }
-
-
             ModelNode clonedOp = runtimeIgnoreTransformationRegistry.piggyBackMissingInformationOnHeader(context, proxyController, entry.getKey(), op.clone());
             clonedOp.get(DomainControllerLockIdUtils.DOMAIN_CONTROLLER_LOCK_ID).set(CurrentOperationIdHolder.getCurrentOperationID());
+            // Transform the operation for the host on this thread, and only send it concurrently
             final HostControllerUpdateTask task = new HostControllerUpdateTask(host, clonedOp, context, proxyController);
-            // Execute the operation on the remote host
-            final HostControllerUpdateTask.ExecutedHostRequest finalResult = task.execute(listener);
-            domainOperationContext.recordHostRequest(host, finalResult);
-            finalResults.put(host, finalResult);
+            sendTasks.add(new Runnable() {
+                @Override
+                public void run() {
+                    // Execute the operation on the remote host
+                    final HostControllerUpdateTask.ExecutedHostRequest finalResult = task.execute(listener);
+                    domainOperationContext.recordHostRequest(host, finalResult);
+                    finalResults.put(host, finalResult);
+                }
+            });
         }
+        // Sending a request blocks until the host accepts it, so the requests are sent to the hosts in parallel
+        new BoundedConcurrentUpdateTask(sendTasks, executorService).run();
 
         // Wait for all hosts to reach the prepared state
         boolean interrupted = false;
@@ -196,17 +213,24 @@ public class DomainSlaveHandler implements OperationStepHandler {
         try {
             // Inform the remote hosts whether to commit or roll back their updates
             // Do this in parallel
-            boolean rollback = domainOperationContext.isCompleteRollback();
+            final boolean rollback = domainOperationContext.isCompleteRollback();
+            final List<Runnable> completionTasks = new ArrayList<Runnable>(results.size());
             for(final TransactionalProtocolClient.PreparedOperation<HostControllerUpdateTask.ProxyOperation> prepared : results) {
                 if(prepared.isDone()) {
                     continue;
                 }
-                if(! rollback) {
-                    prepared.commit();
-                } else {
-                    prepared.rollback();
-                }
+                completionTasks.add(new Runnable() {
+                    @Override
+                    public void run() {
+                        if(! rollback) {
+                            prepared.commit();
+                        } else {
+                            prepared.rollback();
+                        }
+                    }
+                });
             }
+            new BoundedConcurrentUpdateTask(completionTasks, executorService).run();
             // Now get the final results from the hosts
             for(final TransactionalProtocolClient.PreparedOperation<HostControllerUpdateTask.ProxyOperation> prepared : results) {
                 final String hostName = prepared.getOperation().getName();
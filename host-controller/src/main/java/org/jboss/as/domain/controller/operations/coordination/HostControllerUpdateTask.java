@@ -66,21 +66,38 @@ import java.util.List;
 import java.util.concurrent.Future;
 
 /**
+ * Sends an operation to a slave host controller. The operation is transformed for the host when the task is created,
+ * as the transformation reads the model through the operation context, so that {@link #execute(ProxyOperationListener)}
+ * may be called on any thread.
+ *
  * @author Emanuel Muckenhuber
  */
 class HostControllerUpdateTask {
 
     private final String name;
     private final ModelNode operation;
-    private final OperationContext context;
     private final TransformingProxyController proxyController;
+    private final OperationMessageHandler messageHandler;
+    private final OperationAttachments operationAttachments;
+    private final OperationTransformer.TransformedOperation transformationResult;
+    private final OperationFailedException transformationFailure;
 
     public HostControllerUpdateTask(final String name, final ModelNode operation, final OperationContext context,
                                     final TransformingProxyController proxyController) {
         this.name = name;
-        this.context = context;
         this.operation = operation;
         this.proxyController = proxyController;
+        this.messageHandler = new DelegatingMessageHandler(context);
+        this.operationAttachments = new DelegatingOperationAttachments(context);
+        OperationTransformer.TransformedOperation transformationResult = null;
+        OperationFailedException transformationFailure = null;
+        try {
+            transformationResult = proxyController.transformOperation(context, operation);
+        } catch (OperationFailedException e) {
+            transformationFailure = e;
+        }
+        this.transformationResult = transformationResult;
+        this.transformationFailure = transformationFailure;
     }
 
     public ExecutedHostRequest execute(final ProxyOperationListener listener) {
@@ -89,12 +106,8 @@ class HostControllerUpdateTask {
             HOST_CONTROLLER_LOGGER.tracef("Sending %s to %s", operation, name);
         }
         final TransactionalProtocolClient client = proxyController.getProtocolClient();
-        final OperationMessageHandler messageHandler = new DelegatingMessageHandler(context);
-        final OperationAttachments operationAttachments = new DelegatingOperationAttachments(context);
         final SubsystemInfoOperationListener subsystemListener = new SubsystemInfoOperationListener(listener, proxyController.getTransformers());
-        try {
-
-            final OperationTransformer.TransformedOperation transformationResult = proxyController.transformOperation(context, operation);
+        if (transformationFailure == null) {
             final ModelNode transformedOperation = transformationResult.getTransformedOperation();
             final ProxyOperation proxyOperation = new ProxyOperation(name, transformedOperation, messageHandler, operationAttachments);
             try {
@@ -115,10 +128,10 @@ class HostControllerUpdateTask {
                 subsystemListener.operationPrepared(result);
                 return new ExecutedHostRequest(result.getFinalResult(), transformationResult);
             }
-        } catch (OperationFailedException e) {
+        } else {
             // Handle transformation failures
             final ProxyOperation proxyOperation = new ProxyOperation(name, operation, messageHandler, operationAttachments);
-            final TransactionalProtocolClient.PreparedOperation<ProxyOperation> result = BlockingQueueOperationListener.FailedOperation.create(proxyOperation, e);
+            final TransactionalProtocolClient.PreparedOperation<ProxyOperation> result = BlockingQueueOperationListener.FailedOperation.create(proxyOperation, transformationFailure);
             subsystemListener.operationPrepared(result);
             return new ExecutedHostRequest(result.getFinalResult(), OperationResultTransformer.ORIGINAL_RESULT, OperationTransformer.DEFAULT_REJECTION_POLICY);
         }
@@ -323,11 +336,19 @@ class HostControllerUpdateTask {
         }
     }
 
+    /**
+     * The attachment streams of the operation context, read when the task is created.
+     */
     private static class DelegatingOperationAttachments implements OperationAttachments {
 
-        private final OperationContext context;
+        private final List<InputStream> inputStreams;
         private DelegatingOperationAttachments(final OperationContext context) {
-            this.context = context;
+            int count = context.getAttachmentStreamCount();
+            List<InputStream> result = new ArrayList<InputStream>(count);
+            for (int i = 0; i < count; i++) {
+                result.add(context.getAttachmentStream(i));
+            }
+            this.inputStreams = result;
         }
 
         @Override
@@ -337,12 +358,7 @@ class HostControllerUpdateTask {
 
         @Override
         public List<InputStream> getInputStreams() {
-            int count = context.getAttachmentStreamCount();
-            List<InputStream> result = new ArrayList<InputStream>(count);
-            for (int i = 0; i < count; i++) {
-                result.add(context.getAttachmentStream(i));
-            }
-            return result;
+            return inputStreams;
         }
 
         @Override
@@ -76,6 +76,7 @@ public class OperationCoordinatorStepHandler {
     private final Map<String, ProxyController> serverProxies;
     private final OperationSlaveStepHandler localSlaveHandler;
     private final DomainControllerRuntimeIgnoreTransformationRegistry runtimeIgnoreTransformationRegistry;
+    private final RolloutStatistics rolloutStatistics = new RolloutStatistics();
     private volatile ExecutorService executorService;
 
     OperationCoordinatorStepHandler(final LocalHostControllerInfo localHostControllerInfo,
@@ -129,6 +130,10 @@ public class OperationCoordinatorStepHandler {
         this.executorService = executorService;
     }
 
+    RolloutStatistics getRolloutStatistics() {
+        return rolloutStatistics;
+    }
+
     private ExecutorService getExecutorService() {
         return executorService == null ? Executors.newSingleThreadExecutor() : executorService;
     }
@@ -179,6 +184,7 @@ public class OperationCoordinatorStepHandler {
         }
 
         DomainOperationContext overallContext = new DomainOperationContext(localHostControllerInfo);
+        final ExecutorService executor = getExecutorService();
 
         // Get a copy of the rollout plan so it doesn't get disrupted by any handlers
         ModelNode rolloutPlan = operation.hasDefined(OPERATION_HEADERS) && operation.get(OPERATION_HEADERS).has(ROLLOUT_PLAN)
@@ -227,12 +233,12 @@ public class OperationCoordinatorStepHandler {
                     }
                 }
 
-                context.addStep(slaveOp.clone(), new DomainSlaveHandler(remoteProxies, overallContext, runtimeIgnoreTransformationRegistry), OperationContext.Stage.DOMAIN);
+                context.addStep(slaveOp.clone(), new DomainSlaveHandler(remoteProxies, overallContext, runtimeIgnoreTransformationRegistry, executor), OperationContext.Stage.DOMAIN);
             }
         }
 
         // Finally, the step to formulate and execute the 2nd phase rollout plan
-        context.addStep(new DomainRolloutStepHandler(hostProxies, serverProxies, overallContext, rolloutPlan, getExecutorService()), OperationContext.Stage.DOMAIN);
+        context.addStep(new DomainRolloutStepHandler(hostProxies, serverProxies, overallContext, rolloutPlan, executor, rolloutStatistics), OperationContext.Stage.DOMAIN);
 
         context.stepCompleted();
     }
@@ -109,6 +109,13 @@ public class PrepareStepHandler  implements OperationStepHandler {
         coordinatorHandler.setExecutorService(executorService);
     }
 
+    /**
+     * Gets the statistics on the rollouts of the domain-wide operations coordinated by this host controller.
+     */
+    public RolloutStatistics getRolloutStatistics() {
+        return coordinatorHandler.getRolloutStatistics();
+    }
+
     private boolean isServerOperation(ModelNode operation) {
         PathAddress addr = PathAddress.pathAddress(operation.get(OP_ADDR));
         return addr.size() > 1
@@ -0,0 +1,80 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.controller.operations.coordination;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Statistics on the rollouts of the domain-wide operations coordinated by this host controller, from the start of the
+ * coordination until all hosts and servers have reported their final result.
+ */
+public class RolloutStatistics {
+
+    private long count;
+    private long totalTime;
+    private long maxTime;
+    private long lastTime;
+
+    /**
+     * Records a completed rollout.
+     *
+     * @param startTime the value of {@link System#nanoTime()} when the rollout started
+     */
+    synchronized void recordRollout(final long startTime) {
+        final long time = System.nanoTime() - startTime;
+        count++;
+        totalTime += time;
+        lastTime = time;
+        if (time > maxTime) {
+            maxTime = time;
+        }
+    }
+
+    /**
+     * Gets the number of completed rollouts.
+     */
+    public synchronized long getRolloutCount() {
+        return count;
+    }
+
+    /**
+     * Gets the time spent in the completed rollouts, in milliseconds.
+     */
+    public synchronized long getTotalRolloutTime() {
+        return TimeUnit.NANOSECONDS.toMillis(totalTime);
+    }
+
+    /**
+     * Gets the time of the longest rollout, in milliseconds.
+     */
+    public synchronized long getMaxRolloutTime() {
+        return TimeUnit.NANOSECONDS.toMillis(maxTime);
+    }
+
+    /**
+     * Gets the time of the last completed rollout, in milliseconds.
+     */
+    public synchronized long getLastRolloutTime() {
+        return TimeUnit.NANOSECONDS.toMillis(lastTime);
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.controller.plan;
+
+import java.security.AccessControlContext;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * A task that executes other tasks concurrently on at most a given number of threads, one of them being the thread
+ * calling {@link #run()}. Used to fan out requests to many hosts or servers, where sending each request may block
+ * until the remote process accepts it.
+ * <p/>
+ * Unlike {@link ConcurrentUpdateTask}, this task does not return before all tasks have completed, even if
+ * interrupted, and rethrows the first unchecked exception thrown by one of the tasks once they have all completed.
+ * <p/>
+ * The tasks run in the access control context of the thread calling {@link #run()}, so the requests are sent as the
+ * caller of the operation. They must not use the {@code OperationContext}, which may only be used by the thread
+ * executing the operation.
+ */
+public class BoundedConcurrentUpdateTask implements Runnable {
+
+    /**
+     * The system property that sets the maximum number of threads used to fan out a request
+     */
+    public static final String MAX_THREADS_PROPERTY = "jboss.as.domain.fan-out-threads";
+
+    private static final int DEFAULT_MAX_THREADS = 16;
+
+    private final Queue<Runnable> pending;
+    private final int taskCount;
+    private final Executor executor;
+    private final int maxThreads;
+
+    /**
+     * Creates a task using at most {@link #getMaxThreads()} threads.
+     *
+     * @param tasks the tasks to execute
+     * @param executor the executor providing the additional threads
+     */
+    public BoundedConcurrentUpdateTask(final List<? extends Runnable> tasks, final Executor executor) {
+        this(tasks, executor, getMaxThreads());
+    }
+
+    /**
+     * Creates a task.
+     *
+     * @param tasks the tasks to execute
+     * @param executor the executor providing the additional threads
+     * @param maxThreads the maximum number of threads executing the tasks, including the calling thread
+     */
+    public BoundedConcurrentUpdateTask(final List<? extends Runnable> tasks, final Executor executor, final int maxThreads) {
+        this.pending = new ConcurrentLinkedQueue<Runnable>(tasks);
+        this.taskCount = tasks.size();
+        this.executor = executor;
+        this.maxThreads = Math.max(1, maxThreads);
+    }
+
+    /**
+     * Gets the maximum number of threads used to fan out a request, as set by the {@value #MAX_THREADS_PROPERTY}
+     * system property.
+     *
+     * @return the maximum number of threads, at least one
+     */
+    public static int getMaxThreads() {
+        final String value = WildFlySecurityManager.getPropertyPrivileged(MAX_THREADS_PROPERTY, null);
+        if (value != null) {
+            try {
+                return Math.max(1, Integer.parseInt(value));
+            } catch (NumberFormatException ignored) {
+                // use the default
+            }
+        }
+        return DEFAULT_MAX_THREADS;
+    }
+
+    @Override
+    public void run() {
+        final CountDownLatch done = new CountDownLatch(taskCount);
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        final Runnable tasks = new Runnable() {
+            @Override
+            public void run() {
+                Runnable task;
+                while ((task = pending.poll()) != null) {
+                    try {
+                        task.run();
+                    } catch (Throwable t) {
+                        failure.compareAndSet(null, t);
+                    } finally {
+                        done.countDown();
+                    }
+                }
+            }
+        };
+        // the workers send the requests as the caller of the operation
+        final AccessControlContext accessControlContext = AccessController.getContext();
+        final Runnable worker = new Runnable() {
+            @Override
+            public void run() {
+                AccessController.doPrivileged(new PrivilegedAction<Void>() {
+                    @Override
+                    public Void run() {
+                        tasks.run();
+                        return null;
+                    }
+                }, accessControlContext);
+            }
+        };
+        final int workers = Math.min(maxThreads, taskCount) - 1;
+        for (int i = 0; i < workers; i++) {
+            try {
+                executor.execute(worker);
+            } catch (RejectedExecutionException e) {
+                // the calling thread executes the remaining tasks
+                break;
+            }
+        }
+        tasks.run();
+
+        boolean interrupted = false;
+        try {
+            for (;;) {
+                try {
+                    done.await();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        final Throwable t = failure.get();
+        if (t instanceof RuntimeException) {
+            throw (RuntimeException) t;
+        } else if (t instanceof Error) {
+            throw (Error) t;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "BoundedConcurrentUpdateTask{tasks=" + taskCount + ", maxThreads=" + maxThreads + "}";
+    }
+}
@@ -25,35 +25,48 @@ package org.jboss.as.domain.controller.plan;
 import org.jboss.as.controller.remote.TransactionalProtocolClient;
 import org.jboss.as.domain.controller.ServerIdentity;
 
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Executor;
 
 /**
+ * Updates the servers of a server group concurrently. The operation is sent to the servers using at most
+ * {@link BoundedConcurrentUpdateTask#getMaxThreads()} threads.
+ *
  * @author Emanuel Muckenhuber
  */
 class ConcurrentServerGroupUpdateTask extends AbstractServerGroupRolloutTask implements Runnable {
 
+    private final Executor sendExecutor;
+
     public ConcurrentServerGroupUpdateTask(List<ServerUpdateTask> tasks, ServerUpdatePolicy updatePolicy,
-                                           ServerTaskExecutor executor, ServerUpdateTask.ServerUpdateResultHandler resultHandler) {
+                                           ServerTaskExecutor executor, ServerUpdateTask.ServerUpdateResultHandler resultHandler,
+                                           Executor sendExecutor) {
         super(tasks, updatePolicy, executor, resultHandler);
+        this.sendExecutor = sendExecutor;
     }
 
     @Override
     public void execute() {
         final Set<ServerIdentity> outstanding = new HashSet<ServerIdentity>();
         final ServerTaskExecutor.ServerOperationListener listener = new ServerTaskExecutor.ServerOperationListener();
+        final List<Runnable> sendTasks = new ArrayList<Runnable>(tasks.size());
         for(final ServerUpdateTask task : tasks) {
             final ServerIdentity identity = task.getServerIdentity();
             if(updatePolicy.canUpdateServer(identity)) {
-                // Execute the task
-                if(executor.executeTask(listener, task)) {
-                    outstanding.add(task.getServerIdentity());
+                // Transform the operation on this thread, and only send it concurrently
+                final Runnable send = executor.prepareTask(listener, task);
+                if(send != null) {
+                    outstanding.add(identity);
+                    sendTasks.add(send);
                 }
             } else {
                 sendCancelledResponse(identity);
             }
         }
+        new BoundedConcurrentUpdateTask(sendTasks, sendExecutor).run();
         boolean interrupted = false;
         while(! outstanding.isEmpty()) {
             try {
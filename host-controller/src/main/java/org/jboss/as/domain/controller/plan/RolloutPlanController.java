@@ -135,7 +135,7 @@ public class RolloutPlanController implements ServerUpdateResultHandler {
                     ServerUpdatePolicy policy = new ServerUpdatePolicy(parent, serverGroupName, servers, maxFailures);
 
                     seriesTasks.add(rollingGroup ? new RollingServerGroupUpdateTask(groupTasks, policy, taskExecutor, this)
-                        : new ConcurrentServerGroupUpdateTask(groupTasks, policy, taskExecutor, this));
+                        : new ConcurrentServerGroupUpdateTask(groupTasks, policy, taskExecutor, this, executor));
 
                     updatePolicies.put(serverGroupName, policy);
 
@@ -59,15 +59,15 @@ public abstract class ServerTaskExecutor {
     }
 
     /**
-     * Execute
+     * Prepare the execution of an operation, transforming it for the server.
      *
      * @param listener the transactional operation listener
      * @param identity the server identity
      * @param operation the operation
-     * @return whether the operation was executed or not
+     * @return the task sending the operation, or {@code null} if the operation is not executed
      * @throws OperationFailedException
      */
-    protected abstract boolean execute(final TransactionalProtocolClient.TransactionalOperationListener<ServerOperation> listener, final ServerIdentity identity, final ModelNode operation) throws OperationFailedException;
+    protected abstract Runnable prepare(final TransactionalProtocolClient.TransactionalOperationListener<ServerOperation> listener, final ServerIdentity identity, final ModelNode operation) throws OperationFailedException;
 
     /**
      * Execute a server task.
@@ -77,45 +77,70 @@ public abstract class ServerTaskExecutor {
      * @return whether the task was executed or not
      */
     public boolean executeTask(final TransactionalProtocolClient.TransactionalOperationListener<ServerOperation> listener, final ServerUpdateTask task) {
+        final Runnable send = prepareTask(listener, task);
+        if(send == null) {
+            return false;
+        }
+        send.run();
+        return true;
+    }
+
+    /**
+     * Prepare the execution of a server task. The operation is transformed through the operation context, so this
+     * must be called on the thread executing the step, while the returned task may be run on any thread.
+     *
+     * @param listener the transactional server listener
+     * @param task the server task
+     * @return the task sending the operation, or {@code null} if the task is not executed
+     */
+    public Runnable prepareTask(final TransactionalProtocolClient.TransactionalOperationListener<ServerOperation> listener, final ServerUpdateTask task) {
         try {
-            return execute(listener, task.getServerIdentity(), task.getOperation());
-        } catch (OperationFailedException e) {
+            return prepare(listener, task.getServerIdentity(), task.getOperation());
+        } catch (final OperationFailedException e) {
             // Handle failures operation transformation failures
-            final ServerIdentity identity = task.getServerIdentity();
-            final ServerOperation serverOperation = new ServerOperation(identity, task.getOperation(), null, null, OperationResultTransformer.ORIGINAL_RESULT);
-            final TransactionalProtocolClient.PreparedOperation<ServerOperation> result = BlockingQueueOperationListener.FailedOperation.create(serverOperation, e);
-            listener.operationPrepared(result);
-            recordExecutedRequest(new ExecutedServerRequest(identity, result.getFinalResult(), OperationResultTransformer.ORIGINAL_RESULT));
+            return new Runnable() {
+                @Override
+                public void run() {
+                    final ServerIdentity identity = task.getServerIdentity();
+                    final ServerOperation serverOperation = new ServerOperation(identity, task.getOperation(), null, null, OperationResultTransformer.ORIGINAL_RESULT);
+                    final TransactionalProtocolClient.PreparedOperation<ServerOperation> result = BlockingQueueOperationListener.FailedOperation.create(serverOperation, e);
+                    listener.operationPrepared(result);
+                    recordExecutedRequest(new ExecutedServerRequest(identity, result.getFinalResult(), OperationResultTransformer.ORIGINAL_RESULT));
+                }
+            };
         }
-        return true;
     }
 
     /**
-     * Execute the operation.
+     * Prepare the execution of the operation.
      *
      * @param listener the transactional operation listener
      * @param client the transactional protocol client
      * @param identity the server identity
      * @param operation the operation
      * @param transformer the operation result transformer
-     * @return whether the operation was executed
+     * @return the task sending the operation, or {@code null} if the operation is not executed
      */
-    protected boolean executeOperation(final TransactionalProtocolClient.TransactionalOperationListener<ServerOperation> listener, TransactionalProtocolClient client, final ServerIdentity identity, final ModelNode operation, final OperationResultTransformer transformer) {
+    protected Runnable prepareOperation(final TransactionalProtocolClient.TransactionalOperationListener<ServerOperation> listener, final TransactionalProtocolClient client, final ServerIdentity identity, final ModelNode operation, final OperationResultTransformer transformer) {
         if(client == null) {
-            return false;
+            return null;
         }
         final OperationMessageHandler messageHandler = new DelegatingMessageHandler(context);
         final OperationAttachments operationAttachments = new DelegatingOperationAttachments(context);
         final ServerOperation serverOperation = new ServerOperation(identity, operation, messageHandler, operationAttachments, transformer);
-        try {
-            final Future<ModelNode> result = client.execute(listener, serverOperation);
-            recordExecutedRequest(new ExecutedServerRequest(identity, result, transformer));
-        } catch (IOException e) {
-            final TransactionalProtocolClient.PreparedOperation<ServerOperation> result = BlockingQueueOperationListener.FailedOperation.create(serverOperation, e);
-            listener.operationPrepared(result);
-            recordExecutedRequest(new ExecutedServerRequest(identity, result.getFinalResult(), transformer));
-        }
-        return true;
+        return new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    final Future<ModelNode> result = client.execute(listener, serverOperation);
+                    recordExecutedRequest(new ExecutedServerRequest(identity, result, transformer));
+                } catch (IOException e) {
+                    final TransactionalProtocolClient.PreparedOperation<ServerOperation> result = BlockingQueueOperationListener.FailedOperation.create(serverOperation, e);
+                    listener.operationPrepared(result);
+                    recordExecutedRequest(new ExecutedServerRequest(identity, result.getFinalResult(), transformer));
+                }
+            }
+        };
     }
 
     /**
@@ -287,11 +312,20 @@ public abstract class ServerTaskExecutor {
         }
     }
 
+    /**
+     * The attachment streams of the operation context, read when the operation is prepared, as the operation may be
+     * sent from another thread.
+     */
     private static class DelegatingOperationAttachments implements OperationAttachments {
 
-        private final OperationContext context;
+        private final List<InputStream> inputStreams;
         private DelegatingOperationAttachments(final OperationContext context) {
-            this.context = context;
+            int count = context.getAttachmentStreamCount();
+            List<InputStream> result = new ArrayList<InputStream>(count);
+            for (int i = 0; i < count; i++) {
+                result.add(context.getAttachmentStream(i));
+            }
+            this.inputStreams = result;
         }
 
         @Override
@@ -301,12 +335,7 @@ public abstract class ServerTaskExecutor {
 
         @Override
         public List<InputStream> getInputStreams() {
-            int count = context.getAttachmentStreamCount();
-            List<InputStream> result = new ArrayList<InputStream>(count);
-            for (int i = 0; i < count; i++) {
-                result.add(context.getAttachmentStream(i));
-            }
-            return result;
+            return inputStreams;
         }
 
         @Override
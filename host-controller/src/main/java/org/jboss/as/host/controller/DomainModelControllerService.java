@@ -93,6 +93,7 @@ import org.jboss.as.domain.controller.DomainController;
 import org.jboss.as.domain.controller.LocalHostControllerInfo;
 import org.jboss.as.domain.controller.SlaveRegistrationException;
 import org.jboss.as.domain.controller.operations.ApplyMissingDomainModelResourcesHandler;
+import org.jboss.as.domain.controller.operations.RolloutMetricsHandler;
 import org.jboss.as.domain.controller.operations.coordination.PrepareStepHandler;
 import org.jboss.as.domain.controller.resources.DomainRootDefinition;
 import org.jboss.as.domain.management.CoreManagementResourceDefinition;
@@ -647,9 +648,15 @@ public class DomainModelControllerService extends AbstractControllerService impl
 
     protected void stopAsynchronous(StopContext context)  {
         try {
-            pingScheduler.shutdownNow();
+            hostControllerConfigurationPersister.flush();
+        } catch (ConfigurationPersistenceException e) {
+            // the failed write was logged by the persister
         } finally {
-            proxyExecutor.shutdown();
+            try {
+                pingScheduler.shutdownNow();
+            } finally {
+                proxyExecutor.shutdown();
+            }
         }
     }
 
@@ -704,6 +711,9 @@ public class DomainModelControllerService extends AbstractControllerService impl
         DomainRootDefinition domainRootDefinition = new DomainRootDefinition(this, environment, configurationPersister, contentRepo, fileRepository, isMaster, hostControllerInfo,
                 extensionRegistry, ignoredDomainResourceRegistry, pathManager, isMaster ? runtimeIgnoreTransformationRegistry : null, authorizer);
         rootResourceDefinition.setDelegate(domainRootDefinition, root);
+        if (isMaster) {
+            RolloutMetricsHandler.registerMetrics(root, prepareStepHandler.getRolloutStatistics());
+        }
     }
 
     private static class HostRegistration {
@@ -37,6 +37,7 @@ import org.jboss.as.controller.persistence.ConfigurationFile;
 import org.jboss.as.controller.persistence.ConfigurationPersistenceException;
 import org.jboss.as.controller.persistence.ExtensibleConfigurationPersister;
 import org.jboss.as.controller.persistence.SubsystemMarshallingContext;
+import org.jboss.as.controller.persistence.XmlConfigurationPersister;
 import org.jboss.as.domain.controller.LocalHostControllerInfo;
 import org.jboss.dmr.ModelNode;
 import org.jboss.staxmapper.XMLElementWriter;
@@ -130,7 +131,7 @@ public class HostControllerConfigurationPersister implements ExtensibleConfigura
             }
         }
 
-        return new PersistenceResource() {
+        return new DeferredPersistenceResource() {
             @Override
             public void commit() {
                 if (delegates[0] != null) {
@@ -150,6 +151,15 @@ public class HostControllerConfigurationPersister implements ExtensibleConfigura
                     delegates[1].rollback();
                 }
             }
+
+            @Override
+            public void awaitCommitted() throws ConfigurationPersistenceException {
+                for (PersistenceResource delegate : delegates) {
+                    if (delegate instanceof DeferredPersistenceResource) {
+                        ((DeferredPersistenceResource) delegate).awaitCommitted();
+                    }
+                }
+            }
         };
     }
 
@@ -171,6 +181,25 @@ public class HostControllerConfigurationPersister implements ExtensibleConfigura
         }
     }
 
+    /**
+     * Waits until the committed changes to the host and domain configurations are written.
+     *
+     * @throws ConfigurationPersistenceException if the last write of either configuration failed
+     */
+    public void flush() throws ConfigurationPersistenceException {
+        try {
+            flush(hostPersister);
+        } finally {
+            flush(domainPersister);
+        }
+    }
+
+    private static void flush(final ExtensibleConfigurationPersister persister) throws ConfigurationPersistenceException {
+        if (persister instanceof XmlConfigurationPersister) {
+            ((XmlConfigurationPersister) persister).flush();
+        }
+    }
+
     @Override
     public String snapshot() throws ConfigurationPersistenceException {
         throw new UnsupportedOperationException();
@@ -94,6 +94,7 @@ import org.jboss.as.server.controller.resources.ModuleLoadingResourceDefinition;
 import org.jboss.as.server.controller.resources.ServerRootResourceDefinition;
 import org.jboss.as.server.controller.resources.SystemPropertyResourceDefinition;
 import org.jboss.as.server.controller.resources.VaultResourceDefinition;
+import org.jboss.as.server.deployment.ChunkedContentAttributeHandler;
 import org.jboss.as.server.operations.RunningModeReadHandler;
 import org.jboss.as.server.services.net.SpecifiedInterfaceResolveHandler;
 import org.jboss.as.server.services.security.AbstractVaultReader;
@@ -238,6 +239,7 @@ public class HostResourceDefinition extends SimpleResourceDefinition {
     public void registerAttributes(ManagementResourceRegistration hostRegistration) {
         super.registerAttributes(hostRegistration);
         hostRegistration.registerReadWriteAttribute(DIRECTORY_GROUPING, null, new ReloadRequiredWriteAttributeHandler(DIRECTORY_GROUPING));
+        ChunkedContentAttributeHandler.registerAttribute(hostRegistration, contentRepository);
         hostRegistration.registerReadOnlyAttribute(PRODUCT_NAME, null);
         hostRegistration.registerReadOnlyAttribute(SERVER_STATE, null);
         hostRegistration.registerReadOnlyAttribute(RELEASE_VERSION, null);
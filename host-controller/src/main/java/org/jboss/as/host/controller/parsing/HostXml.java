@@ -96,6 +96,7 @@ import org.jboss.as.host.controller.operations.RemoteDomainControllerAddHandler;
 import org.jboss.as.host.controller.resources.HttpManagementResourceDefinition;
 import org.jboss.as.host.controller.resources.NativeManagementResourceDefinition;
 import org.jboss.as.host.controller.resources.ServerConfigResourceDefinition;
+import org.jboss.as.server.deployment.ChunkedContentAttributeHandler;
 import org.jboss.as.server.parsing.CommonXml;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
@@ -154,6 +155,7 @@ public class HostXml extends CommonXml {
         if (modelNode.hasDefined(NAME)) {
             HostResourceDefinition.NAME.marshallAsAttribute(modelNode, writer);
         }
+        ChunkedContentAttributeHandler.CHUNKED_CONTENT.marshallAsAttribute(modelNode, false, writer);
 
         writer.writeDefaultNamespace(Namespace.CURRENT.getUriString());
         writeNamespaces(writer, modelNode);
@@ -338,6 +340,7 @@ public class HostXml extends CommonXml {
     private void readHostElement_1_1(final Namespace namespace, final XMLExtendedStreamReader reader, final ModelNode address, final List<ModelNode> list)
             throws XMLStreamException {
         String hostName = null;
+        ModelNode chunkedContent = null;
 
         // Deffer adding the namespaces and schema locations until after the host has been created.
         List<ModelNode> namespaceOperations = new LinkedList<ModelNode>();
@@ -355,6 +358,18 @@ public class HostXml extends CommonXml {
                             hostName = value;
                             break;
                         }
+                        case CHUNKED_CONTENT: {
+                            switch (namespace) {
+                                case DOMAIN_1_1:
+                                case DOMAIN_1_2:
+                                case DOMAIN_1_3:
+                                case DOMAIN_1_4:
+                                    throw unexpectedAttribute(reader, i);
+                                default:
+                                    chunkedContent = ChunkedContentAttributeHandler.CHUNKED_CONTENT.parse(value, reader);
+                            }
+                            break;
+                        }
                         default:
                             throw unexpectedAttribute(reader, i);
                     }
@@ -390,6 +405,9 @@ public class HostXml extends CommonXml {
             operation.get(OP_ADDR).set(address);
             list.add(operation);
         }
+        if (chunkedContent != null) {
+            list.add(Util.getWriteAttributeOperation(address, ChunkedContentAttributeHandler.CHUNKED_CONTENT.getName(), chunkedContent));
+        }
 
         // Content
         // Handle elements: sequence
@@ -0,0 +1,196 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.domain.controller.plan;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.security.auth.Subject;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests {@link BoundedConcurrentUpdateTask}.
+ */
+public class BoundedConcurrentUpdateTaskTestCase {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @After
+    public void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testBoundedConcurrency() {
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        final AtomicInteger completed = new AtomicInteger();
+        final List<Runnable> tasks = new ArrayList<Runnable>();
+        for (int i = 0; i < 50; i++) {
+            tasks.add(new Runnable() {
+                @Override
+                public void run() {
+                    final int current = running.incrementAndGet();
+                    int max;
+                    while ((max = maxRunning.get()) < current && !maxRunning.compareAndSet(max, current)) {
+                        // retry
+                    }
+                    try {
+                        Thread.sleep(5);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    running.decrementAndGet();
+                    completed.incrementAndGet();
+                }
+            });
+        }
+        new BoundedConcurrentUpdateTask(tasks, executor, 4).run();
+        assertEquals(50, completed.get());
+        assertTrue(String.valueOf(maxRunning.get()), maxRunning.get() <= 4);
+        assertTrue(String.valueOf(maxRunning.get()), maxRunning.get() > 1);
+    }
+
+    @Test
+    public void testSingleThread() {
+        final Thread caller = Thread.currentThread();
+        final List<Runnable> tasks = new ArrayList<Runnable>();
+        for (int i = 0; i < 10; i++) {
+            tasks.add(new Runnable() {
+                @Override
+                public void run() {
+                    assertSame(caller, Thread.currentThread());
+                }
+            });
+        }
+        new BoundedConcurrentUpdateTask(tasks, executor, 1).run();
+    }
+
+    @Test
+    public void testCallerSubject() {
+        final Subject subject = new Subject();
+        final CountDownLatch allRunning = new CountDownLatch(4);
+        final Set<Thread> threads = Collections.synchronizedSet(new HashSet<Thread>());
+        final List<Subject> subjects = Collections.synchronizedList(new ArrayList<Subject>());
+        final List<Runnable> tasks = new ArrayList<Runnable>();
+        for (int i = 0; i < 4; i++) {
+            tasks.add(new Runnable() {
+                @Override
+                public void run() {
+                    // every task runs on its own thread
+                    allRunning.countDown();
+                    try {
+                        allRunning.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    threads.add(Thread.currentThread());
+                    subjects.add(Subject.getSubject(AccessController.getContext()));
+                }
+            });
+        }
+        Subject.doAs(subject, new PrivilegedAction<Void>() {
+            @Override
+            public Void run() {
+                new BoundedConcurrentUpdateTask(tasks, executor, 4).run();
+                return null;
+            }
+        });
+        assertEquals(4, threads.size());
+        assertEquals(4, subjects.size());
+        for (Subject s : subjects) {
+            assertSame(subject, s);
+        }
+    }
+
+    @Test
+    public void testRejectedExecution() {
+        final AtomicInteger completed = new AtomicInteger();
+        final List<Runnable> tasks = new ArrayList<Runnable>();
+        for (int i = 0; i < 10; i++) {
+            tasks.add(new Runnable() {
+                @Override
+                public void run() {
+                    completed.incrementAndGet();
+                }
+            });
+        }
+        final Executor rejecting = new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                throw new RejectedExecutionException();
+            }
+        };
+        new BoundedConcurrentUpdateTask(tasks, rejecting, 4).run();
+        assertEquals(10, completed.get());
+    }
+
+    @Test
+    public void testFailureRethrownAfterCompletion() throws InterruptedException {
+        final IllegalStateException failure = new IllegalStateException();
+        final CountDownLatch slowTask = new CountDownLatch(1);
+        final List<Runnable> tasks = new ArrayList<Runnable>();
+        tasks.add(new Runnable() {
+            @Override
+            public void run() {
+                throw failure;
+            }
+        });
+        tasks.add(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                slowTask.countDown();
+            }
+        });
+        try {
+            new BoundedConcurrentUpdateTask(tasks, executor, 2).run();
+            fail("the failure of the task was not rethrown");
+        } catch (IllegalStateException e) {
+            assertSame(failure, e);
+        }
+        assertTrue(slowTask.await(0, TimeUnit.SECONDS));
+    }
+}
@@ -44,6 +44,7 @@ import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.registry.Resource;
+import org.jboss.as.repository.ChunkedContentRepository;
 import org.jboss.as.repository.ContentRepository;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.Property;
@@ -287,6 +288,9 @@ public class ManagedDMRContentTypeResource implements Resource.ResourceEntry {
             throw new ContentStorageException(e);
         } finally {
             safeClose(is);
+            if (contentRepository instanceof ChunkedContentRepository) {
+                ((ChunkedContentRepository) contentRepository).releaseContent(initialHash);
+            }
         }
     }
 
@@ -25,6 +25,7 @@ package org.jboss.as.protocol.mgmt;
 import java.io.DataInput;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.Collection;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
@@ -50,9 +51,14 @@ import org.xnio.Cancellable;
  */
 public abstract class AbstractMessageHandler extends ActiveOperationSupport implements ManagementMessageHandler, CloseHandler<Channel> {
 
+    // How long the first batch on a channel waits for the remote side to tell whether it understands batches
+    private static final long BATCH_NEGOTIATION_TIMEOUT = 15000;
+
     private final ExecutorService executorService;
     private final AtomicInteger requestID = new AtomicInteger();
     private final Map<Integer, ActiveRequest<?, ?>> requests = new ConcurrentHashMap<Integer, ActiveRequest<?, ?>>(16, 0.75f, Runtime.getRuntime().availableProcessors());
+    // Whether the remote side understands batches, asked once per channel
+    private final Map<Channel, AsyncFuture<Boolean>> batchNegotiations = new ConcurrentHashMap<Channel, AsyncFuture<Boolean>>();
 
     protected AbstractMessageHandler(final ExecutorService executorService) {
         if(executorService == null) {
@@ -101,7 +107,10 @@ public abstract class AbstractMessageHandler extends ActiveOperationSupport impl
      */
     public void handleMessage(final Channel channel, final DataInput input, final ManagementProtocolHeader header) throws IOException {
         final byte type = header.getType();
-        if(type == ManagementProtocol.TYPE_RESPONSE) {
+        if(type == ManagementProtocol.TYPE_REQUEST && ((ManagementRequestHeader) header).getOperationId() == ManagementProtocol.TYPE_BATCH) {
+            // Confirm that we understand batches, remote sides which don't reply with an error
+            writeBatchCapabilityResponse(channel, (ManagementRequestHeader) header);
+        } else if(type == ManagementProtocol.TYPE_RESPONSE) {
             // Handle response to local requests
             final ManagementResponseHeader response =  (ManagementResponseHeader) header;
             final ActiveRequest<?, ?> request = requests.remove(response.getResponseId());
@@ -138,6 +147,51 @@ public abstract class AbstractMessageHandler extends ActiveOperationSupport impl
      * @return the future result
      */
     protected <T, A> AsyncFuture<T> executeRequest(final ManagementRequest<T, A> request, final Channel channel, final ActiveOperation<T, A> support) {
+        return executeRequest(request, channel, support, null);
+    }
+
+    /**
+     * Create a batch of requests, which are sent to the remote side in a single message when the batch is flushed.
+     * If the remote side does not understand batches, the requests are sent right away, each in its own message.
+     * <p/>
+     * The first batch on a channel asks the remote side whether it understands batches, and waits for the answer.
+     *
+     * @param channel the channel
+     * @return the batch
+     * @throws IOException if the remote side could not be asked whether it understands batches
+     */
+    protected ManagementRequestBatch createBatch(final Channel channel) throws IOException {
+        AsyncFuture<Boolean> negotiation = batchNegotiations.get(channel);
+        if(negotiation == null) {
+            synchronized (batchNegotiations) {
+                negotiation = batchNegotiations.get(channel);
+                if(negotiation == null) {
+                    final ActiveOperation<Boolean, Void> support = registerActiveOperation((Void) null);
+                    negotiation = executeRequest(new BatchCapabilityRequest(), channel, support);
+                    batchNegotiations.put(channel, negotiation);
+                }
+            }
+        }
+        final AsyncFuture.Status status;
+        try {
+            status = negotiation.await(BATCH_NEGOTIATION_TIMEOUT, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        }
+        return new ManagementRequestBatch(this, channel, status == AsyncFuture.Status.COMPLETE);
+    }
+
+    /**
+     * Execute a request, as part of a batch.
+     *
+     * @param request the request
+     * @param channel the channel
+     * @param support the request support
+     * @param batch the batch, or {@code null} to send the request in its own message
+     * @return the future result
+     */
+    <T, A> AsyncFuture<T> executeRequest(final ManagementRequest<T, A> request, final Channel channel, final ActiveOperation<T, A> support, final ManagementRequestBatch batch) {
         assert support != null;
         final Integer requestId = this.requestID.incrementAndGet();
         final ActiveRequest<T, A> ar = new ActiveRequest<T, A>(support, request, channel);
@@ -196,7 +250,7 @@ public abstract class AbstractMessageHandler extends ActiveOperationSupport impl
 
                 @Override
                 public FlushableDataOutput writeMessage(final ManagementProtocolHeader header) throws IOException {
-                    final MessageOutputStream os = channel.writeMessage();
+                    final OutputStream os = batch == null ? channel.writeMessage() : batch.writeMessage();
                     return writeHeader(header, os);
                 }
             });
@@ -208,6 +262,20 @@ public abstract class AbstractMessageHandler extends ActiveOperationSupport impl
         return support.getResult();
     }
 
+    /**
+     * Remove the requests of the given operations, which were not sent to the remote side.
+     *
+     * @param operations the operations
+     */
+    void removeRequests(final Collection<ActiveOperation<?, ?>> operations) {
+        for(final Map.Entry<Integer, ActiveRequest<?, ?>> requestEntry : requests.entrySet()) {
+            final ActiveRequest<?, ?> request = requestEntry.getValue();
+            if(operations.contains(request.context)) {
+                requests.remove(requestEntry.getKey());
+            }
+        }
+    }
+
     /**
      * Handle a message.
      *
@@ -375,6 +443,7 @@ public abstract class AbstractMessageHandler extends ActiveOperationSupport impl
      * @param e the exception which occurred during close, if any
      */
     public void handleChannelClosed(final Channel closed, final IOException e) {
+        batchNegotiations.remove(closed);
         for(final Map.Entry<Integer, ActiveRequest<?, ?>> requestEntry : requests.entrySet()) {
             final ActiveRequest<?, ?> request = requestEntry.getValue();
             if(request.channel == closed) {
@@ -451,6 +520,29 @@ public abstract class AbstractMessageHandler extends ActiveOperationSupport impl
         return output;
     }
 
+    /**
+     * Write the response to a request which asks whether we understand batches.
+     *
+     * @param channel the channel
+     * @param header the request
+     */
+    private static void writeBatchCapabilityResponse(final Channel channel, final ManagementRequestHeader header) {
+        final ManagementResponseHeader response = ManagementResponseHeader.create(header);
+        try {
+            final MessageOutputStream os = channel.writeMessage();
+            try {
+                final FlushableDataOutput output = writeHeader(response, os);
+                output.writeByte(ManagementProtocol.TYPE_BATCH);
+                output.writeByte(ManagementProtocol.RESPONSE_END);
+                output.close();
+            } finally {
+                StreamUtils.safeClose(os);
+            }
+        } catch(IOException ioe) {
+            ProtocolLogger.ROOT_LOGGER.tracef(ioe, "failed to write batch capability response for %s on channel: %s", header, channel);
+        }
+    }
+
     /**
      * Get a fallback handler.
      *
@@ -469,6 +561,30 @@ public abstract class AbstractMessageHandler extends ActiveOperationSupport impl
         };
     }
 
+    /**
+     * Asks the remote side whether it understands batches. Remote sides which don't reply with an error, as they
+     * do not have a handler for the operation type.
+     */
+    private static class BatchCapabilityRequest extends AbstractManagementRequest<Boolean, Void> {
+
+        @Override
+        public byte getOperationType() {
+            return ManagementProtocol.TYPE_BATCH;
+        }
+
+        @Override
+        protected void sendRequest(ActiveOperation.ResultHandler<Boolean> resultHandler, ManagementRequestContext<Void> context, FlushableDataOutput output) throws IOException {
+            // nothing besides the header
+        }
+
+        @Override
+        public void handleRequest(DataInput input, ActiveOperation.ResultHandler<Boolean> resultHandler, ManagementRequestContext<Void> context) throws IOException {
+            ProtocolUtils.expectHeader(input, ManagementProtocol.TYPE_BATCH);
+            ProtocolUtils.expectHeader(input, ManagementProtocol.RESPONSE_END);
+            resultHandler.done(Boolean.TRUE);
+        }
+    }
+
     private static class ActiveRequest<T, A> {
 
         private final Channel channel;
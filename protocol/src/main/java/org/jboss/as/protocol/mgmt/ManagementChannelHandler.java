@@ -115,6 +115,17 @@ public final class ManagementChannelHandler extends AbstractMessageHandler imple
         return super.executeRequest(request, strategy.getChannel(), support);
     }
 
+    /**
+     * Create a batch of requests, which are sent in a single message once the batch is flushed. This saves the round
+     * trips of the requests which are sent together, e.g. to read the state of several resources from the remote side.
+     *
+     * @return the batch
+     * @throws IOException if the channel could not be obtained
+     */
+    public ManagementRequestBatch createBatch() throws IOException {
+        return createBatch(strategy.getChannel());
+    }
+
     /** {@inheritDoc} */
     @Override
     protected ManagementRequestHandler<?, ?> getRequestHandler(final ManagementRequestHeader header) {
@@ -28,6 +28,7 @@ import org.jboss.remoting3.Channel;
 import org.jboss.remoting3.MessageInputStream;
 import org.jboss.remoting3.MessageOutputStream;
 
+import java.io.ByteArrayInputStream;
 import java.io.DataInput;
 import java.io.DataInputStream;
 import java.io.IOException;
@@ -66,23 +67,7 @@ public abstract class ManagementChannelReceiver implements ManagementMessageHand
             ROOT_LOGGER.tracef("%s handling incoming data", this);
             lastMessageTime = System.currentTimeMillis();
             final DataInput input = new DataInputStream(message);
-            final ManagementProtocolHeader header = ManagementProtocolHeader.parse(input);
-            final byte type = header.getType();
-            if(type == ManagementProtocol.TYPE_PING) {
-                // Handle legacy ping/pong directly
-                ROOT_LOGGER.tracef("Received ping on %s", this);
-                handlePing(channel, header);
-            } else if (type == ManagementProtocol.TYPE_PONG) {
-                // Nothing to do here
-                ROOT_LOGGER.tracef("Received on on %s", this);
-            } else if (type == ManagementProtocol.TYPE_BYE_BYE) {
-                // Close the channel
-                ROOT_LOGGER.tracef("Received bye bye on %s, closing", this);
-                handleChannelReset(channel);
-            } else {
-                // Handle a message
-                handleMessage(channel, input, header);
-            }
+            dispatchMessage(channel, input);
             message.close();
         } catch(IOException e) {
             handleError(channel, e);
@@ -98,6 +83,39 @@ public abstract class ManagementChannelReceiver implements ManagementMessageHand
         }
     }
 
+    private void dispatchMessage(final Channel channel, final DataInput input) throws IOException {
+        final ManagementProtocolHeader header = ManagementProtocolHeader.parse(input);
+        final byte type = header.getType();
+        if(type == ManagementProtocol.TYPE_PING) {
+            // Handle legacy ping/pong directly
+            ROOT_LOGGER.tracef("Received ping on %s", this);
+            handlePing(channel, header);
+        } else if (type == ManagementProtocol.TYPE_PONG) {
+            // Nothing to do here
+            ROOT_LOGGER.tracef("Received on on %s", this);
+        } else if (type == ManagementProtocol.TYPE_BYE_BYE) {
+            // Close the channel
+            ROOT_LOGGER.tracef("Received bye bye on %s, closing", this);
+            handleChannelReset(channel);
+        } else if (type == ManagementProtocol.TYPE_BATCH) {
+            // Handle the batched messages in order, the request handlers process them asynchronously
+            ROOT_LOGGER.tracef("Received batch on %s", this);
+            for (;;) {
+                final byte next = input.readByte();
+                if (next == ManagementProtocol.BATCH_END) {
+                    break;
+                }
+                ProtocolUtils.expectHeader(next, ManagementProtocol.BATCH_MESSAGE);
+                final byte[] bytes = new byte[input.readInt()];
+                input.readFully(bytes);
+                dispatchMessage(channel, new DataInputStream(new ByteArrayInputStream(bytes)));
+            }
+        } else {
+            // Handle a message
+            handleMessage(channel, input, header);
+        }
+    }
+
     public long getLastMessageTime() {
         return lastMessageTime;
     }
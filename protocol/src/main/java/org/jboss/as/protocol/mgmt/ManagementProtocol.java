@@ -37,6 +37,7 @@ public interface ManagementProtocol {
     byte TYPE_BYE_BYE = 0x4;
     byte TYPE_PING = 0x5;
     byte TYPE_PONG = 0x6;
+    byte TYPE_BATCH = 0x7;
 
     byte REQUEST_ID = 0x10;
     byte BATCH_ID = 0x11;
@@ -50,4 +51,7 @@ public interface ManagementProtocol {
     byte RESPONSE_BODY = 0x22;
     byte RESPONSE_ERROR = 0x23;
     byte RESPONSE_END = 0x24;
+
+    byte BATCH_MESSAGE = 0x30;
+    byte BATCH_END = 0x31;
 }
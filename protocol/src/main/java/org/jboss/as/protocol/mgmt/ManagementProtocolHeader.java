@@ -122,6 +122,8 @@ public abstract class ManagementProtocolHeader {
                 return new ManagementPingHeader(version);
             case ManagementProtocol.TYPE_PONG:
                 return new ManagementPongHeader(version);
+            case ManagementProtocol.TYPE_BATCH:
+                return new ManagementBatchHeader(version);
             default:
                 throw MESSAGES.invalidType("0x" + Integer.toHexString(type));
         }
@@ -0,0 +1,232 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.protocol.mgmt;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jboss.as.protocol.StreamUtils;
+import org.jboss.remoting3.Channel;
+import org.jboss.threads.AsyncFuture;
+
+/**
+ * A batch of management requests, which are sent to the remote side in a single message once the batch is flushed,
+ * rather than in one message each. The remote side processes the batched requests in order, and sends the responses
+ * as the requests complete, which may be in a different order.
+ * <p/>
+ * The requests are only batched if the remote side confirmed that it understands batches, when it was asked with a
+ * request of the operation type {@link ManagementProtocol#TYPE_BATCH}. Otherwise they are sent right away.
+ * <p/>
+ * A batch is flushed once. The messages which the requests write after the flush, e.g. from an asynchronous task,
+ * are sent in their own message. The batch is flushed on its own if the pending messages exceed
+ * {@link #MAX_BATCH_SIZE} bytes.
+ */
+public final class ManagementRequestBatch {
+
+    /** The size of the pending messages over which the batch is flushed on its own. */
+    public static final int MAX_BATCH_SIZE = 64 * 1024;
+
+    private final AbstractMessageHandler handler;
+    private final Channel channel;
+    private final boolean batching;
+    private final List<byte[]> messages = new ArrayList<byte[]>();
+    private final List<ActiveOperation<?, ?>> operations = new ArrayList<ActiveOperation<?, ?>>();
+    private int size;
+    private boolean flushed;
+
+    ManagementRequestBatch(final AbstractMessageHandler handler, final Channel channel, final boolean batching) {
+        this.handler = handler;
+        this.channel = channel;
+        this.batching = batching;
+    }
+
+    /**
+     * Whether the requests are batched, or sent right away because the remote side does not understand batches.
+     *
+     * @return {@code true} if the requests are batched
+     */
+    public boolean isBatching() {
+        return batching;
+    }
+
+    /**
+     * Execute a request as part of this batch.
+     *
+     * @param request the request
+     * @param attachment the attachment
+     * @param <T> the result type
+     * @param <A> the attachment type
+     * @return the active operation
+     */
+    public <T, A> ActiveOperation<T, A> executeRequest(final ManagementRequest<T, A> request, final A attachment) {
+        final ActiveOperation<T, A> operation = handler.registerActiveOperation(attachment);
+        executeRequest(operation, request);
+        return operation;
+    }
+
+    /**
+     * Execute a request as part of this batch.
+     *
+     * @param request the request
+     * @param attachment the attachment
+     * @param callback the completion callback
+     * @param <T> the result type
+     * @param <A> the attachment type
+     * @return the active operation
+     */
+    public <T, A> ActiveOperation<T, A> executeRequest(final ManagementRequest<T, A> request, final A attachment, final ActiveOperation.CompletedCallback<T> callback) {
+        final ActiveOperation<T, A> operation = handler.registerActiveOperation(attachment, callback);
+        executeRequest(operation, request);
+        return operation;
+    }
+
+    /**
+     * Execute a request for an existing operation as part of this batch.
+     *
+     * @param operation the active operation
+     * @param request the request
+     * @param <T> the result type
+     * @param <A> the attachment type
+     * @return the future result
+     */
+    public <T, A> AsyncFuture<T> executeRequest(final ActiveOperation<T, A> operation, final ManagementRequest<T, A> request) {
+        if (batching) {
+            synchronized (this) {
+                if (!flushed) {
+                    operations.add(operation);
+                }
+            }
+        }
+        return handler.executeRequest(request, channel, operation, this);
+    }
+
+    /**
+     * Send the pending requests to the remote side. If they cannot be sent, their operations fail and the requests are
+     * dropped.
+     *
+     * @throws IOException if the requests could not be sent
+     */
+    public void flush() throws IOException {
+        final List<byte[]> messages;
+        final List<ActiveOperation<?, ?>> operations;
+        synchronized (this) {
+            if (flushed) {
+                return;
+            }
+            flushed = true;
+            messages = new ArrayList<byte[]>(this.messages);
+            operations = new ArrayList<ActiveOperation<?, ?>>(this.operations);
+            this.messages.clear();
+            this.operations.clear();
+            size = 0;
+        }
+        send(messages, operations);
+    }
+
+    /**
+     * Get the stream to write a message of a request to.
+     *
+     * @return the output stream
+     * @throws IOException
+     */
+    OutputStream writeMessage() throws IOException {
+        if (!batching) {
+            return channel.writeMessage();
+        }
+        synchronized (this) {
+            if (flushed) {
+                return channel.writeMessage();
+            }
+        }
+        return new ByteArrayOutputStream() {
+            private boolean closed;
+
+            @Override
+            public void close() throws IOException {
+                if (!closed) {
+                    closed = true;
+                    addMessage(toByteArray());
+                }
+            }
+        };
+    }
+
+    private void addMessage(final byte[] message) throws IOException {
+        List<byte[]> full = null;
+        List<ActiveOperation<?, ?>> operations = null;
+        synchronized (this) {
+            if (!flushed) {
+                messages.add(message);
+                size += message.length;
+                if (size > MAX_BATCH_SIZE) {
+                    full = new ArrayList<byte[]>(messages);
+                    operations = new ArrayList<ActiveOperation<?, ?>>(this.operations);
+                    messages.clear();
+                    this.operations.clear();
+                    size = 0;
+                }
+            } else {
+                full = new ArrayList<byte[]>(1);
+                full.add(message);
+                operations = new ArrayList<ActiveOperation<?, ?>>(0);
+            }
+        }
+        if (full != null) {
+            send(full, operations);
+        }
+    }
+
+    private void send(final List<byte[]> messages, final List<ActiveOperation<?, ?>> operations) throws IOException {
+        if (messages.isEmpty()) {
+            return;
+        }
+        final OutputStream os = channel.writeMessage();
+        try {
+            if (messages.size() == 1) {
+                os.write(messages.get(0));
+            } else {
+                final FlushableDataOutput output = AbstractMessageHandler.writeHeader(new ManagementBatchHeader(ManagementProtocol.VERSION), os);
+                for (final byte[] message : messages) {
+                    output.writeByte(ManagementProtocol.BATCH_MESSAGE);
+                    output.writeInt(message.length);
+                    output.write(message);
+                }
+                output.writeByte(ManagementProtocol.BATCH_END);
+                output.flush();
+            }
+            os.close();
+        } catch (IOException e) {
+            for (final ActiveOperation<?, ?> operation : operations) {
+                operation.getResultHandler().failed(e);
+            }
+            handler.removeRequests(operations);
+            throw e;
+        } finally {
+            StreamUtils.safeClose(os);
+        }
+    }
+
+}
@@ -0,0 +1,117 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.protocol.mgmt;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jboss.as.protocol.mgmt.support.RemoteChannelPairSetup;
+import org.jboss.as.protocol.mgmt.support.RemotingChannelPairSetup;
+import org.jboss.as.protocol.mgmt.support.SimpleHandlers;
+import org.jboss.as.protocol.mgmt.support.SimpleHandlers.SimpleClient;
+import org.jboss.threads.AsyncFuture;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests {@link ManagementRequestBatch}
+ */
+public class ManagementRequestBatchTestCase {
+
+    private RemotingChannelPairSetup channels;
+
+    @Before
+    public void start() throws Exception {
+        channels = new RemoteChannelPairSetup();
+        channels.setupRemoting(new SimpleHandlers.OperationHandler());
+        channels.startChannels();
+    }
+
+    @After
+    public void stop() throws Exception {
+        channels.stopChannels();
+        channels.shutdownRemoting();
+    }
+
+    @Test
+    public void testBatchedRequests() throws Exception {
+        final SimpleClient client = SimpleClient.create(channels);
+        // the first batch asks the server whether it understands batches
+        final ManagementRequestBatch batch = client.createBatch();
+        Assert.assertTrue(batch.isBatching());
+        final List<AsyncFuture<Integer>> futures = new ArrayList<AsyncFuture<Integer>>();
+        for (int i = 0; i < 10; i++) {
+            futures.add(batch.executeRequest(new SimpleHandlers.Request(SimpleHandlers.SIMPLE_REQUEST, i), null).getResult());
+        }
+        batch.flush();
+        for (int i = 0; i < 10; i++) {
+            Assert.assertEquals(Integer.valueOf(i * 2), futures.get(i).get());
+        }
+    }
+
+    @Test
+    public void testFailedRequestInBatch() throws Exception {
+        final SimpleClient client = SimpleClient.create(channels);
+        final ManagementRequestBatch batch = client.createBatch();
+        final AsyncFuture<Integer> failed = batch.executeRequest(new SimpleHandlers.Request(SimpleHandlers.REQUEST_WITH_BAD_READ, 1), null).getResult();
+        final AsyncFuture<Integer> succeeded = batch.executeRequest(new SimpleHandlers.Request(SimpleHandlers.SIMPLE_REQUEST, 2), null).getResult();
+        batch.flush();
+        Assert.assertEquals(Integer.valueOf(4), succeeded.get());
+        Assert.assertEquals(AsyncFuture.Status.FAILED, failed.await());
+    }
+
+    @Test
+    public void testLargeBatch() throws Exception {
+        final SimpleClient client = SimpleClient.create(channels);
+        // more requests than fit in a single batch message
+        final ManagementRequestBatch batch = client.createBatch();
+        final List<AsyncFuture<Integer>> futures = new ArrayList<AsyncFuture<Integer>>();
+        for (int i = 0; i < 5000; i++) {
+            futures.add(batch.executeRequest(new SimpleHandlers.Request(SimpleHandlers.SIMPLE_REQUEST, i), null).getResult());
+        }
+        batch.flush();
+        for (int i = 0; i < 5000; i++) {
+            Assert.assertEquals(Integer.valueOf(i * 2), futures.get(i).get());
+        }
+    }
+
+    @Test
+    public void testNoBatchingWithLegacyServer() throws Exception {
+        stop();
+        channels = new RemoteChannelPairSetup();
+        channels.setupRemoting(new SimpleHandlers.LegacyOperationHandler());
+        channels.startChannels();
+
+        final SimpleClient client = SimpleClient.create(channels);
+        // the server replies with an error to the batch capability request, so the requests are sent right away
+        final ManagementRequestBatch batch = client.createBatch();
+        Assert.assertFalse(batch.isBatching());
+        final AsyncFuture<Integer> future = batch.executeRequest(new SimpleHandlers.Request(SimpleHandlers.SIMPLE_REQUEST, 3), null).getResult();
+        Assert.assertEquals(Integer.valueOf(6), future.get());
+        batch.flush();
+        // as are the ones of later batches
+        Assert.assertFalse(client.createBatch().isBatching());
+    }
+}
@@ -33,8 +33,10 @@ import org.jboss.as.protocol.mgmt.ActiveOperation;
 import org.jboss.as.protocol.mgmt.FlushableDataOutput;
 import org.jboss.as.protocol.mgmt.ManagementChannelReceiver;
 import org.jboss.as.protocol.mgmt.AbstractMessageHandler;
+import org.jboss.as.protocol.mgmt.ManagementProtocol;
 import org.jboss.as.protocol.mgmt.ManagementProtocolHeader;
 import org.jboss.as.protocol.mgmt.ManagementRequest;
+import org.jboss.as.protocol.mgmt.ManagementRequestBatch;
 import org.jboss.as.protocol.mgmt.ManagementRequestContext;
 import org.jboss.as.protocol.mgmt.ManagementRequestHandler;
 import org.jboss.as.protocol.mgmt.ManagementRequestHeader;
@@ -115,6 +117,21 @@ public class SimpleHandlers {
         }
     }
 
+    /**
+     * Answers like a version which does not understand batches, which has no handler for the batch operation type.
+     */
+    public static class LegacyOperationHandler extends OperationHandler {
+
+        @Override
+        public void handleMessage(Channel channel, DataInput input, ManagementProtocolHeader header) throws IOException {
+            if (header.getType() == ManagementProtocol.TYPE_REQUEST && ((ManagementRequestHeader) header).getOperationId() == ManagementProtocol.TYPE_BATCH) {
+                safeWriteErrorResponse(channel, header, new IOException("No handler for the operation type"));
+            } else {
+                super.handleMessage(channel, input, header);
+            }
+        }
+    }
+
     private abstract static class AbstractHandler implements ManagementRequestHandler<Void, Void> {
 
         abstract int readRequest(DataInput input) throws IOException;
@@ -204,6 +221,10 @@ public class SimpleHandlers {
             return super.executeRequest(request, channel, support);
         }
 
+        public ManagementRequestBatch createBatch() throws IOException {
+            return super.createBatch(channel);
+        }
+
         public static SimpleClient create(final Channel channel, final ExecutorService executorService) {
             final SimpleClient client = new SimpleClient(channel, executorService);
             channel.addCloseHandler(new CloseHandler<Channel>() {
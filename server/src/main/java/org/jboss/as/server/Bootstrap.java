@@ -22,6 +22,7 @@
 
 package org.jboss.as.server;
 
+import java.io.File;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 
@@ -180,6 +181,8 @@ public interface Bootstrap {
                                 persister.registerAdditionalRootElement(new QName(namespace.getUriString(), "server"), parser);
                             }
                         }
+                        // the cache is keyed by the contents of the configuration, so the name of the boot file is enough
+                        persister.setBootCacheFile(new File(serverEnvironment.getServerDataDir(), "boot-cache" + File.separator + configurationFile.getBootFile().getName()));
                         extensionRegistry.setWriterRegistry(persister);
                         return persister;
                     }
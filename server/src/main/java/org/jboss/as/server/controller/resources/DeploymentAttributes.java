@@ -44,6 +44,7 @@ import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleOperationDefinition;
 import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
 import org.jboss.as.controller.access.management.ApplicationTypeAccessConstraintDefinition;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.descriptions.ResourceDescriptionResolver;
 import org.jboss.as.controller.operations.validation.EnumValidator;
@@ -108,6 +109,16 @@ public class DeploymentAttributes {
     public static final AttributeDefinition STATUS = SimpleAttributeDefinitionBuilder.create(ModelDescriptionConstants.STATUS, ModelType.STRING, false)
         .setValidator(new EnumValidator<AbstractDeploymentUnitService.DeploymentStatus>(AbstractDeploymentUnitService.DeploymentStatus.class, false))
         .build();
+    public static final AttributeDefinition ANNOTATION_INDEX_CACHE_HITS = SimpleAttributeDefinitionBuilder.create("annotation-index-cache-hits", ModelType.LONG, true)
+        .setStorageRuntime()
+        .build();
+    public static final AttributeDefinition ANNOTATION_INDEX_CACHE_MISSES = SimpleAttributeDefinitionBuilder.create("annotation-index-cache-misses", ModelType.LONG, true)
+        .setStorageRuntime()
+        .build();
+    public static final AttributeDefinition ANNOTATION_INDEX_TIME_SAVED = SimpleAttributeDefinitionBuilder.create("annotation-index-time-saved", ModelType.LONG, true)
+        .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+        .setStorageRuntime()
+        .build();
 
     //Managed content value attributes
     public static final SimpleAttributeDefinition CONTENT_INPUT_STREAM_INDEX =
@@ -176,6 +187,9 @@ public class DeploymentAttributes {
     /** Attributes for server deployment resource */
     public static final AttributeDefinition[] SERVER_RESOURCE_ATTRIBUTES = new AttributeDefinition[] {NAME, RUNTIME_NAME, CONTENT_RESOURCE, ENABLED, PERSISTENT, STATUS};
 
+    /** Metrics of the annotation index cache for server deployment resource */
+    public static final AttributeDefinition[] SERVER_ANNOTATION_INDEX_CACHE_METRICS = new AttributeDefinition[] {ANNOTATION_INDEX_CACHE_HITS, ANNOTATION_INDEX_CACHE_MISSES, ANNOTATION_INDEX_TIME_SAVED};
+
     /** Attributes for server deployment add */
     public static final AttributeDefinition[] SERVER_ADD_ATTRIBUTES = new AttributeDefinition[] { RUNTIME_NAME_NILLABLE, CONTENT_ALL, ENABLED};// 'hide' the persistent attribute from users
 
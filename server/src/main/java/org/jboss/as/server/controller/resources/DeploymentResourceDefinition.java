@@ -34,6 +34,7 @@ import org.jboss.as.controller.access.management.AccessConstraintDefinition;
 import org.jboss.as.controller.access.management.ApplicationTypeAccessConstraintDefinition;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.OperationEntry;
+import org.jboss.as.server.deployment.AnnotationIndexCacheMetricHandler;
 import org.jboss.as.server.deployment.DeploymentStatusHandler;
 
 /**
@@ -65,6 +66,11 @@ public abstract class DeploymentResourceDefinition extends SimpleResourceDefinit
                 resourceRegistration.registerReadOnlyAttribute(attr, null);
             }
         }
+        if (parent == DeploymentResourceParent.SERVER) {
+            for (AttributeDefinition metric : DeploymentAttributes.SERVER_ANNOTATION_INDEX_CACHE_METRICS) {
+                resourceRegistration.registerMetric(metric, AnnotationIndexCacheMetricHandler.INSTANCE);
+            }
+        }
     }
 
     @Override
@@ -80,6 +80,7 @@ import org.jboss.as.server.ServerEnvironmentResourceDescription;
 import org.jboss.as.server.Services;
 import org.jboss.as.server.controller.descriptions.ServerDescriptionConstants;
 import org.jboss.as.server.controller.descriptions.ServerDescriptions;
+import org.jboss.as.server.deployment.ChunkedContentAttributeHandler;
 import org.jboss.as.server.deployment.DeploymentFullReplaceHandler;
 import org.jboss.as.server.deployment.DeploymentReplaceHandler;
 import org.jboss.as.server.deployment.DeploymentUploadBytesHandler;
@@ -313,6 +314,7 @@ public class ServerRootResourceDefinition extends SimpleResourceDefinition {
                 resourceRegistration.registerReadWriteAttribute(NAME, serverEnvironment.getProcessNameReadHandler(), serverEnvironment.getProcessNameWriteHandler());
                 // The legacy "undefined" profile-name
                 resourceRegistration.registerReadOnlyAttribute(NULL_PROFILE_NAME, null);
+                ChunkedContentAttributeHandler.registerAttribute(resourceRegistration, contentRepository);
             }
             resourceRegistration.registerReadOnlyAttribute(LAUNCH_TYPE, new LaunchTypeHandler(serverEnvironment.getLaunchType()));
         }
@@ -0,0 +1,74 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.server.controller.resources.DeploymentAttributes;
+import org.jboss.as.server.deployment.annotation.ResourceRootIndexCache;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+
+/**
+ * Reads the hits, misses and indexing time saved by the annotation index cache for a deployment. The metrics are
+ * undefined if the deployment is not deployed, or the cache is disabled.
+ */
+public class AnnotationIndexCacheMetricHandler implements OperationStepHandler {
+
+    public static final OperationStepHandler INSTANCE = new AnnotationIndexCacheMetricHandler();
+
+    @Override
+    public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+        final String deploymentName = PathAddress.pathAddress(operation.get(OP_ADDR)).getLastElement().getValue();
+        final String attributeName = operation.require(NAME).asString();
+        context.addStep(new OperationStepHandler() {
+            @Override
+            public void execute(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+                final ServiceController<?> controller = context.getServiceRegistry(false).getService(Services.deploymentUnitName(deploymentName));
+                if (controller != null) {
+                    final DeploymentUnit deploymentUnit = ((AbstractDeploymentUnitService) controller.getService()).getValue();
+                    final ResourceRootIndexCache.Statistics statistics = deploymentUnit == null ? null
+                            : deploymentUnit.getAttachment(Attachments.ANNOTATION_INDEX_CACHE_STATISTICS);
+                    if (statistics != null) {
+                        final ModelNode result = context.getResult();
+                        if (DeploymentAttributes.ANNOTATION_INDEX_CACHE_HITS.getName().equals(attributeName)) {
+                            result.set(statistics.getHits());
+                        } else if (DeploymentAttributes.ANNOTATION_INDEX_CACHE_MISSES.getName().equals(attributeName)) {
+                            result.set(statistics.getMisses());
+                        } else if (DeploymentAttributes.ANNOTATION_INDEX_TIME_SAVED.getName().equals(attributeName)) {
+                            result.set(statistics.getTimeSaved());
+                        }
+                    }
+                }
+                context.stepCompleted();
+            }
+        }, OperationContext.Stage.RUNTIME);
+
+        context.stepCompleted();
+    }
+}
@@ -29,6 +29,7 @@ import java.util.jar.Manifest;
 
 import org.jboss.as.controller.ServiceVerificationHandler;
 import org.jboss.as.server.deployment.annotation.CompositeIndex;
+import org.jboss.as.server.deployment.annotation.ResourceRootIndexCache;
 import org.jboss.as.server.deployment.module.AdditionalModuleSpecification;
 import org.jboss.as.server.deployment.module.ExtensionInfo;
 import org.jboss.as.server.deployment.module.ExtensionListEntry;
@@ -154,6 +155,17 @@ public final class Attachments {
      */
     public static final AttachmentKey<Index> ANNOTATION_INDEX = AttachmentKey.create(Index.class);
 
+    /**
+     * The cache of the annotation indexes of resource roots. This is attached to the top level deployment.
+     */
+    public static final AttachmentKey<ResourceRootIndexCache> ANNOTATION_INDEX_CACHE = AttachmentKey.create(ResourceRootIndexCache.class);
+
+    /**
+     * The lookups of the annotation indexes of the resource roots of the deployment in the {@link #ANNOTATION_INDEX_CACHE}.
+     * This is attached to the top level deployment.
+     */
+    public static final AttachmentKey<ResourceRootIndexCache.Statistics> ANNOTATION_INDEX_CACHE_STATISTICS = AttachmentKey.create(ResourceRootIndexCache.Statistics.class);
+
     /**
      * The composite annotation index for this deployment.
      */
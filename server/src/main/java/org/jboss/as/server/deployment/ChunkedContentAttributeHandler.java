@@ -0,0 +1,84 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.jboss.as.server.deployment;
+
+import org.jboss.as.controller.AbstractWriteAttributeHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.parsing.Attribute;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.repository.ChunkedContentRepository;
+import org.jboss.as.repository.ContentRepository;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+
+/**
+ * Writes whether the content added to the {@link ChunkedContentRepository} is stored in chunks shared with the other
+ * content. The change applies at once, also while booting, to the content added afterwards.
+ */
+public class ChunkedContentAttributeHandler extends AbstractWriteAttributeHandler<Void> {
+
+    public static final SimpleAttributeDefinition CHUNKED_CONTENT = new SimpleAttributeDefinitionBuilder(Attribute.CHUNKED_CONTENT.getLocalName(), ModelType.BOOLEAN, true)
+            .setDefaultValue(new ModelNode(false))
+            .setAllowExpression(true)
+            .build();
+
+    private final ContentRepository contentRepository;
+
+    private ChunkedContentAttributeHandler(final ContentRepository contentRepository) {
+        super(CHUNKED_CONTENT);
+        this.contentRepository = contentRepository;
+    }
+
+    public static void registerAttribute(final ManagementResourceRegistration registration, final ContentRepository contentRepository) {
+        registration.registerReadWriteAttribute(CHUNKED_CONTENT, null, new ChunkedContentAttributeHandler(contentRepository));
+    }
+
+    @Override
+    protected boolean requiresRuntime(final OperationContext context) {
+        // the repository is used while booting and in admin-only mode
+        return true;
+    }
+
+    @Override
+    protected boolean applyUpdateToRuntime(final OperationContext context, final ModelNode operation, final String attributeName,
+                                           final ModelNode resolvedValue, final ModelNode currentValue, final HandbackHolder<Void> handbackHolder) throws OperationFailedException {
+        setChunkedContent(resolvedValue);
+        return false;
+    }
+
+    @Override
+    protected void revertUpdateToRuntime(final OperationContext context, final ModelNode operation, final String attributeName,
+                                         final ModelNode valueToRestore, final ModelNode valueToRevert, final Void handback) throws OperationFailedException {
+        setChunkedContent(valueToRestore);
+    }
+
+    private void setChunkedContent(final ModelNode value) {
+        if (contentRepository instanceof ChunkedContentRepository) {
+            ((ChunkedContentRepository) contentRepository).setChunkedContent(value.asBoolean(false));
+        }
+    }
+}
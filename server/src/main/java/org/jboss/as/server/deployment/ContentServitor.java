@@ -22,11 +22,15 @@
 package org.jboss.as.server.deployment;
 
 import org.jboss.as.controller.ServiceVerificationHandler;
+import org.jboss.as.repository.ChunkedContentRepository;
 import org.jboss.as.repository.ContentRepository;
 import org.jboss.msc.service.AbstractService;
 import org.jboss.msc.service.ServiceController;
 import org.jboss.msc.service.ServiceName;
 import org.jboss.msc.service.ServiceTarget;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StartException;
+import org.jboss.msc.service.StopContext;
 import org.jboss.msc.value.InjectedValue;
 import org.jboss.vfs.VirtualFile;
 
@@ -36,6 +40,7 @@ import org.jboss.vfs.VirtualFile;
 class ContentServitor extends AbstractService<VirtualFile> {
     private final InjectedValue<ContentRepository> contentRepositoryInjectedValue = new InjectedValue<ContentRepository>();
     private final byte[] hash;
+    private volatile VirtualFile content;
 
     ContentServitor(final byte[] hash) {
         assert hash != null : "hash is null";
@@ -50,8 +55,23 @@ class ContentServitor extends AbstractService<VirtualFile> {
             .install();
     }
 
+    @Override
+    public void start(final StartContext context) throws StartException {
+        content = contentRepositoryInjectedValue.getValue().getContent(hash);
+    }
+
+    @Override
+    public void stop(final StopContext context) {
+        // the repository may drop the copy of the content it made for the deployment
+        content = null;
+        final ContentRepository contentRepository = contentRepositoryInjectedValue.getValue();
+        if (contentRepository instanceof ChunkedContentRepository) {
+            ((ChunkedContentRepository) contentRepository).releaseContent(hash);
+        }
+    }
+
     @Override
     public VirtualFile getValue() throws IllegalStateException, IllegalArgumentException {
-        return contentRepositoryInjectedValue.getValue().getContent(hash);
+        return content;
     }
 }
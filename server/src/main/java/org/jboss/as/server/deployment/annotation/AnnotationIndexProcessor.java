@@ -22,12 +22,14 @@
 
 package org.jboss.as.server.deployment.annotation;
 
+import java.util.concurrent.Executor;
+
+import org.jboss.as.server.deployment.Attachments;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
 import org.jboss.as.server.deployment.DeploymentUnitProcessor;
 import org.jboss.as.server.deployment.DeploymentUtils;
-import org.jboss.as.server.deployment.module.ResourceRoot;
 
 /**
  * Deployment unit processor responsible for creating and attaching an annotation index for a resource root
@@ -37,6 +39,23 @@ import org.jboss.as.server.deployment.module.ResourceRoot;
  */
 public class AnnotationIndexProcessor implements DeploymentUnitProcessor {
 
+    private final ResourceRootIndexCache cache;
+    private final Executor executor;
+
+    public AnnotationIndexProcessor() {
+        this(null, null);
+    }
+
+    /**
+     * @param cache the cache of the indexes of the resource roots, or {@code null} to index them on every deployment
+     * @param executor the executor to index the resource roots in parallel with, or {@code null} to index them on the
+     *                 deployment thread
+     */
+    public AnnotationIndexProcessor(final ResourceRootIndexCache cache, final Executor executor) {
+        this.cache = cache;
+        this.executor = executor;
+    }
+
     /**
      * Process this deployment for annotations.  This will use an annotation indexer to create an index of all annotations
      * found in this deployment and attach it to the deployment unit context.
@@ -47,11 +66,14 @@ public class AnnotationIndexProcessor implements DeploymentUnitProcessor {
      */
     public void deploy(DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
         final DeploymentUnit deploymentUnit = phaseContext.getDeploymentUnit();
-        for (ResourceRoot resourceRoot : DeploymentUtils.allResourceRoots(deploymentUnit)) {
-            ResourceRootIndexer.indexResourceRoot(resourceRoot);
+        if (cache != null && deploymentUnit.getParent() == null) {
+            deploymentUnit.putAttachment(Attachments.ANNOTATION_INDEX_CACHE, cache);
+            deploymentUnit.putAttachment(Attachments.ANNOTATION_INDEX_CACHE_STATISTICS, new ResourceRootIndexCache.Statistics());
         }
+        ResourceRootIndexer.indexResourceRoots(DeploymentUtils.allResourceRoots(deploymentUnit), deploymentUnit, executor);
     }
 
     public void undeploy(final DeploymentUnit context) {
+        context.removeAttachment(Attachments.ANNOTATION_INDEX_CACHE);
     }
 }
@@ -0,0 +1,335 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.annotation;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jboss.as.controller.HashUtil;
+import org.jboss.as.server.ServerLogger;
+import org.jboss.jandex.Index;
+import org.jboss.jandex.IndexReader;
+import org.jboss.jandex.IndexWriter;
+import org.jboss.vfs.VFSUtils;
+import org.jboss.vfs.VirtualFile;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * An on-disk cache of the annotation indexes of resource roots, shared by all deployments and kept across restarts.
+ * <p/>
+ * An index is keyed by a digest of the names, sizes and CRC-32 checksums of the contents of the class files of its
+ * resource root, so a class changed in place, even with the same size and modification time, gets a new index, and
+ * the same library jar has the same key in every deployment it is packaged in. Computing the checksums reads the
+ * class files, but does not parse them, which is what the cache saves.
+ * <p/>
+ * The total size of the cached indexes is bounded, the least recently used ones are evicted first. The time of the
+ * last use of an index is the modification time of its file.
+ */
+public final class ResourceRootIndexCache {
+
+    /** The maximum size of the cache in megabytes, {@code 0} disables it. */
+    public static final String MAX_SIZE_PROPERTY = "jboss.as.deployment.annotation-index-cache-size";
+
+    private static final long DEFAULT_MAX_SIZE = 128;
+    private static final String SUFFIX = ".idx";
+    private static final String TEMP_SUFFIX = ".tmp";
+    // changes whenever the key or the file format changes
+    private static final String KEY_VERSION = "3";
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final File directory;
+    private final long maxSize;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong timeSaved = new AtomicLong();
+    private long size;
+
+    /**
+     * Creates the cache in the given directory, with the size set by the {@link #MAX_SIZE_PROPERTY} system property.
+     *
+     * @param directory the directory
+     * @return the cache, or {@code null} if it is disabled
+     */
+    public static ResourceRootIndexCache create(final File directory) {
+        long maxSize;
+        try {
+            maxSize = Long.parseLong(WildFlySecurityManager.getPropertyPrivileged(MAX_SIZE_PROPERTY, String.valueOf(DEFAULT_MAX_SIZE)));
+        } catch (NumberFormatException ignored) {
+            maxSize = DEFAULT_MAX_SIZE;
+        }
+        if (maxSize <= 0) {
+            return null;
+        }
+        return new ResourceRootIndexCache(directory, maxSize * 1024 * 1024);
+    }
+
+    ResourceRootIndexCache(final File directory, final long maxSize) {
+        this.directory = directory;
+        this.maxSize = maxSize;
+        final File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (file.getName().endsWith(SUFFIX)) {
+                    size += file.length();
+                } else if (file.getName().endsWith(TEMP_SUFFIX)) {
+                    // left over by a write which did not complete
+                    file.delete();
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates the key of the index of a resource root.
+     *
+     * @param root the resource root
+     * @param classFiles the class files of the resource root to index
+     * @param ignorePaths the paths of the resource root which are not indexed, or {@code null}
+     * @return the key, or {@code null} if a class file cannot be read
+     */
+    static String createKey(final VirtualFile root, final Collection<VirtualFile> classFiles, final Collection<String> ignorePaths) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        digest.update(KEY_VERSION.getBytes(UTF_8));
+        if (ignorePaths != null) {
+            final String[] paths = ignorePaths.toArray(new String[ignorePaths.size()]);
+            Arrays.sort(paths);
+            for (String path : paths) {
+                digest.update((byte) 0);
+                digest.update(path.getBytes(UTF_8));
+            }
+        }
+        final Map<String, VirtualFile> entries = new TreeMap<String, VirtualFile>();
+        for (VirtualFile classFile : classFiles) {
+            entries.put(classFile.getPathNameRelativeTo(root), classFile);
+        }
+        final byte[] buffer = new byte[8192];
+        for (Map.Entry<String, VirtualFile> entry : entries.entrySet()) {
+            digest.update((byte) 1);
+            digest.update(entry.getKey().getBytes(UTF_8));
+            digest.update((byte) 0);
+            long size = 0;
+            InputStream in = null;
+            try {
+                in = entry.getValue().openStream();
+                int read;
+                while ((read = in.read(buffer)) > -1) {
+                    digest.update(buffer, 0, read);
+                    size += read;
+                }
+            } catch (IOException e) {
+                // the indexing reports it
+                ServerLogger.DEPLOYMENT_LOGGER.debugf(e, "Could not read %s", entry.getValue());
+                return null;
+            } finally {
+                VFSUtils.safeClose(in);
+            }
+            // the size ends the entry, so that the contents of one class file cannot pass for the start of the next
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                digest.update((byte) (size >>> shift));
+            }
+        }
+        return HashUtil.bytesToHexString(digest.digest());
+    }
+
+    /**
+     * Gets a cached index.
+     *
+     * @param key the key of the index
+     * @param statistics the statistics of the deployment to record the lookup in, or {@code null}
+     * @return the index, or {@code null} if it is not cached
+     */
+    Index get(final String key, final Statistics statistics) {
+        final File file = new File(directory, key + SUFFIX);
+        if (file.isFile()) {
+            final long start = System.nanoTime();
+            long indexingTime = 0;
+            Index index = null;
+            DataInputStream in = null;
+            try {
+                in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+                indexingTime = in.readLong();
+                index = new IndexReader(in).read();
+            } catch (Exception e) {
+                ServerLogger.DEPLOYMENT_LOGGER.debugf(e, "Could not read cached annotation index %s", file);
+            } finally {
+                VFSUtils.safeClose(in);
+            }
+            if (index != null) {
+                file.setLastModified(System.currentTimeMillis());
+                final long saved = Math.max(0, indexingTime - (System.nanoTime() - start));
+                hits.incrementAndGet();
+                timeSaved.addAndGet(saved);
+                if (statistics != null) {
+                    statistics.hits.incrementAndGet();
+                    statistics.timeSaved.addAndGet(saved);
+                }
+                return index;
+            }
+            remove(file);
+        }
+        misses.incrementAndGet();
+        if (statistics != null) {
+            statistics.misses.incrementAndGet();
+        }
+        return null;
+    }
+
+    /**
+     * Adds an index to the cache, evicting the least recently used ones if the cache gets too large.
+     *
+     * @param key the key of the index
+     * @param index the index
+     * @param indexingTime the time it took to create the index in nanoseconds
+     */
+    void put(final String key, final Index index, final long indexingTime) {
+        final File file = new File(directory, key + SUFFIX);
+        final File temp;
+        DataOutputStream out = null;
+        try {
+            directory.mkdirs();
+            temp = File.createTempFile(key, TEMP_SUFFIX, directory);
+            out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)));
+            out.writeLong(indexingTime);
+            new IndexWriter(out).write(index);
+            out.close();
+            out = null;
+        } catch (IOException e) {
+            ServerLogger.DEPLOYMENT_LOGGER.debugf(e, "Could not cache annotation index %s", file);
+            return;
+        } finally {
+            VFSUtils.safeClose(out);
+        }
+        synchronized (this) {
+            if (file.exists() || !temp.renameTo(file)) {
+                // cached concurrently by another deployment
+                temp.delete();
+                return;
+            }
+            size += file.length();
+            if (size > maxSize) {
+                evict();
+            }
+        }
+    }
+
+    private void evict() {
+        final File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        // the times are read once, the hits update them concurrently
+        final Map<File, Long> lastModified = new HashMap<File, Long>();
+        for (File file : files) {
+            if (file.getName().endsWith(SUFFIX)) {
+                lastModified.put(file, file.lastModified());
+            }
+        }
+        final List<File> indexes = new ArrayList<File>(lastModified.keySet());
+        Collections.sort(indexes, new Comparator<File>() {
+            @Override
+            public int compare(final File a, final File b) {
+                return lastModified.get(a).compareTo(lastModified.get(b));
+            }
+        });
+        for (int i = 0; i < indexes.size() && size > maxSize; i++) {
+            remove(indexes.get(i));
+        }
+    }
+
+    private synchronized void remove(final File file) {
+        final long length = file.length();
+        if (file.delete()) {
+            size -= length;
+        }
+    }
+
+    synchronized long getSize() {
+        return size;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @return the time the cached indexes saved, in milliseconds
+     */
+    public long getTimeSaved() {
+        return TimeUnit.NANOSECONDS.toMillis(timeSaved.get());
+    }
+
+    /**
+     * The lookups of the indexes of the resource roots of a deployment.
+     */
+    public static final class Statistics {
+
+        private final AtomicLong hits = new AtomicLong();
+        private final AtomicLong misses = new AtomicLong();
+        private final AtomicLong timeSaved = new AtomicLong();
+
+        public long getHits() {
+            return hits.get();
+        }
+
+        public long getMisses() {
+            return misses.get();
+        }
+
+        /**
+         * @return the time the cached indexes saved, in milliseconds
+         */
+        public long getTimeSaved() {
+            return TimeUnit.NANOSECONDS.toMillis(timeSaved.get());
+        }
+    }
+}
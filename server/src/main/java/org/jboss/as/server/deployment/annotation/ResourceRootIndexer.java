@@ -23,16 +23,32 @@
 package org.jboss.as.server.deployment.annotation;
 
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.jboss.as.server.ServerLogger;
 import org.jboss.as.server.ServerMessages;
 import org.jboss.as.server.deployment.Attachments;
+import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
+import org.jboss.as.server.deployment.DeploymentUtils;
 import org.jboss.as.server.deployment.module.ResourceRoot;
 import org.jboss.as.server.moduleservice.ModuleIndexBuilder;
+import org.jboss.jandex.AnnotationInstance;
+import org.jboss.jandex.ClassInfo;
+import org.jboss.jandex.DotName;
 import org.jboss.jandex.Index;
 import org.jboss.jandex.IndexReader;
 import org.jboss.jandex.Indexer;
@@ -41,18 +57,100 @@ import org.jboss.vfs.VirtualFile;
 import org.jboss.vfs.VirtualFileFilter;
 import org.jboss.vfs.VisitorAttributes;
 import org.jboss.vfs.util.SuffixMatchFilter;
+import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  * Utility class for indexing a resource root
  */
 public class ResourceRootIndexer {
 
+    /** The maximum number of threads indexing the resource roots of a deployment. */
+    public static final String PARALLELISM_PROPERTY = "jboss.as.deployment.annotation-index-parallelism";
+
+    // the number of class files indexed by a task
+    private static final int CHUNK_SIZE = 128;
+
+    private static final int PARALLELISM;
+
+    static {
+        final int processors = Runtime.getRuntime().availableProcessors();
+        int parallelism;
+        try {
+            parallelism = Integer.parseInt(WildFlySecurityManager.getPropertyPrivileged(PARALLELISM_PROPERTY, String.valueOf(processors)));
+        } catch (NumberFormatException ignored) {
+            parallelism = processors;
+        }
+        PARALLELISM = Math.max(1, parallelism);
+    }
+
     /**
      * Creates and attaches the annotation index to a resource root, if it has not already been attached
      */
     public static void indexResourceRoot(final ResourceRoot resourceRoot) throws DeploymentUnitProcessingException {
+        indexResourceRoot(resourceRoot, null);
+    }
+
+    /**
+     * Creates and attaches the annotation index to a resource root, if it has not already been attached. The index is
+     * taken from, or added to, the {@link ResourceRootIndexCache} of the deployment, if it has one.
+     *
+     * @param resourceRoot the resource root
+     * @param deploymentUnit the deployment unit the resource root belongs to, or {@code null}
+     */
+    public static void indexResourceRoot(final ResourceRoot resourceRoot, final DeploymentUnit deploymentUnit) throws DeploymentUnitProcessingException {
+        indexResourceRoots(Collections.singletonList(resourceRoot), deploymentUnit, null);
+    }
+
+    /**
+     * Creates and attaches the annotation indexes to resource roots, like {@link #indexResourceRoot(ResourceRoot, DeploymentUnit)}.
+     * <p/>
+     * The class files of all the roots are split in chunks, which are indexed in parallel by the calling thread and up
+     * to {@link #PARALLELISM_PROPERTY} - 1 tasks of the executor. The indexes of the chunks of a root are then merged.
+     *
+     * @param resourceRoots the resource roots
+     * @param deploymentUnit the deployment unit the resource roots belong to, or {@code null}
+     * @param executor the executor to index the chunks with, or {@code null} to index them on the calling thread
+     */
+    public static void indexResourceRoots(final Collection<ResourceRoot> resourceRoots, final DeploymentUnit deploymentUnit, final Executor executor) throws DeploymentUnitProcessingException {
+        try {
+            // on a single thread, the roots are not split
+            final int chunkSize = executor == null ? Integer.MAX_VALUE : CHUNK_SIZE;
+            final List<PendingIndex> pendingIndexes = new ArrayList<PendingIndex>();
+            final List<Chunk> chunks = new ArrayList<Chunk>();
+            for (ResourceRoot resourceRoot : resourceRoots) {
+                final PendingIndex pending = prepare(resourceRoot, deploymentUnit, chunkSize);
+                if (pending != null) {
+                    pendingIndexes.add(pending);
+                    for (int i = 0; i < pending.indexes.length; i++) {
+                        final int from = i * chunkSize;
+                        chunks.add(new Chunk(pending, i, pending.classFiles.subList(from, Math.min(from + chunkSize, pending.classFiles.size()))));
+                    }
+                }
+            }
+            indexChunks(chunks, executor);
+            for (PendingIndex pending : pendingIndexes) {
+                final Index index = pending.indexes.length == 1 ? pending.indexes[0] : merge(pending.indexes);
+                pending.resourceRoot.putAttachment(Attachments.ANNOTATION_INDEX, index);
+                if (pending.cacheKey != null) {
+                    pending.cache.put(pending.cacheKey, index, pending.indexingTime.get());
+                }
+                ServerLogger.DEPLOYMENT_LOGGER.tracef("Generated index for archive %s", pending.resourceRoot.getRoot());
+            }
+        } catch (DeploymentUnitProcessingException e) {
+            throw e;
+        } catch (Throwable t) {
+            throw ServerMessages.MESSAGES.deploymentIndexingFailed(t);
+        }
+    }
+
+    /**
+     * Attaches the index of a resource root if it is packaged with it or cached, otherwise lists its class files.
+     *
+     * @return the index to create, or {@code null} if the resource root is not to be indexed
+     */
+    private static PendingIndex prepare(final ResourceRoot resourceRoot, final DeploymentUnit deploymentUnit, final int chunkSize) {
         if (resourceRoot.getAttachment(Attachments.ANNOTATION_INDEX) != null) {
-            return;
+            return null;
         }
 
         VirtualFile indexFile = resourceRoot.getRoot().getChild(ModuleIndexBuilder.INDEX_LOCATION);
@@ -61,7 +159,7 @@ public class ResourceRootIndexer {
                 IndexReader reader = new IndexReader(indexFile.openStream());
                 resourceRoot.putAttachment(Attachments.ANNOTATION_INDEX, reader.read());
                 ServerLogger.DEPLOYMENT_LOGGER.tracef("Found and read index at: %s", indexFile);
-                return;
+                return null;
             } catch (Exception e) {
                 ServerLogger.DEPLOYMENT_LOGGER.cannotLoadAnnotationIndex(indexFile.getPathName());
             }
@@ -70,7 +168,7 @@ public class ResourceRootIndexer {
         // if this flag is present and set to false then do not index the resource
         Boolean shouldIndexResource = resourceRoot.getAttachment(Attachments.INDEX_RESOURCE_ROOT);
         if (shouldIndexResource != null && !shouldIndexResource) {
-            return;
+            return null;
         }
 
         final List<String> indexIgnorePathList = resourceRoot.getAttachment(Attachments.INDEX_IGNORE_PATHS);
@@ -82,18 +180,148 @@ public class ResourceRootIndexer {
         }
 
         final VirtualFile virtualFile = resourceRoot.getRoot();
-        final Indexer indexer = new Indexer();
+        final VisitorAttributes visitorAttributes = new VisitorAttributes();
+        visitorAttributes.setLeavesOnly(true);
+        visitorAttributes.setRecurseFilter(new VirtualFileFilter() {
+            public boolean accepts(VirtualFile file) {
+                return indexIgnorePaths == null || !indexIgnorePaths.contains(file.getPathNameRelativeTo(virtualFile));
+            }
+        });
+
+        final List<VirtualFile> classChildren = virtualFile.getChildren(new SuffixMatchFilter(".class", visitorAttributes));
+        final DeploymentUnit topLevelDeployment = deploymentUnit == null ? null : DeploymentUtils.getTopDeploymentUnit(deploymentUnit);
+        final ResourceRootIndexCache cache = topLevelDeployment == null ? null : topLevelDeployment.getAttachment(Attachments.ANNOTATION_INDEX_CACHE);
+        String key = null;
+        if (cache != null && !classChildren.isEmpty()) {
+            key = ResourceRootIndexCache.createKey(virtualFile, classChildren, indexIgnorePaths);
+            final Index cached = key == null ? null : cache.get(key, topLevelDeployment.getAttachment(Attachments.ANNOTATION_INDEX_CACHE_STATISTICS));
+            if (cached != null) {
+                resourceRoot.putAttachment(Attachments.ANNOTATION_INDEX, cached);
+                ServerLogger.DEPLOYMENT_LOGGER.tracef("Found cached index for archive %s", virtualFile);
+                return null;
+            }
+        }
+        final int chunkCount = Math.max(1, classChildren.size() / chunkSize + (classChildren.size() % chunkSize == 0 ? 0 : 1));
+        return new PendingIndex(resourceRoot, classChildren, cache, key, chunkCount);
+    }
+
+    /**
+     * Indexes the chunks on the calling thread and on the executor. Every thread takes the next chunk until there are
+     * none left, so the calling thread only waits for the chunks the other threads are already indexing, and a task
+     * the executor runs late, or rejects, does not hold up the deployment.
+     */
+    private static void indexChunks(final List<Chunk> chunks, final Executor executor) throws DeploymentUnitProcessingException {
+        final AtomicInteger next = new AtomicInteger();
+        final CountDownLatch done = new CountDownLatch(chunks.size());
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        final Runnable worker = new Runnable() {
+            @Override
+            public void run() {
+                int i;
+                while ((i = next.getAndIncrement()) < chunks.size()) {
+                    try {
+                        chunks.get(i).index();
+                    } catch (Throwable t) {
+                        failure.compareAndSet(null, t);
+                    } finally {
+                        done.countDown();
+                    }
+                }
+            }
+        };
+        if (executor != null) {
+            final int helpers = Math.min(PARALLELISM, chunks.size()) - 1;
+            try {
+                for (int i = 0; i < helpers; i++) {
+                    executor.execute(worker);
+                }
+            } catch (RejectedExecutionException ignored) {
+                // the chunks are indexed by the threads which are already running
+            }
+        }
+        worker.run();
         try {
-            final VisitorAttributes visitorAttributes = new VisitorAttributes();
-            visitorAttributes.setLeavesOnly(true);
-            visitorAttributes.setRecurseFilter(new VirtualFileFilter() {
-                public boolean accepts(VirtualFile file) {
-                    return indexIgnorePaths == null || !indexIgnorePaths.contains(file.getPathNameRelativeTo(virtualFile));
+            done.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw ServerMessages.MESSAGES.deploymentIndexingFailed(e);
+        }
+        if (failure.get() != null) {
+            throw ServerMessages.MESSAGES.deploymentIndexingFailed(failure.get());
+        }
+    }
+
+    /**
+     * Merges the indexes of the chunks of a resource root into a single index, as if its classes were indexed by a
+     * single {@link Indexer}.
+     */
+    private static Index merge(final Index[] indexes) {
+        final Map<DotName, List<AnnotationInstance>> annotations = new HashMap<DotName, List<AnnotationInstance>>();
+        final Map<DotName, List<ClassInfo>> subclasses = new HashMap<DotName, List<ClassInfo>>();
+        final Map<DotName, List<ClassInfo>> implementors = new HashMap<DotName, List<ClassInfo>>();
+        final Map<DotName, ClassInfo> classes = new HashMap<DotName, ClassInfo>();
+        for (Index index : indexes) {
+            for (ClassInfo classInfo : index.getKnownClasses()) {
+                classes.put(classInfo.name(), classInfo);
+                for (Map.Entry<DotName, List<AnnotationInstance>> entry : classInfo.annotations().entrySet()) {
+                    getList(annotations, entry.getKey()).addAll(entry.getValue());
+                }
+                if (classInfo.superName() != null) {
+                    getList(subclasses, classInfo.superName()).add(classInfo);
                 }
-            });
+                for (DotName interfaceName : classInfo.interfaces()) {
+                    getList(implementors, interfaceName).add(classInfo);
+                }
+            }
+        }
+        return Index.create(annotations, subclasses, implementors, classes);
+    }
+
+    private static <T> List<T> getList(final Map<DotName, List<T>> map, final DotName name) {
+        List<T> list = map.get(name);
+        if (list == null) {
+            list = new ArrayList<T>();
+            map.put(name, list);
+        }
+        return list;
+    }
+
+    private static final class PendingIndex {
+
+        private final ResourceRoot resourceRoot;
+        private final List<VirtualFile> classFiles;
+        private final ResourceRootIndexCache cache;
+        private final String cacheKey;
+        private final Index[] indexes;
+        // the sum of the times it took to index the chunks, which is the time a cached index saves a single thread
+        private final AtomicLong indexingTime = new AtomicLong();
+
+        private PendingIndex(final ResourceRoot resourceRoot, final List<VirtualFile> classFiles, final ResourceRootIndexCache cache, final String cacheKey, final int chunkCount) {
+            this.resourceRoot = resourceRoot;
+            this.classFiles = classFiles;
+            this.cache = cache;
+            this.cacheKey = cacheKey;
+            this.indexes = new Index[chunkCount];
+        }
+    }
+
+    private static final class Chunk {
+
+        private final PendingIndex pending;
+        private final int slot;
+        private final List<VirtualFile> classFiles;
 
-            final List<VirtualFile> classChildren = virtualFile.getChildren(new SuffixMatchFilter(".class", visitorAttributes));
-            for (VirtualFile classFile : classChildren) {
+        private Chunk(final PendingIndex pending, final int slot, final List<VirtualFile> classFiles) {
+            this.pending = pending;
+            this.slot = slot;
+            this.classFiles = classFiles;
+        }
+
+        private void index() {
+            final long start = System.nanoTime();
+            final VirtualFile virtualFile = pending.resourceRoot.getRoot();
+            final Indexer indexer = new Indexer();
+            for (VirtualFile classFile : classFiles) {
                 InputStream inputStream = null;
                 try {
                     inputStream = classFile.openStream();
@@ -104,11 +332,9 @@ public class ResourceRootIndexer {
                     VFSUtils.safeClose(inputStream);
                 }
             }
-            final Index index = indexer.complete();
-            resourceRoot.putAttachment(Attachments.ANNOTATION_INDEX, index);
-            ServerLogger.DEPLOYMENT_LOGGER.tracef("Generated index for archive %s", virtualFile);
-        } catch (Throwable t) {
-            throw ServerMessages.MESSAGES.deploymentIndexingFailed(t);
+            // the chunks write to distinct slots, and the latch publishes them to the merging thread
+            pending.indexes[slot] = indexer.complete();
+            pending.indexingTime.addAndGet(System.nanoTime() - start);
         }
     }
 }
@@ -23,18 +23,19 @@
 package org.jboss.as.server.deployment.reflect;
 
 import java.security.Permission;
-import java.util.HashMap;
-import java.util.Map;
-
-import org.jboss.as.server.ServerMessages;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * A reflection index for a deployment.
+ * <p/>
+ * The index is safe for concurrent use by the deployment threads. The index of a class is created without any lock, and
+ * reflects on the members of the class the first time they are looked up.
  *
  * @author <a href="mailto:david.lloyd@redhat.com">David M. Lloyd</a>
  */
 public final class DeploymentReflectionIndex {
-    private final Map<Class<?>, ClassReflectionIndex<?>> classes = new HashMap<Class<?>, ClassReflectionIndex<?>>();
+    private final ConcurrentMap<Class<?>, ClassReflectionIndex<?>> classes = new ConcurrentHashMap<Class<?>, ClassReflectionIndex<?>>();
 
     DeploymentReflectionIndex() {
     }
@@ -61,15 +62,16 @@ public final class DeploymentReflectionIndex {
      * @return the index
      */
     @SuppressWarnings({"unchecked"})
-    public synchronized <T> ClassReflectionIndex<T> getClassIndex(Class<T> clazz) {
-        try {
-            ClassReflectionIndex<T> index = (ClassReflectionIndex<T>) classes.get(clazz);
+    public <T> ClassReflectionIndex<T> getClassIndex(Class<T> clazz) {
+        ClassReflectionIndex<T> index = (ClassReflectionIndex<T>) classes.get(clazz);
+        if (index == null) {
+            // creating an index is cheap, the one which is not put is discarded before it reflects on anything
+            final ClassReflectionIndex<T> newIndex = new ClassReflectionIndex<T>(clazz, this);
+            index = (ClassReflectionIndex<T>) classes.putIfAbsent(clazz, newIndex);
             if (index == null) {
-                classes.put(clazz, index = new ClassReflectionIndex<T>(clazz, this));
+                index = newIndex;
             }
-            return index;
-        } catch (Throwable e) {
-            throw ServerMessages.MESSAGES.errorGettingReflectiveInformation(clazz, clazz.getClassLoader(), e);
         }
+        return index;
     }
 }
@@ -34,6 +34,7 @@ import org.jboss.as.controller.OperationStepHandler;
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.registry.Resource;
+import org.jboss.as.repository.ChunkedContentRepository;
 import org.jboss.as.repository.ContentRepository;
 import org.jboss.as.server.ServerMessages;
 import org.jboss.dmr.ModelNode;
@@ -64,6 +65,10 @@ public class ReadContentHandler implements OperationStepHandler {
             context.getResult().set(readFile(file));
         } catch (IOException e) {
             throw ServerMessages.MESSAGES.failedToLoadFile(file, e);
+        } finally {
+            if (contentRepository instanceof ChunkedContentRepository) {
+                ((ChunkedContentRepository) contentRepository).releaseContent(content);
+            }
         }
 
         context.stepCompleted();
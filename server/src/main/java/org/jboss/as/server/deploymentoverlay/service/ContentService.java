@@ -22,6 +22,7 @@
 
 package org.jboss.as.server.deploymentoverlay.service;
 
+import org.jboss.as.repository.ChunkedContentRepository;
 import org.jboss.as.repository.ContentRepository;
 import org.jboss.msc.service.Service;
 import org.jboss.msc.service.ServiceName;
@@ -43,6 +44,7 @@ public class ContentService implements Service<ContentService> {
 
     private final String path;
     private final byte[] contentHash;
+    private volatile VirtualFile content;
 
     public ContentService(final String path, final byte[] contentHash) {
         this.path = path;
@@ -52,12 +54,19 @@ public class ContentService implements Service<ContentService> {
 
     @Override
     public void start(final StartContext context) throws StartException {
+        content = contentRepositoryInjectedValue.getValue().getContent(contentHash);
         deploymentOverlayServiceInjectedValue.getValue().addContentService(this);
     }
 
     @Override
     public void stop(final StopContext context) {
         deploymentOverlayServiceInjectedValue.getValue().removeContentService(this);
+        // the repository may drop the copy of the content it made for the overlay
+        content = null;
+        final ContentRepository contentRepository = contentRepositoryInjectedValue.getValue();
+        if (contentRepository instanceof ChunkedContentRepository) {
+            ((ChunkedContentRepository) contentRepository).releaseContent(contentHash);
+        }
     }
 
     @Override
@@ -66,7 +75,7 @@ public class ContentService implements Service<ContentService> {
     }
 
     public VirtualFile getContentHash() {
-        return contentRepositoryInjectedValue.getValue().getContent(contentHash);
+        return content;
     }
 
     public String getPath() {
@@ -71,6 +71,7 @@ import java.util.concurrent.ExecutorService;
 import javax.xml.XMLConstants;
 import javax.xml.stream.XMLStreamException;
 
+import org.jboss.as.controller.ConfigurationWriteMetricsHandler;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.extension.ExtensionRegistry;
 import org.jboss.as.controller.operations.common.Util;
@@ -88,6 +89,7 @@ import org.jboss.as.domain.management.parsing.AuditLogXml;
 import org.jboss.as.domain.management.parsing.ManagementXml;
 import org.jboss.as.server.controller.resources.DeploymentAttributes;
 import org.jboss.as.server.controller.resources.ServerRootResourceDefinition;
+import org.jboss.as.server.deployment.ChunkedContentAttributeHandler;
 import org.jboss.as.server.mgmt.HttpManagementResourceDefinition;
 import org.jboss.as.server.mgmt.NativeManagementResourceDefinition;
 import org.jboss.dmr.ModelNode;
@@ -386,6 +388,7 @@ public class StandaloneXml extends CommonXml {
         parseNamespaces(reader, address, list);
 
         ModelNode serverName = null;
+        ModelNode chunkedContent = null;
 
         // attributes
         final int count = reader.getAttributeCount();
@@ -399,6 +402,13 @@ public class StandaloneXml extends CommonXml {
                             serverName = ServerRootResourceDefinition.NAME.parse(value, reader);
                             break;
                         }
+                        case CHUNKED_CONTENT: {
+                            if (namespace == Namespace.DOMAIN_1_4) {
+                                throw unexpectedAttribute(reader, i);
+                            }
+                            chunkedContent = ChunkedContentAttributeHandler.CHUNKED_CONTENT.parse(value, reader);
+                            break;
+                        }
                         default:
                             throw unexpectedAttribute(reader, i);
                     }
@@ -426,6 +436,9 @@ public class StandaloneXml extends CommonXml {
         }
 
         setServerName(address, list, serverName);
+        if (chunkedContent != null) {
+            list.add(Util.getWriteAttributeOperation(address, ChunkedContentAttributeHandler.CHUNKED_CONTENT.getName(), chunkedContent));
+        }
 
         // elements - sequence
 
@@ -1167,6 +1180,7 @@ public class StandaloneXml extends CommonXml {
         if (modelNode.hasDefined(NAME)) {
             ServerRootResourceDefinition.NAME.marshallAsAttribute(modelNode, false, writer);
         }
+        ChunkedContentAttributeHandler.CHUNKED_CONTENT.marshallAsAttribute(modelNode, false, writer);
 
         writer.writeDefaultNamespace(Namespace.CURRENT.getUriString());
         writeNamespaces(writer, modelNode);
@@ -1296,6 +1310,29 @@ public class StandaloneXml extends CommonXml {
     private class ManagementXmlDelegate extends ManagementXml.Delegate {
         AuditLogXml auditLogDelegate = new AuditLogXml(false);
 
+        @Override
+        protected void parseManagementAttributes(final XMLExtendedStreamReader reader, final ModelNode address, final Namespace expectedNs,
+                                                 final List<ModelNode> list) throws XMLStreamException {
+            final int count = reader.getAttributeCount();
+            for (int i = 0; i < count; i++) {
+
+                final String value = reader.getAttributeValue(i);
+                if (!isNoNamespaceAttribute(reader, i)) {
+                    throw ParseUtils.unexpectedAttribute(reader, i);
+                }
+
+                final Attribute attribute = Attribute.forName(reader.getAttributeLocalName(i));
+                if (attribute == Attribute.CONFIGURATION_WRITE_COALESCE_WINDOW) {
+                    ModelNode window = ConfigurationWriteMetricsHandler.COALESCE_WINDOW.parse(value, reader);
+                    ModelNode op = Util.getWriteAttributeOperation(address, ConfigurationWriteMetricsHandler.COALESCE_WINDOW.getName(), window);
+
+                    list.add(op);
+                } else {
+                    throw unexpectedAttribute(reader, i);
+                }
+            }
+        }
+
         @Override
         public void parseManagementInterfaces(final XMLExtendedStreamReader reader, final ModelNode address, final Namespace expectedNs,
                                               final List<ModelNode> list) throws XMLStreamException {
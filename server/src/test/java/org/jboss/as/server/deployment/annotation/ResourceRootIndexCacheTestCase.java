@@ -0,0 +1,224 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.annotation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.jboss.jandex.DotName;
+import org.jboss.jandex.Index;
+import org.jboss.jandex.Indexer;
+import org.jboss.vfs.VFS;
+import org.jboss.vfs.VirtualFile;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests {@link ResourceRootIndexCache}
+ */
+public class ResourceRootIndexCacheTestCase {
+
+    private static final DotName NAME = DotName.createSimple(ResourceRootIndexCacheTestCase.class.getName());
+
+    private File directory;
+
+    @Before
+    public void createDirectory() throws IOException {
+        directory = File.createTempFile("annotation-index", "");
+        directory.delete();
+        directory.mkdirs();
+    }
+
+    @After
+    public void deleteDirectory() {
+        delete(directory);
+    }
+
+    @Test
+    public void testPutAndGet() throws IOException {
+        final ResourceRootIndexCache cache = new ResourceRootIndexCache(new File(directory, "cache"), 1024 * 1024);
+        final ResourceRootIndexCache.Statistics statistics = new ResourceRootIndexCache.Statistics();
+        assertNull(cache.get("a", statistics));
+        cache.put("a", createIndex(), 1000000000L);
+        final Index index = cache.get("a", statistics);
+        assertNotNull(index);
+        assertNotNull(index.getClassByName(NAME));
+        assertEquals(1, statistics.getHits());
+        assertEquals(1, statistics.getMisses());
+        assertTrue(statistics.getTimeSaved() > 0);
+        assertEquals(1, cache.getHits());
+
+        // the cache survives a restart
+        final ResourceRootIndexCache restarted = new ResourceRootIndexCache(new File(directory, "cache"), 1024 * 1024);
+        assertEquals(cache.getSize(), restarted.getSize());
+        assertNotNull(restarted.get("a", null));
+    }
+
+    @Test
+    public void testCorruptIndex() throws IOException {
+        final File cacheDirectory = new File(directory, "cache");
+        final ResourceRootIndexCache cache = new ResourceRootIndexCache(cacheDirectory, 1024 * 1024);
+        cache.put("a", createIndex(), 0);
+        final FileOutputStream out = new FileOutputStream(new File(cacheDirectory, "a.idx"));
+        try {
+            out.write(new byte[] {1, 2, 3});
+        } finally {
+            out.close();
+        }
+        assertNull(cache.get("a", null));
+        assertFalse(new File(cacheDirectory, "a.idx").exists());
+    }
+
+    @Test
+    public void testEviction() throws Exception {
+        final File cacheDirectory = new File(directory, "cache");
+        final Index index = createIndex();
+        final ResourceRootIndexCache sizing = new ResourceRootIndexCache(new File(directory, "sizing"), Long.MAX_VALUE);
+        sizing.put("a", index, 0);
+        final long indexSize = sizing.getSize();
+
+        final ResourceRootIndexCache cache = new ResourceRootIndexCache(cacheDirectory, 2 * indexSize);
+        cache.put("a", index, 0);
+        new File(cacheDirectory, "a.idx").setLastModified(System.currentTimeMillis() - 20000);
+        cache.put("b", index, 0);
+        new File(cacheDirectory, "b.idx").setLastModified(System.currentTimeMillis() - 10000);
+        // a hit makes a the most recently used
+        assertNotNull(cache.get("a", null));
+        cache.put("c", index, 0);
+        assertEquals(2 * indexSize, cache.getSize());
+        assertNotNull(cache.get("a", null));
+        assertNull(cache.get("b", null));
+        assertNotNull(cache.get("c", null));
+    }
+
+    @Test
+    public void testKey() throws Exception {
+        final File rootDirectory = new File(directory, "root");
+        final File classFile = new File(rootDirectory, "org/acme/Foo.class");
+        classFile.getParentFile().mkdirs();
+        write(classFile, new byte[] {1, 2, 3});
+        final VirtualFile root = VFS.getChild(rootDirectory.getAbsolutePath());
+        final List<VirtualFile> classFiles = Collections.singletonList(root.getChild("org/acme/Foo.class"));
+
+        final String key = ResourceRootIndexCache.createKey(root, classFiles, null);
+        assertEquals(key, ResourceRootIndexCache.createKey(root, classFiles, null));
+        assertFalse(key.equals(ResourceRootIndexCache.createKey(root, classFiles, Collections.singleton("org/acme"))));
+        write(classFile, new byte[] {1, 2, 3, 4});
+        assertFalse(key.equals(ResourceRootIndexCache.createKey(root, classFiles, null)));
+    }
+
+    /**
+     * A class changed in place, with the same size and modification time, as a reproducible build produces them.
+     */
+    @Test
+    public void testKeyOfChangedContent() throws Exception {
+        final File rootDirectory = new File(directory, "root");
+        final File classFile = new File(rootDirectory, "org/acme/Foo.class");
+        classFile.getParentFile().mkdirs();
+        write(classFile, new byte[] {1, 2, 3});
+        final long lastModified = 1000000000000L;
+        classFile.setLastModified(lastModified);
+        final VirtualFile root = VFS.getChild(rootDirectory.getAbsolutePath());
+        final List<VirtualFile> classFiles = Collections.singletonList(root.getChild("org/acme/Foo.class"));
+
+        final String key = ResourceRootIndexCache.createKey(root, classFiles, null);
+        write(classFile, new byte[] {1, 2, 4});
+        classFile.setLastModified(lastModified);
+        assertEquals(3, classFiles.get(0).getSize());
+        assertEquals(lastModified, classFiles.get(0).getLastModified());
+        assertFalse(key.equals(ResourceRootIndexCache.createKey(root, classFiles, null)));
+
+        // the same content elsewhere has the same key
+        final File otherDirectory = new File(directory, "other");
+        final File otherClassFile = new File(otherDirectory, "org/acme/Foo.class");
+        otherClassFile.getParentFile().mkdirs();
+        write(otherClassFile, new byte[] {1, 2, 4});
+        final VirtualFile other = VFS.getChild(otherDirectory.getAbsolutePath());
+        assertEquals(ResourceRootIndexCache.createKey(root, classFiles, null),
+                ResourceRootIndexCache.createKey(other, Collections.singletonList(other.getChild("org/acme/Foo.class")), null));
+    }
+
+    @Test
+    public void testKeyOfMovedContent() throws Exception {
+        final File rootDirectory = new File(directory, "root");
+        final File bar = new File(rootDirectory, "org/acme/Bar.class");
+        final File foo = new File(rootDirectory, "org/acme/Foo.class");
+        foo.getParentFile().mkdirs();
+        write(bar, new byte[] {1, 2});
+        write(foo, new byte[] {3});
+        final VirtualFile root = VFS.getChild(rootDirectory.getAbsolutePath());
+        final List<VirtualFile> classFiles = Arrays.asList(root.getChild("org/acme/Bar.class"), root.getChild("org/acme/Foo.class"));
+
+        final String key = ResourceRootIndexCache.createKey(root, classFiles, null);
+        final List<VirtualFile> reversed = new ArrayList<VirtualFile>(classFiles);
+        Collections.reverse(reversed);
+        assertEquals(key, ResourceRootIndexCache.createKey(root, reversed, null));
+        // the same bytes in the same order, split differently between the class files
+        write(bar, new byte[] {1});
+        write(foo, new byte[] {2, 3});
+        assertFalse(key.equals(ResourceRootIndexCache.createKey(root, classFiles, null)));
+    }
+
+    private static Index createIndex() throws IOException {
+        final Indexer indexer = new Indexer();
+        final InputStream in = ResourceRootIndexCacheTestCase.class.getResourceAsStream(ResourceRootIndexCacheTestCase.class.getSimpleName() + ".class");
+        try {
+            indexer.index(in);
+        } finally {
+            in.close();
+        }
+        return indexer.complete();
+    }
+
+    private static void write(final File file, final byte[] bytes) throws IOException {
+        final FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(bytes);
+        } finally {
+            out.close();
+        }
+    }
+
+    private static void delete(final File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
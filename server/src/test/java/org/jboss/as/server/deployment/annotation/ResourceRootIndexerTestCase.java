@@ -0,0 +1,101 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.annotation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.Closeable;
+import java.io.File;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.jboss.as.server.deployment.Attachments;
+import org.jboss.as.server.deployment.module.ResourceRoot;
+import org.jboss.jandex.ClassInfo;
+import org.jboss.jandex.DotName;
+import org.jboss.jandex.Index;
+import org.jboss.vfs.TempFileProvider;
+import org.jboss.vfs.VFS;
+import org.jboss.vfs.VFSUtils;
+import org.jboss.vfs.VirtualFile;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests that {@link ResourceRootIndexer} creates the same indexes when it indexes the resource roots in parallel.
+ */
+public class ResourceRootIndexerTestCase {
+
+    private ScheduledExecutorService tempFileExecutor;
+    private TempFileProvider tempFileProvider;
+    private Closeable mount;
+    private VirtualFile jar;
+    private ExecutorService executor;
+
+    @Before
+    public void mountJar() throws Exception {
+        // the junit jar has enough classes to be split in chunks
+        final File file = new File(Test.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        tempFileExecutor = Executors.newSingleThreadScheduledExecutor();
+        tempFileProvider = TempFileProvider.create("test", tempFileExecutor);
+        jar = VFS.getChild("junit.jar");
+        mount = VFS.mountZip(file, jar, tempFileProvider);
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @After
+    public void unmountJar() {
+        executor.shutdown();
+        VFSUtils.safeClose(mount);
+        VFSUtils.safeClose(tempFileProvider);
+        tempFileExecutor.shutdown();
+    }
+
+    @Test
+    public void testParallelIndex() throws Exception {
+        final ResourceRoot sequential = new ResourceRoot(jar, null);
+        ResourceRootIndexer.indexResourceRoot(sequential);
+        final ResourceRoot parallel = new ResourceRoot(jar, null);
+        final ResourceRoot empty = new ResourceRoot(jar.getChild("META-INF"), null);
+        ResourceRootIndexer.indexResourceRoots(Arrays.asList(parallel, empty), null, executor);
+
+        final Index expected = sequential.getAttachment(Attachments.ANNOTATION_INDEX);
+        final Index actual = parallel.getAttachment(Attachments.ANNOTATION_INDEX);
+        assertTrue(expected.getKnownClasses().size() > 128);
+        assertEquals(expected.getKnownClasses().size(), actual.getKnownClasses().size());
+        for (ClassInfo classInfo : expected.getKnownClasses()) {
+            final DotName name = classInfo.name();
+            assertEquals(classInfo.toString(), actual.getClassByName(name).toString());
+            assertEquals(expected.getKnownDirectSubclasses(name).size(), actual.getKnownDirectSubclasses(name).size());
+            assertEquals(expected.getKnownDirectImplementors(name).size(), actual.getKnownDirectImplementors(name).size());
+            for (DotName annotation : classInfo.annotations().keySet()) {
+                assertEquals(expected.getAnnotations(annotation).size(), actual.getAnnotations(annotation).size());
+            }
+        }
+        assertEquals(0, empty.getAttachment(Attachments.ANNOTATION_INDEX).getKnownClasses().size());
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.reflect;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link DeploymentReflectionIndex}
+ */
+public class DeploymentReflectionIndexTestCase {
+
+    private static final int THREADS = 8;
+
+    @Test
+    public void testClassIndex() throws Exception {
+        final ClassReflectionIndex<Bean> index = DeploymentReflectionIndex.create().getClassIndex(Bean.class);
+        assertSame(Bean.class, index.getIndexedClass());
+        assertNotNull(index.getField("name"));
+        assertNull(index.getField("missing"));
+        assertEquals(2, index.getFields().size());
+        final Method method = index.getMethod(String.class, "getName");
+        assertNotNull(method);
+        assertSame(method, index.getMethod("java.lang.String", "getName", new String[0]));
+        assertSame(method, index.getMethod(Bean.class.getDeclaredMethod("getName")));
+        assertEquals(1, index.getMethods("setName", String.class).size());
+        assertEquals(2, index.getAllMethods("setName").size());
+        assertEquals(1, index.getAllMethods("setName", 2).size());
+        assertEquals(3, index.getMethods().size());
+        assertEquals(2, index.getConstructors().size());
+        assertNotNull(index.getConstructor(String.class));
+        assertNotNull(index.getConstructor("java.lang.String"));
+        assertNull(index.getConstructor(Integer.class));
+    }
+
+    @Test
+    public void testConcurrentClassIndex() throws Exception {
+        final DeploymentReflectionIndex deploymentIndex = DeploymentReflectionIndex.create();
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            final List<Future<ClassReflectionIndex<Bean>>> futures = new ArrayList<Future<ClassReflectionIndex<Bean>>>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(new Callable<ClassReflectionIndex<Bean>>() {
+                    @Override
+                    public ClassReflectionIndex<Bean> call() throws Exception {
+                        start.await();
+                        final ClassReflectionIndex<Bean> index = deploymentIndex.getClassIndex(Bean.class);
+                        assertNotNull(index.getMethod(String.class, "getName"));
+                        assertNotNull(index.getField("name"));
+                        return index;
+                    }
+                }));
+            }
+            start.countDown();
+            final ClassReflectionIndex<Bean> index = futures.get(0).get();
+            for (Future<ClassReflectionIndex<Bean>> future : futures) {
+                // every thread sees the same index, and the same members
+                assertSame(index, future.get());
+            }
+            assertSame(index.getMethod(String.class, "getName"), deploymentIndex.getClassIndex(Bean.class).getMethod(String.class, "getName"));
+            assertTrue(index.getField("name").isAccessible());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @SuppressWarnings("unused")
+    static class Bean {
+
+        private String name;
+        private int count;
+
+        Bean() {
+        }
+
+        Bean(final String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(final String name) {
+            this.name = name;
+        }
+
+        public void setName(final String name, final int count) {
+            this.name = name;
+            this.count = count;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.dmr.ModelNode;
+import org.jboss.logging.Logger;
+import org.jboss.msc.service.ServiceBuilder;
+import org.jboss.msc.service.ServiceContainer;
+import org.jboss.msc.service.ServiceName;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Logs the throughput of read-only operations executed by a growing number of threads, while another thread keeps
+ * writing to the model. The reads run against the published model and do not wait for the controller lock, so their
+ * throughput should grow with the number of threads.
+ */
+public class ReadOnlyOperationBenchmarkTestCase {
+
+    private static final Logger logger = Logger.getLogger(ReadOnlyOperationBenchmarkTestCase.class);
+
+    private static final PathAddress CHILD_ONE = PathAddress.pathAddress(PathElement.pathElement("child", "one"));
+
+    private static final long DURATION = TimeUnit.SECONDS.toMillis(5);
+
+    private ServiceContainer container;
+    private ModelController controller;
+
+    @Before
+    public void setupController() throws InterruptedException {
+        container = ServiceContainer.Factory.create("test");
+        ModelControllerImplUnitTestCase.ModelControllerService svc = new ModelControllerImplUnitTestCase.ModelControllerService();
+        ServiceBuilder<ModelController> builder = container.subTarget().addService(ServiceName.of("ModelController"), svc);
+        builder.install();
+        svc.awaitStartup(30, TimeUnit.SECONDS);
+        controller = svc.getValue();
+        controller.execute(Util.getEmptyOperation("setup", new ModelNode()), null, null, null);
+    }
+
+    @After
+    public void shutdownServiceContainer() throws InterruptedException {
+        if (container != null) {
+            container.shutdown();
+            container.awaitTermination(5, TimeUnit.SECONDS);
+            container = null;
+        }
+    }
+
+    @Test
+    public void testReadThroughput() throws Exception {
+        for (int threads = 1; threads <= 2 * Runtime.getRuntime().availableProcessors(); threads *= 2) {
+            final AtomicBoolean running = new AtomicBoolean(true);
+            final AtomicLong reads = new AtomicLong();
+            final AtomicLong writes = new AtomicLong();
+            final CountDownLatch done = new CountDownLatch(threads + 1);
+            for (int i = 0; i < threads; i++) {
+                new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        final ModelNode operation = ModelControllerImplUnitTestCase.getOperation("read-attribute", CHILD_ONE, "attribute1", 1);
+                        while (running.get()) {
+                            assertEquals(SUCCESS, controller.execute(operation, null, null, null).get(OUTCOME).asString());
+                            reads.incrementAndGet();
+                        }
+                        done.countDown();
+                    }
+                }).start();
+            }
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    int value = 0;
+                    while (running.get()) {
+                        final ModelNode operation = ModelControllerImplUnitTestCase.getOperation("good", "attr1", value++);
+                        assertEquals(SUCCESS, controller.execute(operation, null, null, null).get(OUTCOME).asString());
+                        writes.incrementAndGet();
+                    }
+                    done.countDown();
+                }
+            }).start();
+            Thread.sleep(DURATION);
+            running.set(false);
+            assertTrue(done.await(30, TimeUnit.SECONDS));
+            logger.infof("%d reading threads, %d reads/s, %d writes/s", threads,
+                    reads.get() * 1000 / DURATION, writes.get() * 1000 / DURATION);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.jboss.as.controller.persistence;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.logging.Logger;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Logs the time to load a large configuration, when it is parsed and when the operations are read from the boot cache.
+ */
+public class BootOperationCacheBenchmarkTestCase {
+
+    private static final Logger logger = Logger.getLogger(BootOperationCacheBenchmarkTestCase.class);
+
+    private static final int ITEMS = 20000;
+
+    private static final int ROUNDS = 10;
+
+    private final File configuration = new File("target", "boot-cache-benchmark.xml");
+    private final File cache = new File(new File("target", "boot-cache"), "boot-cache-benchmark.xml");
+
+    @After
+    public void deleteFiles() {
+        System.clearProperty("jboss.config.boot-cache");
+        configuration.delete();
+        cache.delete();
+    }
+
+    @Test
+    public void testLoadTime() throws Exception {
+        BootOperationCacheTestCase.writeConfiguration(configuration, ITEMS);
+        System.setProperty("jboss.config.boot-cache", "true");
+        for (int round = 0; round < ROUNDS; round++) {
+            cache.delete();
+            final long parsed = load();
+            Assert.assertTrue(cache.exists());
+            final long cached = load();
+            logger.infof("Loaded %d operations from %d bytes of XML in %d ms when parsed, %d ms from the cache", ITEMS,
+                    configuration.length(), TimeUnit.NANOSECONDS.toMillis(parsed), TimeUnit.NANOSECONDS.toMillis(cached));
+        }
+    }
+
+    private long load() throws Exception {
+        final XmlConfigurationPersister persister = new XmlConfigurationPersister(configuration, BootOperationCacheTestCase.ROOT,
+                new BootOperationCacheTestCase.ItemParser(), null);
+        persister.setBootCacheFile(cache);
+        final long start = System.nanoTime();
+        Assert.assertEquals(ITEMS, persister.load().size());
+        return System.nanoTime() - start;
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.registry;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.PathElement;
+import org.jboss.logging.Logger;
+import org.junit.Test;
+
+/**
+ * Logs the latency of a write to a model of growing size, done the way an operation does it: clone the root,
+ * update one resource and publish the result. The model is either published, so the clone copies only the resources
+ * on the path to the updated one, or not, so the clone copies every resource.
+ */
+public class ResourceCloneBenchmarkTestCase {
+
+    private static final Logger logger = Logger.getLogger(ResourceCloneBenchmarkTestCase.class);
+
+    private static final int SUBSYSTEMS = 50;
+
+    private static final int ATTRIBUTES = 10;
+
+    private static final int WRITES = 1000;
+
+    @Test
+    public void testWriteLatency() {
+        for (int children : new int[]{10, 100, 1000}) {
+            final long copyOnWrite = this.write(children, true);
+            final long fullCopy = this.write(children, false);
+            logger.infof("%d resources, a write takes %d us with copy on write, %d us with a full copy", SUBSYSTEMS * (children + 1),
+                    TimeUnit.NANOSECONDS.toMicros(copyOnWrite), TimeUnit.NANOSECONDS.toMicros(fullCopy));
+        }
+    }
+
+    /**
+     * @return the average time of a write in nanoseconds
+     */
+    private long write(final int children, final boolean publish) {
+        final Random random = new Random(42);
+        Resource model = this.createModel(children);
+        if (publish) {
+            Resource.Tools.freeze(model);
+        }
+        final long start = System.nanoTime();
+        for (int i = 0; i < WRITES; i++) {
+            final Resource update = model.clone();
+            final Resource child = update.requireChild(PathElement.pathElement("subsystem", "s" + random.nextInt(SUBSYSTEMS)))
+                    .requireChild(PathElement.pathElement("child", "c" + random.nextInt(children)));
+            child.getModel().get("attribute0").set(i);
+            if (publish) {
+                Resource.Tools.freeze(update);
+            }
+            model = update;
+        }
+        final long time = (System.nanoTime() - start) / WRITES;
+        assertEquals(SUBSYSTEMS, model.getChildren("subsystem").size());
+        return time;
+    }
+
+    private Resource createModel(final int children) {
+        final Resource root = Resource.Factory.create();
+        for (int s = 0; s < SUBSYSTEMS; s++) {
+            final Resource subsystem = Resource.Factory.create();
+            root.registerChild(PathElement.pathElement("subsystem", "s" + s), subsystem);
+            for (int c = 0; c < children; c++) {
+                final Resource child = Resource.Factory.create();
+                for (int a = 0; a < ATTRIBUTES; a++) {
+                    child.getModel().get("attribute" + a).set("value" + a);
+                }
+                subsystem.registerChild(PathElement.pathElement("child", "c" + c), child);
+            }
+        }
+        return root;
+    }
+}
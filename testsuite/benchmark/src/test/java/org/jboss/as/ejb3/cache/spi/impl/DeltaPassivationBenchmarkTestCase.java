@@ -0,0 +1,144 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.cache.spi.impl;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.io.File;
+import java.util.Random;
+
+import org.jboss.as.ejb3.cache.Cacheable;
+import org.jboss.as.ejb3.cache.PassivationManager;
+import org.jboss.logging.Logger;
+import org.jboss.marshalling.MarshallingConfiguration;
+import org.junit.Test;
+
+/**
+ * Passivates and activates beans of 10KB to 1MB which change a few bytes between the passivations, and logs the
+ * bytes written per passivation by the {@link FilePersistentObjectStore} and the {@link DeltaFilePersistentObjectStore}.
+ */
+public class DeltaPassivationBenchmarkTestCase {
+
+    private static final Logger logger = Logger.getLogger(DeltaPassivationBenchmarkTestCase.class);
+
+    private static final int REQUESTS = 200;
+
+    private static final int CHANGES_PER_REQUEST = 4;
+
+    @Test
+    public void testBytesWritten() throws Exception {
+        for (int size : new int[]{10 * 1024, 100 * 1024, 1024 * 1024}) {
+            final long full = this.passivate(new FilePersistentObjectStore<String, Bean>(new BeanPassivationManager(), this.directory("full"), 1), size);
+            final long delta = this.passivate(new DeltaFilePersistentObjectStore<String, Bean>(new BeanPassivationManager(), this.directory("delta"), 1), size);
+            logger.infof("bean of %d bytes, %d bytes written per passivation as a whole, %d bytes as deltas", size, full / REQUESTS, delta / REQUESTS);
+        }
+    }
+
+    /**
+     * @return the number of bytes written to the store
+     */
+    private long passivate(final FilePersistentObjectStore<String, Bean> store, final int size) {
+        final Random random = new Random(42);
+        final Bean bean = new Bean("bean", size);
+        random.nextBytes(bean.state);
+        final File file = store.getFile(bean.getId());
+        final File deltaFile = new File(file.getParentFile(), bean.getId() + ".delta");
+        long written = 0;
+        store.start();
+        try {
+            Bean active = bean;
+            for (int request = 0; request < REQUESTS; request++) {
+                for (int i = 0; i < CHANGES_PER_REQUEST; i++) {
+                    active.state[random.nextInt(size)] = (byte) random.nextInt();
+                }
+                final long deltaLength = deltaFile.length();
+                store.store(active);
+                if (deltaFile.length() > deltaLength) {
+                    written += deltaFile.length() - deltaLength;
+                } else {
+                    written += file.length();
+                }
+                final byte[] expected = active.state;
+                active = store.load(bean.getId());
+                assertArrayEquals(expected, active.state);
+            }
+        } finally {
+            store.stop();
+        }
+        return written;
+    }
+
+    private String directory(final String name) {
+        return new File(System.getProperty("java.io.tmpdir"), "delta-passivation-" + name).getAbsolutePath();
+    }
+
+    static class Bean implements Cacheable<String> {
+        private static final long serialVersionUID = 1L;
+
+        private final String id;
+        final byte[] state;
+
+        Bean(final String id, final int size) {
+            this.id = id;
+            this.state = new byte[size];
+        }
+
+        @Override
+        public String getId() {
+            return this.id;
+        }
+
+        @Override
+        public boolean isModified() {
+            return true;
+        }
+    }
+
+    static class BeanPassivationManager implements PassivationManager<String, Bean> {
+
+        @Override
+        public int getCurrentMarshallingVersion() {
+            return 1;
+        }
+
+        @Override
+        public MarshallingConfiguration getMarshallingConfiguration(final int version) {
+            final MarshallingConfiguration config = new MarshallingConfiguration();
+            config.setVersion(3);
+            return config;
+        }
+
+        @Override
+        public void postActivate(final Bean obj) {
+        }
+
+        @Override
+        public void prePassivate(final Bean obj) {
+        }
+
+        @Override
+        public ClassLoader getClassLoader() {
+            return this.getClass().getClassLoader();
+        }
+    }
+}
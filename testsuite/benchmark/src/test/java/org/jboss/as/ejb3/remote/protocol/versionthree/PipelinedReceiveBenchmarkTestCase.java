@@ -0,0 +1,140 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.remote.protocol.versionthree;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.logging.Logger;
+import org.junit.Test;
+import org.xnio.BufferAllocator;
+import org.xnio.ByteBufferSlicePool;
+import org.xnio.Pool;
+
+/**
+ * Receives a stream of invocation requests on a single thread, like a channel does, and logs the throughput when
+ * the requests are unmarshalled on the receiving thread as in the version two of the protocol, and when they are
+ * read into pooled buffers and unmarshalled by the workers as in the version three.
+ */
+public class PipelinedReceiveBenchmarkTestCase {
+
+    private static final Logger logger = Logger.getLogger(PipelinedReceiveBenchmarkTestCase.class);
+
+    private static final int REQUESTS = 100000;
+
+    private static final int ROUNDS = 5;
+
+    private static final int WORKERS = 8;
+
+    @Test
+    public void testThroughput() throws Exception {
+        final byte[] request = this.createRequest();
+        final Pool<ByteBuffer> pool = new ByteBufferSlicePool(BufferAllocator.BYTE_BUFFER_ALLOCATOR, 8192, 64 * 8192);
+        final ExecutorService executorService = Executors.newFixedThreadPool(WORKERS);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                final long inline = this.receive(executorService, request, null);
+                final long pipelined = this.receive(executorService, request, pool);
+                logger.infof("%d requests of %d bytes, unmarshalled on the receiving thread %d/s, pipelined %d/s", REQUESTS,
+                        request.length, REQUESTS * TimeUnit.SECONDS.toNanos(1) / inline, REQUESTS * TimeUnit.SECONDS.toNanos(1) / pipelined);
+            }
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    /**
+     * @return the time in nanoseconds until all requests are unmarshalled
+     */
+    private long receive(final ExecutorService executorService, final byte[] request, final Pool<ByteBuffer> pool) throws Exception {
+        final CountDownLatch done = new CountDownLatch(REQUESTS);
+        final long start = System.nanoTime();
+        for (int i = 0; i < REQUESTS; i++) {
+            final InputStream inputStream = new ByteArrayInputStream(request);
+            if (pool == null) {
+                final Object[] unmarshalled = unmarshal(inputStream);
+                executorService.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (unmarshalled.length > 0) {
+                            done.countDown();
+                        }
+                    }
+                });
+            } else {
+                final PooledMessage message = PooledMessage.read(pool, inputStream);
+                executorService.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            if (unmarshal(message.getInputStream()).length > 0) {
+                                done.countDown();
+                            }
+                        } catch (Exception e) {
+                            throw new RuntimeException(e);
+                        } finally {
+                            message.free();
+                        }
+                    }
+                });
+            }
+        }
+        assertTrue(done.await(5, TimeUnit.MINUTES));
+        return System.nanoTime() - start;
+    }
+
+    private static Object[] unmarshal(final InputStream inputStream) throws IOException, ClassNotFoundException {
+        final ObjectInputStream input = new ObjectInputStream(inputStream);
+        return (Object[]) input.readObject();
+    }
+
+    private byte[] createRequest() throws IOException {
+        final List<String> names = new ArrayList<String>();
+        for (int i = 0; i < 20; i++) {
+            names.add("name" + i);
+        }
+        final Map<String, Object> attachments = new HashMap<String, Object>();
+        attachments.put("jboss.returned.keys", "private");
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final ObjectOutputStream output = new ObjectOutputStream(bytes);
+        output.writeObject(new Object[]{"app", "module", "", "Bean", "method", names, new Date(0), attachments});
+        output.close();
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timer.scheduler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.as.ejb3.timerservice.scheduler.TimingWheelScheduler;
+import org.jboss.as.ejb3.timerservice.spi.TimeoutScheduler.ScheduledTimeout;
+import org.jboss.logging.Logger;
+import org.junit.Test;
+
+/**
+ * Creates, cancels and fires a million timeouts on a {@link TimingWheelScheduler} and logs how long each phase took.
+ */
+public class TimingWheelSchedulerBenchmarkTestCase {
+
+    private static final Logger logger = Logger.getLogger(TimingWheelSchedulerBenchmarkTestCase.class);
+
+    private static final int TIMEOUTS = 1000000;
+
+    @Test
+    public void testCreateCancelFire() throws InterruptedException {
+        final TimingWheelScheduler scheduler = new TimingWheelScheduler(Executors.defaultThreadFactory());
+        scheduler.start();
+        try {
+            final AtomicInteger fired = new AtomicInteger();
+            final CountDownLatch latch = new CountDownLatch(TIMEOUTS / 2);
+            final Runnable task = new Runnable() {
+                @Override
+                public void run() {
+                    fired.incrementAndGet();
+                    latch.countDown();
+                }
+            };
+            final ScheduledTimeout[] timeouts = new ScheduledTimeout[TIMEOUTS];
+
+            final long created = System.nanoTime();
+            long start = created;
+            for (int i = 0; i < TIMEOUTS; i++) {
+                // spread the timeouts over the next five seconds
+                timeouts[i] = scheduler.schedule(task, 1000 + i % 4000);
+            }
+            logger.infof("Created %d timeouts in %d ms", TIMEOUTS, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+            start = System.nanoTime();
+            for (int i = 0; i < TIMEOUTS; i += 2) {
+                assertTrue(timeouts[i].cancel());
+            }
+            logger.infof("Cancelled %d timeouts in %d ms", TIMEOUTS / 2, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+            assertTrue(latch.await(60, TimeUnit.SECONDS));
+            logger.infof("Fired %d timeouts within %d ms of creating the first one", TIMEOUTS / 2,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - created));
+            assertEquals(TIMEOUTS / 2, fired.get());
+        } finally {
+            scheduler.stop();
+        }
+    }
+}
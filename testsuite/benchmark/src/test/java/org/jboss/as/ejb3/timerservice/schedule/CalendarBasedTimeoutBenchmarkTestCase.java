@@ -0,0 +1,95 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.schedule;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+
+import javax.ejb.ScheduleExpression;
+
+import org.jboss.logging.Logger;
+import org.junit.Test;
+
+/**
+ * Computes chains of timeouts for typical and for sparse schedules, once with the compiled schedule and once by
+ * walking the calendar fields, and logs the time per timeout.
+ */
+public class CalendarBasedTimeoutBenchmarkTestCase {
+
+    private static final Logger logger = Logger.getLogger(CalendarBasedTimeoutBenchmarkTestCase.class);
+
+    private static final int TIMEOUTS = 20000;
+
+    private static final int ROUNDS = 5;
+
+    @Test
+    public void testEveryFiveSeconds() {
+        this.benchmark(new ScheduleExpression().second("*/5").minute("*").hour("*"));
+    }
+
+    @Test
+    public void testWorkingDays() {
+        this.benchmark(new ScheduleExpression().second("0").minute("0").hour("9").dayOfWeek("Mon-Fri"));
+    }
+
+    @Test
+    public void testLeapDays() {
+        this.benchmark(new ScheduleExpression().second("0").minute("0").hour("0").dayOfMonth("29").month("Feb"));
+    }
+
+    @Test
+    public void testLastFridayOfNovember() {
+        this.benchmark(new ScheduleExpression().second("0").minute("0").hour("12").dayOfMonth("Last Fri").month("Nov"));
+    }
+
+    private void benchmark(ScheduleExpression schedule) {
+        final CalendarBasedTimeout timeout = new CalendarBasedTimeout(schedule);
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            final int compiled = this.chain(timeout, true);
+            final long compiledTime = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            final int byFields = this.chain(timeout, false);
+            final long byFieldsTime = System.nanoTime() - start;
+
+            assertEquals(byFields, compiled);
+            logger.infof("%s: %d timeouts, compiled %d ns/timeout, by fields %d ns/timeout", schedule, compiled,
+                    compiledTime / compiled, byFieldsTime / byFields);
+        }
+    }
+
+    private int chain(CalendarBasedTimeout timeout, boolean compiled) {
+        Calendar current = new GregorianCalendar(2013, Calendar.JANUARY, 1);
+        int count = 0;
+        while (count < TIMEOUTS) {
+            current = compiled ? timeout.getNextTimeout(current) : timeout.getNextTimeoutByFields(current);
+            if (current == null) {
+                break;
+            }
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.protocol.mgmt;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.protocol.mgmt.support.RemoteChannelPairSetup;
+import org.jboss.as.protocol.mgmt.support.RemotingChannelPairSetup;
+import org.jboss.as.protocol.mgmt.support.SimpleHandlers;
+import org.jboss.as.protocol.mgmt.support.SimpleHandlers.SimpleClient;
+import org.jboss.logging.Logger;
+import org.jboss.threads.AsyncFuture;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Sends rounds of requests over a local remoting connection and logs the throughput when each request waits for the
+ * previous one, when the requests of a round are sent in their own messages without waiting, and when they are
+ * sent in a {@link ManagementRequestBatch}, as when reading the state of many servers at once.
+ */
+public class ManagementRequestBatchBenchmarkTestCase {
+
+    private static final Logger logger = Logger.getLogger(ManagementRequestBatchBenchmarkTestCase.class);
+
+    private static final int ROUNDS = 2000;
+
+    private static final int REQUESTS_PER_ROUND = 50;
+
+    private static final int ITERATIONS = 5;
+
+    private RemotingChannelPairSetup channels;
+
+    @Before
+    public void start() throws Exception {
+        channels = new RemoteChannelPairSetup();
+        channels.setupRemoting(new SimpleHandlers.OperationHandler());
+        channels.startChannels();
+    }
+
+    @After
+    public void stop() throws Exception {
+        channels.stopChannels();
+        channels.shutdownRemoting();
+    }
+
+    @Test
+    public void testThroughput() throws Exception {
+        final SimpleClient client = SimpleClient.create(channels);
+        // ask the server whether it understands batches before anything is timed
+        Assert.assertTrue(client.createBatch().isBatching());
+        for (int iteration = 0; iteration < ITERATIONS; iteration++) {
+            final long sequential = this.sequential(client);
+            final long pipelined = this.pipelined(client);
+            final long batched = this.batched(client);
+            final long requests = (long) ROUNDS * REQUESTS_PER_ROUND;
+            logger.infof("%d rounds of %d requests, sequential %d/s, pipelined %d/s, batched %d/s", ROUNDS, REQUESTS_PER_ROUND,
+                    requests * TimeUnit.SECONDS.toNanos(1) / sequential, requests * TimeUnit.SECONDS.toNanos(1) / pipelined,
+                    requests * TimeUnit.SECONDS.toNanos(1) / batched);
+        }
+    }
+
+    private long sequential(final SimpleClient client) throws Exception {
+        final long start = System.nanoTime();
+        for (int round = 0; round < ROUNDS; round++) {
+            for (int i = 0; i < REQUESTS_PER_ROUND; i++) {
+                client.executeForResult(new SimpleHandlers.Request(SimpleHandlers.SIMPLE_REQUEST, i));
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    private long pipelined(final SimpleClient client) throws Exception {
+        final long start = System.nanoTime();
+        final List<AsyncFuture<Integer>> futures = new ArrayList<AsyncFuture<Integer>>(REQUESTS_PER_ROUND);
+        for (int round = 0; round < ROUNDS; round++) {
+            for (int i = 0; i < REQUESTS_PER_ROUND; i++) {
+                futures.add(client.execute(new SimpleHandlers.Request(SimpleHandlers.SIMPLE_REQUEST, i)));
+            }
+            await(futures);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private long batched(final SimpleClient client) throws Exception {
+        final long start = System.nanoTime();
+        final List<AsyncFuture<Integer>> futures = new ArrayList<AsyncFuture<Integer>>(REQUESTS_PER_ROUND);
+        for (int round = 0; round < ROUNDS; round++) {
+            final ManagementRequestBatch batch = client.createBatch();
+            for (int i = 0; i < REQUESTS_PER_ROUND; i++) {
+                futures.add(batch.executeRequest(new SimpleHandlers.Request(SimpleHandlers.SIMPLE_REQUEST, i), null).getResult());
+            }
+            batch.flush();
+            await(futures);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static void await(final List<AsyncFuture<Integer>> futures) throws Exception {
+        for (final AsyncFuture<Integer> future : futures) {
+            future.get();
+        }
+        futures.clear();
+    }
+}
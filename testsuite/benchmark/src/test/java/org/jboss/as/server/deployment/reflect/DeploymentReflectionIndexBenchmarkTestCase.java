@@ -0,0 +1,162 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.reflect;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.logging.Logger;
+import org.junit.Test;
+
+/**
+ * Looks up the members of the classes of a synthetic deployment of 10k classes from several threads, like the
+ * deployment threads processing the components of a deployment do, and logs the time it takes when the lookups are
+ * serialized on a single lock, as they were when {@link DeploymentReflectionIndex#getClassIndex(Class)} was
+ * synchronized, and when they are not.
+ */
+public class DeploymentReflectionIndexBenchmarkTestCase {
+
+    private static final Logger logger = Logger.getLogger(DeploymentReflectionIndexBenchmarkTestCase.class);
+
+    private static final int CLASSES = 10000;
+
+    private static final int ROUNDS = 5;
+
+    private static final int THREADS = 8;
+
+    @Test
+    public void testThroughput() throws Exception {
+        final byte[] bytes = this.readClass(DeploymentReflectionIndexTestCase.Bean.class);
+        final ExecutorService executorService = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                // new classes every round, so the JDK does not have their members cached
+                final long locked = this.lookup(executorService, this.defineClasses(bytes), new Object());
+                final long concurrent = this.lookup(executorService, this.defineClasses(bytes), null);
+                logger.infof("%d classes looked up by %d threads, with a global lock in %d ms, concurrently in %d ms", CLASSES,
+                        THREADS, TimeUnit.NANOSECONDS.toMillis(locked), TimeUnit.NANOSECONDS.toMillis(concurrent));
+            }
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    /**
+     * @return the time in nanoseconds until all threads looked up the members of all classes
+     */
+    private long lookup(final ExecutorService executorService, final List<Class<?>> classes, final Object lock) throws Exception {
+        final DeploymentReflectionIndex index = DeploymentReflectionIndex.create();
+        final CountDownLatch done = new CountDownLatch(THREADS);
+        final long start = System.nanoTime();
+        for (int i = 0; i < THREADS; i++) {
+            final int offset = i * CLASSES / THREADS;
+            executorService.execute(new Runnable() {
+                @Override
+                public void run() {
+                    // every thread starts with different classes, and then looks up those of the other threads
+                    for (int j = 0; j < CLASSES; j++) {
+                        final Class<?> clazz = classes.get((offset + j) % CLASSES);
+                        if (lock == null) {
+                            lookup(index, clazz);
+                        } else {
+                            synchronized (lock) {
+                                lookup(index, clazz);
+                            }
+                        }
+                    }
+                    done.countDown();
+                }
+            });
+        }
+        assertTrue(done.await(5, TimeUnit.MINUTES));
+        return System.nanoTime() - start;
+    }
+
+    private static void lookup(final DeploymentReflectionIndex index, final Class<?> clazz) {
+        final ClassReflectionIndex<?> classIndex = index.getClassIndex(clazz);
+        assertNotNull(classIndex.getMethod(String.class, "getName"));
+        assertNotNull(classIndex.getField("name"));
+        assertNotNull(classIndex.getConstructor(new Class<?>[0]));
+    }
+
+    private List<Class<?>> defineClasses(final byte[] bytes) throws ClassNotFoundException {
+        final List<Class<?>> classes = new ArrayList<Class<?>>(CLASSES);
+        for (int i = 0; i < CLASSES; i++) {
+            classes.add(new SingleClassLoader(DeploymentReflectionIndexTestCase.Bean.class.getName(), bytes).loadClass(DeploymentReflectionIndexTestCase.Bean.class.getName()));
+        }
+        return classes;
+    }
+
+    private byte[] readClass(final Class<?> clazz) throws IOException {
+        final String name = clazz.getName();
+        final InputStream in = clazz.getClassLoader().getResourceAsStream(name.replace('.', '/') + ".class");
+        try {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[4096];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Defines its own copy of a class, so every instance makes a distinct class of the deployment.
+     */
+    private static final class SingleClassLoader extends ClassLoader {
+
+        private final String name;
+        private final byte[] bytes;
+
+        private SingleClassLoader(final String name, final byte[] bytes) {
+            super(SingleClassLoader.class.getClassLoader());
+            this.name = name;
+            this.bytes = bytes;
+        }
+
+        @Override
+        protected synchronized Class<?> loadClass(final String name, final boolean resolve) throws ClassNotFoundException {
+            if (!this.name.equals(name)) {
+                return super.loadClass(name, resolve);
+            }
+            Class<?> clazz = findLoadedClass(name);
+            if (clazz == null) {
+                clazz = defineClass(name, bytes, 0, bytes.length);
+            }
+            return clazz;
+        }
+    }
+}